@@ -33,6 +33,8 @@ public final class BusinessConstants {
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static final class CreditCard {
         public static final int MAX_DAY_OF_MONTH = 31;
+        public static final String DEFAULT_OBLIGATION_CYCLES = "12";
+        public static final int MAX_OBLIGATION_CYCLES = 36;
     }
 
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -47,6 +49,9 @@ public final class BusinessConstants {
         public static final int PDF_TITLE_FONT_SIZE = 20;
         public static final int PDF_SUBTITLE_FONT_SIZE = 12;
         public static final int PDF_TABLE_WIDTH = 550;
+        public static final int STREAM_FETCH_SIZE = 500;
+        public static final int STREAM_BUFFER_BYTES = 64 * 1024;
+        public static final int EXCEL_ROW_ACCESS_WINDOW = 200;
     }
 
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
@@ -1,7 +1,11 @@
 package com.relyon.credflow.controller;
 
+import com.relyon.credflow.model.budget.BudgetRolloverResultDTO;
 import com.relyon.credflow.model.budget.BudgetTrackingDTO;
+import com.relyon.credflow.model.budget.BudgetTrendDTO;
+import com.relyon.credflow.model.budget.BudgetType;
 import com.relyon.credflow.model.user.AuthenticatedUser;
+import com.relyon.credflow.service.BudgetRolloverJob;
 import com.relyon.credflow.service.BudgetTrackingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class BudgetTrackingController {
 
     private final BudgetTrackingService budgetTrackingService;
+    private final BudgetRolloverJob budgetRolloverJob;
 
     @GetMapping
     @Operation(summary = "Track all budgets", description = "Returns tracking data for all budgets in a period with projections and warnings")
@@ -38,6 +44,28 @@ public class BudgetTrackingController {
         return ResponseEntity.ok(tracking);
     }
 
+    @GetMapping("/trend")
+    @Operation(summary = "Track budget trend", description = "Returns budgeted, rolled-over and spent values of one budget identity for each of the last N periods")
+    @ApiResponse(responseCode = "200", description = "Budget trend retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid budget identity or number of months")
+    public ResponseEntity<BudgetTrendDTO> trackBudgetTrend(
+            @Parameter(description = "Budget type", required = true)
+            @RequestParam BudgetType type,
+            @Parameter(description = "Category ID for category-specific budgets")
+            @RequestParam(required = false) Long categoryId,
+            @Parameter(description = "User ID for user-specific budgets")
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Last period of the trend in YYYY-MM format", required = true)
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth toPeriod,
+            @Parameter(description = "Number of periods, from 1 to 36")
+            @RequestParam(defaultValue = "12") int months,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        log.info("GET /budget-tracking/trend?type={}&toPeriod={}&months={} for account {}", type, toPeriod, months, user.getAccountId());
+        var trend = budgetTrackingService.trackBudgetTrend(type, categoryId, userId, toPeriod, months, user.getAccountId());
+        return ResponseEntity.ok(trend);
+    }
+
     @GetMapping("/{budgetId}")
     @Operation(summary = "Track specific budget", description = "Returns tracking data for a specific budget with projections and warnings")
     @ApiResponse(responseCode = "200", description = "Budget tracking data retrieved successfully")
@@ -64,4 +92,19 @@ public class BudgetTrackingController {
         budgetTrackingService.processRollover(fromPeriod, user.getAccountId());
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/rollover/all-accounts")
+    @PreAuthorize("@securityService.isPlatformAdmin(principal)")
+    @Operation(summary = "Run budget rollover for all accounts", description = "Runs the month-end budget rollover for every account with rollover-enabled budgets. Restricted to platform administrators")
+    @ApiResponse(responseCode = "200", description = "Rollover run completed")
+    @ApiResponse(responseCode = "403", description = "Caller is not a platform administrator")
+    @ApiResponse(responseCode = "409", description = "A rollover run is already in progress")
+    public ResponseEntity<BudgetRolloverResultDTO> processRolloverForAllAccounts(
+            @Parameter(description = "Period to rollover from in YYYY-MM format", required = true)
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth fromPeriod,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        log.info("POST /budget-tracking/rollover/all-accounts?fromPeriod={} by user {}", fromPeriod, user.getUserId());
+        return ResponseEntity.ok(budgetRolloverJob.runRollover(fromPeriod));
+    }
 }
@@ -1,11 +1,14 @@
 package com.relyon.credflow.controller;
 
 import static com.relyon.credflow.constant.BusinessConstants.Pagination.DEFAULT_PAGE_SIZE;
+import static com.relyon.credflow.constant.BusinessConstants.CreditCard.DEFAULT_OBLIGATION_CYCLES;
 
 import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.credit_card.CreditCardObligationDTO;
 import com.relyon.credflow.model.credit_card.CreditCardRequestDTO;
 import com.relyon.credflow.model.credit_card.CreditCardResponseDTO;
 import com.relyon.credflow.model.credit_card.CreditCardSelectDTO;
+import com.relyon.credflow.model.credit_card.CreditCardStatementDTO;
 import com.relyon.credflow.model.mapper.CreditCardMapper;
 import com.relyon.credflow.model.user.AuthenticatedUser;
 import com.relyon.credflow.service.CreditCardService;
@@ -50,6 +53,19 @@ public class CreditCardController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/obligations")
+    @Operation(summary = "List installment obligations", description = "Returns the installment value already committed on each credit card for its upcoming bills")
+    @ApiResponse(responseCode = "200", description = "Obligations retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid number of cycles")
+    public ResponseEntity<List<CreditCardObligationDTO>> getObligations(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = DEFAULT_OBLIGATION_CYCLES) int cycles) {
+
+        log.info("GET installment obligations for account {} ({} cycles)", user.getAccountId(), cycles);
+        var obligations = creditCardService.findObligations(user.getAccountId(), cycles);
+        return ResponseEntity.ok(obligations);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CreditCardResponseDTO> getCreditCardById(
             @PathVariable Long id,
@@ -60,6 +76,36 @@ public class CreditCardController {
         return ResponseEntity.ok(creditCard);
     }
 
+    @GetMapping("/{id}/statements")
+    @Operation(summary = "List credit card statements", description = "Returns the billing cycle statements of a credit card, most recent first")
+    @ApiResponse(responseCode = "200", description = "Statements retrieved successfully")
+    @ApiResponse(responseCode = "404", description = "Credit card not found or does not belong to account")
+    public ResponseEntity<org.springframework.data.domain.Page<CreditCardStatementDTO>> getStatements(
+            @PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
+
+        log.info("GET statements of credit card ID: {} for account {} (page={}, size={})", id, user.getAccountId(), page, size);
+        var statements = creditCardService.findStatements(id, user.getAccountId(), page, size);
+        return ResponseEntity.ok(statements);
+    }
+
+    @GetMapping("/{id}/obligations")
+    @Operation(summary = "Get credit card installment obligations", description = "Returns the installment value already committed on a credit card for its upcoming bills")
+    @ApiResponse(responseCode = "200", description = "Obligations retrieved successfully")
+    @ApiResponse(responseCode = "400", description = "Invalid number of cycles")
+    @ApiResponse(responseCode = "404", description = "Credit card not found or does not belong to account")
+    public ResponseEntity<CreditCardObligationDTO> getCreditCardObligations(
+            @PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = DEFAULT_OBLIGATION_CYCLES) int cycles) {
+
+        log.info("GET installment obligations of credit card ID: {} for account {} ({} cycles)", id, user.getAccountId(), cycles);
+        var obligations = creditCardService.findObligations(id, user.getAccountId(), cycles);
+        return ResponseEntity.ok(obligations);
+    }
+
     @PostMapping
     public ResponseEntity<CreditCardResponseDTO> create(
             @AuthenticationPrincipal AuthenticatedUser user,
@@ -1,10 +1,12 @@
 package com.relyon.credflow.controller;
 
+import com.relyon.credflow.model.export.ExportFormat;
 import com.relyon.credflow.model.transaction.TransactionFilter;
 import com.relyon.credflow.model.transaction.TransactionSource;
 import com.relyon.credflow.model.transaction.TransactionType;
 import com.relyon.credflow.model.user.AuthenticatedUser;
 import com.relyon.credflow.service.AdvancedExcelExportService;
+import com.relyon.credflow.service.ExportCacheService;
 import com.relyon.credflow.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -18,7 +20,9 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -26,6 +30,8 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/v1/export")
@@ -36,12 +42,13 @@ public class ExportController {
 
     private final ExportService exportService;
     private final AdvancedExcelExportService advancedExcelExportService;
+    private final ExportCacheService exportCacheService;
     private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
 
     @GetMapping("/csv")
     @Operation(summary = "Export transactions to CSV", description = "Returns transactions in CSV format for the specified date range. Supports optional filtering by categories, users, credit cards, transaction types, and more.")
-    @ApiResponse(responseCode = "200", description = "CSV file generated successfully")
-    public ResponseEntity<byte[]> exportCsv(
+    @ApiResponse(responseCode = "200", description = "CSV file streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportCsv(
             @Parameter(description = "Start date for export (required)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "End date for export (required)")
@@ -80,21 +87,75 @@ public class ExportController {
                 false
         );
 
-        var csv = exportService.exportToCsv(filter);
+        StreamingResponseBody csv = outputStream -> exportService.writeCsv(filter, outputStream);
 
         var filename = "transactions_" + startDate.format(FILE_DATE_FORMATTER) + "_" +
                 endDate.format(FILE_DATE_FORMATTER) + ".csv";
 
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
                 .body(csv);
     }
 
+    @GetMapping("/columnar")
+    @Operation(summary = "Export transactions in columnar binary format", description = "Returns transactions in the compact columnar encoding read by ColumnarExportReader, for analytics tooling. Same filters as the CSV export.")
+    @ApiResponse(responseCode = "200", description = "Columnar file streamed successfully")
+    public ResponseEntity<StreamingResponseBody> exportColumnar(
+            @Parameter(description = "Start date for export (required)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date for export (required)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "Filter by category IDs (optional)")
+            @RequestParam(required = false) List<Long> categoryIds,
+            @Parameter(description = "Filter by responsible user IDs (optional)")
+            @RequestParam(required = false) List<Long> responsibleUserIds,
+            @Parameter(description = "Filter by credit card IDs (optional)")
+            @RequestParam(required = false) List<Long> creditCardIds,
+            @Parameter(description = "Filter by transaction types (optional)")
+            @RequestParam(required = false) List<TransactionType> transactionTypes,
+            @Parameter(description = "Filter by transaction sources (optional)")
+            @RequestParam(required = false) List<TransactionSource> transactionSources,
+            @Parameter(description = "Minimum amount (optional)")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount (optional)")
+            @RequestParam(required = false) BigDecimal maxAmount,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        log.info("GET /export/columnar for account {} from {} to {}", user.getAccountId(), startDate, endDate);
+
+        var filter = new TransactionFilter(
+                user.getAccountId(),
+                startDate,
+                endDate,
+                null,
+                null,
+                minAmount,
+                maxAmount,
+                responsibleUserIds,
+                categoryIds,
+                creditCardIds,
+                transactionTypes,
+                transactionSources,
+                false
+        );
+
+        StreamingResponseBody columnar = outputStream -> exportService.writeColumnar(filter, outputStream);
+
+        var filename = "transactions_" + startDate.format(FILE_DATE_FORMATTER) + "_" +
+                endDate.format(FILE_DATE_FORMATTER) + "." + ExportFormat.COLUMNAR.getExtension();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(ExportFormat.COLUMNAR.getContentType()))
+                .body(columnar);
+    }
+
     @GetMapping("/pdf")
     @Operation(summary = "Export transactions to PDF", description = "Returns transactions in PDF format for the specified date range. Supports optional filtering by categories, users, credit cards, transaction types, and more.")
-    @ApiResponse(responseCode = "200", description = "PDF file generated successfully")
-    public ResponseEntity<byte[]> exportPdf(
+    @ApiResponse(responseCode = "200", description = "PDF file generated or served from cache")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the PDF identified by If-None-Match")
+    public ResponseEntity<StreamingResponseBody> exportPdf(
             @Parameter(description = "Start date for export (required)")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "End date for export (required)")
@@ -113,7 +174,8 @@ public class ExportController {
             @RequestParam(required = false) BigDecimal minAmount,
             @Parameter(description = "Maximum amount (optional)")
             @RequestParam(required = false) BigDecimal maxAmount,
-            @AuthenticationPrincipal AuthenticatedUser user) throws IOException {
+            @AuthenticationPrincipal AuthenticatedUser user,
+            WebRequest request) {
 
         log.info("GET /export/pdf for account {} from {} to {}", user.getAccountId(), startDate, endDate);
 
@@ -133,15 +195,11 @@ public class ExportController {
                 false
         );
 
-        var pdf = exportService.exportToPdf(filter);
-
         var filename = "transactions_" + startDate.format(FILE_DATE_FORMATTER) + "_" +
                 endDate.format(FILE_DATE_FORMATTER) + ".pdf";
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.APPLICATION_PDF)
-                .body(pdf);
+        return cachedExport(ExportFormat.PDF, filter, filename, request,
+                outputStream -> exportService.writePdf(filter, outputStream));
     }
 
     @GetMapping("/excel")
@@ -172,8 +230,9 @@ public class ExportController {
                     Supports filtering by categories, users, credit cards, transaction types, sources, and amount range.
                     """
     )
-    @ApiResponse(responseCode = "200", description = "Excel file generated successfully")
-    public ResponseEntity<byte[]> exportExcel(
+    @ApiResponse(responseCode = "200", description = "Excel file generated or served from cache")
+    @ApiResponse(responseCode = "304", description = "Data unchanged since the report identified by If-None-Match")
+    public ResponseEntity<StreamingResponseBody> exportExcel(
             @Parameter(description = "Start date for export (optional - if not provided, exports from the beginning)")
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @Parameter(description = "End date for export (optional - if not provided, exports until today)")
@@ -192,7 +251,8 @@ public class ExportController {
             @RequestParam(required = false) BigDecimal minAmount,
             @Parameter(description = "Maximum amount (optional)")
             @RequestParam(required = false) BigDecimal maxAmount,
-            @AuthenticationPrincipal AuthenticatedUser user) throws IOException {
+            @AuthenticationPrincipal AuthenticatedUser user,
+            WebRequest request) {
 
         var effectiveStartDate = startDate != null ? startDate : LocalDate.of(1900, 1, 1);
         var effectiveEndDate = endDate != null ? endDate : LocalDate.now();
@@ -215,17 +275,13 @@ public class ExportController {
                 false
         );
 
-        var excel = advancedExcelExportService.exportToExcel(filter);
-
         var filename = startDate == null && endDate == null
                 ? "credflow_report_completo.xlsx"
                 : "credflow_report_" + effectiveStartDate.format(FILE_DATE_FORMATTER) + "_" +
                 effectiveEndDate.format(FILE_DATE_FORMATTER) + ".xlsx";
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-                .body(excel);
+        return cachedExport(ExportFormat.EXCEL, filter, filename, request,
+                outputStream -> advancedExcelExportService.writeExcel(filter, outputStream));
     }
 
     @GetMapping("/excel/simple")
@@ -280,4 +336,30 @@ public class ExportController {
                 .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
                 .body(excel);
     }
+
+    /**
+     * Answers 304 when the client already holds the artifact of the account's current data, otherwise streams it
+     * from the export cache. A missing artifact is sent to the client while it is generated into the cache.
+     */
+    private ResponseEntity<StreamingResponseBody> cachedExport(ExportFormat format, TransactionFilter filter,
+                                                               String filename, WebRequest request,
+                                                               ExportCacheService.ArtifactWriter writer) {
+        var key = exportCacheService.key(format, filter);
+        var cacheControl = CacheControl.noCache().cachePrivate();
+        if (request.checkNotModified(key.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(key.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        StreamingResponseBody artifact = outputStream -> exportCacheService.write(key, writer, outputStream);
+
+        return ResponseEntity.ok()
+                .eTag(key.etag())
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(artifact);
+    }
 }
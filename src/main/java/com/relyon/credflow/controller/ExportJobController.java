@@ -0,0 +1,75 @@
+package com.relyon.credflow.controller;
+
+import com.relyon.credflow.model.export.ExportJobDTO;
+import com.relyon.credflow.model.export.ExportJobRequestDTO;
+import com.relyon.credflow.model.user.AuthenticatedUser;
+import com.relyon.credflow.service.ExportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/v1/export/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Export Jobs", description = "Background generation of large exports")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    @Operation(
+            summary = "Submit export job",
+            description = "Starts generating an export in the background and returns the job. Identical submissions made while a job is still running return that job."
+    )
+    @ApiResponse(responseCode = "202", description = "Export job accepted")
+    @ApiResponse(responseCode = "503", description = "Export queue is full")
+    public ResponseEntity<ExportJobDTO> submitExportJob(
+            @Valid @RequestBody ExportJobRequestDTO request,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        log.info("POST /export/jobs ({}) for account {}", request.getFormat(), user.getAccountId());
+        var result = exportJobService.submit(user.getAccountId(), request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(result);
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get export job", description = "Returns the status of an export job and, once completed, its download link")
+    @ApiResponse(responseCode = "200", description = "Export job found")
+    @ApiResponse(responseCode = "404", description = "Export job not found or expired")
+    public ResponseEntity<ExportJobDTO> getExportJob(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        log.info("GET /export/jobs/{} for account {}", jobId, user.getAccountId());
+        return ResponseEntity.ok(exportJobService.findJob(user.getAccountId(), jobId));
+    }
+
+    @GetMapping("/{jobId}/file")
+    @Operation(summary = "Download export file", description = "Downloads the file generated by a completed export job until the job expires")
+    @ApiResponse(responseCode = "200", description = "Export file downloaded")
+    @ApiResponse(responseCode = "404", description = "Export job not found, expired or failed")
+    @ApiResponse(responseCode = "409", description = "Export job has not completed")
+    public ResponseEntity<Resource> downloadExportFile(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        log.info("GET /export/jobs/{}/file for account {}", jobId, user.getAccountId());
+        var file = exportJobService.findFile(user.getAccountId(), jobId);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.fileName() + "\"")
+                .contentType(MediaType.parseMediaType(file.format().getContentType()))
+                .body(new FileSystemResource(file.path()));
+    }
+}
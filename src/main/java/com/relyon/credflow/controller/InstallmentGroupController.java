@@ -1,5 +1,7 @@
 package com.relyon.credflow.controller;
 
+import static com.relyon.credflow.constant.BusinessConstants.Pagination.DEFAULT_PAGE_SIZE;
+
 import com.relyon.credflow.model.transaction.InstallmentGroupRequestDTO;
 import com.relyon.credflow.model.transaction.InstallmentGroupResponseDTO;
 import com.relyon.credflow.model.transaction.InstallmentGroupSummaryDTO;
@@ -10,9 +12,9 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
-import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -47,14 +49,16 @@ public class InstallmentGroupController {
     @GetMapping
     @Operation(
             summary = "List all installment groups",
-            description = "Retrieves a summary of all installment groups for the authenticated account"
+            description = "Retrieves a page of installment group summaries for the authenticated account, most recent first"
     )
     @ApiResponse(responseCode = "200", description = "Installment groups retrieved successfully")
-    public ResponseEntity<List<InstallmentGroupSummaryDTO>> getAllInstallmentGroups(
-            @AuthenticationPrincipal AuthenticatedUser user) {
+    public ResponseEntity<Page<InstallmentGroupSummaryDTO>> getAllInstallmentGroups(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) int size) {
 
-        log.info("GET /installment-groups for account {}", user.getAccountId());
-        var result = installmentGroupService.getAllInstallmentGroups(user.getAccountId());
+        log.info("GET /installment-groups for account {} (page={}, size={})", user.getAccountId(), page, size);
+        var result = installmentGroupService.getAllInstallmentGroups(user.getAccountId(), page, size);
         return ResponseEntity.ok(result);
     }
 
@@ -66,7 +70,7 @@ public class InstallmentGroupController {
     @ApiResponse(responseCode = "200", description = "Installment group found")
     @ApiResponse(responseCode = "404", description = "Installment group not found")
     public ResponseEntity<InstallmentGroupResponseDTO> getInstallmentGroup(
-            @PathVariable String installmentGroupId,
+            @PathVariable Long installmentGroupId,
             @AuthenticationPrincipal AuthenticatedUser user) {
 
         log.info("GET /installment-groups/{} for account {}", installmentGroupId, user.getAccountId());
@@ -83,7 +87,7 @@ public class InstallmentGroupController {
     @ApiResponse(responseCode = "400", description = "Invalid request")
     @ApiResponse(responseCode = "404", description = "Installment group, category, or credit card not found")
     public ResponseEntity<InstallmentGroupResponseDTO> updateInstallmentGroup(
-            @PathVariable String installmentGroupId,
+            @PathVariable Long installmentGroupId,
             @Valid @RequestBody InstallmentGroupRequestDTO request,
             @AuthenticationPrincipal AuthenticatedUser user) {
 
@@ -101,7 +105,7 @@ public class InstallmentGroupController {
     @ApiResponse(responseCode = "200", description = "Description updated successfully")
     @ApiResponse(responseCode = "404", description = "Installment group not found")
     public ResponseEntity<InstallmentGroupResponseDTO> updateDescription(
-            @PathVariable String installmentGroupId,
+            @PathVariable Long installmentGroupId,
             @Parameter(description = "New description for all installments")
             @RequestParam String description,
             @AuthenticationPrincipal AuthenticatedUser user) {
@@ -121,7 +125,7 @@ public class InstallmentGroupController {
     @ApiResponse(responseCode = "204", description = "Installment group deleted successfully")
     @ApiResponse(responseCode = "404", description = "Installment group not found")
     public ResponseEntity<Void> deleteInstallmentGroup(
-            @PathVariable String installmentGroupId,
+            @PathVariable Long installmentGroupId,
             @AuthenticationPrincipal AuthenticatedUser user) {
 
         log.info("DELETE /installment-groups/{} for account {}", installmentGroupId, user.getAccountId());
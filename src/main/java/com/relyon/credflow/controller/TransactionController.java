@@ -12,12 +12,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -284,7 +286,8 @@ public class TransactionController {
             description = "Retorna grupos de transações que podem ser duplicatas. " +
                     "Uma duplicata potencial é identificada quando existem transações com o mesmo valor " +
                     "dentro de uma janela de ±3 dias, sendo uma de origem CSV_IMPORT e outra MANUAL. " +
-                    "Duplicatas entre transações do mesmo tipo (CSV-CSV ou MANUAL-MANUAL) não são reportadas."
+                    "Duplicatas entre transações do mesmo tipo (CSV-CSV ou MANUAL-MANUAL) não são reportadas. " +
+                    "Use fromDate/toDate para limitar a busca a um período."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Lista de grupos de potenciais duplicatas"),
@@ -292,10 +295,14 @@ public class TransactionController {
     })
     @GetMapping("/duplicates")
     public ResponseEntity<List<DuplicateGroupDTO>> findPotentialDuplicates(
+            @Parameter(description = "Data inicial (opcional)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @Parameter(description = "Data final (opcional)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
             @AuthenticationPrincipal AuthenticatedUser user
     ) {
-        log.info("GET /v1/transactions/duplicates for account {}", user.getAccountId());
-        var duplicates = duplicateDetectionService.findAllPotentialDuplicates(user.getAccountId());
+        log.info("GET /v1/transactions/duplicates for account {} within [{}, {}]", user.getAccountId(), fromDate, toDate);
+        var duplicates = duplicateDetectionService.findAllPotentialDuplicates(user.getAccountId(), fromDate, toDate);
         log.info("Found {} potential duplicate groups for account {}", duplicates.size(), user.getAccountId());
         return ResponseEntity.ok(duplicates);
     }
@@ -47,6 +47,22 @@ public class GlobalExceptionHandler {
         return ErrorBody.from(translated, CONFLICT.value());
     }
 
+    @ExceptionHandler(ResourceConflictException.class)
+    @ResponseStatus(CONFLICT)
+    public ErrorBody handleResourceConflict(DomainException cause) {
+        log.warn("CONFLICT", cause);
+        var translated = translationService.translateMessage(cause);
+        return ErrorBody.from(translated, CONFLICT.value());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    @ResponseStatus(SERVICE_UNAVAILABLE)
+    public ErrorBody handleServiceUnavailable(DomainException cause) {
+        log.warn("SERVICE_UNAVAILABLE", cause);
+        var translated = translationService.translateMessage(cause);
+        return ErrorBody.from(translated, SERVICE_UNAVAILABLE.value());
+    }
+
     @ExceptionHandler(CsvProcessingException.class)
     @ResponseStatus(BAD_REQUEST)
     public ErrorBody handleCsvProcessing(DomainException cause) {
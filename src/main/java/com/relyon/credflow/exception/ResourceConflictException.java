@@ -0,0 +1,18 @@
+package com.relyon.credflow.exception;
+
+/**
+ * Exception thrown when a request conflicts with the current state of a resource, such as asking for the
+ * result of work that has not finished yet. Uses i18n message keys for localized error messages.
+ */
+public class ResourceConflictException extends DomainException {
+
+    /**
+     * Creates a ResourceConflictException with a message key and arguments.
+     *
+     * @param messageKey the i18n message key
+     * @param arguments  optional arguments for parameterized messages
+     */
+    public ResourceConflictException(String messageKey, Object... arguments) {
+        super(messageKey, arguments);
+    }
+}
@@ -0,0 +1,18 @@
+package com.relyon.credflow.exception;
+
+/**
+ * Exception thrown when a request cannot be served right now because a shared resource is saturated.
+ * Uses i18n message keys for localized error messages.
+ */
+public class ServiceUnavailableException extends DomainException {
+
+    /**
+     * Creates a ServiceUnavailableException with a message key and arguments.
+     *
+     * @param messageKey the i18n message key
+     * @param arguments  optional arguments for parameterized messages
+     */
+    public ServiceUnavailableException(String messageKey, Object... arguments) {
+        super(messageKey, arguments);
+    }
+}
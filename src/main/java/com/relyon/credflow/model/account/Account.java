@@ -11,6 +11,7 @@ import jakarta.persistence.OneToMany;
 import java.util.List;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Getter
@@ -43,4 +44,14 @@ public class Account extends BaseEntity {
     @ToString.Include
     @Column(unique = true)
     private String inviteCode;
+
+    /**
+     * Bumped by {@link com.relyon.credflow.service.AccountDataVersionService} on every write to the data exports
+     * are built from. Only ever changed by that update, never through the entity.
+     */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "data_version", nullable = false, updatable = false)
+    @Builder.Default
+    private Long dataVersion = 0L;
 }
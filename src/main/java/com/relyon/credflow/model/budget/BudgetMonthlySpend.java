@@ -0,0 +1,15 @@
+package com.relyon.credflow.model.budget;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+public record BudgetMonthlySpend(
+        Integer year,
+        Integer month,
+        BigDecimal total
+) {
+
+    public YearMonth period() {
+        return YearMonth.of(year, month);
+    }
+}
@@ -4,7 +4,7 @@ import lombok.Builder;
 import lombok.Data;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class BudgetPreferencesResponseDTO {
     private Long id;
     private Long accountId;
@@ -0,0 +1,16 @@
+package com.relyon.credflow.model.budget;
+
+import java.time.YearMonth;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BudgetRolloverResultDTO {
+    private YearMonth fromPeriod;
+    private int accountsProcessed;
+    private int budgetsRolledOver;
+    private List<Long> failedAccountIds;
+    private long durationMillis;
+}
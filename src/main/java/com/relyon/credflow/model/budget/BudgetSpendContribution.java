@@ -0,0 +1,65 @@
+package com.relyon.credflow.model.budget;
+
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.user.User;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * What a single transaction adds to budget spend: its absolute value when it is a non-reversal expense,
+ * otherwise zero. Taken as a snapshot so edits can be applied as "remove old, add new".
+ */
+public record BudgetSpendContribution(
+        Long accountId,
+        LocalDate date,
+        BigDecimal amount,
+        Long categoryId,
+        Set<Long> responsibleUserIds
+) {
+
+    public static BudgetSpendContribution of(Transaction transaction) {
+        var value = transaction.getValue();
+        var counts = value != null && transaction.getDate() != null && value.signum() < 0
+                && !Boolean.TRUE.equals(transaction.getIsReversal());
+
+        var userIds = transaction.getResponsibleUsers() == null
+                ? Set.<Long>of()
+                : transaction.getResponsibleUsers().stream().map(User::getId).collect(Collectors.toUnmodifiableSet());
+
+        return new BudgetSpendContribution(
+                transaction.getAccount() != null ? transaction.getAccount().getId() : null,
+                transaction.getDate(),
+                counts ? value.abs() : BigDecimal.ZERO,
+                transaction.getCategory() != null ? transaction.getCategory().getId() : null,
+                userIds
+        );
+    }
+
+    public boolean isZero() {
+        return amount.signum() == 0;
+    }
+
+    public YearMonth period() {
+        return YearMonth.from(date);
+    }
+
+    public boolean appliesTo(Budget budget) {
+        return switch (budget.getType()) {
+            case ACCOUNT_WIDE -> true;
+            case CATEGORY_SPECIFIC -> matchesCategory(budget);
+            case USER_SPECIFIC -> matchesUser(budget);
+            case CATEGORY_USER_SPECIFIC -> matchesCategory(budget) && matchesUser(budget);
+        };
+    }
+
+    private boolean matchesCategory(Budget budget) {
+        return categoryId != null && categoryId.equals(budget.getCategory().getId());
+    }
+
+    private boolean matchesUser(Budget budget) {
+        return responsibleUserIds.contains(budget.getUser().getId());
+    }
+}
@@ -0,0 +1,44 @@
+package com.relyon.credflow.model.budget;
+
+import com.relyon.credflow.model.BaseEntity;
+import com.relyon.credflow.model.account.Account;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@Entity
+@Table(name = "budget_spend_counter", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"budget_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class BudgetSpendCounter extends BaseEntity {
+
+    @OneToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "budget_id", nullable = false)
+    private Budget budget;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Account account;
+
+    @ToString.Include
+    @Column(nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal spent = BigDecimal.ZERO;
+
+    @ToString.Include
+    @Enumerated(EnumType.STRING)
+    @Column(name = "warning_level", nullable = false)
+    @Builder.Default
+    private WarningLevel warningLevel = WarningLevel.NONE;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean valid = true;
+}
@@ -0,0 +1,11 @@
+package com.relyon.credflow.model.budget;
+
+import java.math.BigDecimal;
+
+public record BudgetSpendEntry(
+        Long transactionId,
+        BigDecimal value,
+        Long categoryId,
+        Long responsibleUserId
+) {
+}
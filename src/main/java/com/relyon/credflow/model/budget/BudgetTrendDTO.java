@@ -0,0 +1,17 @@
+package com.relyon.credflow.model.budget;
+
+import java.time.YearMonth;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BudgetTrendDTO {
+    private BudgetType type;
+    private Long categoryId;
+    private Long userId;
+    private YearMonth fromPeriod;
+    private YearMonth toPeriod;
+    private List<BudgetTrendPointDTO> periods;
+}
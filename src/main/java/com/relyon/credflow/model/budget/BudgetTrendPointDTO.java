@@ -0,0 +1,18 @@
+package com.relyon.credflow.model.budget;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BudgetTrendPointDTO {
+    private YearMonth period;
+    private Long budgetId;
+    private BigDecimal budgetAmount;
+    private BigDecimal rolledOverAmount;
+    private BigDecimal effectiveBudget;
+    private BigDecimal spent;
+    private BigDecimal percentageUsed;
+}
@@ -0,0 +1,19 @@
+package com.relyon.credflow.model.budget;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Published when a transaction change moves a budget's spend counter across a warning threshold.
+ * Listeners that need the change to be durable should use {@code @TransactionalEventListener}.
+ */
+public record BudgetWarningEvent(
+        Long accountId,
+        Long budgetId,
+        YearMonth period,
+        WarningLevel previousLevel,
+        WarningLevel currentLevel,
+        BigDecimal spent,
+        BigDecimal effectiveBudget
+) {
+}
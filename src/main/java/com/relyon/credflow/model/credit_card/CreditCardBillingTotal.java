@@ -0,0 +1,16 @@
+package com.relyon.credflow.model.credit_card;
+
+import java.math.BigDecimal;
+
+/**
+ * Sum and count of the transactions of one card over a date range; the sum is zero when there are none.
+ */
+public record CreditCardBillingTotal(
+        BigDecimal total,
+        Long transactionCount
+) {
+
+    public CreditCardBillingTotal {
+        total = total != null ? total : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,12 @@
+package com.relyon.credflow.model.credit_card;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record CreditCardDailyActivity(
+        Long creditCardId,
+        LocalDate date,
+        BigDecimal charges,
+        BigDecimal credits
+) {
+}
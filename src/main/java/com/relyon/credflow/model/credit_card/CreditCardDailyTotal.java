@@ -0,0 +1,11 @@
+package com.relyon.credflow.model.credit_card;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record CreditCardDailyTotal(
+        Long creditCardId,
+        LocalDate date,
+        BigDecimal total
+) {
+}
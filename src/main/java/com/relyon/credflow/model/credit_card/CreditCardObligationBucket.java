@@ -0,0 +1,21 @@
+package com.relyon.credflow.model.credit_card;
+
+import java.math.BigDecimal;
+
+/**
+ * Installment value committed on a card in one calendar month, split by whether the installments fall after
+ * the card's closing day (and so belong to the following bill).
+ */
+public record CreditCardObligationBucket(
+        Long creditCardId,
+        Integer year,
+        Integer month,
+        Integer afterClosingDay,
+        BigDecimal total,
+        Long installmentCount
+) {
+
+    public boolean isAfterClosingDay() {
+        return afterClosingDay != null && afterClosingDay == 1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.relyon.credflow.model.credit_card;
+
+import java.math.BigDecimal;
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CreditCardObligationDTO {
+    private Long creditCardId;
+    private String nickname;
+    private BigDecimal totalCommitted;
+    private List<CreditCardCycleObligationDTO> cycles;
+}
@@ -0,0 +1,69 @@
+package com.relyon.credflow.model.credit_card;
+
+import com.relyon.credflow.model.BaseEntity;
+import com.relyon.credflow.model.account.Account;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@Entity
+@Table(name = "credit_card_statement", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"credit_card_id", "cycle_start_date"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class CreditCardStatement extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "credit_card_id", nullable = false)
+    private CreditCard creditCard;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Account account;
+
+    @ToString.Include
+    @Column(name = "cycle_start_date", nullable = false)
+    private LocalDate cycleStartDate;
+
+    @Column(name = "cycle_closing_date", nullable = false)
+    private LocalDate cycleClosingDate;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDate dueDate;
+
+    /**
+     * Purchases of the cycle (negative transactions) as a positive amount.
+     */
+    @ToString.Include
+    @Column(name = "charges_total", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal chargesTotal = BigDecimal.ZERO;
+
+    /**
+     * Refunds, payments and other positive transactions of the cycle.
+     */
+    @ToString.Include
+    @Column(name = "credits_total", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal creditsTotal = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean valid = true;
+
+    /**
+     * Net activity of the cycle with the sign of the transactions it sums: purchases are stored negative, so a
+     * cycle with more charges than credits has a negative total, as in the billing totals computed from
+     * transactions.
+     */
+    public BigDecimal getTotal() {
+        return creditsTotal.subtract(chargesTotal);
+    }
+}
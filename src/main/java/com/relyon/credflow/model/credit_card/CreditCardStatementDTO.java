@@ -0,0 +1,17 @@
+package com.relyon.credflow.model.credit_card;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CreditCardStatementDTO {
+    private LocalDate cycleStartDate;
+    private LocalDate cycleClosingDate;
+    private LocalDate dueDate;
+    private BigDecimal chargesTotal;
+    private BigDecimal creditsTotal;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,33 @@
+package com.relyon.credflow.model.credit_card;
+
+import com.relyon.credflow.model.transaction.Transaction;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * What a single transaction adds to its card's statement: its signed value when it is a card transaction,
+ * otherwise zero. Reversals count like any other transaction, so a refund offsets the cycle it lands in. Taken as a snapshot so edits can be applied as "remove old, add new".
+ */
+public record CreditCardStatementEntry(
+        Long accountId,
+        Long creditCardId,
+        LocalDate date,
+        BigDecimal value
+) {
+
+    public static CreditCardStatementEntry of(Transaction transaction) {
+        var counts = transaction.getCreditCard() != null && transaction.getDate() != null
+                && transaction.getValue() != null;
+
+        return new CreditCardStatementEntry(
+                transaction.getAccount() != null ? transaction.getAccount().getId() : null,
+                transaction.getCreditCard() != null ? transaction.getCreditCard().getId() : null,
+                transaction.getDate(),
+                counts ? transaction.getValue() : BigDecimal.ZERO
+        );
+    }
+
+    public boolean isZero() {
+        return value.signum() == 0;
+    }
+}
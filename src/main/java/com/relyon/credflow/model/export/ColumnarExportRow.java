@@ -0,0 +1,24 @@
+package com.relyon.credflow.model.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One transaction decoded by {@link com.relyon.credflow.service.ColumnarExportReader}. Absent category, credit card or type are {@code null}.
+ */
+public record ColumnarExportRow(
+        long id,
+        LocalDate date,
+        String description,
+        String category,
+        String creditCard,
+        List<String> responsibleUsers,
+        long valueCents,
+        String transactionType
+) {
+
+    public BigDecimal value() {
+        return BigDecimal.valueOf(valueCents, 2);
+    }
+}
@@ -0,0 +1,16 @@
+package com.relyon.credflow.model.export;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    CSV("csv", "text/csv;charset=UTF-8"),
+    PDF("pdf", "application/pdf"),
+    EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    COLUMNAR("cfx", "application/vnd.credflow.columnar");
+
+    private final String extension;
+    private final String contentType;
+}
@@ -0,0 +1,18 @@
+package com.relyon.credflow.model.export;
+
+import java.time.Instant;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ExportJobDTO {
+    private String id;
+    private ExportFormat format;
+    private ExportJobStatus status;
+    private String fileName;
+    private Instant createdAt;
+    private Instant completedAt;
+    private Instant expiresAt;
+    private String downloadUrl;
+}
@@ -0,0 +1,6 @@
+package com.relyon.credflow.model.export;
+
+import java.nio.file.Path;
+
+public record ExportJobFile(Path path, String fileName, ExportFormat format) {
+}
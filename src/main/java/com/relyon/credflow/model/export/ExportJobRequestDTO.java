@@ -0,0 +1,34 @@
+package com.relyon.credflow.model.export;
+
+import com.relyon.credflow.model.transaction.TransactionSource;
+import com.relyon.credflow.model.transaction.TransactionType;
+import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class ExportJobRequestDTO {
+
+    @NotNull(message = "Format is required")
+    private ExportFormat format;
+
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    private List<Long> categoryIds;
+
+    private List<Long> responsibleUserIds;
+
+    private List<Long> creditCardIds;
+
+    private List<TransactionType> transactionTypes;
+
+    private List<TransactionSource> transactionSources;
+
+    private BigDecimal minAmount;
+
+    private BigDecimal maxAmount;
+}
@@ -0,0 +1,8 @@
+package com.relyon.credflow.model.export;
+
+public enum ExportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
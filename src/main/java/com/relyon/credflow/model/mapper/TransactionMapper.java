@@ -2,6 +2,7 @@ package com.relyon.credflow.model.mapper;
 
 import com.relyon.credflow.configuration.MapStructCentralConfig;
 import com.relyon.credflow.model.category.Category;
+import com.relyon.credflow.model.transaction.InstallmentGroup;
 import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.transaction.TransactionRequestDTO;
 import com.relyon.credflow.model.transaction.TransactionResponseDTO;
@@ -28,6 +29,7 @@ public interface TransactionMapper {
     @Mapping(target = "category", source = "categoryId", qualifiedByName = "idToCategory")
     @Mapping(target = "responsibleUsers", source = "responsibleUsers", qualifiedByName = "idsToUsers")
     @Mapping(target = "creditCard", source = "creditCardId", qualifiedByName = "idToCreditCard")
+    @Mapping(target = "installmentGroup", source = "installmentGroupId", qualifiedByName = "idToInstallmentGroup")
     @Mapping(target = "source", ignore = true)
     @Mapping(target = "importBatchId", ignore = true)
     @Mapping(target = "wasEditedAfterImport", ignore = true)
@@ -46,6 +48,7 @@ public interface TransactionMapper {
     @Mapping(target = "creditCard.brand", source = "creditCard.brand")
     @Mapping(target = "creditCard.lastFourDigits", source = "creditCard.lastFourDigits")
     @Mapping(target = "relatedTransactionId", source = "relatedTransaction.id")
+    @Mapping(target = "installmentGroupId", source = "installmentGroup.id")
     TransactionResponseDTO toDto(Transaction entity);
 
     @Named("categoryToName")
@@ -75,6 +78,14 @@ public interface TransactionMapper {
         return card;
     }
 
+    @Named("idToInstallmentGroup")
+    default InstallmentGroup idToInstallmentGroup(Long id) {
+        if (id == null) return null;
+        var group = new InstallmentGroup();
+        group.setId(id);
+        return group;
+    }
+
     @Named("idsToUsers")
     default Set<User> idsToUsers(List<Long> ids) {
         if (ids == null || ids.isEmpty()) return Set.of();
@@ -0,0 +1,9 @@
+package com.relyon.credflow.model.transaction;
+
+import java.time.LocalDateTime;
+
+public record AccountTransactionActivity(
+        Long accountId,
+        LocalDateTime lastUpdatedAt
+) {
+}
@@ -0,0 +1,12 @@
+package com.relyon.credflow.model.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DuplicateCandidate(
+        Long id,
+        LocalDate date,
+        BigDecimal value,
+        TransactionSource source
+) {
+}
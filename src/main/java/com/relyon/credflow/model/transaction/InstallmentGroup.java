@@ -0,0 +1,78 @@
+package com.relyon.credflow.model.transaction;
+
+import com.relyon.credflow.model.BaseEntity;
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.category.Category;
+import com.relyon.credflow.model.credit_card.CreditCard;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Header of an installment plan. Owns the group metadata shared by its installments and keeps counters over
+ * them (row count, totals, paid installments and date range) so group reads never scan the installment rows.
+ * The counters are refreshed by {@link com.relyon.credflow.service.InstallmentGroupCounterService} whenever
+ * installments of the group are written.
+ */
+@Entity
+@Table(name = "installment_group")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class InstallmentGroup extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Account account;
+
+    @ToString.Include
+    @Column(nullable = false)
+    private String description;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id")
+    private Category category;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "credit_card_id")
+    private CreditCard creditCard;
+
+    @Column(name = "total_installments", nullable = false)
+    private Integer totalInstallments;
+
+    @ToString.Include
+    @Column(name = "installment_count", nullable = false)
+    @Builder.Default
+    private Integer installmentCount = 0;
+
+    @Column(name = "total_amount", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
+    @Column(name = "paid_installments", nullable = false)
+    @Builder.Default
+    private Integer paidInstallments = 0;
+
+    @Column(name = "total_paid", nullable = false, precision = 14, scale = 2)
+    @Builder.Default
+    private BigDecimal totalPaid = BigDecimal.ZERO;
+
+    @Column(name = "first_installment_date")
+    private LocalDate firstInstallmentDate;
+
+    @Column(name = "last_installment_date")
+    private LocalDate lastInstallmentDate;
+
+    public int getPendingInstallments() {
+        return totalInstallments - paidInstallments;
+    }
+
+    public BigDecimal getTotalPending() {
+        return totalAmount.subtract(totalPaid);
+    }
+}
@@ -0,0 +1,25 @@
+package com.relyon.credflow.model.transaction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Totals of one installment group computed in the database, used to refresh the counters of its
+ * {@link InstallmentGroup} header. An installment counts as paid once it was edited after import.
+ */
+public record InstallmentGroupAggregate(
+        Long installmentGroupId,
+        Long installmentCount,
+        BigDecimal totalAmount,
+        Long paidCount,
+        BigDecimal totalPaid,
+        LocalDate firstInstallmentDate,
+        LocalDate lastInstallmentDate
+) {
+
+    public InstallmentGroupAggregate {
+        totalAmount = totalAmount != null ? totalAmount : BigDecimal.ZERO;
+        totalPaid = totalPaid != null ? totalPaid : BigDecimal.ZERO;
+        paidCount = paidCount != null ? paidCount : 0L;
+    }
+}
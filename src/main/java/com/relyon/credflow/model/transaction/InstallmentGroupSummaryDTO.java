@@ -13,7 +13,7 @@ import lombok.NoArgsConstructor;
 @Builder
 public class InstallmentGroupSummaryDTO {
 
-    private String installmentGroupId;
+    private Long installmentGroupId;
     private String description;
     private BigDecimal totalAmount;
     private Integer totalInstallments;
@@ -0,0 +1,28 @@
+package com.relyon.credflow.model.transaction;
+
+import com.relyon.credflow.model.BaseEntity;
+import com.relyon.credflow.model.account.Account;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+@Entity
+@Table(name = "reversal_reconciliation_state", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"account_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@ToString(onlyExplicitlyIncluded = true)
+@EqualsAndHashCode(callSuper = true, onlyExplicitlyIncluded = true)
+public class ReversalReconciliationState extends BaseEntity {
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Account account;
+
+    @Column(name = "reconciled_until", nullable = false)
+    private LocalDateTime reconciledUntil;
+}
@@ -65,8 +65,9 @@ public class Transaction extends BaseEntity {
 
     private Integer totalInstallments;
 
-    @Column(name = "installment_group_id")
-    private String installmentGroupId;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "installment_group_id")
+    private InstallmentGroup installmentGroup;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -40,6 +40,5 @@ public class TransactionRequestDTO {
     @Max(value = 360, message = "Total installments cannot exceed 360")
     private Integer totalInstallments;
 
-    @Size(max = 100, message = "Installment group ID cannot exceed 100 characters")
-    private String installmentGroupId;
+    private Long installmentGroupId;
 }
\ No newline at end of file
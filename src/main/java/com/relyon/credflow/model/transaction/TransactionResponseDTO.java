@@ -19,7 +19,7 @@ public class TransactionResponseDTO {
     private TransactionType transactionType;
     private Integer currentInstallment;
     private Integer totalInstallments;
-    private String installmentGroupId;
+    private Long installmentGroupId;
     private TransactionSource source;
     private String importBatchId;
     private Boolean wasEditedAfterImport;
@@ -5,6 +5,8 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
@@ -23,4 +25,16 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findAllByUsersId(Long userId);
 
     boolean existsByIdAndUsersId(Long accountId, Long userId);
-}
\ No newline at end of file
+
+    @Query("select a.dataVersion from Account a where a.id = :accountId")
+    Optional<Long> findDataVersionById(Long accountId);
+
+    /**
+     * Native so the increment never goes through a managed {@link Account}, whose copy of the counter may be stale.
+     */
+    @Modifying
+    @Query(value = """
+            update "account" set "data_version" = "data_version" + 1 where "id" = :accountId
+            """, nativeQuery = true)
+    int incrementDataVersion(Long accountId);
+}
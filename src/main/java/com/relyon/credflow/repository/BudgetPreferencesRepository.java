@@ -1,7 +1,9 @@
 package com.relyon.credflow.repository;
 
 import com.relyon.credflow.model.budget.BudgetPreferences;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -19,4 +21,7 @@ public interface BudgetPreferencesRepository extends JpaRepository<BudgetPrefere
     Optional<BudgetPreferences> findByAccountAndUser(Long accountId, Long userId);
 
     Optional<BudgetPreferences> findByIdAndAccountId(Long id, Long accountId);
+
+    @EntityGraph(attributePaths = {"user"})
+    List<BudgetPreferences> findAllByAccountId(Long accountId);
 }
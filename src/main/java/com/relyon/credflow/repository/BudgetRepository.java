@@ -28,8 +28,28 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
     Optional<Budget> findMatchingBudget(Long accountId, YearMonth period, BudgetType type,
                                         Long categoryId, Long userId);
 
+    @Query("""
+            select b from Budget b
+             where b.account.id = :accountId
+               and b.period between :fromPeriod and :toPeriod
+               and b.type = :type
+               and (:categoryId is null and b.category is null or b.category.id = :categoryId)
+               and (:userId is null and b.user is null or b.user.id = :userId)
+             order by b.period
+            """)
+    List<Budget> findMatchingBudgets(Long accountId, YearMonth fromPeriod, YearMonth toPeriod, BudgetType type,
+                                     Long categoryId, Long userId);
+
     List<Budget> findByAccountIdAndAllowRolloverTrue(Long accountId);
 
+    @Query("""
+            select distinct b.account.id from Budget b
+             where b.period = :period
+               and b.allowRollover = true
+             order by b.account.id
+            """)
+    List<Long> findAccountIdsWithRolloverBudgets(YearMonth period);
+
     List<Budget> findByAccountIdAndPeriodAndCategoryId(Long accountId, YearMonth period, Long categoryId);
 
     List<Budget> findByAccountIdAndPeriodAndUserId(Long accountId, YearMonth period, Long userId);
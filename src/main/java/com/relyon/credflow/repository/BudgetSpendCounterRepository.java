@@ -0,0 +1,13 @@
+package com.relyon.credflow.repository;
+
+import com.relyon.credflow.model.budget.BudgetSpendCounter;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BudgetSpendCounterRepository extends JpaRepository<BudgetSpendCounter, Long> {
+
+    List<BudgetSpendCounter> findAllByBudgetIdIn(Collection<Long> budgetIds);
+
+    List<BudgetSpendCounter> findAllByAccountIdAndValidTrue(Long accountId);
+}
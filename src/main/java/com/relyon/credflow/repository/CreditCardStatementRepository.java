@@ -0,0 +1,42 @@
+package com.relyon.credflow.repository;
+
+import com.relyon.credflow.model.credit_card.CreditCardStatement;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+public interface CreditCardStatementRepository extends JpaRepository<CreditCardStatement, Long> {
+
+    List<CreditCardStatement> findAllByCreditCardIdIn(Collection<Long> creditCardIds);
+
+    List<CreditCardStatement> findAllByCreditCardIdInAndCycleStartDateGreaterThanEqual(
+            Collection<Long> creditCardIds, LocalDate cycleStartDate);
+
+    List<CreditCardStatement> findAllByCreditCardIdAndValidTrue(Long creditCardId);
+
+    List<CreditCardStatement> findAllByAccountIdAndValidTrue(Long accountId);
+
+    @Query("""
+            select s from CreditCardStatement s
+             where s.creditCard.id = :creditCardId
+               and (s.chargesTotal <> 0 or s.creditsTotal <> 0)
+             order by s.cycleStartDate desc
+            """)
+    Page<CreditCardStatement> findNonEmptyByCreditCardId(Long creditCardId, Pageable pageable);
+
+    /**
+     * Cards among {@code creditCardIds} whose statements are materialized, i.e. that have at least one
+     * statement and no invalidated ones.
+     */
+    @Query("""
+            select s.creditCard.id from CreditCardStatement s
+             where s.creditCard.id in :creditCardIds
+             group by s.creditCard.id
+            having min(case when s.valid = true then 1 else 0 end) = 1
+            """)
+    List<Long> findMaterializedCreditCardIds(Collection<Long> creditCardIds);
+}
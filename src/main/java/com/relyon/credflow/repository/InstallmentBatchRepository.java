@@ -0,0 +1,127 @@
+package com.relyon.credflow.repository;
+
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.user.User;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * JDBC batch writes for installment groups. Transactions use identity ids, which keeps Hibernate from batching
+ * their inserts, so a group's rows and their responsible user pairs are written here in one batch each.
+ * Rows written here bypass the persistence context; callers must not rely on managed copies of them.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InstallmentBatchRepository {
+
+    private static final String INSERT_INSTALLMENT_SQL = """
+            insert into "transaction" ("date", "description", "value", "category_id", "account_id", "credit_card_id",
+                                       "transaction_type", "current_installment", "total_installments",
+                                       "installment_group_id", "source", "was_edited_after_import", "is_reversal",
+                                       "version", "created_at", "updated_at", "created_by", "updated_by")
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final int[] INSERT_INSTALLMENT_TYPES = {
+            Types.DATE, Types.VARCHAR, Types.NUMERIC, Types.BIGINT, Types.BIGINT, Types.BIGINT,
+            Types.VARCHAR, Types.INTEGER, Types.INTEGER,
+            Types.BIGINT, Types.VARCHAR, Types.BOOLEAN, Types.BOOLEAN,
+            Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT
+    };
+
+    private static final String SELECT_GROUP_IDS_SQL = """
+            select "id", "current_installment" from "transaction" where "installment_group_id" = ?
+            """;
+
+    private static final String INSERT_RESPONSIBLE_USER_SQL = """
+            insert into "transaction_responsible_users" ("transaction_id", "user_id") values (?, ?)
+            """;
+
+    private static final String DELETE_GROUP_RESPONSIBLE_USERS_SQL = """
+            delete from "transaction_responsible_users"
+             where "transaction_id" in (select "id" from "transaction" where "installment_group_id" = ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the installments of one new group and their responsible users, then assigns the generated ids,
+     * version and timestamps to the given instances. All installments must belong to the same saved group.
+     */
+    public void insertGroup(List<Transaction> installments, Long auditorId) {
+        if (installments.isEmpty()) {
+            return;
+        }
+
+        var now = LocalDateTime.now();
+        var rows = new ArrayList<Object[]>(installments.size());
+        for (var installment : installments) {
+            rows.add(new Object[]{
+                    installment.getDate(),
+                    installment.getDescription(),
+                    installment.getValue(),
+                    installment.getCategory() != null ? installment.getCategory().getId() : null,
+                    installment.getAccount().getId(),
+                    installment.getCreditCard() != null ? installment.getCreditCard().getId() : null,
+                    installment.getTransactionType().name(),
+                    installment.getCurrentInstallment(),
+                    installment.getTotalInstallments(),
+                    installment.getInstallmentGroup().getId(),
+                    installment.getSource().name(),
+                    installment.getWasEditedAfterImport(),
+                    installment.getIsReversal(),
+                    0L,
+                    now,
+                    now,
+                    auditorId,
+                    auditorId
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_INSTALLMENT_SQL, rows, INSERT_INSTALLMENT_TYPES);
+
+        var idsByInstallment = new HashMap<Integer, Long>();
+        jdbcTemplate.query(SELECT_GROUP_IDS_SQL,
+                rs -> {
+                    idsByInstallment.put(rs.getInt("current_installment"), rs.getLong("id"));
+                },
+                installments.getFirst().getInstallmentGroup().getId());
+
+        for (var installment : installments) {
+            installment.setId(idsByInstallment.get(installment.getCurrentInstallment()));
+            installment.setVersion(0L);
+            installment.setCreatedAt(now);
+            installment.setUpdatedAt(now);
+            installment.setCreatedBy(auditorId);
+            installment.setUpdatedBy(auditorId);
+        }
+
+        insertResponsibleUsers(installments);
+    }
+
+    /**
+     * Replaces the responsible users of every installment of the group with the given instances' users.
+     */
+    public void replaceResponsibleUsers(Long installmentGroupId, Collection<Transaction> installments) {
+        jdbcTemplate.update(DELETE_GROUP_RESPONSIBLE_USERS_SQL, installmentGroupId);
+        insertResponsibleUsers(installments);
+    }
+
+    private void insertResponsibleUsers(Collection<Transaction> installments) {
+        var pairs = new ArrayList<Object[]>();
+        for (var installment : installments) {
+            for (User user : installment.getResponsibleUsers()) {
+                pairs.add(new Object[]{installment.getId(), user.getId()});
+            }
+        }
+        if (!pairs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RESPONSIBLE_USER_SQL, pairs, new int[]{Types.BIGINT, Types.BIGINT});
+        }
+    }
+}
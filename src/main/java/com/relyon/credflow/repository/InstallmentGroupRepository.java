@@ -0,0 +1,20 @@
+package com.relyon.credflow.repository;
+
+import com.relyon.credflow.model.transaction.InstallmentGroup;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface InstallmentGroupRepository extends JpaRepository<InstallmentGroup, Long> {
+
+    @EntityGraph(attributePaths = {"category", "creditCard"})
+    Page<InstallmentGroup> findAllByAccountId(Long accountId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"category", "creditCard"})
+    Optional<InstallmentGroup> findByIdAndAccountId(Long id, Long accountId);
+
+    List<InstallmentGroup> findAllByAccountId(Long accountId);
+}
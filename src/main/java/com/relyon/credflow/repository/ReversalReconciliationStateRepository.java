@@ -0,0 +1,10 @@
+package com.relyon.credflow.repository;
+
+import com.relyon.credflow.model.transaction.ReversalReconciliationState;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReversalReconciliationStateRepository extends JpaRepository<ReversalReconciliationState, Long> {
+
+    Optional<ReversalReconciliationState> findByAccountId(Long accountId);
+}
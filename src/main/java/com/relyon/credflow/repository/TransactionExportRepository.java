@@ -0,0 +1,68 @@
+package com.relyon.credflow.repository;
+
+import com.relyon.credflow.model.transaction.Transaction;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.JoinType;
+import java.util.Collection;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Forward-only reads for exports. Transactions matching a specification are streamed from a JDBC cursor with
+ * their category and credit card; callers process the stream in chunks, loading responsible users and
+ * detaching each chunk once written so the persistence context stays bounded. Must be consumed inside a
+ * transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionExportRepository {
+
+    private static final String FETCH_RESPONSIBLE_USERS_JPQL = """
+            select distinct t from Transaction t
+              left join fetch t.responsibleUsers
+             where t.id in :ids
+            """;
+
+    private final EntityManager entityManager;
+
+    public Stream<Transaction> stream(Specification<Transaction> spec, Sort sort, int fetchSize) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Transaction.class);
+        var root = query.from(Transaction.class);
+        root.fetch("category", JoinType.LEFT);
+        root.fetch("creditCard", JoinType.LEFT);
+
+        var predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Initializes the responsible users of a chunk of streamed transactions with one query.
+     */
+    public void fetchResponsibleUsers(Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        entityManager.createQuery(FETCH_RESPONSIBLE_USERS_JPQL, Transaction.class)
+                .setParameter("ids", transactions.stream().map(Transaction::getId).toList())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultList();
+    }
+
+    public void detach(Collection<Transaction> transactions) {
+        transactions.forEach(entityManager::detach);
+    }
+}
@@ -1,8 +1,21 @@
 package com.relyon.credflow.repository;
 
+import com.relyon.credflow.model.budget.BudgetMonthlySpend;
+import com.relyon.credflow.model.budget.BudgetSpendEntry;
+import com.relyon.credflow.model.category.Category;
+import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.credit_card.CreditCardBillingTotal;
+import com.relyon.credflow.model.credit_card.CreditCardDailyActivity;
+import com.relyon.credflow.model.credit_card.CreditCardDailyTotal;
+import com.relyon.credflow.model.credit_card.CreditCardObligationBucket;
+import com.relyon.credflow.model.transaction.AccountTransactionActivity;
+import com.relyon.credflow.model.transaction.DuplicateCandidate;
+import com.relyon.credflow.model.transaction.InstallmentGroupAggregate;
 import com.relyon.credflow.model.transaction.Transaction;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Sort;
@@ -10,6 +23,7 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long>,
@@ -72,8 +86,63 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
 
     List<Transaction> findByCsvImportHistoryId(Long csvImportHistoryId);
 
+    @EntityGraph(attributePaths = {"creditCard"})
+    List<Transaction> findAllByAccountIdAndIdIn(Long accountId, Collection<Long> ids);
+
+    @Query("""
+            select t.id from Transaction t
+             where t.account.id = :accountId
+               and t.updatedAt > :updatedAfter
+               and t.isReversal = false
+             order by t.updatedAt, t.id
+            """)
+    List<Long> findNonReversalIdsUpdatedAfter(Long accountId, LocalDateTime updatedAfter);
+
+    @Query("""
+            select new com.relyon.credflow.model.transaction.AccountTransactionActivity(t.account.id, max(t.updatedAt))
+              from Transaction t
+             where t.isReversal = false
+             group by t.account.id
+            """)
+    List<AccountTransactionActivity> findNonReversalActivityByAccount();
+
     @EntityGraph(attributePaths = {"responsibleUsers", "category", "creditCard"})
-    List<Transaction> findByInstallmentGroupIdAndAccountId(String installmentGroupId, Long accountId);
+    @Query("""
+            select t from Transaction t
+             where t.installmentGroup.id = :installmentGroupId
+               and t.account.id = :accountId
+             order by t.currentInstallment
+            """)
+    List<Transaction> findByInstallmentGroupIdAndAccountId(Long installmentGroupId, Long accountId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Transaction t
+               set t.description = :description,
+                   t.value = :value,
+                   t.category = :category,
+                   t.creditCard = :creditCard,
+                   t.version = t.version + 1,
+                   t.updatedAt = :updatedAt,
+                   t.updatedBy = :updatedBy
+             where t.installmentGroup.id = :installmentGroupId
+               and t.account.id = :accountId
+            """)
+    int updateInstallmentGroup(Long installmentGroupId, Long accountId, String description, BigDecimal value,
+                               Category category, CreditCard creditCard, LocalDateTime updatedAt, Long updatedBy);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Transaction t
+               set t.description = :description,
+                   t.version = t.version + 1,
+                   t.updatedAt = :updatedAt,
+                   t.updatedBy = :updatedBy
+             where t.installmentGroup.id = :installmentGroupId
+               and t.account.id = :accountId
+            """)
+    int updateInstallmentGroupDescription(Long installmentGroupId, Long accountId, String description,
+                                          LocalDateTime updatedAt, Long updatedBy);
 
     @EntityGraph(attributePaths = {"category", "creditCard"})
     @Query("""
@@ -87,8 +156,92 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
                                               LocalDate endDate,
                                               BigDecimal value);
 
+    @Query("""
+            select new com.relyon.credflow.model.transaction.DuplicateCandidate(t.id, t.date, t.value, t.source)
+              from Transaction t
+             where t.account.id = :accountId
+               and (:fromDate is null or t.date >= :fromDate)
+               and (:toDate   is null or t.date <= :toDate)
+            """)
+    List<DuplicateCandidate> findDuplicateCandidates(Long accountId, LocalDate fromDate, LocalDate toDate);
+
     @EntityGraph(attributePaths = {"category", "creditCard"})
-    List<Transaction> findAllByAccountId(Long accountId);
+    List<Transaction> findAllByIdIn(Collection<Long> ids);
+
+    @Query("""
+            select new com.relyon.credflow.model.transaction.DuplicateCandidate(t.id, t.date, t.value, t.source)
+              from Transaction t
+             where t.account.id = :accountId
+               and t.source = 'CSV_IMPORT'
+               and t.date >= :fromDate
+            """)
+    List<DuplicateCandidate> findImportedDuplicateCandidates(Long accountId, LocalDate fromDate);
+
+    @Query("""
+            select new com.relyon.credflow.model.budget.BudgetSpendEntry(t.id, t.value, c.id, r.id)
+              from Transaction t
+              left join t.category c
+              left join t.responsibleUsers r
+             where t.account.id = :accountId
+               and t.date between :startDate and :endDate
+               and t.value < 0
+               and t.isReversal = false
+            """)
+    List<BudgetSpendEntry> findBudgetSpendEntries(Long accountId, LocalDate startDate, LocalDate endDate);
+
+    @Query("""
+            select new com.relyon.credflow.model.budget.BudgetMonthlySpend(year(t.date), month(t.date), sum(t.value))
+              from Transaction t
+             where t.account.id = :accountId
+               and t.date between :startDate and :endDate
+               and t.value < 0
+               and t.isReversal = false
+               and (:categoryId is null or t.category.id = :categoryId)
+               and (:userId is null or exists (select r.id from t.responsibleUsers r where r.id = :userId))
+             group by year(t.date), month(t.date)
+            """)
+    List<BudgetMonthlySpend> sumMonthlyBudgetSpend(Long accountId, LocalDate startDate, LocalDate endDate,
+                                                   Long categoryId, Long userId);
+
+    @Query("""
+            select new com.relyon.credflow.model.credit_card.CreditCardBillingTotal(sum(t.value), count(t))
+              from Transaction t
+             where t.creditCard.id = :creditCardId
+               and t.date >= :fromDate
+            """)
+    CreditCardBillingTotal summarizeByCreditCardSince(Long creditCardId, LocalDate fromDate);
+
+    @Query("""
+            select new com.relyon.credflow.model.credit_card.CreditCardDailyTotal(t.creditCard.id, t.date, sum(t.value))
+              from Transaction t
+             where t.creditCard.id in :creditCardIds
+               and t.date >= :fromDate
+             group by t.creditCard.id, t.date
+            """)
+    List<CreditCardDailyTotal> sumByCreditCardAndDate(Collection<Long> creditCardIds, LocalDate fromDate);
+
+    @Query("""
+            select new com.relyon.credflow.model.credit_card.CreditCardDailyActivity(t.creditCard.id, t.date,
+                   sum(case when t.value < 0 then -t.value else 0 end),
+                   sum(case when t.value > 0 then t.value else 0 end))
+              from Transaction t
+             where t.creditCard.id in :creditCardIds
+             group by t.creditCard.id, t.date
+            """)
+    List<CreditCardDailyActivity> sumCreditCardActivityByDate(Collection<Long> creditCardIds);
+
+    @Query("""
+            select new com.relyon.credflow.model.credit_card.CreditCardObligationBucket(cc.id, year(t.date), month(t.date),
+                   case when day(t.date) > cc.closingDay then 1 else 0 end,
+                   sum(t.value), count(t))
+              from Transaction t
+              join t.creditCard cc
+             where t.account.id = :accountId
+               and t.transactionType = 'INSTALLMENT'
+               and t.date >= :fromDate
+             group by cc.id, year(t.date), month(t.date), case when day(t.date) > cc.closingDay then 1 else 0 end
+            """)
+    List<CreditCardObligationBucket> sumInstallmentObligations(Long accountId, LocalDate fromDate);
 
     @Query("""
             select t from Transaction t
@@ -99,12 +252,15 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>,
             """)
     List<Transaction> findPositiveCsvImportedNonPaymentTransactions(Long accountId);
 
-    @EntityGraph(attributePaths = {"category", "creditCard"})
     @Query("""
-            select t from Transaction t
-             where t.account.id = :accountId
-               and t.installmentGroupId is not null
-             order by t.installmentGroupId, t.currentInstallment
+            select new com.relyon.credflow.model.transaction.InstallmentGroupAggregate(t.installmentGroup.id, count(t),
+                   sum(t.value),
+                   count(t) filter (where t.wasEditedAfterImport = true),
+                   sum(t.value) filter (where t.wasEditedAfterImport = true),
+                   min(t.date), max(t.date))
+              from Transaction t
+             where t.installmentGroup.id in :installmentGroupIds
+             group by t.installmentGroup.id
             """)
-    List<Transaction> findAllInstallmentsByAccountId(Long accountId);
+    List<InstallmentGroupAggregate> summarizeInstallmentGroups(Collection<Long> installmentGroupIds);
 }
\ No newline at end of file
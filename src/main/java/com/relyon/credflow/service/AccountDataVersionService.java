@@ -0,0 +1,53 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.repository.AccountRepository;
+import java.util.Collection;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-account counter of writes to the data exports are built from: transactions, categories, credit cards and
+ * description mappings. Artifacts derived from that data can be keyed by the counter and are never reached again
+ * once a later write commits.
+ * <p>
+ * The counter lives on the account row, so it is shared by every instance, and bumping it inside the writer's
+ * transaction makes it visible together with the change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountDataVersionService {
+
+    private final AccountRepository accountRepository;
+
+    @Transactional(readOnly = true)
+    public long current(Long accountId) {
+        return accountRepository.findDataVersionById(accountId).orElse(0L);
+    }
+
+    @Transactional
+    public void bump(Long accountId) {
+        accountRepository.incrementDataVersion(accountId);
+        log.debug("Bumped data version of account {}", accountId);
+    }
+
+    /**
+     * Bumps the accounts owning the given transactions, in id order so concurrent writers lock rows alike.
+     */
+    @Transactional
+    public void bump(Collection<Transaction> transactions) {
+        transactions.stream()
+                .map(Transaction::getAccount)
+                .filter(Objects::nonNull)
+                .map(Account::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .forEach(this::bump);
+    }
+}
@@ -0,0 +1,227 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.exception.ResourceConflictException;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Account-scoped mutual exclusion.
+ * <p>
+ * In {@code local} mode work is serialized through a fixed set of striped locks keyed by account id,
+ * so accounts only contend when they hash to the same stripe. In {@code advisory} mode a PostgreSQL
+ * transaction-level advisory lock is taken instead, which also serializes work across application nodes:
+ * <pre>
+ * app:
+ *   account-lock:
+ *     mode: advisory
+ * </pre>
+ * {@link #withAccountLock} releases a local lock as soon as its action returns, before the surrounding
+ * transaction commits. Work that reads rows and writes them back must not be guarded by it; it takes
+ * {@link #lockForTransaction} instead, which holds the lock until the transaction completes.
+ * <p>
+ * Locally, transaction locks come from their own stripes, keyed by account only, so the scopes a write passes
+ * through re-enter the stripes it already holds. A transaction takes its stripes in ascending stripe order; a
+ * stripe below one it already holds is only waited for {@code app.account-lock.wait-ms} before the write is
+ * rejected with a conflict, so two writers can never wait on each other forever. Account id order says nothing
+ * about stripe order, which is why callers locking several accounts pass them in one call.
+ */
+@Service
+@Slf4j
+public class AccountLockService {
+
+    public enum Mode {
+        LOCAL,
+        ADVISORY
+    }
+
+    private static final String ADVISORY_LOCK_SQL = "select pg_advisory_xact_lock(hashtext(?), ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Mode mode;
+    private final ReentrantLock[] stripes;
+    private final ReentrantLock[] transactionStripes;
+    private final long waitMs;
+    private volatile Boolean postgres;
+
+    public AccountLockService(JdbcTemplate jdbcTemplate,
+                              @Value("${app.account-lock.mode:local}") String mode,
+                              @Value("${app.account-lock.stripes:64}") int stripes,
+                              @Value("${app.account-lock.wait-ms:5000}") long waitMs) {
+        if (stripes <= 0) {
+            throw new IllegalStateException("Account lock stripes must be greater than 0. Current value: " + stripes);
+        }
+        if (waitMs < 0) {
+            throw new IllegalStateException("Account lock wait must not be negative. Current value: " + waitMs);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.stripes = newStripes(stripes);
+        this.transactionStripes = newStripes(stripes);
+        this.waitMs = waitMs;
+        log.info("Account locking initialized: mode={}, stripes={}", this.mode, stripes);
+    }
+
+    public <T> T withAccountLock(String scope, Long accountId, Supplier<T> action) {
+        if (mode == Mode.ADVISORY) {
+            acquireAdvisoryLock(scope, accountId);
+            return action.get();
+        }
+
+        var lock = stripeFor(scope, accountId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks the account until the current transaction commits or rolls back. On PostgreSQL this is always the
+     * advisory lock, whatever the mode, so other nodes are excluded too; elsewhere the account's transaction
+     * stripe is held until the transaction completes.
+     */
+    public void lockForTransaction(String scope, Long accountId) {
+        lockForTransaction(scope, List.of(accountId));
+    }
+
+    /**
+     * Locks the accounts until the current transaction commits or rolls back: advisory locks are taken in account
+     * id order, local stripes in stripe order.
+     *
+     * @throws ResourceConflictException when a stripe ordered below one the transaction already holds stays busy
+     */
+    public void lockForTransaction(String scope, Collection<Long> accountIds) {
+        if (mode == Mode.ADVISORY || isPostgres()) {
+            accountIds.stream().distinct().sorted().forEach(accountId -> acquireAdvisoryLock(scope, accountId));
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Transaction-scoped account lock requires an active transaction (scope=" + scope + ")");
+        }
+        var held = heldStripes();
+        var indexes = accountIds.stream()
+                .map(this::transactionStripeIndex)
+                .filter(index -> !held.indexes.get(index))
+                .distinct()
+                .sorted()
+                .toList();
+        for (var index : indexes) {
+            acquireTransactionStripe(scope, index, held);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    private void acquireAdvisoryLock(String scope, Long accountId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Advisory account lock requires an active transaction (scope=" + scope + ")");
+        }
+        log.debug("Acquiring advisory lock for scope {} and account {}", scope, accountId);
+        jdbcTemplate.queryForList(ADVISORY_LOCK_SQL, scope, Long.hashCode(accountId));
+    }
+
+    private boolean isPostgres() {
+        if (jdbcTemplate == null) {
+            return false;
+        }
+        var postgres = this.postgres;
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            this.postgres = postgres;
+        }
+        return postgres;
+    }
+
+    /**
+     * Stripes are only ever waited for without a bound when they rank above every stripe the transaction holds.
+     */
+    private void acquireTransactionStripe(String scope, int index, HeldStripes held) {
+        var lock = transactionStripes[index];
+        if (index >= held.indexes.length()) {
+            lock.lock();
+        } else if (!tryLock(lock)) {
+            log.warn("Gave up waiting for account lock stripe {} out of order (scope={})", index, scope);
+            throw new ResourceConflictException("accountLock.busy");
+        }
+        held.indexes.set(index);
+    }
+
+    private boolean tryLock(ReentrantLock lock) {
+        try {
+            return lock.tryLock(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * The stripes of the current transaction live in its synchronization, so a transaction suspended for an
+     * inner one keeps its own set.
+     */
+    private HeldStripes heldStripes() {
+        for (var synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof HeldStripes held && held.owner() == this) {
+                return held;
+            }
+        }
+        var held = new HeldStripes();
+        TransactionSynchronizationManager.registerSynchronization(held);
+        return held;
+    }
+
+    ReentrantLock stripeFor(String scope, Long accountId) {
+        var hash = 31 * scope.hashCode() + Long.hashCode(accountId);
+        hash ^= (hash >>> 16);
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    ReentrantLock transactionStripeFor(Long accountId) {
+        return transactionStripes[transactionStripeIndex(accountId)];
+    }
+
+    private int transactionStripeIndex(Long accountId) {
+        var hash = Long.hashCode(accountId);
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, transactionStripes.length);
+    }
+
+    private static ReentrantLock[] newStripes(int count) {
+        var locks = new ReentrantLock[count];
+        for (var i = 0; i < count; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private final class HeldStripes implements TransactionSynchronization {
+        private final BitSet indexes = new BitSet();
+
+        AccountLockService owner() {
+            return AccountLockService.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            indexes.stream().forEach(index -> transactionStripes[index].unlock());
+            indexes.clear();
+        }
+    }
+}
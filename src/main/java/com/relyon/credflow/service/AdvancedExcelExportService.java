@@ -1,70 +1,138 @@
 package com.relyon.credflow.service;
 
+import com.relyon.credflow.constant.BusinessConstants;
 import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.transaction.TransactionFilter;
-import com.relyon.credflow.model.user.User;
-import com.relyon.credflow.repository.TransactionRepository;
+import com.relyon.credflow.model.transaction.TransactionSource;
+import com.relyon.credflow.model.transaction.TransactionType;
+import com.relyon.credflow.repository.TransactionExportRepository;
 import com.relyon.credflow.specification.TransactionSpecFactory;
-import java.io.ByteArrayOutputStream;
+import jakarta.annotation.PreDestroy;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.xddf.usermodel.chart.*;
 import org.apache.poi.ss.util.AreaReference;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Multi-sheet Excel report with KPIs, per-dimension summaries, charts and a pivot table.
+ * <p>
+ * The workbook is streamed: transactions are read once from a cursor and their rows, like the daily trend
+ * rows, go through SXSSF, which keeps only a bounded window of rows in memory and spills the rest to
+ * compressed temp files. The same pass accumulates every breakdown behind the dashboard and summary sheets
+ * in {@link ReportData}; those sheets are small and stay in the in-memory template workbook together with
+ * their charts and the pivot table. Formatting the transaction rows is spread over a small dedicated pool,
+ * see {@link #writeTransactionsSheet}.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AdvancedExcelExportService {
 
-    private final TransactionRepository transactionRepository;
+    private static final String DASHBOARD_SHEET = "Dashboard";
+    private static final String TRANSACTIONS_SHEET = "Transações";
+    private static final String CATEGORY_SHEET = "Por Categoria";
+    private static final String MONTHLY_SHEET = "Por Mês";
+    private static final String CREDIT_CARD_SHEET = "Por Cartão";
+    private static final String USER_SHEET = "Por Responsável";
+    private static final String DAILY_TREND_SHEET = "Tendência Diária";
+    private static final String DYNAMIC_ANALYSIS_SHEET = "Análise Dinâmica";
+    private static final List<String> SHEET_NAMES = List.of(DASHBOARD_SHEET, TRANSACTIONS_SHEET, CATEGORY_SHEET,
+            MONTHLY_SHEET, CREDIT_CARD_SHEET, USER_SHEET, DAILY_TREND_SHEET, DYNAMIC_ANALYSIS_SHEET);
+
+    private static final String[] TRANSACTION_HEADERS = {"Data", "Descrição", "Descrição Simplificada", "Categoria",
+            "Responsáveis", "Cartão de Crédito", "Valor", "Tipo", "Origem", "Parcela", "Mês"};
+    private static final int[] TRANSACTION_COLUMN_WIDTHS = {3200, 12000, 9000, 6000, 8000, 6000, 4500, 3800, 3800,
+            2800, 3200};
+    private static final String[] DAILY_TREND_HEADERS = {"Data", "Receitas", "Despesas", "Saldo do Dia",
+            "Saldo Acumulado"};
+    private static final int DAILY_TREND_COLUMN_WIDTH = 4500;
+    private static final int DAILY_TREND_HEADER_ROW = 2;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMM/yyyy");
 
-    @Transactional(readOnly = true)
-    public byte[] exportToExcel(TransactionFilter filter) throws IOException {
-        log.info("Generating advanced Excel export for account {} from {} to {}",
-                filter.accountId(), filter.fromDate(), filter.toDate());
+    private final TransactionExportRepository transactionExportRepository;
+    private final ForkJoinPool preparePool;
 
-        var spec = TransactionSpecFactory.from(filter);
-        var transactions = transactionRepository.findAll(spec, Sort.by(Sort.Direction.ASC, "date"));
-
-        try (var workbook = new XSSFWorkbook()) {
-            var styles = createStyles(workbook);
+    public AdvancedExcelExportService(TransactionExportRepository transactionExportRepository,
+                                      @Value("${app.excel-export.parallelism:4}") int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalStateException("Excel export parallelism must be greater than 0. Current value: "
+                    + parallelism);
+        }
+        this.transactionExportRepository = transactionExportRepository;
+        this.preparePool = new ForkJoinPool(parallelism, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("excel-export-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
 
-            createDashboardSheet(workbook, transactions, styles, filter);
-            createTransactionsSheet(workbook, transactions, styles);
-            createCategorySummarySheet(workbook, transactions, styles);
-            createMonthlySummarySheet(workbook, transactions, styles);
-            createCreditCardSummarySheet(workbook, transactions, styles);
-            createUserSummarySheet(workbook, transactions, styles);
-            createDailyTrendSheet(workbook, transactions, styles);
-            createDynamicAnalysisSheet(workbook, transactions);
+    @PreDestroy
+    public void shutdown() {
+        preparePool.shutdownNow();
+    }
 
-            workbook.setActiveSheet(0);
+    @Transactional(readOnly = true)
+    public void writeExcel(TransactionFilter filter, OutputStream outputStream) throws IOException {
+        log.info("Generating advanced Excel export for account {} from {} to {}",
+                filter.accountId(), filter.fromDate(), filter.toDate());
 
-            var baos = new ByteArrayOutputStream();
-            workbook.write(baos);
-            return baos.toByteArray();
+        var template = new XSSFWorkbook();
+        var styles = createStyles(template);
+        SHEET_NAMES.forEach(template::createSheet);
+        writeHeaderRow(template.getSheet(TRANSACTIONS_SHEET), 0, TRANSACTION_HEADERS, styles.get("header"));
+        writeDailyTrendTitle(template.getSheet(DAILY_TREND_SHEET), styles);
+
+        try (var workbook = new SXSSFWorkbook(template, BusinessConstants.Export.EXCEL_ROW_ACCESS_WINDOW, true)) {
+            try {
+                var report = writeTransactionsSheet(workbook.getSheet(TRANSACTIONS_SHEET),
+                        TransactionSpecFactory.from(filter), styles);
+                writeDailyTrendSheet(workbook.getSheet(DAILY_TREND_SHEET), template.getSheet(DAILY_TREND_SHEET),
+                        report, styles);
+
+                createDashboardSheet(template.getSheet(DASHBOARD_SHEET), report, styles, filter);
+                createCategorySummarySheet(template.getSheet(CATEGORY_SHEET), report, styles);
+                createMonthlySummarySheet(template.getSheet(MONTHLY_SHEET), report, styles);
+                createCreditCardSummarySheet(template.getSheet(CREDIT_CARD_SHEET), report, styles);
+                createUserSummarySheet(template.getSheet(USER_SHEET), report, styles);
+                createDynamicAnalysisSheet(template, report);
+
+                workbook.setActiveSheet(0);
+                workbook.write(outputStream);
+
+                log.info("Exported {} transactions to Excel for account {}", report.count, filter.accountId());
+            } finally {
+                workbook.dispose();
+            }
         }
     }
 
@@ -200,9 +268,8 @@ public class AdvancedExcelExportService {
         return styles;
     }
 
-    private void createDashboardSheet(XSSFWorkbook workbook, List<Transaction> transactions,
+    private void createDashboardSheet(XSSFSheet sheet, ReportData report,
                                       Map<String, CellStyle> styles, TransactionFilter filter) {
-        var sheet = workbook.createSheet("Dashboard");
         sheet.setColumnWidth(0, 5000);
         sheet.setColumnWidth(1, 5000);
         sheet.setColumnWidth(2, 5000);
@@ -228,14 +295,9 @@ public class AdvancedExcelExportService {
 
         rowNum++;
 
-        var summary = calculateSummary(transactions);
-        var totalIncome = summary[0];
-        var totalExpense = summary[1];
-        var balance = summary[2];
-        var transactionCount = transactions.size();
-        var avgTransaction = transactionCount > 0
-                ? totalExpense.divide(BigDecimal.valueOf(transactionCount), 2, RoundingMode.HALF_UP)
-                : BigDecimal.ZERO;
+        var totalExpense = report.expenseCents;
+        var balance = report.incomeCents - report.expenseCents;
+        var transactionCount = report.count;
 
         var kpiHeaderRow = sheet.createRow(rowNum++);
         createKpiHeader(kpiHeaderRow, 0, "Total Receitas", styles);
@@ -245,13 +307,13 @@ public class AdvancedExcelExportService {
         createKpiHeader(kpiHeaderRow, 4, "Média por Transação", styles);
 
         var kpiValueRow = sheet.createRow(rowNum++);
-        createKpiValue(kpiValueRow, 0, totalIncome, styles, "income");
-        createKpiValue(kpiValueRow, 1, totalExpense.negate(), styles, "expense");
-        createKpiValue(kpiValueRow, 2, balance, styles, balance.compareTo(BigDecimal.ZERO) >= 0 ? "income" : "expense");
+        createKpiValue(kpiValueRow, 0, toAmount(report.incomeCents), styles, "income");
+        createKpiValue(kpiValueRow, 1, -toAmount(totalExpense), styles, "expense");
+        createKpiValue(kpiValueRow, 2, toAmount(balance), styles, balance >= 0 ? "income" : "expense");
         var countCell = kpiValueRow.createCell(3);
         countCell.setCellValue(transactionCount);
         countCell.setCellStyle(styles.get("kpiValue"));
-        createKpiValue(kpiValueRow, 4, avgTransaction.negate(), styles, "expense");
+        createKpiValue(kpiValueRow, 4, -toAmount(average(totalExpense, transactionCount)), styles, "expense");
 
         rowNum += 2;
 
@@ -259,201 +321,230 @@ public class AdvancedExcelExportService {
         topCategoriesTitle.createCell(0).setCellValue("Top 10 Categorias por Gasto");
         topCategoriesTitle.getCell(0).setCellStyle(styles.get("subtitle"));
 
-        var categoryTotals = calculateCategoryTotals(transactions);
-        var topCategories = categoryTotals.entrySet().stream()
-                .sorted(Map.Entry.<String, BigDecimal>comparingByValue().reversed())
+        var categories = report.byCategory;
+        var topCategories = Arrays.stream(categories.byExpenseDescending())
+                .filter(ordinal -> categories.expense(ordinal) > 0)
                 .limit(10)
-                .toList();
+                .toArray();
 
         var catHeaderRow = sheet.createRow(rowNum++);
         createCell(catHeaderRow, 0, "Categoria", styles.get("header"));
         createCell(catHeaderRow, 1, "Total", styles.get("header"));
         createCell(catHeaderRow, 2, "% do Total", styles.get("header"));
 
-        for (var entry : topCategories) {
+        for (var ordinal : topCategories) {
             var row = sheet.createRow(rowNum++);
-            createCell(row, 0, entry.getKey(), styles.get("normal"));
+            createCell(row, 0, categories.label(ordinal), styles.get("normal"));
             var valueCell = row.createCell(1);
-            valueCell.setCellValue(entry.getValue().negate().doubleValue());
+            valueCell.setCellValue(-toAmount(categories.expense(ordinal)));
             valueCell.setCellStyle(styles.get("currency"));
             var percentCell = row.createCell(2);
-            var percent = totalExpense.compareTo(BigDecimal.ZERO) > 0
-                    ? entry.getValue().divide(totalExpense, 4, RoundingMode.HALF_UP).doubleValue()
-                    : 0;
-            percentCell.setCellValue(percent);
+            percentCell.setCellValue(share(categories.expense(ordinal), totalExpense));
             percentCell.setCellStyle(styles.get("percent"));
         }
 
-        if (!topCategories.isEmpty()) {
-            createPieChart(sheet, rowNum - topCategories.size(), rowNum - 1, 4, 20, "Distribuição por Categoria");
+        if (topCategories.length > 0) {
+            createPieChart(sheet, rowNum - topCategories.length, rowNum - 1, 4, 20, "Distribuição por Categoria");
         }
     }
 
-    private void createTransactionsSheet(XSSFWorkbook workbook, List<Transaction> transactions,
-                                         Map<String, CellStyle> styles) {
-        var sheet = workbook.createSheet("Transações");
-
-        var headers = new String[]{"Data", "Descrição", "Descrição Simplificada", "Categoria",
-                "Responsáveis", "Cartão de Crédito", "Valor", "Tipo", "Origem", "Parcela", "Mês"};
-
-        var headerRow = sheet.createRow(0);
-        for (var i = 0; i < headers.length; i++) {
-            createCell(headerRow, i, headers[i], styles.get("header"));
+    /**
+     * Streams the transaction rows. The calling thread reads the cursor, folds each chunk into the report and
+     * reduces it to {@link RawRow}s, which refer to names through dense ordinals of {@link LabelTable}s, before
+     * detaching it. Formatting those rows into {@link PreparedRow}s runs on the export pool, one task per chunk,
+     * while the calling thread keeps reading; it then appends the prepared chunks in cursor order, so POI is only
+     * ever used from one thread.
+     */
+    private ReportData writeTransactionsSheet(SXSSFSheet sheet, Specification<Transaction> spec,
+                                              Map<String, CellStyle> styles) {
+        for (var i = 0; i < TRANSACTION_COLUMN_WIDTHS.length; i++) {
+            sheet.setColumnWidth(i, TRANSACTION_COLUMN_WIDTHS[i]);
         }
 
+        var report = new ReportData();
+        var categories = new LabelTable();
+        var creditCards = new LabelTable();
+        var users = new LabelTable();
+        var pending = new ArrayDeque<ForkJoinTask<PreparedRow[]>>();
+        var maxInFlight = preparePool.getParallelism() + 1;
         var rowNum = 1;
-        for (var transaction : transactions) {
-            var row = sheet.createRow(rowNum++);
-
-            var dateCell = row.createCell(0);
-            dateCell.setCellValue(transaction.getDate());
-            dateCell.setCellStyle(styles.get("date"));
+        try (var transactions = transactionExportRepository.stream(
+                spec, Sort.by(Sort.Direction.ASC, "date"), BusinessConstants.Export.STREAM_FETCH_SIZE)) {
+            var chunk = new ArrayList<Transaction>(BusinessConstants.Export.STREAM_FETCH_SIZE);
+            var iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == BusinessConstants.Export.STREAM_FETCH_SIZE || !iterator.hasNext()) {
+                    transactionExportRepository.fetchResponsibleUsers(chunk);
+                    var rawRows = new RawRow[chunk.size()];
+                    for (var i = 0; i < rawRows.length; i++) {
+                        var transaction = chunk.get(i);
+                        rawRows[i] = RawRow.of(transaction, categories, creditCards, users);
+                        report.add(transaction);
+                    }
+                    transactionExportRepository.detach(chunk);
+                    chunk = new ArrayList<>(BusinessConstants.Export.STREAM_FETCH_SIZE);
+
+                    var categoryLabels = categories.labels();
+                    var creditCardLabels = creditCards.labels();
+                    var userLabels = users.labels();
+                    pending.add(preparePool.submit(
+                            () -> prepareRows(rawRows, categoryLabels, creditCardLabels, userLabels)));
+                    while (pending.size() >= maxInFlight) {
+                        rowNum = writeTransactionRows(sheet, rowNum, pending.poll().join(), styles);
+                    }
+                }
+            }
+            while (!pending.isEmpty()) {
+                rowNum = writeTransactionRows(sheet, rowNum, pending.poll().join(), styles);
+            }
+        } finally {
+            pending.forEach(task -> task.cancel(false));
+        }
 
-            createCell(row, 1, transaction.getDescription(), styles.get("normal"));
-            createCell(row, 2, transaction.getSimplifiedDescription(), styles.get("normal"));
-            createCell(row, 3, transaction.getCategory() != null ? transaction.getCategory().getName() : "", styles.get("normal"));
-            createCell(row, 4, formatResponsibleUsers(transaction), styles.get("normal"));
-            createCell(row, 5, transaction.getCreditCard() != null ? transaction.getCreditCard().getNickname() : "", styles.get("normal"));
+        if (rowNum > 1) {
+            sheet.setAutoFilter(new CellRangeAddress(0, rowNum - 1, 0, TRANSACTION_HEADERS.length - 1));
+        }
 
-            var valueCell = row.createCell(6);
-            valueCell.setCellValue(transaction.getValue().doubleValue());
-            valueCell.setCellStyle(transaction.getValue().compareTo(BigDecimal.ZERO) >= 0
-                    ? styles.get("income") : styles.get("expense"));
+        sheet.createFreezePane(0, 1);
+        return report;
+    }
 
-            createCell(row, 7, transaction.getTransactionType() != null ? transaction.getTransactionType().name() : "", styles.get("normal"));
-            createCell(row, 8, transaction.getSource() != null ? transaction.getSource().name() : "", styles.get("normal"));
+    /**
+     * Formats one chunk on the export pool. Only reads the raw rows and label arrays handed over at submission.
+     */
+    private static PreparedRow[] prepareRows(RawRow[] rawRows, String[] categoryLabels, String[] creditCardLabels,
+                                             String[] userLabels) {
+        var months = new HashMap<YearMonth, String>();
+        var prepared = new PreparedRow[rawRows.length];
+        for (var i = 0; i < rawRows.length; i++) {
+            var raw = rawRows[i];
+
+            var responsibleUsers = "";
+            if (raw.users().length == 1) {
+                responsibleUsers = userLabels[raw.users()[0]];
+            } else if (raw.users().length > 1) {
+                var joiner = new StringJoiner(", ");
+                for (var user : raw.users()) {
+                    joiner.add(userLabels[user]);
+                }
+                responsibleUsers = joiner.toString();
+            }
 
             var installment = "";
-            if (transaction.getCurrentInstallment() != null && transaction.getTotalInstallments() != null) {
-                installment = transaction.getCurrentInstallment() + "/" + transaction.getTotalInstallments();
+            if (raw.currentInstallment() != null && raw.totalInstallments() != null) {
+                installment = raw.currentInstallment() + "/" + raw.totalInstallments();
             }
-            createCell(row, 9, installment, styles.get("normal"));
 
-            var yearMonth = YearMonth.from(transaction.getDate()).format(MONTH_FORMATTER);
-            createCell(row, 10, yearMonth, styles.get("normal"));
+            prepared[i] = new PreparedRow(
+                    DateUtil.getExcelDate(raw.date().atStartOfDay(), false),
+                    raw.description(),
+                    raw.simplifiedDescription(),
+                    categoryLabels[raw.category()],
+                    responsibleUsers,
+                    creditCardLabels[raw.creditCard()],
+                    raw.value().doubleValue(),
+                    raw.value().signum() >= 0,
+                    raw.type() != null ? raw.type().name() : "",
+                    raw.source() != null ? raw.source().name() : "",
+                    installment,
+                    months.computeIfAbsent(YearMonth.from(raw.date()), month -> month.format(MONTH_FORMATTER))
+            );
         }
+        return prepared;
+    }
 
-        for (var i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
+    private int writeTransactionRows(SXSSFSheet sheet, int rowNum, PreparedRow[] rows, Map<String, CellStyle> styles) {
+        var dateStyle = styles.get("date");
+        var normalStyle = styles.get("normal");
+        var incomeStyle = styles.get("income");
+        var expenseStyle = styles.get("expense");
+        for (var prepared : rows) {
+            var row = sheet.createRow(rowNum++);
 
-        if (!transactions.isEmpty()) {
-            sheet.setAutoFilter(new CellRangeAddress(0, rowNum - 1, 0, headers.length - 1));
-        }
+            var dateCell = row.createCell(0);
+            dateCell.setCellValue(prepared.excelDate());
+            dateCell.setCellStyle(dateStyle);
 
-        sheet.createFreezePane(0, 1);
-    }
+            createCell(row, 1, prepared.description(), normalStyle);
+            createCell(row, 2, prepared.simplifiedDescription(), normalStyle);
+            createCell(row, 3, prepared.category(), normalStyle);
+            createCell(row, 4, prepared.responsibleUsers(), normalStyle);
+            createCell(row, 5, prepared.creditCard(), normalStyle);
 
-    private void createCategorySummarySheet(XSSFWorkbook workbook, List<Transaction> transactions,
-                                            Map<String, CellStyle> styles) {
-        var sheet = workbook.createSheet("Por Categoria");
+            var valueCell = row.createCell(6);
+            valueCell.setCellValue(prepared.value());
+            valueCell.setCellStyle(prepared.income() ? incomeStyle : expenseStyle);
+
+            createCell(row, 7, prepared.type(), normalStyle);
+            createCell(row, 8, prepared.source(), normalStyle);
+            createCell(row, 9, prepared.installment(), normalStyle);
+            createCell(row, 10, prepared.month(), normalStyle);
+        }
+        return rowNum;
+    }
 
+    private void createCategorySummarySheet(XSSFSheet sheet, ReportData report, Map<String, CellStyle> styles) {
         var titleRow = sheet.createRow(0);
         titleRow.createCell(0).setCellValue("Resumo por Categoria");
         titleRow.getCell(0).setCellStyle(styles.get("categoryTitle"));
 
         var headers = new String[]{"Categoria", "Receitas", "Despesas", "Saldo", "Qtd", "% Despesas"};
-        var headerRow = sheet.createRow(2);
-        for (var i = 0; i < headers.length; i++) {
-            createCell(headerRow, i, headers[i], styles.get("categoryHeader"));
-        }
-
-        var categoryData = calculateCategoryDetails(transactions);
-        var totalExpense = transactions.stream()
-                .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .map(transaction -> transaction.getValue().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        writeHeaderRow(sheet, 2, headers, styles.get("categoryHeader"));
 
         var rowNum = 3;
         var dataStartRow = rowNum;
-        for (var entry : categoryData.entrySet()) {
-            var row = sheet.createRow(rowNum++);
-            var data = entry.getValue();
-
-            createCell(row, 0, entry.getKey(), styles.get("normal"));
-
-            var incomeCell = row.createCell(1);
-            incomeCell.setCellValue(data.income.doubleValue());
-            incomeCell.setCellStyle(styles.get("income"));
-
-            var expenseCell = row.createCell(2);
-            expenseCell.setCellValue(data.expense.negate().doubleValue());
-            expenseCell.setCellStyle(styles.get("expense"));
-
-            var balanceCell = row.createCell(3);
-            balanceCell.setCellValue(data.income.subtract(data.expense).doubleValue());
-            balanceCell.setCellStyle(styles.get("currency"));
-
-            var countCell = row.createCell(4);
-            countCell.setCellValue(data.count);
-            countCell.setCellStyle(styles.get("normal"));
-
-            var percentCell = row.createCell(5);
-            var percent = totalExpense.compareTo(BigDecimal.ZERO) > 0
-                    ? data.expense.divide(totalExpense, 4, RoundingMode.HALF_UP).doubleValue()
-                    : 0;
-            percentCell.setCellValue(percent);
-            percentCell.setCellStyle(styles.get("percent"));
-        }
+        rowNum = writeBreakdownRows(sheet, rowNum, report.byCategory, report.expenseCents, styles);
 
         for (var i = 0; i < headers.length; i++) {
             sheet.autoSizeColumn(i);
         }
 
-        if (!categoryData.isEmpty()) {
+        if (report.byCategory.size() > 0) {
             sheet.setAutoFilter(new CellRangeAddress(2, rowNum - 1, 0, headers.length - 1));
             createBarChart(sheet, dataStartRow, rowNum - 1, 7, 25, "Despesas por Categoria", 0, 2);
             createPieChart(sheet, dataStartRow, rowNum - 1, 7, 45, "Distribuição de Despesas", 2);
         }
     }
 
-    private void createMonthlySummarySheet(XSSFWorkbook workbook, List<Transaction> transactions,
-                                           Map<String, CellStyle> styles) {
-        var sheet = workbook.createSheet("Por Mês");
-
+    private void createMonthlySummarySheet(XSSFSheet sheet, ReportData report, Map<String, CellStyle> styles) {
         var titleRow = sheet.createRow(0);
         titleRow.createCell(0).setCellValue("Resumo Mensal");
         titleRow.getCell(0).setCellStyle(styles.get("title"));
 
         var headers = new String[]{"Mês", "Receitas", "Despesas", "Saldo", "Saldo Acumulado", "Qtd"};
-        var headerRow = sheet.createRow(2);
-        for (var i = 0; i < headers.length; i++) {
-            createCell(headerRow, i, headers[i], styles.get("header"));
-        }
+        writeHeaderRow(sheet, 2, headers, styles.get("header"));
 
-        var monthlyData = calculateMonthlyDetails(transactions);
+        var months = report.byMonth;
         var rowNum = 3;
         var dataStartRow = rowNum;
-        var accumulatedBalance = BigDecimal.ZERO;
+        var accumulatedBalance = 0L;
 
-        for (var entry : monthlyData.entrySet()) {
+        for (var ordinal : months.byKey(Comparator.naturalOrder())) {
             var row = sheet.createRow(rowNum++);
-            var data = entry.getValue();
 
-            createCell(row, 0, entry.getKey().format(MONTH_FORMATTER), styles.get("normal"));
+            createCell(row, 0, months.key(ordinal).format(MONTH_FORMATTER), styles.get("normal"));
 
             var incomeCell = row.createCell(1);
-            incomeCell.setCellValue(data.income.doubleValue());
+            incomeCell.setCellValue(toAmount(months.income(ordinal)));
             incomeCell.setCellStyle(styles.get("income"));
 
             var expenseCell = row.createCell(2);
-            expenseCell.setCellValue(data.expense.negate().doubleValue());
+            expenseCell.setCellValue(-toAmount(months.expense(ordinal)));
             expenseCell.setCellStyle(styles.get("expense"));
 
-            var balance = data.income.subtract(data.expense);
+            var balance = months.balance(ordinal);
             var balanceCell = row.createCell(3);
-            balanceCell.setCellValue(balance.doubleValue());
-            balanceCell.setCellStyle(balance.compareTo(BigDecimal.ZERO) >= 0
-                    ? styles.get("income") : styles.get("expense"));
+            balanceCell.setCellValue(toAmount(balance));
+            balanceCell.setCellStyle(balance >= 0 ? styles.get("income") : styles.get("expense"));
 
-            accumulatedBalance = accumulatedBalance.add(balance);
+            accumulatedBalance += balance;
             var accBalanceCell = row.createCell(4);
-            accBalanceCell.setCellValue(accumulatedBalance.doubleValue());
-            accBalanceCell.setCellStyle(accumulatedBalance.compareTo(BigDecimal.ZERO) >= 0
-                    ? styles.get("income") : styles.get("expense"));
+            accBalanceCell.setCellValue(toAmount(accumulatedBalance));
+            accBalanceCell.setCellStyle(accumulatedBalance >= 0 ? styles.get("income") : styles.get("expense"));
 
             var countCell = row.createCell(5);
-            countCell.setCellValue(data.count);
+            countCell.setCellValue(months.count(ordinal));
             countCell.setCellStyle(styles.get("normal"));
         }
 
@@ -461,58 +552,40 @@ public class AdvancedExcelExportService {
             sheet.autoSizeColumn(i);
         }
 
-        if (!monthlyData.isEmpty()) {
+        if (months.size() > 0) {
             createLineChart(sheet, dataStartRow, rowNum - 1, 7, 25, "Evolução Mensal", 0, 1, 2);
         }
     }
 
-    private void createCreditCardSummarySheet(XSSFWorkbook workbook, List<Transaction> transactions,
-                                              Map<String, CellStyle> styles) {
-        var sheet = workbook.createSheet("Por Cartão");
-
+    private void createCreditCardSummarySheet(XSSFSheet sheet, ReportData report, Map<String, CellStyle> styles) {
         var titleRow = sheet.createRow(0);
         titleRow.createCell(0).setCellValue("Resumo por Cartão de Crédito");
         titleRow.getCell(0).setCellStyle(styles.get("title"));
 
         var headers = new String[]{"Cartão", "Total Gasto", "Qtd Transações", "Ticket Médio", "% do Total"};
-        var headerRow = sheet.createRow(2);
-        for (var i = 0; i < headers.length; i++) {
-            createCell(headerRow, i, headers[i], styles.get("header"));
-        }
-
-        var cardData = calculateCreditCardDetails(transactions);
-        var totalExpense = transactions.stream()
-                .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .map(transaction -> transaction.getValue().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        writeHeaderRow(sheet, 2, headers, styles.get("header"));
 
+        var cards = report.byCreditCard;
         var rowNum = 3;
-        for (var entry : cardData.entrySet()) {
+        for (var ordinal : cards.byExpenseDescending()) {
             var row = sheet.createRow(rowNum++);
-            var data = entry.getValue();
 
-            createCell(row, 0, entry.getKey(), styles.get("normal"));
+            createCell(row, 0, cards.label(ordinal), styles.get("normal"));
 
             var expenseCell = row.createCell(1);
-            expenseCell.setCellValue(data.expense.negate().doubleValue());
+            expenseCell.setCellValue(-toAmount(cards.expense(ordinal)));
             expenseCell.setCellStyle(styles.get("expense"));
 
             var countCell = row.createCell(2);
-            countCell.setCellValue(data.count);
+            countCell.setCellValue(cards.count(ordinal));
             countCell.setCellStyle(styles.get("normal"));
 
             var avgCell = row.createCell(3);
-            var avg = data.count > 0
-                    ? data.expense.divide(BigDecimal.valueOf(data.count), 2, RoundingMode.HALF_UP)
-                    : BigDecimal.ZERO;
-            avgCell.setCellValue(avg.negate().doubleValue());
+            avgCell.setCellValue(-toAmount(average(cards.expense(ordinal), cards.count(ordinal))));
             avgCell.setCellStyle(styles.get("currency"));
 
             var percentCell = row.createCell(4);
-            var percent = totalExpense.compareTo(BigDecimal.ZERO) > 0
-                    ? data.expense.divide(totalExpense, 4, RoundingMode.HALF_UP).doubleValue()
-                    : 0;
-            percentCell.setCellValue(percent);
+            percentCell.setCellValue(share(cards.expense(ordinal), report.expenseCents));
             percentCell.setCellStyle(styles.get("percent"));
         }
 
@@ -520,136 +593,126 @@ public class AdvancedExcelExportService {
             sheet.autoSizeColumn(i);
         }
 
-        if (!cardData.isEmpty()) {
+        if (cards.size() > 0) {
             sheet.setAutoFilter(new CellRangeAddress(2, rowNum - 1, 0, headers.length - 1));
         }
     }
 
-    private void createUserSummarySheet(XSSFWorkbook workbook, List<Transaction> transactions,
-                                        Map<String, CellStyle> styles) {
-        var sheet = workbook.createSheet("Por Responsável");
-
+    private void createUserSummarySheet(XSSFSheet sheet, ReportData report, Map<String, CellStyle> styles) {
         var titleRow = sheet.createRow(0);
         titleRow.createCell(0).setCellValue("Resumo por Responsável");
         titleRow.getCell(0).setCellStyle(styles.get("title"));
 
         var headers = new String[]{"Responsável", "Receitas", "Despesas", "Saldo", "Qtd", "% Despesas"};
-        var headerRow = sheet.createRow(2);
+        writeHeaderRow(sheet, 2, headers, styles.get("header"));
+
+        var rowNum = writeBreakdownRows(sheet, 3, report.byUser, report.expenseCents, styles);
+
         for (var i = 0; i < headers.length; i++) {
-            createCell(headerRow, i, headers[i], styles.get("header"));
+            sheet.autoSizeColumn(i);
         }
 
-        var userData = calculateUserDetails(transactions);
-        var totalExpense = transactions.stream()
-                .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .map(transaction -> transaction.getValue().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (report.byUser.size() > 0) {
+            sheet.setAutoFilter(new CellRangeAddress(2, rowNum - 1, 0, headers.length - 1));
+        }
+    }
 
-        var rowNum = 3;
-        for (var entry : userData.entrySet()) {
+    /**
+     * Writes one row per key of the breakdown, largest expense first, with income, expense, balance, count and
+     * share of the total expense. Returns the next free row.
+     */
+    private int writeBreakdownRows(XSSFSheet sheet, int rowNum, Breakdown<?> breakdown, long totalExpense,
+                                   Map<String, CellStyle> styles) {
+        for (var ordinal : breakdown.byExpenseDescending()) {
             var row = sheet.createRow(rowNum++);
-            var data = entry.getValue();
 
-            createCell(row, 0, entry.getKey(), styles.get("normal"));
+            createCell(row, 0, breakdown.label(ordinal), styles.get("normal"));
 
             var incomeCell = row.createCell(1);
-            incomeCell.setCellValue(data.income.doubleValue());
+            incomeCell.setCellValue(toAmount(breakdown.income(ordinal)));
             incomeCell.setCellStyle(styles.get("income"));
 
             var expenseCell = row.createCell(2);
-            expenseCell.setCellValue(data.expense.negate().doubleValue());
+            expenseCell.setCellValue(-toAmount(breakdown.expense(ordinal)));
             expenseCell.setCellStyle(styles.get("expense"));
 
             var balanceCell = row.createCell(3);
-            balanceCell.setCellValue(data.income.subtract(data.expense).doubleValue());
+            balanceCell.setCellValue(toAmount(breakdown.balance(ordinal)));
             balanceCell.setCellStyle(styles.get("currency"));
 
             var countCell = row.createCell(4);
-            countCell.setCellValue(data.count);
+            countCell.setCellValue(breakdown.count(ordinal));
             countCell.setCellStyle(styles.get("normal"));
 
             var percentCell = row.createCell(5);
-            var percent = totalExpense.compareTo(BigDecimal.ZERO) > 0
-                    ? data.expense.divide(totalExpense, 4, RoundingMode.HALF_UP).doubleValue()
-                    : 0;
-            percentCell.setCellValue(percent);
+            percentCell.setCellValue(share(breakdown.expense(ordinal), totalExpense));
             percentCell.setCellStyle(styles.get("percent"));
         }
-
-        for (var i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
-
-        if (!userData.isEmpty()) {
-            sheet.setAutoFilter(new CellRangeAddress(2, rowNum - 1, 0, headers.length - 1));
-        }
+        return rowNum;
     }
 
-    private void createDailyTrendSheet(XSSFWorkbook workbook, List<Transaction> transactions,
-                                       Map<String, CellStyle> styles) {
-        var sheet = workbook.createSheet("Tendência Diária");
-
+    private void writeDailyTrendTitle(XSSFSheet sheet, Map<String, CellStyle> styles) {
         var titleRow = sheet.createRow(0);
         titleRow.createCell(0).setCellValue("Tendência Diária de Gastos");
         titleRow.getCell(0).setCellStyle(styles.get("title"));
 
-        var headers = new String[]{"Data", "Receitas", "Despesas", "Saldo do Dia", "Saldo Acumulado"};
-        var headerRow = sheet.createRow(2);
-        for (var i = 0; i < headers.length; i++) {
-            createCell(headerRow, i, headers[i], styles.get("header"));
+        writeHeaderRow(sheet, DAILY_TREND_HEADER_ROW, DAILY_TREND_HEADERS, styles.get("header"));
+    }
+
+    /**
+     * Streams the daily rows below the title and header already written to the template sheet. The chart is
+     * drawn on the template sheet and reads the streamed range when the workbook is opened.
+     */
+    private void writeDailyTrendSheet(SXSSFSheet sheet, XSSFSheet templateSheet, ReportData report,
+                                      Map<String, CellStyle> styles) {
+        for (var i = 0; i < DAILY_TREND_HEADERS.length; i++) {
+            sheet.setColumnWidth(i, DAILY_TREND_COLUMN_WIDTH);
         }
 
-        var dailyData = calculateDailyDetails(transactions);
-        var rowNum = 3;
+        var days = report.byDay;
+        var rowNum = DAILY_TREND_HEADER_ROW + 1;
         var dataStartRow = rowNum;
-        var accumulatedBalance = BigDecimal.ZERO;
+        var accumulatedBalance = 0L;
 
-        for (var entry : dailyData.entrySet()) {
+        for (var ordinal : days.byKey(Comparator.naturalOrder())) {
             var row = sheet.createRow(rowNum++);
-            var data = entry.getValue();
 
             var dateCell = row.createCell(0);
-            dateCell.setCellValue(entry.getKey());
+            dateCell.setCellValue(days.key(ordinal));
             dateCell.setCellStyle(styles.get("date"));
 
             var incomeCell = row.createCell(1);
-            incomeCell.setCellValue(data.income.doubleValue());
+            incomeCell.setCellValue(toAmount(days.income(ordinal)));
             incomeCell.setCellStyle(styles.get("income"));
 
             var expenseCell = row.createCell(2);
-            expenseCell.setCellValue(data.expense.negate().doubleValue());
+            expenseCell.setCellValue(-toAmount(days.expense(ordinal)));
             expenseCell.setCellStyle(styles.get("expense"));
 
-            var dailyBalance = data.income.subtract(data.expense);
+            var dailyBalance = days.balance(ordinal);
             var balanceCell = row.createCell(3);
-            balanceCell.setCellValue(dailyBalance.doubleValue());
-            balanceCell.setCellStyle(dailyBalance.compareTo(BigDecimal.ZERO) >= 0
-                    ? styles.get("income") : styles.get("expense"));
+            balanceCell.setCellValue(toAmount(dailyBalance));
+            balanceCell.setCellStyle(dailyBalance >= 0 ? styles.get("income") : styles.get("expense"));
 
-            accumulatedBalance = accumulatedBalance.add(dailyBalance);
+            accumulatedBalance += dailyBalance;
             var accBalanceCell = row.createCell(4);
-            accBalanceCell.setCellValue(accumulatedBalance.doubleValue());
-            accBalanceCell.setCellStyle(accumulatedBalance.compareTo(BigDecimal.ZERO) >= 0
-                    ? styles.get("income") : styles.get("expense"));
-        }
-
-        for (var i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            accBalanceCell.setCellValue(toAmount(accumulatedBalance));
+            accBalanceCell.setCellStyle(accumulatedBalance >= 0 ? styles.get("income") : styles.get("expense"));
         }
 
-        if (dailyData.size() > 1) {
-            createLineChart(sheet, dataStartRow, rowNum - 1, 6, 25, "Evolução do Saldo Acumulado", 0, 4, -1);
+        if (days.size() > 1) {
+            createLineChart(templateSheet, dataStartRow, rowNum - 1, 6, 25, "Evolução do Saldo Acumulado", 0, 4, -1);
         }
     }
 
-    private void createDynamicAnalysisSheet(XSSFWorkbook workbook, List<Transaction> transactions) {
-        if (transactions.isEmpty()) {
+    private void createDynamicAnalysisSheet(XSSFWorkbook workbook, ReportData report) {
+        if (report.count == 0) {
             return;
         }
 
-        var transactionsSheet = workbook.getSheet("Transações");
-        var lastRow = transactionsSheet.getLastRowNum();
-        var lastCol = 10;
+        var transactionsSheet = workbook.getSheet(TRANSACTIONS_SHEET);
+        var lastRow = report.count;
+        var lastCol = TRANSACTION_HEADERS.length - 1;
 
         var source = new AreaReference(
                 new CellReference(0, 0),
@@ -657,7 +720,7 @@ public class AdvancedExcelExportService {
                 workbook.getSpreadsheetVersion()
         );
 
-        var pivotSheet = workbook.createSheet("Análise Dinâmica");
+        var pivotSheet = workbook.getSheet(DYNAMIC_ANALYSIS_SHEET);
         var pivotTable = pivotSheet.createPivotTable(source, new CellReference(0, 0), transactionsSheet);
 
         pivotTable.addRowLabel(3);
@@ -795,15 +858,22 @@ public class AdvancedExcelExportService {
         cell.setCellStyle(style);
     }
 
+    private void writeHeaderRow(Sheet sheet, int rowNum, String[] headers, CellStyle style) {
+        var row = sheet.createRow(rowNum);
+        for (var i = 0; i < headers.length; i++) {
+            createCell(row, i, headers[i], style);
+        }
+    }
+
     private void createKpiHeader(Row row, int column, String value, Map<String, CellStyle> styles) {
         var cell = row.createCell(column);
         cell.setCellValue(value);
         cell.setCellStyle(styles.get("kpiTitle"));
     }
 
-    private void createKpiValue(Row row, int column, BigDecimal value, Map<String, CellStyle> styles, String styleKey) {
+    private void createKpiValue(Row row, int column, double value, Map<String, CellStyle> styles, String styleKey) {
         var cell = row.createCell(column);
-        cell.setCellValue(value.doubleValue());
+        cell.setCellValue(value);
         var style = styles.get("kpiValue");
         if ("income".equals(styleKey)) {
             var workbook = (XSSFWorkbook) row.getSheet().getWorkbook();
@@ -839,192 +909,236 @@ public class AdvancedExcelExportService {
                 && filter.fromDate().getYear() <= 1900;
     }
 
-    private String formatResponsibleUsers(Transaction transaction) {
-        if (transaction.getResponsibleUsers() == null || transaction.getResponsibleUsers().isEmpty()) {
-            return "";
-        }
-        return transaction.getResponsibleUsers().stream()
-                .map(User::getName)
-                .collect(Collectors.joining(", "));
+    private static double toAmount(long cents) {
+        return cents / 100.0;
     }
 
-    private BigDecimal[] calculateSummary(List<Transaction> transactions) {
-        var income = transactions.stream()
-                .map(Transaction::getValue)
-                .filter(value -> value.compareTo(BigDecimal.ZERO) > 0)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        var expense = transactions.stream()
-                .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .map(transaction -> transaction.getValue().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        var balance = income.subtract(expense);
-
-        return new BigDecimal[]{income, expense, balance};
+    private static long average(long cents, int count) {
+        return count > 0 ? Math.round((double) cents / count) : 0;
     }
 
-    private Map<String, BigDecimal> calculateCategoryTotals(List<Transaction> transactions) {
-        return transactions.stream()
-                .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .collect(Collectors.groupingBy(
-                        transaction -> transaction.getCategory() != null ? transaction.getCategory().getName() : "Sem Categoria",
-                        Collectors.reducing(BigDecimal.ZERO, transaction -> transaction.getValue().abs(), BigDecimal::add)
-                ));
+    private static double share(long part, long total) {
+        return total > 0
+                ? BigDecimal.valueOf(part).divide(BigDecimal.valueOf(total), 4, RoundingMode.HALF_UP).doubleValue()
+                : 0;
     }
 
-    private Map<String, SummaryData> calculateCategoryDetails(List<Transaction> transactions) {
-        var result = new LinkedHashMap<String, SummaryData>();
-
-        var grouped = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        transaction -> transaction.getCategory() != null ? transaction.getCategory().getName() : "Sem Categoria"
-                ));
-
-        grouped.entrySet().stream()
-                .sorted((entryA, entryB) -> {
-                    var expenseA = entryA.getValue().stream()
-                            .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                            .map(transaction -> transaction.getValue().abs())
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    var expenseB = entryB.getValue().stream()
-                            .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                            .map(transaction -> transaction.getValue().abs())
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    return expenseB.compareTo(expenseA);
-                })
-                .forEach(entry -> {
-                    var data = new SummaryData();
-                    for (var transaction : entry.getValue()) {
-                        if (transaction.getValue().compareTo(BigDecimal.ZERO) > 0) {
-                            data.income = data.income.add(transaction.getValue());
-                        } else {
-                            data.expense = data.expense.add(transaction.getValue().abs());
-                        }
-                        data.count++;
-                    }
-                    result.put(entry.getKey(), data);
-                });
-
-        return result;
+    /**
+     * What a transaction row needs once its entity has been detached. Names are dense ordinals into the
+     * {@link LabelTable}s of the export, so a chunk carries no entity references into the pool.
+     */
+    private record RawRow(
+            LocalDate date,
+            String description,
+            String simplifiedDescription,
+            int category,
+            int creditCard,
+            int[] users,
+            BigDecimal value,
+            TransactionType type,
+            TransactionSource source,
+            Integer currentInstallment,
+            Integer totalInstallments
+    ) {
+
+        static RawRow of(Transaction transaction, LabelTable categories, LabelTable creditCards, LabelTable users) {
+            var category = transaction.getCategory();
+            var creditCard = transaction.getCreditCard();
+            var responsibleUsers = transaction.getResponsibleUsers();
+            var userOrdinals = new int[responsibleUsers != null ? responsibleUsers.size() : 0];
+            if (responsibleUsers != null) {
+                var i = 0;
+                for (var user : responsibleUsers) {
+                    userOrdinals[i++] = users.ordinal(user.getId(), user.getName());
+                }
+            }
+            return new RawRow(
+                    transaction.getDate(),
+                    transaction.getDescription(),
+                    transaction.getSimplifiedDescription(),
+                    category != null ? categories.ordinal(category.getId(), category.getName()) : 0,
+                    creditCard != null ? creditCards.ordinal(creditCard.getId(), creditCard.getNickname()) : 0,
+                    userOrdinals,
+                    transaction.getValue(),
+                    transaction.getTransactionType(),
+                    transaction.getSource(),
+                    transaction.getCurrentInstallment(),
+                    transaction.getTotalInstallments()
+            );
+        }
     }
 
-    private Map<YearMonth, SummaryData> calculateMonthlyDetails(List<Transaction> transactions) {
-        var result = new LinkedHashMap<YearMonth, SummaryData>();
-
-        var grouped = transactions.stream()
-                .collect(Collectors.groupingBy(
-                        transaction -> YearMonth.from(transaction.getDate())
-                ));
-
-        grouped.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry -> {
-                    var data = new SummaryData();
-                    for (var transaction : entry.getValue()) {
-                        if (transaction.getValue().compareTo(BigDecimal.ZERO) > 0) {
-                            data.income = data.income.add(transaction.getValue());
-                        } else {
-                            data.expense = data.expense.add(transaction.getValue().abs());
-                        }
-                        data.count++;
-                    }
-                    result.put(entry.getKey(), data);
-                });
-
-        return result;
+    /**
+     * Cell values of one transaction row, ready to be appended without further lookups or formatting.
+     */
+    private record PreparedRow(
+            double excelDate,
+            String description,
+            String simplifiedDescription,
+            String category,
+            String responsibleUsers,
+            String creditCard,
+            double value,
+            boolean income,
+            String type,
+            String source,
+            String installment,
+            String month
+    ) {
     }
 
-    private Map<String, SummaryData> calculateCreditCardDetails(List<Transaction> transactions) {
-        var result = new LinkedHashMap<String, SummaryData>();
-
-        var grouped = transactions.stream()
-                .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .collect(Collectors.groupingBy(
-                        transaction -> transaction.getCreditCard() != null ? transaction.getCreditCard().getNickname() : "Sem Cartão"
-                ));
-
-        grouped.entrySet().stream()
-                .sorted((entryA, entryB) -> {
-                    var expenseA = entryA.getValue().stream()
-                            .map(transaction -> transaction.getValue().abs())
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    var expenseB = entryB.getValue().stream()
-                            .map(transaction -> transaction.getValue().abs())
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    return expenseB.compareTo(expenseA);
-                })
-                .forEach(entry -> {
-                    var data = new SummaryData();
-                    for (var transaction : entry.getValue()) {
-                        data.expense = data.expense.add(transaction.getValue().abs());
-                        data.count++;
-                    }
-                    result.put(entry.getKey(), data);
-                });
+    /**
+     * Entity id to dense ordinal, with labels in an append-only array indexed by ordinal; ordinal 0 is the empty
+     * label. Only the cursor thread interns. {@link #labels()} hands out the current array: slots are never
+     * rewritten and a grown copy is a new array, so a snapshot stays valid for the chunks submitted with it.
+     */
+    private static final class LabelTable {
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private String[] labels = {""};
+        private int size = 1;
+
+        int ordinal(Long id, String label) {
+            if (id != null) {
+                var ordinal = ordinals.get(id);
+                if (ordinal != null) {
+                    return ordinal;
+                }
+            }
+            if (size == labels.length) {
+                labels = Arrays.copyOf(labels, size * 2);
+            }
+            var ordinal = size++;
+            labels[ordinal] = label != null ? label : "";
+            if (id != null) {
+                ordinals.put(id, ordinal);
+            }
+            return ordinal;
+        }
 
-        return result;
+        String[] labels() {
+            return labels;
+        }
     }
 
-    private Map<String, SummaryData> calculateUserDetails(List<Transaction> transactions) {
-        var result = new LinkedHashMap<String, SummaryData>();
+    /**
+     * Totals of every breakdown in the report, in cents, accumulated in one pass while the transaction rows are
+     * streamed. Sheet writers only render these aggregates.
+     */
+    private static final class ReportData {
+        long incomeCents;
+        long expenseCents;
+        int count;
+        final Breakdown<Long> byCategory = new Breakdown<>();
+        final Breakdown<YearMonth> byMonth = new Breakdown<>();
+        final Breakdown<Long> byCreditCard = new Breakdown<>();
+        final Breakdown<Long> byUser = new Breakdown<>();
+        final Breakdown<LocalDate> byDay = new Breakdown<>();
+
+        void add(Transaction transaction) {
+            var cents = transaction.getValue().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            if (cents > 0) {
+                incomeCents += cents;
+            } else {
+                expenseCents -= cents;
+            }
+            count++;
 
-        var userTotals = new HashMap<String, SummaryData>();
+            var category = transaction.getCategory();
+            byCategory.add(category != null ? category.getId() : null,
+                    category != null ? category.getName() : "Sem Categoria", cents);
+            byMonth.add(YearMonth.from(transaction.getDate()), null, cents);
+            byDay.add(transaction.getDate(), null, cents);
+
+            if (cents < 0) {
+                var creditCard = transaction.getCreditCard();
+                byCreditCard.add(creditCard != null ? creditCard.getId() : null,
+                        creditCard != null ? creditCard.getNickname() : "Sem Cartão", cents);
+            }
 
-        for (var transaction : transactions) {
             var users = transaction.getResponsibleUsers();
             if (users == null || users.isEmpty()) {
-                userTotals.computeIfAbsent("Sem Responsável", key -> new SummaryData()).addTransaction(transaction);
+                byUser.add(null, "Sem Responsável", cents);
             } else {
                 for (var user : users) {
-                    userTotals.computeIfAbsent(user.getName(), key -> new SummaryData()).addTransaction(transaction);
+                    byUser.add(user.getId(), user.getName(), cents);
                 }
             }
         }
+    }
 
-        userTotals.entrySet().stream()
-                .sorted((a, b) -> b.getValue().expense.compareTo(a.getValue().expense))
-                .forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+    /**
+     * Income, expense and count per key in primitive arrays indexed by dense ordinals, assigned to keys in the
+     * order they are first seen. Expenses are kept as positive cents.
+     */
+    private static final class Breakdown<K> {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private final Map<K, Integer> ordinals = new HashMap<>();
+        private final List<K> keys = new ArrayList<>();
+        private final List<String> labels = new ArrayList<>();
+        private long[] income = new long[INITIAL_CAPACITY];
+        private long[] expense = new long[INITIAL_CAPACITY];
+        private int[] count = new int[INITIAL_CAPACITY];
+
+        void add(K key, String label, long cents) {
+            var ordinal = ordinals.get(key);
+            if (ordinal == null) {
+                ordinal = keys.size();
+                ordinals.put(key, ordinal);
+                keys.add(key);
+                labels.add(label);
+                if (ordinal == count.length) {
+                    income = Arrays.copyOf(income, ordinal * 2);
+                    expense = Arrays.copyOf(expense, ordinal * 2);
+                    count = Arrays.copyOf(count, ordinal * 2);
+                }
+            }
+            if (cents > 0) {
+                income[ordinal] += cents;
+            } else {
+                expense[ordinal] -= cents;
+            }
+            count[ordinal]++;
+        }
 
-        return result;
-    }
+        int size() {
+            return keys.size();
+        }
 
-    private Map<LocalDate, SummaryData> calculateDailyDetails(List<Transaction> transactions) {
-        var result = new LinkedHashMap<LocalDate, SummaryData>();
-
-        var grouped = transactions.stream()
-                .collect(Collectors.groupingBy(Transaction::getDate));
-
-        grouped.entrySet().stream()
-                .sorted(Map.Entry.comparingByKey())
-                .forEach(entry -> {
-                    var data = new SummaryData();
-                    for (var transaction : entry.getValue()) {
-                        if (transaction.getValue().compareTo(BigDecimal.ZERO) > 0) {
-                            data.income = data.income.add(transaction.getValue());
-                        } else {
-                            data.expense = data.expense.add(transaction.getValue().abs());
-                        }
-                        data.count++;
-                    }
-                    result.put(entry.getKey(), data);
-                });
+        K key(int ordinal) {
+            return keys.get(ordinal);
+        }
 
-        return result;
-    }
+        String label(int ordinal) {
+            return labels.get(ordinal);
+        }
 
-    private static class SummaryData {
-        BigDecimal income = BigDecimal.ZERO;
-        BigDecimal expense = BigDecimal.ZERO;
-        int count = 0;
+        long income(int ordinal) {
+            return income[ordinal];
+        }
 
-        void addTransaction(Transaction transaction) {
-            if (transaction.getValue().compareTo(BigDecimal.ZERO) > 0) {
-                income = income.add(transaction.getValue());
-            } else {
-                expense = expense.add(transaction.getValue().abs());
-            }
-            count++;
+        long expense(int ordinal) {
+            return expense[ordinal];
+        }
+
+        long balance(int ordinal) {
+            return income[ordinal] - expense[ordinal];
+        }
+
+        int count(int ordinal) {
+            return count[ordinal];
+        }
+
+        int[] byExpenseDescending() {
+            return ordered((a, b) -> Long.compare(expense[b], expense[a]));
+        }
+
+        int[] byKey(Comparator<? super K> comparator) {
+            return ordered((a, b) -> comparator.compare(keys.get(a), keys.get(b)));
+        }
+
+        private int[] ordered(Comparator<Integer> comparator) {
+            return IntStream.range(0, size()).boxed().sorted(comparator).mapToInt(Integer::intValue).toArray();
         }
     }
 }
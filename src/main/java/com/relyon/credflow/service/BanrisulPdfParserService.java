@@ -48,6 +48,8 @@ public class BanrisulPdfParserService {
     private final DescriptionMappingRepository mappingRepository;
     private final AccountService accountService;
     private final RefundDetectionService refundDetectionService;
+    private final DuplicateProbeIndex duplicateProbeIndex;
+    private final TransactionLedgerService transactionLedgerService;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public List<Transaction> importFromPdf(MultipartFile file, Long accountId) {
@@ -82,6 +84,9 @@ public class BanrisulPdfParserService {
             mappingRepository.saveAll(pendingMappings.values());
         }
 
+        importedTransactions.forEach(duplicateProbeIndex::record);
+        transactionLedgerService.recordCreated(importedTransactions);
+
         log.info("Running refund detection on {} imported transactions", importedTransactions.size());
         importedTransactions.forEach(refundDetectionService::detectAndLinkReversal);
 
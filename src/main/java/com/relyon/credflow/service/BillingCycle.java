@@ -0,0 +1,29 @@
+package com.relyon.credflow.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * One credit card billing cycle. A cycle runs from the day after the previous closing day up to and including
+ * its own closing day; closing and due days past the end of a short month fall on its last day.
+ */
+record BillingCycle(LocalDate startDate, LocalDate closingDate, LocalDate dueDate) {
+
+    static BillingCycle containing(LocalDate date, int closingDay, int dueDay) {
+        var month = YearMonth.from(date);
+        var closingMonth = date.isAfter(dayIn(month, closingDay)) ? month.plusMonths(1) : month;
+        return closingIn(closingMonth, closingDay, dueDay);
+    }
+
+    static BillingCycle closingIn(YearMonth closingMonth, int closingDay, int dueDay) {
+        return new BillingCycle(
+                dayIn(closingMonth.minusMonths(1), closingDay).plusDays(1),
+                dayIn(closingMonth, closingDay),
+                dayIn(closingMonth, dueDay)
+        );
+    }
+
+    private static LocalDate dayIn(YearMonth month, int day) {
+        return month.atDay(Math.min(day, month.lengthOfMonth()));
+    }
+}
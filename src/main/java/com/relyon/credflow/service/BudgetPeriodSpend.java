@@ -0,0 +1,67 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.budget.Budget;
+import com.relyon.credflow.model.budget.BudgetSpendEntry;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Expense totals for one account and date range, pre-aggregated for every budget type.
+ * <p>
+ * Built from one row per (transaction, responsible user); each transaction is counted once in the account
+ * and category totals and once per distinct responsible user in the user totals.
+ */
+record BudgetPeriodSpend(BigDecimal total,
+                         Map<Long, BigDecimal> byCategory,
+                         Map<Long, BigDecimal> byUser,
+                         Map<IdPair, BigDecimal> byCategoryUser) {
+
+    static BudgetPeriodSpend of(List<BudgetSpendEntry> entries) {
+        var total = BigDecimal.ZERO;
+        var byCategory = new HashMap<Long, BigDecimal>();
+        var byUser = new HashMap<Long, BigDecimal>();
+        var byCategoryUser = new HashMap<IdPair, BigDecimal>();
+        var countedTransactions = new HashSet<Long>();
+        var countedUsers = new HashSet<IdPair>();
+
+        for (var entry : entries) {
+            var amount = entry.value().abs();
+
+            if (countedTransactions.add(entry.transactionId())) {
+                total = total.add(amount);
+                if (entry.categoryId() != null) {
+                    byCategory.merge(entry.categoryId(), amount, BigDecimal::add);
+                }
+            }
+
+            if (entry.responsibleUserId() == null
+                    || !countedUsers.add(new IdPair(entry.transactionId(), entry.responsibleUserId()))) {
+                continue;
+            }
+            byUser.merge(entry.responsibleUserId(), amount, BigDecimal::add);
+            if (entry.categoryId() != null) {
+                byCategoryUser.merge(new IdPair(entry.categoryId(), entry.responsibleUserId()), amount, BigDecimal::add);
+            }
+        }
+
+        return new BudgetPeriodSpend(total, byCategory, byUser, byCategoryUser);
+    }
+
+    BigDecimal spendFor(Budget budget) {
+        var spend = switch (budget.getType()) {
+            case ACCOUNT_WIDE -> total;
+            case CATEGORY_SPECIFIC -> byCategory.get(budget.getCategory().getId());
+            case USER_SPECIFIC -> byUser.get(budget.getUser().getId());
+            case CATEGORY_USER_SPECIFIC -> byCategoryUser.get(
+                    new IdPair(budget.getCategory().getId(), budget.getUser().getId()));
+        };
+        return Objects.requireNonNullElse(spend, BigDecimal.ZERO);
+    }
+
+    private record IdPair(Long first, Long second) {
+    }
+}
@@ -7,11 +7,26 @@ import com.relyon.credflow.model.budget.BudgetPreferencesResponseDTO;
 import com.relyon.credflow.model.mapper.BudgetMapper;
 import com.relyon.credflow.repository.BudgetPreferencesRepository;
 import com.relyon.credflow.repository.UserRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Manages budget preferences and resolves the effective preferences for an account or user.
+ * <p>
+ * Resolution is served from a per-account cache holding the account default and every user override, loaded
+ * with a single query on first use. Writes through this service evict the account's entry; entries also expire
+ * after {@code app.budget-preferences.cache-ttl-seconds} so changes made on other instances are picked up.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -21,6 +36,10 @@ public class BudgetPreferencesService {
     private final UserRepository userRepository;
     private final AccountService accountService;
     private final BudgetMapper budgetMapper;
+    private final Map<Long, ResolvedPreferences> resolvedByAccount = new ConcurrentHashMap<>();
+
+    @Value("${app.budget-preferences.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds = 300;
 
     @Transactional
     public BudgetPreferences createOrUpdate(BudgetPreferences preferences, Long accountId) {
@@ -49,29 +68,31 @@ public class BudgetPreferencesService {
             entity.setRedWarningThreshold(preferences.getRedWarningThreshold());
             entity.setEnableProjectedWarnings(preferences.getEnableProjectedWarnings());
             entity.setProjectedWarningMinDays(preferences.getProjectedWarningMinDays());
+            invalidate(accountId);
             return budgetPreferencesRepository.save(entity);
         }
 
         preferences.setAccount(accountService.findById(accountId));
+        invalidate(accountId);
         return budgetPreferencesRepository.save(preferences);
     }
 
     @Transactional(readOnly = true)
     public BudgetPreferencesResponseDTO getPreferencesForAccount(Long accountId, Long userId) {
-        var userPrefs = userId != null
-                ? budgetPreferencesRepository.findByAccountIdAndUserId(accountId, userId)
-                : budgetPreferencesRepository.findByAccountIdAndUserIsNull(accountId);
-
-        if (userPrefs.isPresent()) {
-            return budgetMapper.toDto(userPrefs.get());
+        var resolved = resolvedByAccount.get(accountId);
+        if (resolved == null || resolved.isExpired()) {
+            resolved = loadPreferences(accountId);
+            resolvedByAccount.put(accountId, resolved);
         }
 
-        var accountPrefs = budgetPreferencesRepository.findByAccountIdAndUserIsNull(accountId);
-        if (accountPrefs.isPresent()) {
-            return budgetMapper.toDto(accountPrefs.get());
+        var preferences = userId != null ? resolved.byUser().get(userId) : null;
+        if (preferences == null) {
+            preferences = resolved.accountDefault();
         }
-
-        return createDefaultPreferences();
+        if (preferences == null) {
+            return createDefaultPreferences();
+        }
+        return preferences.toBuilder().build();
     }
 
     @Transactional(readOnly = true)
@@ -85,6 +106,38 @@ public class BudgetPreferencesService {
         log.info("Deleting budget preferences {} for account {}", id, accountId);
         var preferences = findById(id, accountId);
         budgetPreferencesRepository.delete(preferences);
+        invalidate(accountId);
+    }
+
+    private ResolvedPreferences loadPreferences(Long accountId) {
+        BudgetPreferencesResponseDTO accountDefault = null;
+        var byUser = new HashMap<Long, BudgetPreferencesResponseDTO>();
+
+        for (var preferences : budgetPreferencesRepository.findAllByAccountId(accountId)) {
+            var dto = budgetMapper.toDto(preferences);
+            if (preferences.getUser() == null) {
+                accountDefault = dto;
+            } else {
+                byUser.put(preferences.getUser().getId(), dto);
+            }
+        }
+
+        log.debug("Loaded budget preferences for account {}: default={}, userOverrides={}",
+                accountId, accountDefault != null, byUser.size());
+        return new ResolvedPreferences(accountDefault, Map.copyOf(byUser),
+                Instant.now().plus(Duration.ofSeconds(cacheTtlSeconds)));
+    }
+
+    private void invalidate(Long accountId) {
+        resolvedByAccount.remove(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    resolvedByAccount.remove(accountId);
+                }
+            });
+        }
     }
 
     private BudgetPreferencesResponseDTO createDefaultPreferences() {
@@ -100,4 +153,13 @@ public class BudgetPreferencesService {
                 .projectedWarningMinDays(BusinessConstants.Budget.PROJECTED_WARNING_MIN_DAYS_DEFAULT)
                 .build();
     }
+
+    private record ResolvedPreferences(BudgetPreferencesResponseDTO accountDefault,
+                                       Map<Long, BudgetPreferencesResponseDTO> byUser,
+                                       Instant expiresAt) {
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
 }
@@ -0,0 +1,136 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.exception.ResourceConflictException;
+import com.relyon.credflow.model.budget.BudgetRolloverResultDTO;
+import com.relyon.credflow.repository.BudgetRepository;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Month-end budget rollover for every account with rollover-enabled budgets.
+ * <p>
+ * Accounts are processed in chunks on virtual threads, with at most {@code app.budget-rollover.parallelism}
+ * accounts in flight so the job never holds more database connections than that. Each account is rolled over
+ * in its own transaction by {@link BudgetTrackingService#processRollover}, which is idempotent per account and
+ * period, so a failed or repeated run can simply be triggered again.
+ */
+@Service
+@Slf4j
+public class BudgetRolloverJob {
+
+    private final BudgetRepository budgetRepository;
+    private final BudgetTrackingService budgetTrackingService;
+    private final int chunkSize;
+    private final int parallelism;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public BudgetRolloverJob(BudgetRepository budgetRepository,
+                             BudgetTrackingService budgetTrackingService,
+                             @Value("${app.budget-rollover.chunk-size:100}") int chunkSize,
+                             @Value("${app.budget-rollover.parallelism:4}") int parallelism) {
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalStateException("Budget rollover chunk size and parallelism must be greater than 0. Current values: "
+                    + chunkSize + ", " + parallelism);
+        }
+        this.budgetRepository = budgetRepository;
+        this.budgetTrackingService = budgetTrackingService;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    @Scheduled(cron = "${app.budget-rollover.cron:0 15 0 1 * *}")
+    public void runMonthEndRollover() {
+        var fromPeriod = YearMonth.now().minusMonths(1);
+        try {
+            runRollover(fromPeriod);
+        } catch (ResourceConflictException e) {
+            log.warn("Skipping scheduled budget rollover for {}: a run is already in progress", fromPeriod);
+        }
+    }
+
+    public BudgetRolloverResultDTO runRollover(YearMonth fromPeriod) {
+        if (!running.compareAndSet(false, true)) {
+            throw new ResourceConflictException("budget.rollover.alreadyRunning");
+        }
+
+        try {
+            return rolloverAllAccounts(fromPeriod);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BudgetRolloverResultDTO rolloverAllAccounts(YearMonth fromPeriod) {
+        var startedAt = System.currentTimeMillis();
+        var accountIds = budgetRepository.findAccountIdsWithRolloverBudgets(fromPeriod);
+        log.info("Starting budget rollover from {} for {} accounts", fromPeriod, accountIds.size());
+
+        var permits = new Semaphore(parallelism);
+        var budgetsRolledOver = 0;
+        var failedAccountIds = new ArrayList<Long>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (var from = 0; from < accountIds.size(); from += chunkSize) {
+                var chunk = accountIds.subList(from, Math.min(from + chunkSize, accountIds.size()));
+                var futures = new ArrayList<Future<Integer>>(chunk.size());
+                for (var accountId : chunk) {
+                    futures.add(executor.submit(() -> rolloverAccount(fromPeriod, accountId, permits)));
+                }
+
+                for (var i = 0; i < chunk.size(); i++) {
+                    var rolled = await(futures.get(i), chunk.get(i), fromPeriod);
+                    if (rolled < 0) {
+                        failedAccountIds.add(chunk.get(i));
+                    } else {
+                        budgetsRolledOver += rolled;
+                    }
+                }
+                log.debug("Budget rollover from {}: {} of {} accounts done", fromPeriod,
+                        Math.min(from + chunkSize, accountIds.size()), accountIds.size());
+            }
+        }
+
+        var result = BudgetRolloverResultDTO.builder()
+                .fromPeriod(fromPeriod)
+                .accountsProcessed(accountIds.size() - failedAccountIds.size())
+                .budgetsRolledOver(budgetsRolledOver)
+                .failedAccountIds(List.copyOf(failedAccountIds))
+                .durationMillis(System.currentTimeMillis() - startedAt)
+                .build();
+        log.info("Finished budget rollover from {}: {} accounts, {} budgets, {} failures in {} ms", fromPeriod,
+                result.getAccountsProcessed(), budgetsRolledOver, failedAccountIds.size(), result.getDurationMillis());
+        return result;
+    }
+
+    private int rolloverAccount(YearMonth fromPeriod, Long accountId, Semaphore permits) throws InterruptedException {
+        permits.acquire();
+        try {
+            return budgetTrackingService.processRollover(fromPeriod, accountId);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private int await(Future<Integer> future, Long accountId, YearMonth fromPeriod) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.error("Budget rollover from {} failed for account {}", fromPeriod, accountId, e.getCause());
+            return -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Budget rollover from {} interrupted while waiting for account {}", fromPeriod, accountId);
+            return -1;
+        }
+    }
+}
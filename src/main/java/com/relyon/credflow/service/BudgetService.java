@@ -23,6 +23,7 @@ public class BudgetService {
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final AccountService accountService;
+    private final BudgetSpendCounterService budgetSpendCounterService;
 
     @Transactional
     public Budget create(Budget budget, Long accountId) {
@@ -57,7 +58,9 @@ public class BudgetService {
         budget.setAccount(accountService.findById(accountId));
         budget.setRolledOverAmount(BigDecimal.ZERO);
 
-        return budgetRepository.save(budget);
+        var saved = budgetRepository.save(budget);
+        budgetSpendCounterService.refresh(List.of(saved));
+        return saved;
     }
 
     @Transactional
@@ -89,7 +92,9 @@ public class BudgetService {
         existing.setType(budget.getType());
         existing.setAllowRollover(budget.getAllowRollover());
 
-        return budgetRepository.save(existing);
+        var saved = budgetRepository.save(existing);
+        budgetSpendCounterService.refresh(List.of(saved));
+        return saved;
     }
 
     @Transactional(readOnly = true)
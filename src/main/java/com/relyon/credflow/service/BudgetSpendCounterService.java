@@ -0,0 +1,286 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.budget.Budget;
+import com.relyon.credflow.model.budget.BudgetSpendContribution;
+import com.relyon.credflow.model.budget.BudgetSpendCounter;
+import com.relyon.credflow.model.budget.BudgetWarningEvent;
+import com.relyon.credflow.model.budget.WarningLevel;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.repository.BudgetRepository;
+import com.relyon.credflow.repository.BudgetSpendCounterRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Running spend per budget, persisted in {@code budget_spend_counter}.
+ * <p>
+ * Every transaction write reports what it removed and added as {@link BudgetSpendContribution}s, and the
+ * counters of matching budgets in the affected periods are adjusted by the difference. A counter that does not
+ * exist yet (or was invalidated by a bulk change) is rebuilt from the period aggregate instead, which already
+ * reflects the pending change. When a counter crosses a warning threshold a {@link BudgetWarningEvent} is
+ * published; listeners such as {@link BudgetWarningNotifier} receive it once the write commits. Counters cover the whole budget period and are only maintained when
+ * {@code app.budget-counters.enabled} is set.
+ * <p>
+ * Counters are read, adjusted and written back, so every update takes the account lock for the rest of the
+ * transaction; concurrent writes in one account apply one after the other instead of losing an increment or
+ * failing on the counter's version. The accounts of one update are locked in a single call, which is what
+ * orders the locks.
+ */
+@Service
+@Slf4j
+public class BudgetSpendCounterService {
+
+    private static final String LOCK_SCOPE = "budget-counters";
+
+    private final BudgetSpendCounterRepository counterRepository;
+    private final BudgetRepository budgetRepository;
+    private final TransactionRepository transactionRepository;
+    private final BudgetPreferencesService budgetPreferencesService;
+    private final AccountLockService accountLockService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+
+    public BudgetSpendCounterService(BudgetSpendCounterRepository counterRepository,
+                                     BudgetRepository budgetRepository,
+                                     TransactionRepository transactionRepository,
+                                     BudgetPreferencesService budgetPreferencesService,
+                                     AccountLockService accountLockService,
+                                     ApplicationEventPublisher eventPublisher,
+                                     @Value("${app.budget-counters.enabled:false}") boolean enabled) {
+        this.counterRepository = counterRepository;
+        this.budgetRepository = budgetRepository;
+        this.transactionRepository = transactionRepository;
+        this.budgetPreferencesService = budgetPreferencesService;
+        this.accountLockService = accountLockService;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public BudgetSpendContribution snapshot(Transaction transaction) {
+        return BudgetSpendContribution.of(transaction);
+    }
+
+    public List<BudgetSpendContribution> snapshot(Collection<Transaction> transactions) {
+        if (!enabled) {
+            return List.of();
+        }
+        return transactions.stream().map(BudgetSpendContribution::of).toList();
+    }
+
+    @Transactional
+    public void recordCreated(Collection<Transaction> transactions) {
+        if (!enabled || transactions.isEmpty()) {
+            return;
+        }
+        recordChanges(List.of(), snapshot(transactions));
+    }
+
+    @Transactional
+    public void recordDeleted(Collection<Transaction> transactions) {
+        if (!enabled || transactions.isEmpty()) {
+            return;
+        }
+        recordChanges(snapshot(transactions), List.of());
+    }
+
+    /**
+     * Applies the difference between what the changed transactions contributed before and after the change.
+     */
+    @Transactional
+    public void recordChanges(Collection<BudgetSpendContribution> removed, Collection<BudgetSpendContribution> added) {
+        if (!enabled) {
+            return;
+        }
+
+        var byAccount = new TreeMap<Long, List<SignedContribution>>();
+        removed.stream().filter(contribution -> !contribution.isZero())
+                .forEach(contribution -> byAccount.computeIfAbsent(contribution.accountId(), id -> new ArrayList<>())
+                        .add(new SignedContribution(contribution, contribution.amount().negate())));
+        added.stream().filter(contribution -> !contribution.isZero())
+                .forEach(contribution -> byAccount.computeIfAbsent(contribution.accountId(), id -> new ArrayList<>())
+                        .add(new SignedContribution(contribution, contribution.amount())));
+
+        accountLockService.lockForTransaction(LOCK_SCOPE, byAccount.keySet());
+        byAccount.forEach((accountId, changes) -> {
+            var byPeriod = changes.stream().collect(Collectors.groupingBy(change -> change.contribution().period()));
+            byPeriod.forEach((period, periodChanges) -> applyToPeriod(accountId, period, periodChanges));
+        });
+    }
+
+    /**
+     * Recomputes the counters of the given budgets from scratch, e.g. after their scope or amount changed.
+     */
+    @Transactional
+    public void refresh(Collection<Budget> budgets) {
+        if (!enabled || budgets.isEmpty()) {
+            return;
+        }
+
+        var byAccountAndPeriod = budgets.stream().collect(Collectors.groupingBy(
+                budget -> budget.getAccount().getId(),
+                TreeMap::new,
+                Collectors.groupingBy(Budget::getPeriod)));
+
+        accountLockService.lockForTransaction(LOCK_SCOPE, byAccountAndPeriod.keySet());
+        byAccountAndPeriod.forEach((accountId, byPeriod) -> {
+            byPeriod.forEach((period, periodBudgets) -> {
+                var counters = countersByBudgetId(periodBudgets);
+                var spend = loadPeriodSpend(accountId, period);
+                var toSave = new ArrayList<BudgetSpendCounter>();
+                for (var budget : periodBudgets) {
+                    toSave.add(update(budget, counters.get(budget.getId()), spend.spendFor(budget)));
+                }
+                counterRepository.saveAll(toSave);
+            });
+        });
+    }
+
+    /**
+     * Marks every counter of the account as stale after a change that cannot be expressed as per-transaction
+     * contributions. Stale counters are rebuilt on their next update.
+     */
+    @Transactional
+    public void invalidate(Long accountId) {
+        if (!enabled) {
+            return;
+        }
+        accountLockService.lockForTransaction(LOCK_SCOPE, accountId);
+        var counters = counterRepository.findAllByAccountIdAndValidTrue(accountId);
+        counters.forEach(counter -> counter.setValid(false));
+        counterRepository.saveAll(counters);
+        log.info("Invalidated {} budget spend counters for account {}", counters.size(), accountId);
+    }
+
+    /**
+     * Returns the counted spend per budget id, or empty when any of the budgets has no valid counter.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Map<Long, BigDecimal>> findSpend(Collection<Budget> budgets) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (budgets.isEmpty()) {
+            return Optional.of(Map.of());
+        }
+
+        var counters = countersByBudgetId(budgets);
+        var spend = new HashMap<Long, BigDecimal>();
+        for (var budget : budgets) {
+            var counter = counters.get(budget.getId());
+            if (counter == null || !counter.getValid()) {
+                return Optional.empty();
+            }
+            spend.put(budget.getId(), counter.getSpent());
+        }
+        return Optional.of(spend);
+    }
+
+    private void applyToPeriod(Long accountId, YearMonth period, List<SignedContribution> changes) {
+        var deltas = new HashMap<Long, BigDecimal>();
+        var budgets = budgetRepository.findByAccountIdAndPeriod(accountId, period);
+        for (var budget : budgets) {
+            for (var change : changes) {
+                if (change.contribution().appliesTo(budget)) {
+                    deltas.merge(budget.getId(), change.delta(), BigDecimal::add);
+                }
+            }
+        }
+
+        var affected = budgets.stream()
+                .filter(budget -> deltas.containsKey(budget.getId()) && deltas.get(budget.getId()).signum() != 0)
+                .toList();
+        if (affected.isEmpty()) {
+            return;
+        }
+
+        var counters = countersByBudgetId(affected);
+        BudgetPeriodSpend rebuilt = null;
+        var toSave = new ArrayList<BudgetSpendCounter>();
+
+        for (var budget : affected) {
+            var counter = counters.get(budget.getId());
+            BigDecimal spent;
+            if (counter == null || !counter.getValid()) {
+                if (rebuilt == null) {
+                    rebuilt = loadPeriodSpend(accountId, period);
+                }
+                spent = rebuilt.spendFor(budget);
+            } else {
+                spent = counter.getSpent().add(deltas.get(budget.getId())).max(BigDecimal.ZERO);
+            }
+            toSave.add(update(budget, counter, spent));
+        }
+
+        counterRepository.saveAll(toSave);
+        log.debug("Updated {} budget spend counters for account {} in period {}", toSave.size(), accountId, period);
+    }
+
+    private BudgetSpendCounter update(Budget budget, BudgetSpendCounter counter, BigDecimal spent) {
+        if (counter == null) {
+            counter = BudgetSpendCounter.builder()
+                    .budget(budget)
+                    .account(budget.getAccount())
+                    .build();
+        }
+
+        var preferences = budgetPreferencesService.getPreferencesForAccount(
+                budget.getAccount().getId(),
+                budget.getUser() != null ? budget.getUser().getId() : null
+        );
+        var effectiveBudget = budget.getAmount().add(budget.getRolledOverAmount());
+        var previousLevel = counter.getWarningLevel();
+        var currentLevel = BudgetTrackingService.calculateWarningLevel(spent, effectiveBudget, preferences);
+
+        counter.setSpent(spent);
+        counter.setWarningLevel(currentLevel);
+        counter.setValid(true);
+
+        if (currentLevel != previousLevel && Boolean.TRUE.equals(preferences.getEnableAlerts())) {
+            log.info("Budget {} warning level changed from {} to {}", budget.getId(), previousLevel, currentLevel);
+            eventPublisher.publishEvent(new BudgetWarningEvent(
+                    budget.getAccount().getId(),
+                    budget.getId(),
+                    budget.getPeriod(),
+                    previousLevel,
+                    currentLevel,
+                    spent,
+                    effectiveBudget
+            ));
+        }
+        return counter;
+    }
+
+    private Map<Long, BudgetSpendCounter> countersByBudgetId(Collection<Budget> budgets) {
+        var ids = budgets.stream().map(Budget::getId).collect(Collectors.toCollection(TreeSet::new));
+        return counterRepository.findAllByBudgetIdIn(ids).stream()
+                .collect(Collectors.toMap(counter -> counter.getBudget().getId(), Function.identity()));
+    }
+
+    private BudgetPeriodSpend loadPeriodSpend(Long accountId, YearMonth period) {
+        return BudgetPeriodSpend.of(transactionRepository.findBudgetSpendEntries(
+                accountId, period.atDay(1), period.atEndOfMonth()));
+    }
+
+    private record SignedContribution(BudgetSpendContribution contribution, BigDecimal delta) {
+    }
+}
@@ -3,6 +3,9 @@ package com.relyon.credflow.service;
 import com.relyon.credflow.model.budget.Budget;
 import com.relyon.credflow.model.budget.BudgetPreferencesResponseDTO;
 import com.relyon.credflow.model.budget.BudgetTrackingDTO;
+import com.relyon.credflow.model.budget.BudgetTrendDTO;
+import com.relyon.credflow.model.budget.BudgetTrendPointDTO;
+import com.relyon.credflow.model.budget.BudgetType;
 import com.relyon.credflow.model.budget.WarningLevel;
 import com.relyon.credflow.repository.BudgetRepository;
 import com.relyon.credflow.repository.TransactionRepository;
@@ -11,13 +14,11 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
-import com.relyon.credflow.model.transaction.Transaction;
-import com.relyon.credflow.model.transaction.TransactionFilter;
-import com.relyon.credflow.specification.TransactionSpecFactory;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Sort;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,19 +28,28 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class BudgetTrackingService {
 
+    private static final int MAX_TREND_MONTHS = 36;
+
     private final BudgetRepository budgetRepository;
     private final TransactionRepository transactionRepository;
     private final BudgetPreferencesService budgetPreferencesService;
+    private final AccountLockService accountLockService;
+    private final BudgetSpendCounterService budgetSpendCounterService;
 
     @Transactional(readOnly = true)
     public List<BudgetTrackingDTO> trackBudgets(YearMonth period, Long accountId) {
         log.info("Tracking budgets for account {} in period {}", accountId, period);
 
         var budgets = budgetRepository.findByAccountIdAndPeriod(accountId, period);
+        if (budgets.isEmpty()) {
+            return List.of();
+        }
+
+        var spend = spendFor(budgets, accountId, period);
         var result = new ArrayList<BudgetTrackingDTO>();
 
         for (var budget : budgets) {
-            var tracking = calculateBudgetTracking(budget, period, accountId);
+            var tracking = calculateBudgetTracking(budget, period, accountId, spend);
             result.add(tracking);
         }
 
@@ -53,88 +63,214 @@ public class BudgetTrackingService {
         var budget = budgetRepository.findByIdAndAccountId(budgetId, accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Budget not found"));
 
-        return calculateBudgetTracking(budget, budget.getPeriod(), accountId);
+        var period = budget.getPeriod();
+        var spend = spendFor(List.of(budget), accountId, period);
+        return calculateBudgetTracking(budget, period, accountId, spend);
     }
 
+    /**
+     * Budgeted, rolled-over and spent values of one budget identity for each of the {@code months} periods
+     * ending at {@code toPeriod}. Spend comes from a single query grouped by month; periods without a matching
+     * budget report spend only.
+     */
+    @Transactional(readOnly = true)
+    public BudgetTrendDTO trackBudgetTrend(BudgetType type, Long categoryId, Long userId, YearMonth toPeriod,
+                                           int months, Long accountId) {
+        validateTrendRequest(type, categoryId, userId, months);
+        var fromPeriod = toPeriod.minusMonths(months - 1L);
+        log.info("Tracking budget trend {} category {} user {} from {} to {} for account {}",
+                type, categoryId, userId, fromPeriod, toPeriod, accountId);
+
+        var budgets = new HashMap<YearMonth, Budget>();
+        for (var budget : budgetRepository.findMatchingBudgets(accountId, fromPeriod, toPeriod, type, categoryId, userId)) {
+            budgets.put(budget.getPeriod(), budget);
+        }
+
+        var spent = new HashMap<YearMonth, BigDecimal>();
+        for (var monthly : transactionRepository.sumMonthlyBudgetSpend(
+                accountId, fromPeriod.atDay(1), trackingDate(toPeriod), categoryId, userId)) {
+            spent.put(monthly.period(), monthly.total().abs());
+        }
+
+        var points = new ArrayList<BudgetTrendPointDTO>(months);
+        for (var period = fromPeriod; !period.isAfter(toPeriod); period = period.plusMonths(1)) {
+            points.add(buildTrendPoint(period, budgets.get(period), spent.getOrDefault(period, BigDecimal.ZERO)));
+        }
+
+        return BudgetTrendDTO.builder()
+                .type(type)
+                .categoryId(categoryId)
+                .userId(userId)
+                .fromPeriod(fromPeriod)
+                .toPeriod(toPeriod)
+                .periods(points)
+                .build();
+    }
+
+    /**
+     * Carries unused budget from {@code fromPeriod} into the matching budgets of the following period, creating
+     * them when missing. Rollover amounts are recomputed from scratch, so running it again for the same account
+     * and period converges to the same result. The account stays locked until the transaction completes, so a
+     * manual run racing the scheduled job, on this or another node, sees the budgets the other one created.
+     *
+     * @return the number of next-period budgets created or updated
+     */
     @Transactional
-    public void processRollover(YearMonth fromPeriod, Long accountId) {
+    public int processRollover(YearMonth fromPeriod, Long accountId) {
         log.info("Processing rollover from period {} for account {}", fromPeriod, accountId);
 
         var preferences = budgetPreferencesService.getPreferencesForAccount(accountId, null);
         if (!preferences.getEnableRollover()) {
             log.info("Rollover disabled for account {}", accountId);
-            return;
+            return 0;
+        }
+
+        accountLockService.lockForTransaction("budget-rollover", accountId);
+        return rollover(fromPeriod, accountId, preferences);
+    }
+
+    private int rollover(YearMonth fromPeriod, Long accountId, BudgetPreferencesResponseDTO preferences) {
+        var budgets = budgetRepository.findByAccountIdAndPeriod(accountId, fromPeriod).stream()
+                .filter(Budget::getAllowRollover)
+                .toList();
+        if (budgets.isEmpty()) {
+            return 0;
         }
 
-        var budgets = budgetRepository.findByAccountIdAndPeriod(accountId, fromPeriod);
         var nextPeriod = fromPeriod.plusMonths(1);
+        var spend = loadPeriodSpend(accountId, fromPeriod.atDay(1), fromPeriod.atEndOfMonth());
+        var nextBudgets = new HashMap<BudgetScope, Budget>();
+        for (var next : budgetRepository.findByAccountIdAndPeriod(accountId, nextPeriod)) {
+            nextBudgets.put(BudgetScope.of(next), next);
+        }
 
+        var toSave = new ArrayList<Budget>();
         for (var budget : budgets) {
-            if (!budget.getAllowRollover()) {
+            var effectiveBudget = budget.getAmount().add(budget.getRolledOverAmount());
+            var unused = effectiveBudget.subtract(spend.spendFor(budget));
+            var rolloverAmount = unused.compareTo(BigDecimal.ZERO) > 0
+                    ? unused.min(calculateMaxRollover(budget.getAmount(), preferences))
+                    : BigDecimal.ZERO;
+
+            var existing = nextBudgets.get(BudgetScope.of(budget));
+            if (existing != null) {
+                if (existing.getRolledOverAmount() == null || existing.getRolledOverAmount().compareTo(rolloverAmount) != 0) {
+                    existing.setRolledOverAmount(rolloverAmount);
+                    toSave.add(existing);
+                    log.info("Rolled over {} to existing budget {} for period {}", rolloverAmount, existing.getId(), nextPeriod);
+                }
                 continue;
             }
 
-            var startDate = fromPeriod.atDay(1);
-            var endDate = fromPeriod.atEndOfMonth();
-            var currentSpend = calculateSpend(budget, startDate, endDate, accountId);
-            var effectiveBudget = budget.getAmount().add(budget.getRolledOverAmount());
-            var unused = effectiveBudget.subtract(currentSpend);
-
-            if (unused.compareTo(BigDecimal.ZERO) <= 0) {
+            if (rolloverAmount.signum() == 0) {
                 log.info("No unused budget to rollover for budget {}", budget.getId());
                 continue;
             }
 
-            var maxRollover = calculateMaxRollover(budget.getAmount(), preferences);
-            var rolloverAmount = unused.min(maxRollover);
+            var newBudget = Budget.builder()
+                    .account(budget.getAccount())
+                    .period(nextPeriod)
+                    .amount(budget.getAmount())
+                    .type(budget.getType())
+                    .category(budget.getCategory())
+                    .user(budget.getUser())
+                    .allowRollover(budget.getAllowRollover())
+                    .rolledOverAmount(rolloverAmount)
+                    .build();
+            nextBudgets.put(BudgetScope.of(newBudget), newBudget);
+            toSave.add(newBudget);
+            log.info("Created new budget with rollover {} for period {}", rolloverAmount, nextPeriod);
+        }
 
-            var nextBudget = budgetRepository.findMatchingBudget(
-                    accountId,
-                    nextPeriod,
-                    budget.getType(),
-                    budget.getCategory() != null ? budget.getCategory().getId() : null,
-                    budget.getUser() != null ? budget.getUser().getId() : null
-            );
+        if (!toSave.isEmpty()) {
+            budgetSpendCounterService.refresh(budgetRepository.saveAll(toSave));
+        }
+        return toSave.size();
+    }
 
-            if (nextBudget.isPresent()) {
-                var existing = nextBudget.get();
-                existing.setRolledOverAmount(rolloverAmount);
-                budgetRepository.save(existing);
-                log.info("Rolled over {} to existing budget {} for period {}", rolloverAmount, existing.getId(), nextPeriod);
-            } else {
-                var newBudget = Budget.builder()
-                        .account(budget.getAccount())
-                        .period(nextPeriod)
-                        .amount(budget.getAmount())
-                        .type(budget.getType())
-                        .category(budget.getCategory())
-                        .user(budget.getUser())
-                        .allowRollover(budget.getAllowRollover())
-                        .rolledOverAmount(rolloverAmount)
-                        .build();
-                budgetRepository.save(newBudget);
-                log.info("Created new budget with rollover {} for period {}", rolloverAmount, nextPeriod);
+    /**
+     * Serves spend up to the tracking date from the budget counters when all of them are valid, otherwise from
+     * the period aggregate. Counters cover the whole period, so spend dated after the tracking date, such as
+     * future installments, is taken back out of them and both paths report the same range.
+     */
+    private Function<Budget, BigDecimal> spendFor(List<Budget> budgets, Long accountId, YearMonth period) {
+        var trackingDate = trackingDate(period);
+        var counted = budgetSpendCounterService.findSpend(budgets);
+        if (counted.isEmpty()) {
+            return loadPeriodSpend(accountId, period.atDay(1), trackingDate)::spendFor;
+        }
+
+        var spendByBudgetId = counted.get();
+        if (!trackingDate.isBefore(period.atEndOfMonth())) {
+            return budget -> spendByBudgetId.get(budget.getId());
+        }
+        var later = loadPeriodSpend(accountId, trackingDate.plusDays(1), period.atEndOfMonth());
+        return budget -> spendByBudgetId.get(budget.getId()).subtract(later.spendFor(budget)).max(BigDecimal.ZERO);
+    }
+
+    private BudgetTrendPointDTO buildTrendPoint(YearMonth period, Budget budget, BigDecimal spent) {
+        if (budget == null) {
+            return BudgetTrendPointDTO.builder()
+                    .period(period)
+                    .spent(spent)
+                    .build();
+        }
+
+        var effectiveBudget = budget.getAmount().add(budget.getRolledOverAmount());
+        var percentageUsed = effectiveBudget.compareTo(BigDecimal.ZERO) > 0
+                ? spent.multiply(BigDecimal.valueOf(100)).divide(effectiveBudget, 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        return BudgetTrendPointDTO.builder()
+                .period(period)
+                .budgetId(budget.getId())
+                .budgetAmount(budget.getAmount())
+                .rolledOverAmount(budget.getRolledOverAmount())
+                .effectiveBudget(effectiveBudget)
+                .spent(spent)
+                .percentageUsed(percentageUsed)
+                .build();
+    }
+
+    private void validateTrendRequest(BudgetType type, Long categoryId, Long userId, int months) {
+        if (months < 1 || months > MAX_TREND_MONTHS) {
+            throw new IllegalArgumentException("budget.trend.invalidMonths");
+        }
+        switch (type) {
+            case ACCOUNT_WIDE -> {
+                if (categoryId != null || userId != null) {
+                    throw new IllegalArgumentException("budget.accountWideMustNotHaveCategoryOrUser");
+                }
+            }
+            case CATEGORY_SPECIFIC -> {
+                if (categoryId == null || userId != null) {
+                    throw new IllegalArgumentException("budget.categorySpecificMustHaveCategory");
+                }
+            }
+            case USER_SPECIFIC -> {
+                if (userId == null || categoryId != null) {
+                    throw new IllegalArgumentException("budget.userSpecificMustHaveUser");
+                }
+            }
+            case CATEGORY_USER_SPECIFIC -> {
+                if (categoryId == null || userId == null) {
+                    throw new IllegalArgumentException("budget.categoryUserSpecificMustHaveBoth");
+                }
             }
         }
     }
 
-    private BudgetTrackingDTO calculateBudgetTracking(Budget budget, YearMonth period, Long accountId) {
+    private BudgetTrackingDTO calculateBudgetTracking(Budget budget, YearMonth period, Long accountId,
+                                                      Function<Budget, BigDecimal> spend) {
         var preferences = budgetPreferencesService.getPreferencesForAccount(
                 accountId,
                 budget.getUser() != null ? budget.getUser().getId() : null
         );
 
         var startDate = period.atDay(1);
-        var endDate = period.atEndOfMonth();
-        var today = LocalDate.now();
-
-        if (today.isBefore(startDate)) {
-            today = startDate;
-        } else if (today.isAfter(endDate)) {
-            today = endDate;
-        }
+        var today = trackingDate(period);
 
-        var currentSpend = calculateSpend(budget, startDate, today, accountId);
+        var currentSpend = spend.apply(budget);
         var effectiveBudget = budget.getAmount().add(budget.getRolledOverAmount());
         var remainingBudget = effectiveBudget.subtract(currentSpend);
         var percentageUsed = effectiveBudget.compareTo(BigDecimal.ZERO) > 0
@@ -181,33 +317,23 @@ public class BudgetTrackingService {
                 .build();
     }
 
-    private BigDecimal calculateSpend(Budget budget, LocalDate startDate, LocalDate endDate, Long accountId) {
-        var filter = new TransactionFilter(accountId, startDate, endDate, null, null,
-                null, null, null, null, null, null, null, false);
-        var spec = TransactionSpecFactory.from(filter);
-        var transactions = transactionRepository.findAll(spec, Sort.unsorted());
-
-        return transactions.stream()
-                .filter(transaction -> transaction.getValue().compareTo(BigDecimal.ZERO) < 0)
-                .filter(transaction -> matchesBudget(transaction, budget))
-                .map(transaction -> transaction.getValue().abs())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private LocalDate trackingDate(YearMonth period) {
+        var startDate = period.atDay(1);
+        var endDate = period.atEndOfMonth();
+        var today = LocalDate.now();
+
+        if (today.isBefore(startDate)) {
+            return startDate;
+        } else if (today.isAfter(endDate)) {
+            return endDate;
+        }
+        return today;
     }
 
-    private boolean matchesBudget(Transaction transaction, Budget budget) {
-        return switch (budget.getType()) {
-            case ACCOUNT_WIDE -> true;
-            case CATEGORY_SPECIFIC ->
-                    transaction.getCategory() != null && transaction.getCategory().getId().equals(budget.getCategory().getId());
-            case USER_SPECIFIC -> transaction.getResponsibleUsers() != null &&
-                    transaction.getResponsibleUsers().stream()
-                            .anyMatch(user -> user.getId().equals(budget.getUser().getId()));
-            case CATEGORY_USER_SPECIFIC -> transaction.getCategory() != null &&
-                    transaction.getCategory().getId().equals(budget.getCategory().getId()) &&
-                    transaction.getResponsibleUsers() != null &&
-                    transaction.getResponsibleUsers().stream()
-                            .anyMatch(user -> user.getId().equals(budget.getUser().getId()));
-        };
+    private BudgetPeriodSpend loadPeriodSpend(Long accountId, LocalDate startDate, LocalDate endDate) {
+        var entries = transactionRepository.findBudgetSpendEntries(accountId, startDate, endDate);
+        log.debug("Loaded {} budget spend entries for account {} between {} and {}", entries.size(), accountId, startDate, endDate);
+        return BudgetPeriodSpend.of(entries);
     }
 
     private BigDecimal calculateMaxRollover(BigDecimal budgetAmount, BudgetPreferencesResponseDTO preferences) {
@@ -217,7 +343,7 @@ public class BudgetTrackingService {
         return percentageLimit;
     }
 
-    private WarningLevel calculateWarningLevel(BigDecimal projectedSpend, BigDecimal budget, BudgetPreferencesResponseDTO preferences) {
+    static WarningLevel calculateWarningLevel(BigDecimal projectedSpend, BigDecimal budget, BudgetPreferencesResponseDTO preferences) {
         if (budget.compareTo(BigDecimal.ZERO) == 0) {
             return WarningLevel.NONE;
         }
@@ -251,4 +377,15 @@ public class BudgetTrackingService {
         return String.format("At current pace, you'll exceed budget by $%s (%d%% over)",
                 overspend.setScale(2, RoundingMode.HALF_UP), percentage.intValue());
     }
+
+    private record BudgetScope(BudgetType type, Long categoryId, Long userId) {
+
+        static BudgetScope of(Budget budget) {
+            return new BudgetScope(
+                    budget.getType(),
+                    budget.getCategory() != null ? budget.getCategory().getId() : null,
+                    budget.getUser() != null ? budget.getUser().getId() : null
+            );
+        }
+    }
 }
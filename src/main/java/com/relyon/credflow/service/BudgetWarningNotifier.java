@@ -0,0 +1,41 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.budget.BudgetWarningEvent;
+import com.relyon.credflow.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Emails the users of an account when one of its budgets escalates to a higher warning level.
+ * <p>
+ * {@link BudgetWarningEvent}s are published while the write that caused them is still open, so they are only
+ * delivered here once that transaction commits: a write that rolls back sends nothing, and a retried write sends
+ * once for the attempt that committed. Levels going down are not notified.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetWarningNotifier {
+
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBudgetWarning(BudgetWarningEvent event) {
+        if (event.currentLevel().compareTo(event.previousLevel()) <= 0) {
+            return;
+        }
+
+        log.info("Notifying account {} that budget {} reached {}", event.accountId(), event.budgetId(), event.currentLevel());
+        for (var user : userRepository.findByAccountId(event.accountId())) {
+            try {
+                emailService.sendBudgetWarningEmail(user.getEmail(), event);
+            } catch (RuntimeException e) {
+                log.warn("Could not notify user {} about budget {}", user.getId(), event.budgetId(), e);
+            }
+        }
+    }
+}
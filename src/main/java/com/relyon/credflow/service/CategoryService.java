@@ -31,6 +31,7 @@ public class CategoryService {
     private final UserService userService;
     private final CategoryMapper categoryMapper;
     private final LocalizedMessageTranslationService translationService;
+    private final AccountDataVersionService accountDataVersionService;
 
     public List<Category> findAll(Long accountId) {
         log.info("Fetching all categories for account {}", accountId);
@@ -67,7 +68,9 @@ public class CategoryService {
             category.setParentCategory(parentCategory);
         }
 
-        return repository.save(category);
+        var saved = repository.save(category);
+        accountDataVersionService.bump(accountId);
+        return saved;
     }
 
     private Set<User> resolveResponsibleUsersForAccount(
@@ -127,6 +130,7 @@ public class CategoryService {
         }
 
         var saved = repository.save(category);
+        accountDataVersionService.bump(accountId);
         log.info("Category ID {} updated", saved.getId());
         return saved;
     }
@@ -138,6 +142,7 @@ public class CategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("resource.category.notFound", id));
 
         repository.delete(category);
+        accountDataVersionService.bump(accountId);
         log.info("Category ID {} deleted", id);
     }
 
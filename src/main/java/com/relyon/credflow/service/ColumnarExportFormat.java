@@ -0,0 +1,164 @@
+package com.relyon.credflow.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Layout of the columnar transaction export shared by {@link ColumnarExportWriter} and
+ * {@link ColumnarExportReader}. All integers are unsigned LEB128 varints; signed ones are zigzag encoded first.
+ * <pre>
+ * file        := magic "CFXC", varint version, types, block*, varint 0
+ * types       := varint n, n x string                       transaction type names, rows store index + 1
+ * block       := varint rows (&gt; 0), dictionary x 3, column x 8
+ * dictionary  := varint n, n x (varint entity id, string)   categories, credit cards, users
+ * column      := varint byte length, bytes
+ * string      := varint byte length, UTF-8 bytes
+ * </pre>
+ * Dictionaries only carry the entries first referenced in their block; codes continue across blocks starting at
+ * 1, and 0 stands for none, as it does for the type. Entity ids keep same-named entries apart. Columns come in
+ * the order id, date, value, type, category, credit card, responsible users and description. Ids, epoch days and
+ * cents are deltas from the previous row, also across blocks, which keeps dates to a byte for rows read in date
+ * order. Responsible users are a count followed by codes.
+ */
+final class ColumnarExportFormat {
+
+    static final byte[] MAGIC = {'C', 'F', 'X', 'C'};
+    static final int VERSION = 1;
+    static final int DICTIONARY_COUNT = 3;
+    static final int COLUMN_COUNT = 8;
+
+    private ColumnarExportFormat() {
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        var result = 0L;
+        for (var shift = 0; shift < 64; shift += 7) {
+            var b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated columnar export");
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed varint in columnar export");
+    }
+
+    static String readString(InputStream in) throws IOException {
+        var length = Math.toIntExact(readVarLong(in));
+        var bytes = in.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Truncated columnar export");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable byte buffer the writer encodes columns into, reused from block to block.
+     */
+    static final class Sink {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            var encoded = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+            writeVarLong(encoded.length);
+            writeBytes(encoded, 0, encoded.length);
+        }
+
+        void writeBytes(byte[] source, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(source, offset, bytes, size, length);
+            size += length;
+        }
+
+        void append(Sink other) {
+            writeBytes(other.bytes, 0, other.size);
+        }
+
+        /**
+         * Appends another sink as a length-prefixed column.
+         */
+        void writeColumn(Sink column) {
+            writeVarLong(column.size);
+            append(column);
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Read position over one column's bytes.
+     */
+    static final class Source {
+        private final byte[] bytes;
+        private int position;
+
+        Source(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long readVarLong() throws IOException {
+            var result = 0L;
+            for (var shift = 0; shift < 64; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new EOFException("Truncated column in columnar export");
+                }
+                var b = bytes[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint in columnar export");
+        }
+
+        int readVarInt() throws IOException {
+            return Math.toIntExact(readVarLong());
+        }
+
+        String readString() throws IOException {
+            var length = readVarInt();
+            if (position + length > bytes.length) {
+                throw new EOFException("Truncated column in columnar export");
+            }
+            var value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
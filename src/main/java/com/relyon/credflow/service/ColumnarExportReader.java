@@ -0,0 +1,149 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.export.ColumnarExportRow;
+import com.relyon.credflow.service.ColumnarExportFormat.Source;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decodes the columnar export written by {@link ColumnarExportWriter}, one block at a time, so files of any size
+ * can be processed in constant memory:
+ * <pre>
+ * try (var reader = new ColumnarExportReader(Files.newInputStream(path))) {
+ *     for (var rows = reader.readBlock(); !rows.isEmpty(); rows = reader.readBlock()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public final class ColumnarExportReader implements Closeable {
+
+    private final InputStream in;
+    private final List<String> types = new ArrayList<>();
+    private final List<List<String>> dictionaries = new ArrayList<>();
+    private long previousId;
+    private long previousEpochDay;
+    private long previousCents;
+    private boolean finished;
+
+    public ColumnarExportReader(InputStream in) throws IOException {
+        this.in = new BufferedInputStream(in);
+
+        var magic = this.in.readNBytes(ColumnarExportFormat.MAGIC.length);
+        if (!Arrays.equals(magic, ColumnarExportFormat.MAGIC)) {
+            throw new IOException("Not a columnar transaction export");
+        }
+        var version = ColumnarExportFormat.readVarLong(this.in);
+        if (version != ColumnarExportFormat.VERSION) {
+            throw new IOException("Unsupported columnar export version " + version);
+        }
+
+        types.add(null);
+        var typeCount = ColumnarExportFormat.readVarLong(this.in);
+        for (var i = 0; i < typeCount; i++) {
+            types.add(ColumnarExportFormat.readString(this.in));
+        }
+        for (var i = 0; i < ColumnarExportFormat.DICTIONARY_COUNT; i++) {
+            var dictionary = new ArrayList<String>();
+            dictionary.add(null);
+            dictionaries.add(dictionary);
+        }
+    }
+
+    /**
+     * Returns the rows of the next block, or an empty list once the end of the export was reached.
+     */
+    public List<ColumnarExportRow> readBlock() throws IOException {
+        if (finished) {
+            return List.of();
+        }
+        var rowCount = Math.toIntExact(ColumnarExportFormat.readVarLong(in));
+        if (rowCount == 0) {
+            finished = true;
+            return List.of();
+        }
+
+        for (var dictionary : dictionaries) {
+            var added = ColumnarExportFormat.readVarLong(in);
+            for (var i = 0; i < added; i++) {
+                ColumnarExportFormat.readVarLong(in);
+                dictionary.add(ColumnarExportFormat.readString(in));
+            }
+        }
+
+        var columns = new Source[ColumnarExportFormat.COLUMN_COUNT];
+        for (var i = 0; i < columns.length; i++) {
+            var length = Math.toIntExact(ColumnarExportFormat.readVarLong(in));
+            var bytes = in.readNBytes(length);
+            if (bytes.length != length) {
+                throw new EOFException("Truncated columnar export");
+            }
+            columns[i] = new Source(bytes);
+        }
+        var ids = columns[0];
+        var dates = columns[1];
+        var values = columns[2];
+        var transactionTypes = columns[3];
+        var categories = columns[4];
+        var creditCards = columns[5];
+        var responsibleUsers = columns[6];
+        var descriptions = columns[7];
+
+        var rows = new ArrayList<ColumnarExportRow>(rowCount);
+        for (var row = 0; row < rowCount; row++) {
+            previousId += ColumnarExportFormat.unzigzag(ids.readVarLong());
+            previousEpochDay += ColumnarExportFormat.unzigzag(dates.readVarLong());
+            previousCents += ColumnarExportFormat.unzigzag(values.readVarLong());
+            var type = lookup(types, transactionTypes.readVarInt());
+            var category = lookup(dictionaries.get(0), categories.readVarInt());
+            var creditCard = lookup(dictionaries.get(1), creditCards.readVarInt());
+            var userCount = responsibleUsers.readVarInt();
+            var users = new ArrayList<String>(userCount);
+            for (var i = 0; i < userCount; i++) {
+                users.add(lookup(dictionaries.get(2), responsibleUsers.readVarInt()));
+            }
+
+            rows.add(new ColumnarExportRow(
+                    previousId,
+                    LocalDate.ofEpochDay(previousEpochDay),
+                    descriptions.readString(),
+                    category,
+                    creditCard,
+                    users,
+                    previousCents,
+                    type
+            ));
+        }
+        return rows;
+    }
+
+    /**
+     * Reads every remaining row. Only meant for exports known to be small.
+     */
+    public List<ColumnarExportRow> readAll() throws IOException {
+        var rows = new ArrayList<ColumnarExportRow>();
+        for (var block = readBlock(); !block.isEmpty(); block = readBlock()) {
+            rows.addAll(block);
+        }
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String lookup(List<String> entries, int code) throws IOException {
+        if (code >= entries.size()) {
+            throw new IOException("Unknown dictionary code " + code + " in columnar export");
+        }
+        return entries.get(code);
+    }
+}
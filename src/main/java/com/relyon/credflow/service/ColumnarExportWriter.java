@@ -0,0 +1,146 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.transaction.TransactionType;
+import com.relyon.credflow.service.ColumnarExportFormat.Sink;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes transactions into the columnar export described in {@link ColumnarExportFormat}, one block per call to
+ * {@link #writeBlock(List)}. Each block is encoded in memory and written and flushed as a whole, so the output can
+ * be produced from a cursor chunk by chunk. Responsible users must be loaded. {@link #finish()} writes the end
+ * marker; the stream is never closed.
+ */
+public final class ColumnarExportWriter {
+
+    private static final int ID = 0;
+    private static final int DATE = 1;
+    private static final int VALUE = 2;
+    private static final int TYPE = 3;
+    private static final int CATEGORY = 4;
+    private static final int CREDIT_CARD = 5;
+    private static final int RESPONSIBLE_USERS = 6;
+    private static final int DESCRIPTION = 7;
+
+    private final OutputStream out;
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary creditCards = new Dictionary();
+    private final Dictionary users = new Dictionary();
+    private final Sink block = new Sink();
+    private final Sink[] columns = new Sink[ColumnarExportFormat.COLUMN_COUNT];
+    private long previousId;
+    private long previousEpochDay;
+    private long previousCents;
+
+    public ColumnarExportWriter(OutputStream out) throws IOException {
+        this.out = out;
+        for (var i = 0; i < columns.length; i++) {
+            columns[i] = new Sink();
+        }
+
+        block.writeBytes(ColumnarExportFormat.MAGIC, 0, ColumnarExportFormat.MAGIC.length);
+        block.writeVarLong(ColumnarExportFormat.VERSION);
+        var types = TransactionType.values();
+        block.writeVarLong(types.length);
+        for (var type : types) {
+            block.writeString(type.name());
+        }
+        block.writeTo(out);
+        block.reset();
+    }
+
+    public void writeBlock(List<Transaction> transactions) throws IOException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+
+        for (var column : columns) {
+            column.reset();
+        }
+        for (var transaction : transactions) {
+            var id = transaction.getId() != null ? transaction.getId() : 0L;
+            columns[ID].writeVarLong(ColumnarExportFormat.zigzag(id - previousId));
+            previousId = id;
+
+            var epochDay = transaction.getDate().toEpochDay();
+            columns[DATE].writeVarLong(ColumnarExportFormat.zigzag(epochDay - previousEpochDay));
+            previousEpochDay = epochDay;
+
+            var cents = transaction.getValue().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            columns[VALUE].writeVarLong(ColumnarExportFormat.zigzag(cents - previousCents));
+            previousCents = cents;
+
+            var type = transaction.getTransactionType();
+            columns[TYPE].writeVarLong(type != null ? type.ordinal() + 1 : 0);
+
+            var category = transaction.getCategory();
+            columns[CATEGORY].writeVarLong(category != null ? categories.code(category.getId(), category.getName()) : 0);
+
+            var creditCard = transaction.getCreditCard();
+            columns[CREDIT_CARD].writeVarLong(creditCard != null
+                    ? creditCards.code(creditCard.getId(), creditCard.getNickname())
+                    : 0);
+
+            var responsibleUsers = transaction.getResponsibleUsers();
+            columns[RESPONSIBLE_USERS].writeVarLong(responsibleUsers != null ? responsibleUsers.size() : 0);
+            if (responsibleUsers != null) {
+                for (var user : responsibleUsers) {
+                    columns[RESPONSIBLE_USERS].writeVarLong(users.code(user.getId(), user.getName()));
+                }
+            }
+
+            columns[DESCRIPTION].writeString(transaction.getDescription());
+        }
+
+        block.reset();
+        block.writeVarLong(transactions.size());
+        categories.writeAdded(block);
+        creditCards.writeAdded(block);
+        users.writeAdded(block);
+        for (var column : columns) {
+            block.writeColumn(column);
+        }
+        block.writeTo(out);
+        out.flush();
+    }
+
+    public void finish() throws IOException {
+        block.reset();
+        block.writeVarLong(0);
+        block.writeTo(out);
+        out.flush();
+    }
+
+    private static final class Dictionary {
+        private final Map<Long, Integer> codes = new HashMap<>();
+        private final Sink added = new Sink();
+        private int addedCount;
+
+        int code(Long id, String name) {
+            if (id == null) {
+                return 0;
+            }
+            var code = codes.get(id);
+            if (code == null) {
+                code = codes.size() + 1;
+                codes.put(id, code);
+                added.writeVarLong(id);
+                added.writeString(name);
+                addedCount++;
+            }
+            return code;
+        }
+
+        void writeAdded(Sink block) {
+            block.writeVarLong(addedCount);
+            block.append(added);
+            added.reset();
+            addedCount = 0;
+        }
+    }
+}
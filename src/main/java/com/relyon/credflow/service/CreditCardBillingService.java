@@ -1,12 +1,15 @@
 package com.relyon.credflow.service;
 
+import com.relyon.credflow.model.credit_card.CreditCard;
 import com.relyon.credflow.model.credit_card.CreditCardResponseDTO;
-import com.relyon.credflow.model.transaction.Transaction;
-import com.relyon.credflow.model.transaction.TransactionFilter;
 import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,8 +19,9 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class CreditCardBillingService {
 
-    private final TransactionService transactionService;
     private final CreditCardRepository creditCardRepository;
+    private final TransactionRepository transactionRepository;
+    private final CreditCardStatementService statementService;
     private final LocalizedMessageTranslationService translationService;
 
     public BigDecimal computeAvailableLimit(Long creditCardId) {
@@ -29,28 +33,7 @@ public class CreditCardBillingService {
         var billingCycleStartDate = calculateBillingCycleStartDate(creditCard.getClosingDay());
         log.info("Billing cycle start date for card {}: {}", creditCardId, billingCycleStartDate);
 
-        var filter = new TransactionFilter(
-                null,
-                billingCycleStartDate,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                List.of(creditCardId),
-                null,
-                null,
-                true
-        );
-
-        var transactions = transactionService.search(filter, null);
-
-        var totalSpent = transactions.stream()
-                .map(Transaction::getValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
+        var totalSpent = transactionRepository.summarizeByCreditCardSince(creditCardId, billingCycleStartDate).total();
         log.info("Total spent in current billing cycle for card {}: {}", creditCardId, totalSpent);
 
         var availableLimit = creditCard.getCreditLimit().subtract(totalSpent);
@@ -63,40 +46,58 @@ public class CreditCardBillingService {
         log.info("Computing current bill for credit card {}", creditCardId);
 
         var cycleStartDate = calculateBillingCycleStartDate(closingDay);
-        var cycleClosingDate = calculateBillingCycleClosingDate(closingDay);
-        var dueDate = calculateBillingDueDate(closingDay, dueDay);
-
-        var filter = new TransactionFilter(
-                null,
-                cycleStartDate,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                List.of(creditCardId),
-                null,
-                null,
-                true
-        );
-
-        var transactions = transactionService.search(filter, null);
-
-        var totalAmount = transactions.stream()
-                .map(Transaction::getValue)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        var currentBill = new CreditCardResponseDTO.CurrentBillDTO();
-        currentBill.setCycleStartDate(cycleStartDate);
-        currentBill.setCycleClosingDate(cycleClosingDate);
-        currentBill.setDueDate(dueDate);
-        currentBill.setTotalAmount(totalAmount);
+        var billingTotal = transactionRepository.summarizeByCreditCardSince(creditCardId, cycleStartDate);
 
         log.info("Current bill for card {}: {} transactions, total amount: {}",
-                creditCardId, transactions.size(), totalAmount);
+                creditCardId, billingTotal.transactionCount(), billingTotal.total());
+
+        return buildCurrentBill(closingDay, dueDay, billingTotal.total());
+    }
+
+    /**
+     * Current billing cycle totals of several cards, keyed by card id. Cards with materialized statements are read
+     * from the statement ledger; the others come from one query grouped by card and day since the earliest cycle
+     * start, where each card only keeps the days from its own cycle start onwards. A single card is summed directly.
+     */
+    public Map<Long, BigDecimal> computeCycleTotals(Collection<CreditCard> creditCards) {
+        if (creditCards.isEmpty()) {
+            return Map.of();
+        }
+
+        var cycleStarts = new HashMap<Long, LocalDate>();
+        creditCards.forEach(card -> cycleStarts.put(card.getId(), calculateBillingCycleStartDate(card.getClosingDay())));
+
+        var totals = new HashMap<>(statementService.findOutstandingTotals(cycleStarts));
+        cycleStarts.keySet().removeAll(totals.keySet());
+        if (cycleStarts.isEmpty()) {
+            return totals;
+        }
+
+        if (cycleStarts.size() == 1) {
+            var cycleStart = cycleStarts.entrySet().iterator().next();
+            totals.put(cycleStart.getKey(),
+                    transactionRepository.summarizeByCreditCardSince(cycleStart.getKey(), cycleStart.getValue()).total());
+            return totals;
+        }
+
+        var earliestStart = Collections.min(cycleStarts.values());
+        cycleStarts.keySet().forEach(id -> totals.put(id, BigDecimal.ZERO));
+        for (var daily : transactionRepository.sumByCreditCardAndDate(cycleStarts.keySet(), earliestStart)) {
+            if (!daily.date().isBefore(cycleStarts.get(daily.creditCardId()))) {
+                totals.merge(daily.creditCardId(), daily.total(), BigDecimal::add);
+            }
+        }
+
+        log.info("Computed billing cycle totals for {} credit cards since {}", cycleStarts.size(), earliestStart);
+        return totals;
+    }
 
+    public CreditCardResponseDTO.CurrentBillDTO buildCurrentBill(Integer closingDay, Integer dueDay, BigDecimal totalAmount) {
+        var currentBill = new CreditCardResponseDTO.CurrentBillDTO();
+        currentBill.setCycleStartDate(calculateBillingCycleStartDate(closingDay));
+        currentBill.setCycleClosingDate(calculateBillingCycleClosingDate(closingDay));
+        currentBill.setDueDate(calculateBillingDueDate(closingDay, dueDay));
+        currentBill.setTotalAmount(totalAmount);
         return currentBill;
     }
 
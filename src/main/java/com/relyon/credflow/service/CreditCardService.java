@@ -3,14 +3,19 @@ package com.relyon.credflow.service;
 import com.relyon.credflow.exception.ResourceNotFoundException;
 import com.relyon.credflow.model.account.Account;
 import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.credit_card.CreditCardObligationDTO;
 import com.relyon.credflow.model.credit_card.CreditCardResponseDTO;
 import com.relyon.credflow.model.credit_card.CreditCardSelectDTO;
+import com.relyon.credflow.model.credit_card.CreditCardStatementDTO;
 import com.relyon.credflow.model.mapper.CreditCardMapper;
 import com.relyon.credflow.model.user.User;
 import com.relyon.credflow.repository.AccountRepository;
 import com.relyon.credflow.repository.CreditCardRepository;
 import com.relyon.credflow.repository.UserRepository;
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -28,12 +33,18 @@ public class CreditCardService {
     private final AccountRepository accountRepository;
     private final CreditCardBillingService billingService;
     private final LocalizedMessageTranslationService translationService;
+    private final CreditCardStatementService statementService;
+    private final InstallmentObligationService installmentObligationService;
+    private final AccountDataVersionService accountDataVersionService;
 
     public Page<CreditCardResponseDTO> findAll(Long accountId, int page, int size) {
         log.info("Fetching credit cards for account {} (page={}, size={})", accountId, page, size);
         var pageable = PageRequest.of(page, size);
         var creditCards = creditCardRepository.findAllByAccountId(accountId, pageable);
-        return creditCards.map(this::mapToDTO);
+        var cycleTotals = creditCards.isEmpty()
+                ? Map.<Long, BigDecimal>of()
+                : billingService.computeCycleTotals(creditCards.getContent());
+        return creditCards.map(card -> mapToDTO(card, cycleTotals.get(card.getId())));
     }
 
     public CreditCardResponseDTO findById(Long id, Long accountId) {
@@ -43,7 +54,8 @@ public class CreditCardService {
                     log.warn("Credit card with id {} not found for account {}", id, accountId);
                     return new ResourceNotFoundException("resource.creditCard.notFound", id);
                 });
-        return mapToDTO(creditCard);
+        var cycleTotals = billingService.computeCycleTotals(List.of(creditCard));
+        return mapToDTO(creditCard, cycleTotals.get(creditCard.getId()));
     }
 
     public CreditCard create(CreditCard creditCard, Long accountId, Long holderId) {
@@ -57,7 +69,10 @@ public class CreditCardService {
 
         creditCard.setAccount(account);
         creditCard.setHolder(holder);
-        return creditCardRepository.save(creditCard);
+        var saved = creditCardRepository.save(creditCard);
+        installmentObligationService.evict(accountId);
+        accountDataVersionService.bump(accountId);
+        return saved;
     }
 
     public CreditCard update(Long id, Long accountId, CreditCard updated, Long holderId) {
@@ -72,6 +87,9 @@ public class CreditCardService {
         User holder = userRepository.findByIdAndAccountId(holderId, accountId)
                 .orElseThrow(() -> new IllegalArgumentException(translationService.translateMessage("creditCard.holderNotFound")));
 
+        var cycleChanged = !Objects.equals(existing.getClosingDay(), updated.getClosingDay())
+                || !Objects.equals(existing.getDueDay(), updated.getDueDay());
+
         existing.setNickname(updated.getNickname());
         existing.setBrand(updated.getBrand());
         existing.setTier(updated.getTier());
@@ -83,6 +101,11 @@ public class CreditCardService {
         existing.setHolder(holder);
 
         var saved = creditCardRepository.save(existing);
+        if (cycleChanged) {
+            statementService.invalidateCard(id, accountId);
+        }
+        installmentObligationService.evict(accountId);
+        accountDataVersionService.bump(accountId);
         log.info("Credit card ID: {} successfully updated", id);
         return saved;
     }
@@ -96,16 +119,45 @@ public class CreditCardService {
         }
 
         creditCardRepository.deleteById(id);
+        installmentObligationService.evict(accountId);
+        accountDataVersionService.bump(accountId);
         log.info("Credit card ID: {} successfully deleted", id);
     }
 
-    private CreditCardResponseDTO mapToDTO(CreditCard entity) {
+    private CreditCardResponseDTO mapToDTO(CreditCard entity, BigDecimal cycleTotal) {
         CreditCardResponseDTO dto = creditCardMapper.toDTO(entity);
-        dto.setAvailableCreditLimit(billingService.computeAvailableLimit(dto.getId()));
-        dto.setCurrentBill(billingService.computeCurrentBill(dto.getId(), entity.getClosingDay(), entity.getDueDay()));
+        dto.setAvailableCreditLimit(entity.getCreditLimit().subtract(cycleTotal));
+        dto.setCurrentBill(billingService.buildCurrentBill(entity.getClosingDay(), entity.getDueDay(), cycleTotal));
         return dto;
     }
 
+    public Page<CreditCardStatementDTO> findStatements(Long id, Long accountId, int page, int size) {
+        log.info("Fetching statements of credit card {} for account {} (page={}, size={})", id, accountId, page, size);
+        CreditCard creditCard = creditCardRepository.findByIdAndAccountId(id, accountId)
+                .orElseThrow(() -> {
+                    log.warn("Credit card with id {} not found for account {}", id, accountId);
+                    return new ResourceNotFoundException("resource.creditCard.notFound", id);
+                });
+        return statementService.findStatements(creditCard, PageRequest.of(page, size));
+    }
+
+    /**
+     * Installment value already committed on each card of the account for its next {@code cycles} bills.
+     */
+    public List<CreditCardObligationDTO> findObligations(Long accountId, int cycles) {
+        log.info("Fetching installment obligations for account {} ({} cycles)", accountId, cycles);
+        return installmentObligationService.findObligations(accountId, cycles);
+    }
+
+    public CreditCardObligationDTO findObligations(Long id, Long accountId, int cycles) {
+        log.info("Fetching installment obligations of credit card {} for account {} ({} cycles)", id, accountId, cycles);
+        return installmentObligationService.findObligations(accountId, id, cycles)
+                .orElseThrow(() -> {
+                    log.warn("Credit card with id {} not found for account {}", id, accountId);
+                    return new ResourceNotFoundException("resource.creditCard.notFound", id);
+                });
+    }
+
     /**
      * Returns a simple list of credit cards with only id and description (nickname + last digits)
      * for dropdowns/selects
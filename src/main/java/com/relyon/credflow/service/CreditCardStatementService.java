@@ -0,0 +1,317 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.credit_card.CreditCardStatement;
+import com.relyon.credflow.model.credit_card.CreditCardStatementDTO;
+import com.relyon.credflow.model.credit_card.CreditCardStatementEntry;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.CreditCardStatementRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Statement ledger with one row per (credit card, billing cycle), persisted in {@code credit_card_statement}.
+ * <p>
+ * A card's statements are materialized in full the first time one of its transactions changes, from one query
+ * grouped by day; afterwards each change only adjusts the statements of the cycles it touches. Changes that
+ * move cycle boundaries (a new closing day, negated values) invalidate the affected statements, which are
+ * rebuilt on the next change; statements left without activity by a rebuild are kept but no longer listed.
+ * Cards without materialized statements are answered from transactions by the callers. Statements are only
+ * maintained when {@code app.card-statements.enabled} is set.
+ * <p>
+ * Statement totals are read, adjusted and written back, and a card's first materialization inserts its rows,
+ * so every write takes the account lock for the rest of the transaction. Concurrent writes in one account then
+ * apply one after the other, and a second materialization finds the rows the first one committed instead of
+ * inserting them again. The accounts of one write are locked in a single call, which is what orders the locks.
+ */
+@Service
+@Slf4j
+public class CreditCardStatementService {
+
+    private static final String LOCK_SCOPE = "card-statements";
+
+    private final CreditCardStatementRepository statementRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountLockService accountLockService;
+    private final boolean enabled;
+
+    public CreditCardStatementService(CreditCardStatementRepository statementRepository,
+                                      CreditCardRepository creditCardRepository,
+                                      TransactionRepository transactionRepository,
+                                      AccountLockService accountLockService,
+                                      @Value("${app.card-statements.enabled:false}") boolean enabled) {
+        this.statementRepository = statementRepository;
+        this.creditCardRepository = creditCardRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountLockService = accountLockService;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<CreditCardStatementEntry> snapshot(Collection<Transaction> transactions) {
+        if (!enabled) {
+            return List.of();
+        }
+        return transactions.stream().map(CreditCardStatementEntry::of).toList();
+    }
+
+    @Transactional
+    public void recordCreated(Collection<Transaction> transactions) {
+        if (!enabled || transactions.isEmpty()) {
+            return;
+        }
+        recordChanges(List.of(), snapshot(transactions));
+    }
+
+    @Transactional
+    public void recordDeleted(Collection<Transaction> transactions) {
+        if (!enabled || transactions.isEmpty()) {
+            return;
+        }
+        recordChanges(snapshot(transactions), List.of());
+    }
+
+    /**
+     * Applies the difference between what the changed transactions contributed before and after the change.
+     * Entries present on both sides cancel out, so changes that do not touch card, date or value are free.
+     */
+    @Transactional
+    public void recordChanges(Collection<CreditCardStatementEntry> removed, Collection<CreditCardStatementEntry> added) {
+        if (!enabled) {
+            return;
+        }
+
+        var remaining = new HashMap<CreditCardStatementEntry, Integer>();
+        removed.forEach(entry -> remaining.merge(entry, 1, Integer::sum));
+        var byAccount = new TreeMap<Long, List<SignedEntry>>();
+        for (var entry : added) {
+            if (remaining.getOrDefault(entry, 0) > 0) {
+                remaining.merge(entry, -1, Integer::sum);
+            } else if (!entry.isZero()) {
+                byAccount.computeIfAbsent(entry.accountId(), id -> new ArrayList<>()).add(new SignedEntry(entry, 1));
+            }
+        }
+        remaining.forEach((entry, count) -> {
+            if (!entry.isZero()) {
+                for (var i = 0; i < count; i++) {
+                    byAccount.computeIfAbsent(entry.accountId(), id -> new ArrayList<>()).add(new SignedEntry(entry, -1));
+                }
+            }
+        });
+        if (byAccount.isEmpty()) {
+            return;
+        }
+
+        accountLockService.lockForTransaction(LOCK_SCOPE, byAccount.keySet());
+        byAccount.forEach(this::applyChanges);
+    }
+
+    /**
+     * Marks the card's statements as stale, e.g. after its closing or due day changed.
+     */
+    @Transactional
+    public void invalidateCard(Long creditCardId, Long accountId) {
+        if (!enabled) {
+            return;
+        }
+        accountLockService.lockForTransaction(LOCK_SCOPE, accountId);
+        markInvalid(statementRepository.findAllByCreditCardIdAndValidTrue(creditCardId));
+        log.info("Invalidated statements of credit card {}", creditCardId);
+    }
+
+    /**
+     * Marks every statement of the account as stale after a change that cannot be expressed as per-transaction
+     * entries.
+     */
+    @Transactional
+    public void invalidate(Long accountId) {
+        if (!enabled) {
+            return;
+        }
+        accountLockService.lockForTransaction(LOCK_SCOPE, accountId);
+        markInvalid(statementRepository.findAllByAccountIdAndValidTrue(accountId));
+        log.info("Invalidated credit card statements for account {}", accountId);
+    }
+
+    /**
+     * Sums the statements from each card's current cycle start onwards. Only cards with materialized statements
+     * are included in the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> findOutstandingTotals(Map<Long, LocalDate> cycleStartByCardId) {
+        if (!enabled || cycleStartByCardId.isEmpty()) {
+            return Map.of();
+        }
+
+        var materialized = new HashSet<>(statementRepository.findMaterializedCreditCardIds(cycleStartByCardId.keySet()));
+        if (materialized.isEmpty()) {
+            return Map.of();
+        }
+
+        var earliestStart = materialized.stream().map(cycleStartByCardId::get).min(Comparator.naturalOrder()).orElseThrow();
+        var totals = new HashMap<Long, BigDecimal>();
+        materialized.forEach(id -> totals.put(id, BigDecimal.ZERO));
+        for (var statement : statementRepository.findAllByCreditCardIdInAndCycleStartDateGreaterThanEqual(materialized, earliestStart)) {
+            var cardId = statement.getCreditCard().getId();
+            if (!statement.getCycleStartDate().isBefore(cycleStartByCardId.get(cardId))) {
+                totals.merge(cardId, statement.getTotal(), BigDecimal::add);
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Statements of one card, most recent cycle first. When statements are not maintained they are computed on the
+     * fly and nothing is stored.
+     */
+    @Transactional
+    public Page<CreditCardStatementDTO> findStatements(CreditCard creditCard, Pageable pageable) {
+        if (!enabled) {
+            var computed = accumulate(List.of(creditCard), new HashMap<>()).stream()
+                    .sorted(Comparator.comparing(CreditCardStatement::getCycleStartDate).reversed())
+                    .map(this::toDTO)
+                    .toList();
+            var from = (int) Math.min(pageable.getOffset(), computed.size());
+            var to = Math.min(from + pageable.getPageSize(), computed.size());
+            return new PageImpl<>(computed.subList(from, to), pageable, computed.size());
+        }
+
+        accountLockService.lockForTransaction(LOCK_SCOPE, creditCard.getAccount().getId());
+        if (statementRepository.findMaterializedCreditCardIds(List.of(creditCard.getId())).isEmpty()) {
+            statementRepository.saveAll(rebuild(List.of(creditCard)));
+        }
+        return statementRepository.findNonEmptyByCreditCardId(creditCard.getId(), pageable)
+                .map(this::toDTO);
+    }
+
+    private void applyChanges(Long accountId, List<SignedEntry> changes) {
+        var cardIds = changes.stream()
+                .map(change -> change.entry().creditCardId())
+                .collect(Collectors.toCollection(TreeSet::new));
+        var cards = creditCardRepository.findAllById(cardIds).stream()
+                .collect(Collectors.toMap(CreditCard::getId, Function.identity()));
+        var materialized = new HashSet<>(statementRepository.findMaterializedCreditCardIds(cardIds));
+
+        var toRebuild = cards.values().stream().filter(card -> !materialized.contains(card.getId())).toList();
+        var toSave = new ArrayList<>(rebuild(toRebuild));
+
+        var incremental = changes.stream()
+                .filter(change -> materialized.contains(change.entry().creditCardId())
+                        && cards.containsKey(change.entry().creditCardId()))
+                .toList();
+        if (!incremental.isEmpty()) {
+            var statements = statementsByKey(incremental.stream().map(change -> change.entry().creditCardId()).collect(Collectors.toSet()));
+            var touched = new HashSet<CreditCardStatement>();
+            for (var change : incremental) {
+                var card = cards.get(change.entry().creditCardId());
+                var value = change.entry().value();
+                var statement = statementFor(card, change.entry().date(), statements);
+                if (value.signum() < 0) {
+                    statement.setChargesTotal(statement.getChargesTotal().add(value.negate().multiply(BigDecimal.valueOf(change.sign()))));
+                } else {
+                    statement.setCreditsTotal(statement.getCreditsTotal().add(value.multiply(BigDecimal.valueOf(change.sign()))));
+                }
+                touched.add(statement);
+            }
+            toSave.addAll(touched);
+        }
+
+        statementRepository.saveAll(toSave);
+        log.debug("Updated {} credit card statements for account {}", toSave.size(), accountId);
+    }
+
+    /**
+     * Recomputes every statement of the given cards from their transactions, reusing existing rows.
+     */
+    private List<CreditCardStatement> rebuild(List<CreditCard> creditCards) {
+        if (creditCards.isEmpty()) {
+            return List.of();
+        }
+
+        var statements = statementsByKey(creditCards.stream().map(CreditCard::getId).collect(Collectors.toSet()));
+        statements.values().forEach(statement -> {
+            statement.setChargesTotal(BigDecimal.ZERO);
+            statement.setCreditsTotal(BigDecimal.ZERO);
+            statement.setValid(true);
+        });
+        var rebuilt = accumulate(creditCards, statements);
+        log.info("Rebuilt {} statements for {} credit cards", rebuilt.size(), creditCards.size());
+        return rebuilt;
+    }
+
+    private List<CreditCardStatement> accumulate(List<CreditCard> creditCards, Map<StatementKey, CreditCardStatement> statements) {
+        var cards = creditCards.stream().collect(Collectors.toMap(CreditCard::getId, Function.identity()));
+        for (var activity : transactionRepository.sumCreditCardActivityByDate(cards.keySet())) {
+            var statement = statementFor(cards.get(activity.creditCardId()), activity.date(), statements);
+            statement.setChargesTotal(statement.getChargesTotal().add(activity.charges()));
+            statement.setCreditsTotal(statement.getCreditsTotal().add(activity.credits()));
+        }
+        return new ArrayList<>(statements.values());
+    }
+
+    private CreditCardStatement statementFor(CreditCard card, LocalDate date, Map<StatementKey, CreditCardStatement> statements) {
+        var cycle = BillingCycle.containing(date, card.getClosingDay(), card.getDueDay());
+        var statement = statements.computeIfAbsent(new StatementKey(card.getId(), cycle.startDate()), key -> CreditCardStatement.builder()
+                .creditCard(card)
+                .account(card.getAccount())
+                .cycleStartDate(cycle.startDate())
+                .build());
+        statement.setCycleClosingDate(cycle.closingDate());
+        statement.setDueDate(cycle.dueDate());
+        return statement;
+    }
+
+    private Map<StatementKey, CreditCardStatement> statementsByKey(Collection<Long> creditCardIds) {
+        var statements = new HashMap<StatementKey, CreditCardStatement>();
+        for (var statement : statementRepository.findAllByCreditCardIdIn(creditCardIds)) {
+            statements.put(new StatementKey(statement.getCreditCard().getId(), statement.getCycleStartDate()), statement);
+        }
+        return statements;
+    }
+
+    private void markInvalid(List<CreditCardStatement> statements) {
+        statements.forEach(statement -> statement.setValid(false));
+        statementRepository.saveAll(statements);
+    }
+
+    private CreditCardStatementDTO toDTO(CreditCardStatement statement) {
+        return CreditCardStatementDTO.builder()
+                .cycleStartDate(statement.getCycleStartDate())
+                .cycleClosingDate(statement.getCycleClosingDate())
+                .dueDate(statement.getDueDate())
+                .chargesTotal(statement.getChargesTotal())
+                .creditsTotal(statement.getCreditsTotal())
+                .totalAmount(statement.getTotal())
+                .build();
+    }
+
+    private record SignedEntry(CreditCardStatementEntry entry, int sign) {
+    }
+
+    private record StatementKey(Long creditCardId, LocalDate cycleStartDate) {
+    }
+}
@@ -26,6 +26,8 @@ public class CsvImportService {
     private final TransactionService transactionService;
     private final BanrisulPdfParserService banrisulPdfParserService;
     private final LocalizedMessageTranslationService translationService;
+    private final DuplicateProbeIndex duplicateProbeIndex;
+    private final TransactionLedgerService transactionLedgerService;
 
     @Transactional
     public CsvImportHistory importCsv(MultipartFile file, Long accountId, CsvImportFormat format) {
@@ -100,6 +102,8 @@ public class CsvImportService {
         log.info("Found {} transactions to delete for import {}", transactions.size(), importHistoryId);
 
         transactions.forEach(transaction -> transactionRepository.deleteById(transaction.getId()));
+        duplicateProbeIndex.invalidate(accountId);
+        transactionLedgerService.recordDeleted(transactions);
 
         history.setStatus(CsvImportStatus.ROLLED_BACK);
         csvImportHistoryRepository.save(history);
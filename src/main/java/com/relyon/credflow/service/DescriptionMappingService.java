@@ -23,6 +23,7 @@ public class DescriptionMappingService {
     private final AccountService accountService;
     private final CategoryService categoryService;
     private final LocalizedMessageTranslationService translationService;
+    private final AccountDataVersionService accountDataVersionService;
 
     @Transactional
     public List<DescriptionMapping> createAll(List<DescriptionMapping> mappings, Long accountId) {
@@ -92,6 +93,7 @@ public class DescriptionMappingService {
                 .orElseThrow(() -> notFound(id));
 
         repository.delete(mapping);
+        accountDataVersionService.bump(accountId);
         log.info("Successfully deleted mapping ID {}", id);
     }
 
@@ -108,7 +110,9 @@ public class DescriptionMappingService {
 
     private DescriptionMapping saveMappingWithAccount(DescriptionMapping mapping, Long accountId) {
         mapping.setAccount(accountService.findById(accountId));
-        return repository.save(mapping);
+        var saved = repository.save(mapping);
+        accountDataVersionService.bump(accountId);
+        return saved;
     }
 
     private void applyMappingToTransactions(Long accountId, DescriptionMapping mapping) {
@@ -127,6 +131,7 @@ public class DescriptionMappingService {
         existing.setAccount(accountService.findById(accountId));
 
         var saved = repository.save(existing);
+        accountDataVersionService.bump(accountId);
         applyMappingToTransactions(accountId, saved);
         return saved;
     }
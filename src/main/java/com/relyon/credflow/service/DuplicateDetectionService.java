@@ -1,6 +1,7 @@
 package com.relyon.credflow.service;
 
 import com.relyon.credflow.constant.BusinessConstants;
+import com.relyon.credflow.model.transaction.DuplicateCandidate;
 import com.relyon.credflow.model.transaction.DuplicateGroupDTO;
 import com.relyon.credflow.model.transaction.DuplicateGroupDTO.DuplicateTransactionDTO;
 import com.relyon.credflow.model.transaction.Transaction;
@@ -9,8 +10,10 @@ import com.relyon.credflow.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +25,13 @@ import org.springframework.transaction.annotation.Transactional;
 @Slf4j
 public class DuplicateDetectionService {
 
+    private static final Comparator<DuplicateCandidate> CANDIDATE_ORDER = Comparator
+            .comparing(DuplicateCandidate::value)
+            .thenComparing(DuplicateCandidate::date)
+            .thenComparing(DuplicateCandidate::id, Comparator.nullsLast(Comparator.naturalOrder()));
+
     private final TransactionRepository transactionRepository;
+    private final DuplicateProbeIndex duplicateProbeIndex;
 
     @Transactional(readOnly = true)
     public List<DuplicateTransactionDTO> findPotentialDuplicatesForManualEntry(
@@ -37,77 +46,113 @@ public class DuplicateDetectionService {
         log.debug("Searching for potential duplicates: accountId={}, date={}, value={}, window=[{}, {}]",
                 accountId, date, value, startDate, endDate);
 
-        return transactionRepository.findPotentialDuplicates(accountId, startDate, endDate, value)
+        var probed = duplicateProbeIndex.probe(accountId, date, value, windowDays);
+        if (probed.isPresent()) {
+            var ids = probed.get();
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            return transactionRepository.findAllByIdIn(ids).stream()
+                    .filter(transaction -> transaction.getSource() == TransactionSource.CSV_IMPORT)
+                    .filter(transaction -> transaction.getValue().compareTo(value) == 0)
+                    .filter(transaction -> !transaction.getDate().isBefore(startDate) && !transaction.getDate().isAfter(endDate))
+                    .map(this::toDto)
+                    .toList();
+        }
+
+        var duplicates = transactionRepository.findPotentialDuplicates(accountId, startDate, endDate, value)
                 .stream()
                 .filter(transaction -> transaction.getSource() == TransactionSource.CSV_IMPORT)
                 .map(this::toDto)
                 .toList();
+
+        duplicateProbeIndex.warmUpIfCold(accountId);
+        return duplicates;
     }
 
     @Transactional(readOnly = true)
     public List<DuplicateGroupDTO> findAllPotentialDuplicates(Long accountId) {
-        log.info("Finding all potential duplicates for account {}", accountId);
+        return findAllPotentialDuplicates(accountId, null, null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<DuplicateGroupDTO> findAllPotentialDuplicates(Long accountId, LocalDate fromDate, LocalDate toDate) {
+        log.info("Finding all potential duplicates for account {} within [{}, {}]", accountId, fromDate, toDate);
 
-        var allTransactions = transactionRepository.findAllByAccountId(accountId);
+        var candidates = transactionRepository.findDuplicateCandidates(accountId, fromDate, toDate);
 
-        var grouped = groupByDateWindowAndValue(allTransactions);
+        var groups = groupByValueAndDateWindow(candidates).stream()
+                .filter(group -> group.size() > 1)
+                .filter(this::hasMixedSources)
+                .toList();
+
+        if (groups.isEmpty()) {
+            return List.of();
+        }
 
-        return grouped.entrySet().stream()
-                .filter(entry -> hasMixedSources(entry.getValue()))
-                .filter(entry -> entry.getValue().size() > 1)
-                .map(entry -> DuplicateGroupDTO.builder()
-                        .groupKey(entry.getKey())
-                        .transactions(entry.getValue().stream().map(this::toDto).toList())
+        var ids = groups.stream()
+                .flatMap(List::stream)
+                .map(DuplicateCandidate::id)
+                .toList();
+        var transactionsById = transactionRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+
+        return groups.stream()
+                .map(group -> DuplicateGroupDTO.builder()
+                        .groupKey(generateGroupKey(group.get(0)))
+                        .transactions(group.stream()
+                                .map(candidate -> transactionsById.get(candidate.id()))
+                                .filter(Objects::nonNull)
+                                .map(this::toDto)
+                                .toList())
                         .build())
                 .toList();
     }
 
-    private LinkedHashMap<String, List<Transaction>> groupByDateWindowAndValue(List<Transaction> transactions) {
-        var grouped = new LinkedHashMap<String, List<Transaction>>();
+    /**
+     * Sorts candidates by (value, date) and sweeps them once: a group is anchored on its earliest
+     * transaction and takes every following transaction of the same value up to the window size away.
+     */
+    private List<List<DuplicateCandidate>> groupByValueAndDateWindow(List<DuplicateCandidate> candidates) {
         var windowDays = BusinessConstants.Detection.DUPLICATE_SEARCH_WINDOW_DAYS;
-
-        for (var transaction : transactions) {
-            var matched = false;
-
-            for (var entry : grouped.entrySet()) {
-                var groupTransaction = entry.getValue().get(0);
-                if (isWithinWindow(transaction, groupTransaction, windowDays) && hasSameValue(transaction, groupTransaction)) {
-                    entry.getValue().add(transaction);
-                    matched = true;
-                    break;
-                }
-            }
-
-            if (!matched) {
-                var key = generateGroupKey(transaction);
-                var list = new ArrayList<Transaction>();
-                list.add(transaction);
-                grouped.put(key, list);
+        var sorted = new ArrayList<>(candidates);
+        sorted.sort(CANDIDATE_ORDER);
+
+        var groups = new ArrayList<List<DuplicateCandidate>>();
+        List<DuplicateCandidate> current = null;
+        DuplicateCandidate anchor = null;
+
+        for (var candidate : sorted) {
+            if (anchor == null || !hasSameValue(candidate, anchor) || !isWithinWindow(candidate, anchor, windowDays)) {
+                current = new ArrayList<>();
+                groups.add(current);
+                anchor = candidate;
             }
+            current.add(candidate);
         }
 
-        return grouped;
+        return groups;
     }
 
-    private boolean isWithinWindow(Transaction first, Transaction second, int windowDays) {
-        var daysDiff = Math.abs(first.getDate().toEpochDay() - second.getDate().toEpochDay());
+    private boolean isWithinWindow(DuplicateCandidate first, DuplicateCandidate second, int windowDays) {
+        var daysDiff = Math.abs(first.date().toEpochDay() - second.date().toEpochDay());
         return daysDiff <= windowDays;
     }
 
-    private boolean hasSameValue(Transaction first, Transaction second) {
-        return first.getValue().compareTo(second.getValue()) == 0;
+    private boolean hasSameValue(DuplicateCandidate first, DuplicateCandidate second) {
+        return first.value().compareTo(second.value()) == 0;
     }
 
-    private boolean hasMixedSources(List<Transaction> transactions) {
-        var sources = transactions.stream()
-                .map(Transaction::getSource)
+    private boolean hasMixedSources(List<DuplicateCandidate> candidates) {
+        var sources = candidates.stream()
+                .map(DuplicateCandidate::source)
                 .collect(Collectors.toSet());
 
         return sources.contains(TransactionSource.CSV_IMPORT) && sources.contains(TransactionSource.MANUAL);
     }
 
-    private String generateGroupKey(Transaction transaction) {
-        return transaction.getDate().toString() + "|" + transaction.getValue().toPlainString();
+    private String generateGroupKey(DuplicateCandidate candidate) {
+        return candidate.date().toString() + "|" + candidate.value().toPlainString();
     }
 
     private DuplicateTransactionDTO toDto(Transaction transaction) {
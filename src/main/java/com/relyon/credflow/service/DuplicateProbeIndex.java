@@ -0,0 +1,228 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.transaction.TransactionSource;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Per-account in-memory index of imported transactions keyed by (amount in cents, day), covering a rolling
+ * window of recent days.
+ * <p>
+ * Answers "is there an imported transaction with this amount within N days?" without querying the database.
+ * Hits are only candidate ids: callers load and re-check them, so stale entries can never produce a wrong
+ * warning. An account's index is cold until {@link #warmUpIfCold(Long)} loads it; cold accounts and dates
+ * before the window make {@link #probe} return empty so callers fall back to the database.
+ * The index is local to each instance and is only maintained for writes handled by this instance.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DuplicateProbeIndex {
+
+    private static final int DAY_BITS = 24;
+    private static final long DAY_MASK = (1L << DAY_BITS) - 1;
+
+    private final TransactionRepository transactionRepository;
+    private final Map<Long, AccountProbe> probes = new ConcurrentHashMap<>();
+
+    @Value("${app.duplicate-probe.window-days:120}")
+    private int windowDays;
+
+    /**
+     * Returns the ids of indexed imported transactions with the same amount within {@code days} of {@code date},
+     * or empty when the account's index cannot answer.
+     */
+    public Optional<List<Long>> probe(Long accountId, LocalDate date, BigDecimal value, int days) {
+        var probe = probes.get(accountId);
+        if (probe == null) {
+            return Optional.empty();
+        }
+        return probe.find(toCents(value), date.toEpochDay() - days, date.toEpochDay() + days);
+    }
+
+    public void warmUpIfCold(Long accountId) {
+        var created = new AccountProbe(LocalDate.now().minusDays(windowDays).toEpochDay());
+        if (probes.putIfAbsent(accountId, created) != null) {
+            return;
+        }
+
+        try {
+            var entries = transactionRepository.findImportedDuplicateCandidates(
+                    accountId, LocalDate.ofEpochDay(created.coveredFromDay()));
+            entries.forEach(entry -> created.add(toCents(entry.value()), entry.date().toEpochDay(), entry.id()));
+            created.markReady();
+            log.info("Duplicate probe index warmed for account {} with {} imported transactions", accountId, entries.size());
+        } catch (RuntimeException e) {
+            probes.remove(accountId, created);
+            throw e;
+        }
+    }
+
+    public void record(Transaction transaction) {
+        if (transaction.getSource() != TransactionSource.CSV_IMPORT || transaction.getId() == null
+                || transaction.getDate() == null || transaction.getValue() == null) {
+            return;
+        }
+
+        var accountId = transaction.getAccount().getId();
+        var cents = toCents(transaction.getValue());
+        var day = transaction.getDate().toEpochDay();
+        var id = transaction.getId();
+
+        afterCommit(() -> {
+            var probe = probes.get(accountId);
+            if (probe != null) {
+                probe.add(cents, day, id);
+            }
+        });
+    }
+
+    public void remove(Long accountId, Long transactionId, LocalDate date, BigDecimal value) {
+        if (date == null || value == null) {
+            return;
+        }
+
+        var cents = toCents(value);
+        var day = date.toEpochDay();
+
+        afterCommit(() -> {
+            var probe = probes.get(accountId);
+            if (probe != null) {
+                probe.remove(cents, day, transactionId);
+            }
+        });
+    }
+
+    public void invalidate(Long accountId) {
+        afterCommit(() -> probes.remove(accountId));
+    }
+
+    public boolean isWarm(Long accountId) {
+        var probe = probes.get(accountId);
+        return probe != null && probe.isReady();
+    }
+
+    @Scheduled(cron = "${app.duplicate-probe.eviction-cron:0 30 3 * * *}")
+    public void evictExpired() {
+        var cutoff = LocalDate.now().minusDays(windowDays).toEpochDay();
+        probes.values().forEach(probe -> probe.evictBefore(cutoff));
+        log.debug("Duplicate probe index evicted entries before {} for {} accounts", LocalDate.ofEpochDay(cutoff), probes.size());
+    }
+
+    static long toCents(BigDecimal value) {
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue();
+    }
+
+    private static long key(long cents, long day) {
+        return (cents << DAY_BITS) | (day & DAY_MASK);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+        action.run();
+    }
+
+    private static final class AccountProbe {
+
+        private static final long[] EMPTY = new long[0];
+
+        private final Map<Long, long[]> idsByKey = new HashMap<>();
+        private long coveredFromDay;
+        private boolean ready;
+
+        AccountProbe(long coveredFromDay) {
+            this.coveredFromDay = coveredFromDay;
+        }
+
+        synchronized long coveredFromDay() {
+            return coveredFromDay;
+        }
+
+        synchronized boolean isReady() {
+            return ready;
+        }
+
+        synchronized void markReady() {
+            ready = true;
+        }
+
+        synchronized Optional<List<Long>> find(long cents, long fromDay, long toDay) {
+            if (!ready || fromDay < coveredFromDay) {
+                return Optional.empty();
+            }
+
+            var ids = new ArrayList<Long>();
+            for (var day = fromDay; day <= toDay; day++) {
+                for (var id : idsByKey.getOrDefault(key(cents, day), EMPTY)) {
+                    ids.add(id);
+                }
+            }
+            return Optional.of(ids);
+        }
+
+        synchronized void add(long cents, long day, long id) {
+            if (day < coveredFromDay) {
+                return;
+            }
+            var current = idsByKey.getOrDefault(key(cents, day), EMPTY);
+            for (var existing : current) {
+                if (existing == id) {
+                    return;
+                }
+            }
+            var updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = id;
+            idsByKey.put(key(cents, day), updated);
+        }
+
+        synchronized void remove(long cents, long day, long id) {
+            var current = idsByKey.get(key(cents, day));
+            if (current == null) {
+                return;
+            }
+            var updated = Arrays.stream(current).filter(existing -> existing != id).toArray();
+            if (updated.length == 0) {
+                idsByKey.remove(key(cents, day));
+            } else {
+                idsByKey.put(key(cents, day), updated);
+            }
+        }
+
+        synchronized void evictBefore(long cutoffDay) {
+            if (cutoffDay <= coveredFromDay) {
+                return;
+            }
+            idsByKey.keySet().removeIf(key -> dayOf(key) < cutoffDay);
+            coveredFromDay = cutoffDay;
+        }
+
+        private static long dayOf(long key) {
+            return key & DAY_MASK;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.relyon.credflow.service;
 
+import com.relyon.credflow.model.budget.BudgetWarningEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -90,6 +91,31 @@ public class EmailService {
         }
     }
 
+    public void sendBudgetWarningEmail(String toEmail, BudgetWarningEvent event) {
+        var subject = "Budget warning: " + event.currentLevel() + " for " + event.period();
+        var emailBody = buildBudgetWarningEmailBody(event);
+
+        if (mailSender == null) {
+            logMockEmail(toEmail, subject, emailBody, null);
+            return;
+        }
+
+        log.info("Sending budget warning email for budget {} to: {}", event.budgetId(), toEmail);
+        var message = new SimpleMailMessage();
+        message.setFrom(fromEmail);
+        message.setTo(toEmail);
+        message.setSubject(subject);
+        message.setText(emailBody);
+
+        try {
+            mailSender.send(message);
+            log.info("Budget warning email sent successfully to: {}", toEmail);
+        } catch (Exception e) {
+            log.error("Failed to send budget warning email to: {}", toEmail, e);
+            throw new RuntimeException("email.sendFailed", e);
+        }
+    }
+
     private void logMockEmail(String toEmail, String subject, String body, String token) {
         log.info("================================================================================");
         log.info("MOCK EMAIL (JavaMailSender not configured)");
@@ -100,8 +126,10 @@ public class EmailService {
         log.info("");
         log.info("Body:");
         log.info("{}", body);
-        log.info("");
-        log.info("Token/Code (for testing): {}", token);
+        if (token != null) {
+            log.info("");
+            log.info("Token/Code (for testing): {}", token);
+        }
         log.info("================================================================================");
     }
 
@@ -142,4 +170,23 @@ public class EmailService {
                 CredFlow Team
                 """.formatted(inviterName, inviteCode, inviteUrl);
     }
+
+    private String buildBudgetWarningEmailBody(BudgetWarningEvent event) {
+        var budgetUrl = frontendUrl + "/budgets/" + event.budgetId();
+        return """
+                Hello,
+                
+                A budget of your account reached the %s warning level for %s.
+                
+                Spent so far: %s of %s
+                
+                See the budget details at:
+                
+                %s
+                
+                Best regards,
+                CredFlow Team
+                """.formatted(event.currentLevel(), event.period(), event.spent().toPlainString(),
+                event.effectiveBudget().toPlainString(), budgetUrl);
+    }
 }
@@ -0,0 +1,307 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.constant.BusinessConstants;
+import com.relyon.credflow.model.export.ExportFormat;
+import com.relyon.credflow.model.transaction.TransactionFilter;
+import com.relyon.credflow.specification.TransactionFilterNormalizer;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generated export files cached on local disk under {@code app.export-cache.dir}, keyed by format, normalized
+ * filter and the account data version read before generation. A write to the account bumps the version, so
+ * artifacts of older versions are never served again; they and any artifact not requested for
+ * {@code app.export-cache.ttl-minutes} are swept periodically.
+ * <p>
+ * The digest of the key doubles as the HTTP entity tag, so a client holding the current artifact can be answered
+ * without generating or reading it. Concurrent requests for the same missing artifact wait for one generation.
+ * <p>
+ * {@link #write} streams a missing artifact to the caller while it is written to the cache, so a miss sends its
+ * first bytes as soon as the generator produces them instead of after the whole file is on disk.
+ */
+@Service
+@Slf4j
+public class ExportCacheService {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final AccountDataVersionService accountDataVersionService;
+    private final Path cacheDir;
+    private final Duration ttl;
+    private final Map<String, Artifact> artifacts = new ConcurrentHashMap<>();
+
+    public ExportCacheService(AccountDataVersionService accountDataVersionService,
+                              @Value("${app.export-cache.dir:${java.io.tmpdir}/credflow-export-cache}") Path cacheDir,
+                              @Value("${app.export-cache.ttl-minutes:60}") long ttlMinutes) {
+        if (ttlMinutes <= 0) {
+            throw new IllegalStateException("Export cache TTL must be greater than 0. Current value: " + ttlMinutes);
+        }
+        this.accountDataVersionService = accountDataVersionService;
+        this.cacheDir = cacheDir;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        prepareCacheDir();
+    }
+
+    /**
+     * Resolves the key of the artifact for the account's current data. Call it before generating, so the artifact
+     * never holds data older than its version.
+     */
+    public ExportCacheKey key(ExportFormat format, TransactionFilter filter) {
+        var accountId = filter.accountId();
+        var version = accountDataVersionService.current(accountId);
+        var digest = digest(format.name() + '|' + version + '|' + TransactionFilterNormalizer.canonicalize(filter));
+        return new ExportCacheKey(accountId, format, version, digest);
+    }
+
+    /**
+     * Returns the cached file of the key, generating it with the writer when it is missing.
+     */
+    public Path get(ExportCacheKey key, ArtifactWriter writer) throws IOException {
+        while (true) {
+            var candidate = new Artifact(key);
+            var artifact = artifacts.putIfAbsent(key.digest(), candidate);
+            if (artifact == null) {
+                return generate(candidate, writer, null);
+            }
+
+            var file = cached(artifact);
+            if (file != null) {
+                return file;
+            }
+        }
+    }
+
+    /**
+     * Writes the artifact of the key to the output stream. A missing artifact is generated once and sent to the
+     * output stream while it is written to the cache; requests arriving meanwhile wait for it and are served from
+     * the cached file. When the output stream fails mid-way, for example because the client went away, the
+     * artifact is still completed for the next request and the failure is rethrown afterwards.
+     */
+    public void write(ExportCacheKey key, ArtifactWriter writer, OutputStream outputStream) throws IOException {
+        while (true) {
+            var candidate = new Artifact(key);
+            var artifact = artifacts.putIfAbsent(key.digest(), candidate);
+            if (artifact == null) {
+                generate(candidate, writer, outputStream);
+                return;
+            }
+
+            var file = cached(artifact);
+            if (file != null) {
+                Files.copy(file, outputStream);
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.export-cache.cleanup-interval-ms:300000}")
+    public void removeStaleArtifacts() {
+        var latestVersions = artifacts.values().stream()
+                .collect(Collectors.toMap(artifact -> artifact.key.accountId(), artifact -> artifact.key.version(), Math::max));
+        var idleSince = Instant.now().minus(ttl);
+        for (var artifact : artifacts.values()) {
+            if (!artifact.file.isDone()) {
+                continue;
+            }
+            var superseded = artifact.key.version() < latestVersions.get(artifact.key.accountId());
+            if ((superseded || artifact.lastUsed.isBefore(idleSince)) && artifacts.remove(artifact.key.digest(), artifact)) {
+                deleteQuietly(artifact.file.getNow(null));
+                log.debug("Removed cached export {}", artifact.key.digest());
+            }
+        }
+    }
+
+    /**
+     * Waits for the artifact and returns its file, or null after dropping an artifact whose file is gone.
+     */
+    private Path cached(Artifact artifact) throws IOException {
+        var key = artifact.key;
+        var file = await(artifact);
+        if (Files.exists(file)) {
+            artifact.lastUsed = Instant.now();
+            log.debug("Serving cached {} export {} for account {}", key.format(), key.digest(), key.accountId());
+            return file;
+        }
+        artifacts.remove(key.digest(), artifact);
+        return null;
+    }
+
+    private Path generate(Artifact artifact, ArtifactWriter writer, OutputStream client) throws IOException {
+        var key = artifact.key;
+        var part = cacheDir.resolve(key.digest() + PART_SUFFIX);
+        var file = cacheDir.resolve(key.digest() + "." + key.format().getExtension());
+        TeeOutputStream tee = null;
+        try {
+            try (var outputStream = new BufferedOutputStream(Files.newOutputStream(part),
+                    BusinessConstants.Export.STREAM_BUFFER_BYTES)) {
+                if (client == null) {
+                    writer.write(outputStream);
+                } else {
+                    tee = new TeeOutputStream(outputStream, client);
+                    writer.write(tee);
+                    tee.flush();
+                }
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(part);
+            artifacts.remove(key.digest(), artifact);
+            artifact.file.completeExceptionally(e);
+            throw e;
+        }
+        artifact.lastUsed = Instant.now();
+        artifact.file.complete(file);
+        log.info("Cached {} export {} for account {} at data version {}",
+                key.format(), key.digest(), key.accountId(), key.version());
+        if (tee != null && tee.clientFailure != null) {
+            throw tee.clientFailure;
+        }
+        return file;
+    }
+
+    private Path await(Artifact artifact) throws IOException {
+        try {
+            return artifact.file.join();
+        } catch (CompletionException | CancellationException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private String digest(String text) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The index lives only in memory, so files left in the cache directory by a previous run are removed on
+     * startup.
+     */
+    private void prepareCacheDir() {
+        try {
+            Files.createDirectories(cacheDir);
+            try (var leftovers = Files.list(cacheDir)) {
+                leftovers.forEach(this::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare export cache directory " + cacheDir, e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete cached export {}", file, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ArtifactWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    /**
+     * Identifies one artifact; {@link #etag()} is the quoted digest sent as the HTTP entity tag.
+     */
+    public record ExportCacheKey(Long accountId, ExportFormat format, long version, String digest) {
+
+        public String etag() {
+            return "\"" + digest + "\"";
+        }
+    }
+
+    /**
+     * Copies every write to the cache file and to the client. The first client failure stops the copies to the
+     * client only, so the cache file is still completed.
+     */
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream cache;
+        private final OutputStream client;
+        private IOException clientFailure;
+
+        TeeOutputStream(OutputStream cache, OutputStream client) {
+            this.cache = cache;
+            this.client = client;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            cache.write(b);
+            if (clientFailure == null) {
+                try {
+                    client.write(b);
+                } catch (IOException e) {
+                    clientFailure = e;
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            cache.write(b, off, len);
+            if (clientFailure == null) {
+                try {
+                    client.write(b, off, len);
+                } catch (IOException e) {
+                    clientFailure = e;
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            cache.flush();
+            if (clientFailure == null) {
+                try {
+                    client.flush();
+                } catch (IOException e) {
+                    clientFailure = e;
+                }
+            }
+        }
+    }
+
+    private static final class Artifact {
+        final ExportCacheKey key;
+        final CompletableFuture<Path> file = new CompletableFuture<>();
+        volatile Instant lastUsed = Instant.now();
+
+        Artifact(ExportCacheKey key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.constant.BusinessConstants;
+import com.relyon.credflow.exception.ResourceConflictException;
+import com.relyon.credflow.exception.ResourceNotFoundException;
+import com.relyon.credflow.exception.ServiceUnavailableException;
+import com.relyon.credflow.model.export.ExportFormat;
+import com.relyon.credflow.model.export.ExportJobDTO;
+import com.relyon.credflow.model.export.ExportJobFile;
+import com.relyon.credflow.model.export.ExportJobRequestDTO;
+import com.relyon.credflow.model.export.ExportJobStatus;
+import com.relyon.credflow.model.transaction.TransactionFilter;
+import com.relyon.credflow.specification.TransactionFilterNormalizer;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Background export jobs. A submitted job is generated by the regular export writers on a bounded pool of
+ * {@code app.export-jobs.parallelism} threads into a file in the local spool directory, and can be downloaded
+ * from this instance until {@code app.export-jobs.ttl-minutes} after it finished; expired jobs and their files
+ * are swept periodically. When the queue of {@code app.export-jobs.queue-capacity} waiting jobs is full new
+ * submissions are refused with a 503 until a slot frees up.
+ * <p>
+ * Submissions with the same format and filter as a job of the same account that is still pending or running
+ * get that job back instead of starting another one.
+ */
+@Service
+@Slf4j
+public class ExportJobService {
+
+    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final LocalDate FULL_EXPORT_START_DATE = LocalDate.of(1900, 1, 1);
+    private static final String PART_SUFFIX = ".part";
+
+    private final ExportService exportService;
+    private final AdvancedExcelExportService advancedExcelExportService;
+    private final Path spoolDir;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<JobKey, ExportJob> inFlight = new ConcurrentHashMap<>();
+
+    public ExportJobService(ExportService exportService,
+                            AdvancedExcelExportService advancedExcelExportService,
+                            @Value("${app.export-jobs.spool-dir:${java.io.tmpdir}/credflow-exports}") Path spoolDir,
+                            @Value("${app.export-jobs.parallelism:2}") int parallelism,
+                            @Value("${app.export-jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${app.export-jobs.ttl-minutes:30}") long ttlMinutes) {
+        if (parallelism <= 0 || queueCapacity <= 0 || ttlMinutes <= 0) {
+            throw new IllegalStateException("Export job parallelism, queue capacity and TTL must be greater than 0. Current values: "
+                    + parallelism + ", " + queueCapacity + ", " + ttlMinutes);
+        }
+        this.exportService = exportService;
+        this.advancedExcelExportService = advancedExcelExportService;
+        this.spoolDir = spoolDir;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("export-job-", 0).factory());
+        prepareSpoolDir();
+    }
+
+    public ExportJobDTO submit(Long accountId, ExportJobRequestDTO request) {
+        var fromDate = request.getStartDate() != null ? request.getStartDate() : FULL_EXPORT_START_DATE;
+        var toDate = request.getEndDate() != null ? request.getEndDate() : LocalDate.now();
+        var filter = TransactionFilterNormalizer.canonicalize(new TransactionFilter(
+                accountId,
+                fromDate,
+                toDate,
+                null,
+                null,
+                request.getMinAmount(),
+                request.getMaxAmount(),
+                request.getResponsibleUserIds(),
+                request.getCategoryIds(),
+                request.getCreditCardIds(),
+                request.getTransactionTypes(),
+                request.getTransactionSources(),
+                false
+        ));
+        var key = new JobKey(request.getFormat(), filter);
+
+        var candidate = new ExportJob(UUID.randomUUID().toString(), key,
+                fileName(request.getFormat(), request.getStartDate(), request.getEndDate(), fromDate, toDate));
+        var existing = inFlight.putIfAbsent(key, candidate);
+        if (existing != null) {
+            log.info("Export job {} for account {} coalesced with an identical submission", existing.id, accountId);
+            return toDTO(existing);
+        }
+
+        jobs.put(candidate.id, candidate);
+        try {
+            executor.execute(() -> run(candidate));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(candidate.id);
+            inFlight.remove(key, candidate);
+            throw new ServiceUnavailableException("export.job.queueFull");
+        }
+
+        log.info("Submitted {} export job {} for account {} from {} to {}",
+                request.getFormat(), candidate.id, accountId, fromDate, toDate);
+        return toDTO(candidate);
+    }
+
+    public ExportJobDTO findJob(Long accountId, String jobId) {
+        return toDTO(findOwnedJob(accountId, jobId));
+    }
+
+    public ExportJobFile findFile(Long accountId, String jobId) {
+        var job = findOwnedJob(accountId, jobId);
+        if (job.status == ExportJobStatus.FAILED) {
+            throw new ResourceNotFoundException("export.job.failed", jobId);
+        }
+        if (job.status != ExportJobStatus.COMPLETED) {
+            throw new ResourceConflictException("export.job.notReady", jobId);
+        }
+        return new ExportJobFile(job.file, job.fileName, job.key.format());
+    }
+
+    @Scheduled(fixedDelayString = "${app.export-jobs.cleanup-interval-ms:60000}")
+    public void removeExpiredJobs() {
+        var now = Instant.now();
+        for (var job : jobs.values()) {
+            if (job.isExpired(now) && jobs.remove(job.id, job)) {
+                deleteQuietly(job.file);
+                log.debug("Removed expired export job {}", job.id);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ExportJob findOwnedJob(Long accountId, String jobId) {
+        var job = jobs.get(jobId);
+        if (job == null || !job.key.filter().accountId().equals(accountId) || job.isExpired(Instant.now())) {
+            throw new ResourceNotFoundException("export.job.notFound", jobId);
+        }
+        return job;
+    }
+
+    private void run(ExportJob job) {
+        job.status = ExportJobStatus.RUNNING;
+        var part = spoolDir.resolve(job.id + PART_SUFFIX);
+        var file = spoolDir.resolve(job.id + "." + job.key.format().getExtension());
+        try {
+            try (var outputStream = new BufferedOutputStream(Files.newOutputStream(part),
+                    BusinessConstants.Export.STREAM_BUFFER_BYTES)) {
+                write(job.key, outputStream);
+            }
+            Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+            job.file = file;
+            job.complete(ExportJobStatus.COMPLETED, ttl);
+            log.info("Export job {} completed", job.id);
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.id, e);
+            deleteQuietly(part);
+            job.complete(ExportJobStatus.FAILED, ttl);
+        } finally {
+            inFlight.remove(job.key, job);
+        }
+    }
+
+    private void write(JobKey key, OutputStream outputStream) throws IOException {
+        switch (key.format()) {
+            case CSV -> exportService.writeCsv(key.filter(), outputStream);
+            case PDF -> exportService.writePdf(key.filter(), outputStream);
+            case EXCEL -> advancedExcelExportService.writeExcel(key.filter(), outputStream);
+            case COLUMNAR -> exportService.writeColumnar(key.filter(), outputStream);
+        }
+    }
+
+    private String fileName(ExportFormat format, LocalDate startDate, LocalDate endDate,
+                            LocalDate fromDate, LocalDate toDate) {
+        var period = fromDate.format(FILE_DATE_FORMATTER) + "_" + toDate.format(FILE_DATE_FORMATTER);
+        if (format != ExportFormat.EXCEL) {
+            return "transactions_" + period + "." + format.getExtension();
+        }
+        return startDate == null && endDate == null
+                ? "credflow_report_completo.xlsx"
+                : "credflow_report_" + period + ".xlsx";
+    }
+
+    private ExportJobDTO toDTO(ExportJob job) {
+        return ExportJobDTO.builder()
+                .id(job.id)
+                .format(job.key.format())
+                .status(job.status)
+                .fileName(job.fileName)
+                .createdAt(job.createdAt)
+                .completedAt(job.completedAt)
+                .expiresAt(job.expiresAt)
+                .downloadUrl(job.status == ExportJobStatus.COMPLETED ? "/v1/export/jobs/" + job.id + "/file" : null)
+                .build();
+    }
+
+    /**
+     * Jobs live only in memory, so files left in the spool directory by a previous run can never be
+     * downloaded and are removed on startup.
+     */
+    private void prepareSpoolDir() {
+        try {
+            Files.createDirectories(spoolDir);
+            try (var leftovers = Files.list(spoolDir)) {
+                leftovers.forEach(this::deleteQuietly);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare export spool directory " + spoolDir, e);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete export spool file {}", file, e);
+        }
+    }
+
+    private record JobKey(ExportFormat format, TransactionFilter filter) {
+    }
+
+    private static final class ExportJob {
+        final String id;
+        final JobKey key;
+        final String fileName;
+        final Instant createdAt = Instant.now();
+        volatile ExportJobStatus status = ExportJobStatus.PENDING;
+        volatile Path file;
+        volatile Instant completedAt;
+        volatile Instant expiresAt;
+
+        ExportJob(String id, JobKey key, String fileName) {
+            this.id = id;
+            this.key = key;
+            this.fileName = fileName;
+        }
+
+        void complete(ExportJobStatus finalStatus, Duration ttl) {
+            completedAt = Instant.now();
+            expiresAt = completedAt.plus(ttl);
+            status = finalStatus;
+        }
+
+        boolean isExpired(Instant now) {
+            var expiry = expiresAt;
+            return expiry != null && !now.isBefore(expiry);
+        }
+    }
+}
@@ -6,16 +6,24 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
+import com.relyon.credflow.constant.BusinessConstants;
 import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.transaction.TransactionFilter;
 import com.relyon.credflow.model.user.User;
+import com.relyon.credflow.repository.TransactionExportRepository;
 import com.relyon.credflow.repository.TransactionRepository;
 import com.relyon.credflow.specification.TransactionSpecFactory;
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -30,58 +38,79 @@ import org.springframework.transaction.annotation.Transactional;
 public class ExportService {
 
     private final TransactionRepository transactionRepository;
+    private final TransactionExportRepository transactionExportRepository;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
+    private static final String CSV_HEADER = "Date,Description,Category,Responsible Users,Credit Card,Value,Type\n";
+
+    /**
+     * Writes the matching transactions as UTF-8 CSV to the given stream. Rows are read through a forward-only
+     * cursor and written in chunks of {@link BusinessConstants.Export#STREAM_FETCH_SIZE}, flushing after each
+     * chunk, so memory stays constant and the first bytes go out before the query is exhausted. The stream is
+     * flushed but not closed.
+     */
     @Transactional(readOnly = true)
-    public byte[] exportToCsv(TransactionFilter filter) {
+    public void writeCsv(TransactionFilter filter, OutputStream outputStream) throws IOException {
         log.info("Exporting transactions to CSV for account {} from {} to {}",
                 filter.accountId(), filter.fromDate(), filter.toDate());
 
-        var spec = TransactionSpecFactory.from(filter);
-        var transactions = transactionRepository.findAll(spec, Sort.by(Sort.Direction.ASC, "date"));
+        var writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                BusinessConstants.Export.STREAM_BUFFER_BYTES);
+        writer.write(CSV_HEADER);
 
-        var csv = new StringBuilder();
-        csv.append("Date,Description,Category,Responsible Users,Credit Card,Value,Type\n");
+        var rowCount = forEachChunk(filter, chunk -> writeCsvChunk(writer, chunk));
+        writer.flush();
 
-        for (var transaction : transactions) {
-            csv.append(formatDate(transaction.getDate())).append(",");
-            csv.append(escapeCsv(transaction.getDescription())).append(",");
-            csv.append(escapeCsv(transaction.getCategory() != null ? transaction.getCategory().getName() : "")).append(",");
-            csv.append(escapeCsv(formatResponsibleUsers(transaction))).append(",");
-            csv.append(escapeCsv(transaction.getCreditCard() != null ? transaction.getCreditCard().getNickname() : "")).append(",");
-            csv.append(formatCurrency(transaction.getValue())).append(",");
-            csv.append(transaction.getTransactionType() != null ? transaction.getTransactionType().name() : "").append("\n");
-        }
+        log.info("Exported {} transactions to CSV for account {}", rowCount, filter.accountId());
+    }
 
-        return csv.toString().getBytes();
+    private void writeCsvChunk(Writer writer, List<Transaction> chunk) throws IOException {
+        for (var transaction : chunk) {
+            writer.write(formatDate(transaction.getDate()));
+            writer.write(',');
+            writer.write(escapeCsv(transaction.getDescription()));
+            writer.write(',');
+            writer.write(escapeCsv(transaction.getCategory() != null ? transaction.getCategory().getName() : ""));
+            writer.write(',');
+            writer.write(escapeCsv(formatResponsibleUsers(transaction)));
+            writer.write(',');
+            writer.write(escapeCsv(transaction.getCreditCard() != null ? transaction.getCreditCard().getNickname() : ""));
+            writer.write(',');
+            writer.write(formatCurrency(transaction.getValue()));
+            writer.write(',');
+            writer.write(transaction.getTransactionType() != null ? transaction.getTransactionType().name() : "");
+            writer.write('\n');
+        }
+        writer.flush();
     }
 
+    /**
+     * Writes the matching transactions as a PDF report to the given stream. The table is built in iText's
+     * large-table mode: rows come from the same forward-only cursor as the CSV export, and each chunk is
+     * flushed to the document, and from there to the stream, before the next one is read. Totals are summed
+     * along the way and rendered after the table. The stream is not closed.
+     */
     @Transactional(readOnly = true)
-    public byte[] exportToPdf(TransactionFilter filter) throws IOException {
+    public void writePdf(TransactionFilter filter, OutputStream outputStream) throws IOException {
         log.info("Exporting transactions to PDF for account {} from {} to {}",
                 filter.accountId(), filter.fromDate(), filter.toDate());
 
-        var spec = TransactionSpecFactory.from(filter);
-        var transactions = transactionRepository.findAll(spec, Sort.by(Sort.Direction.ASC, "date"));
-
-        var baos = new ByteArrayOutputStream();
-        var writer = new PdfWriter(baos);
-        var pdf = new PdfDocument(writer);
-        var document = new Document(pdf);
+        var writer = new PdfWriter(outputStream);
+        writer.setCloseStream(false);
+        var document = new Document(new PdfDocument(writer));
 
         document.add(new Paragraph("Transaction Report")
-                .setFontSize(20)
+                .setFontSize(BusinessConstants.Export.PDF_TITLE_FONT_SIZE)
                 .setBold()
                 .setTextAlignment(TextAlignment.CENTER));
 
         document.add(new Paragraph("Period: " + formatDate(filter.fromDate()) + " to " + formatDate(filter.toDate()))
-                .setFontSize(12)
+                .setFontSize(BusinessConstants.Export.PDF_SUBTITLE_FONT_SIZE)
                 .setTextAlignment(TextAlignment.CENTER));
 
         document.add(new Paragraph("\n"));
 
-        var table = new Table(new float[]{2, 4, 2, 2, 2, 2});
-        table.setWidth(550);
+        var table = new Table(new float[]{2, 4, 2, 2, 2, 2}, true);
+        table.setWidth(BusinessConstants.Export.PDF_TABLE_WIDTH);
 
         table.addHeaderCell("Date");
         table.addHeaderCell("Description");
@@ -89,27 +118,77 @@ public class ExportService {
         table.addHeaderCell("Responsible Users");
         table.addHeaderCell("Credit Card");
         table.addHeaderCell("Value");
-
-        for (var transaction : transactions) {
-            table.addCell(formatDate(transaction.getDate()));
-            table.addCell(transaction.getDescription());
-            table.addCell(transaction.getCategory() != null ? transaction.getCategory().getName() : "");
-            table.addCell(formatResponsibleUsers(transaction));
-            table.addCell(transaction.getCreditCard() != null ? transaction.getCreditCard().getNickname() : "");
-            table.addCell(formatCurrency(transaction.getValue()));
-        }
-
         document.add(table);
 
-        var summary = calculateSummary(transactions);
+        var totals = new RunningTotals();
+        var rowCount = forEachChunk(filter, chunk -> {
+            for (var transaction : chunk) {
+                table.addCell(formatDate(transaction.getDate()));
+                table.addCell(transaction.getDescription());
+                table.addCell(transaction.getCategory() != null ? transaction.getCategory().getName() : "");
+                table.addCell(formatResponsibleUsers(transaction));
+                table.addCell(transaction.getCreditCard() != null ? transaction.getCreditCard().getNickname() : "");
+                table.addCell(formatCurrency(transaction.getValue()));
+                totals.add(transaction.getValue());
+            }
+            table.flush();
+        });
+        table.complete();
+
         document.add(new Paragraph("\n"));
         document.add(new Paragraph("Summary").setBold());
-        document.add(new Paragraph("Total Income: " + formatCurrency(summary[0])));
-        document.add(new Paragraph("Total Expense: " + formatCurrency(summary[1])));
-        document.add(new Paragraph("Balance: " + formatCurrency(summary[2])));
+        document.add(new Paragraph("Total Income: " + formatCurrency(totals.income)));
+        document.add(new Paragraph("Total Expense: " + formatCurrency(totals.expense)));
+        document.add(new Paragraph("Balance: " + formatCurrency(totals.income.subtract(totals.expense))));
 
         document.close();
-        return baos.toByteArray();
+        outputStream.flush();
+
+        log.info("Exported {} transactions to PDF for account {}", rowCount, filter.accountId());
+    }
+
+    /**
+     * Writes the matching transactions in the compact columnar encoding read by
+     * {@link ColumnarExportReader}. Each cursor chunk becomes one block with its
+     * own columns and the dictionary entries it introduces, and is flushed before the next chunk is read. The
+     * stream is not closed.
+     */
+    @Transactional(readOnly = true)
+    public void writeColumnar(TransactionFilter filter, OutputStream outputStream) throws IOException {
+        log.info("Exporting transactions to columnar format for account {} from {} to {}",
+                filter.accountId(), filter.fromDate(), filter.toDate());
+
+        var writer = new ColumnarExportWriter(outputStream);
+        var rowCount = forEachChunk(filter, writer::writeBlock);
+        writer.finish();
+
+        log.info("Exported {} transactions to columnar format for account {}", rowCount, filter.accountId());
+    }
+
+    /**
+     * Streams the transactions matching the filter in date order and hands them to the writer in chunks of
+     * {@link BusinessConstants.Export#STREAM_FETCH_SIZE} with their responsible users loaded. Each chunk is
+     * detached once written. Returns the number of transactions written.
+     */
+    private int forEachChunk(TransactionFilter filter, ChunkWriter chunkWriter) throws IOException {
+        var spec = TransactionSpecFactory.from(filter);
+        var rowCount = 0;
+        try (var transactions = transactionExportRepository.stream(
+                spec, Sort.by(Sort.Direction.ASC, "date"), BusinessConstants.Export.STREAM_FETCH_SIZE)) {
+            var chunk = new ArrayList<Transaction>(BusinessConstants.Export.STREAM_FETCH_SIZE);
+            var iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == BusinessConstants.Export.STREAM_FETCH_SIZE || !iterator.hasNext()) {
+                    transactionExportRepository.fetchResponsibleUsers(chunk);
+                    chunkWriter.write(chunk);
+                    transactionExportRepository.detach(chunk);
+                    rowCount += chunk.size();
+                    chunk = new ArrayList<>(BusinessConstants.Export.STREAM_FETCH_SIZE);
+                }
+            }
+        }
+        return rowCount;
     }
 
     @Transactional(readOnly = true)
@@ -213,4 +292,22 @@ public class ExportService {
 
         return new BigDecimal[]{income, expense, balance};
     }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(List<Transaction> chunk) throws IOException;
+    }
+
+    private static final class RunningTotals {
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expense = BigDecimal.ZERO;
+
+        void add(BigDecimal value) {
+            if (value.compareTo(BigDecimal.ZERO) > 0) {
+                income = income.add(value);
+            } else if (value.compareTo(BigDecimal.ZERO) < 0) {
+                expense = expense.add(value.abs());
+            }
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.transaction.InstallmentGroup;
+import com.relyon.credflow.model.transaction.InstallmentGroupAggregate;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.repository.InstallmentGroupRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Counters of {@link InstallmentGroup} headers (installment count, totals, paid installments and date range).
+ * <p>
+ * Every transaction write reports the groups its rows belonged to before and after the change, and those
+ * headers are refreshed from one query aggregating the remaining installments of the touched groups. A header
+ * whose installments were all removed is deleted with them.
+ * <p>
+ * The account lock is held until the surrounding transaction completes, so a concurrent refresh of the same
+ * account reads the committed counters of this one. The accounts of one refresh are locked in a single call,
+ * which is what orders the locks.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InstallmentGroupCounterService {
+
+    private static final String LOCK_SCOPE = "installment-groups";
+
+    private final InstallmentGroupRepository installmentGroupRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountLockService accountLockService;
+
+    public Set<Long> groupIds(Collection<Transaction> transactions) {
+        return transactions.stream()
+                .map(Transaction::getInstallmentGroup)
+                .filter(group -> group != null && group.getId() != null)
+                .map(InstallmentGroup::getId)
+                .collect(Collectors.toSet());
+    }
+
+    @Transactional
+    public void refresh(Collection<Long> installmentGroupIds) {
+        if (installmentGroupIds.isEmpty()) {
+            return;
+        }
+
+        var groupsByAccount = installmentGroupRepository.findAllById(installmentGroupIds).stream()
+                .collect(Collectors.groupingBy(group -> group.getAccount().getId(), TreeMap::new, Collectors.toList()));
+        accountLockService.lockForTransaction(LOCK_SCOPE, groupsByAccount.keySet());
+        groupsByAccount.values().forEach(this::apply);
+    }
+
+    @Transactional
+    public void refreshAccount(Long accountId) {
+        accountLockService.lockForTransaction(LOCK_SCOPE, accountId);
+        apply(installmentGroupRepository.findAllByAccountId(accountId));
+    }
+
+    private void apply(List<InstallmentGroup> groups) {
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        var aggregates = transactionRepository.summarizeInstallmentGroups(
+                        groups.stream().map(InstallmentGroup::getId).toList()).stream()
+                .collect(Collectors.toMap(InstallmentGroupAggregate::installmentGroupId, Function.identity()));
+
+        for (var group : groups) {
+            var aggregate = aggregates.get(group.getId());
+            if (aggregate == null) {
+                log.debug("Installment group {} has no installments left, deleting header", group.getId());
+                installmentGroupRepository.delete(group);
+                continue;
+            }
+            group.setInstallmentCount(aggregate.installmentCount().intValue());
+            group.setTotalAmount(aggregate.totalAmount());
+            group.setPaidInstallments(aggregate.paidCount().intValue());
+            group.setTotalPaid(aggregate.totalPaid());
+            group.setFirstInstallmentDate(aggregate.firstInstallmentDate());
+            group.setLastInstallmentDate(aggregate.lastInstallmentDate());
+        }
+        installmentGroupRepository.saveAll(groups.stream().filter(group -> aggregates.containsKey(group.getId())).toList());
+    }
+}
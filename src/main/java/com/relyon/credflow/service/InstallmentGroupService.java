@@ -6,15 +6,20 @@ import com.relyon.credflow.model.transaction.*;
 import com.relyon.credflow.model.user.User;
 import com.relyon.credflow.repository.CategoryRepository;
 import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.InstallmentBatchRepository;
+import com.relyon.credflow.repository.InstallmentGroupRepository;
 import com.relyon.credflow.repository.TransactionRepository;
 import com.relyon.credflow.repository.UserRepository;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,10 +29,14 @@ import org.springframework.transaction.annotation.Transactional;
 public class InstallmentGroupService {
 
     private final TransactionRepository transactionRepository;
+    private final InstallmentGroupRepository installmentGroupRepository;
     private final CategoryRepository categoryRepository;
     private final CreditCardRepository creditCardRepository;
     private final UserRepository userRepository;
     private final LocalizedMessageTranslationService translationService;
+    private final TransactionLedgerService transactionLedgerService;
+    private final InstallmentBatchRepository installmentBatchRepository;
+    private final AuditorAware<Long> auditorAware;
 
     @Transactional
     public InstallmentGroupResponseDTO createInstallmentGroup(InstallmentGroupRequestDTO request, Long accountId) {
@@ -55,17 +64,28 @@ public class InstallmentGroupService {
             }
         }
 
-        var installmentGroupId = UUID.randomUUID().toString();
         var installmentAmount = request.getTotalAmount()
                 .divide(BigDecimal.valueOf(request.getTotalInstallments()), 2, RoundingMode.HALF_UP);
+        var installmentGroup = installmentGroupRepository.save(InstallmentGroup.builder()
+                .account(category.getAccount())
+                .description(request.getDescription())
+                .category(category)
+                .creditCard(creditCard)
+                .totalInstallments(request.getTotalInstallments())
+                .installmentCount(request.getTotalInstallments())
+                .totalAmount(installmentAmount.multiply(BigDecimal.valueOf(request.getTotalInstallments())))
+                .firstInstallmentDate(request.getFirstInstallmentDate())
+                .lastInstallmentDate(request.getFirstInstallmentDate().plusMonths(request.getTotalInstallments() - 1))
+                .build());
 
         var finalCreditCard = creditCard;
         var finalResponsibleUsers = responsibleUsers;
+        var created = new ArrayList<Transaction>(request.getTotalInstallments());
 
         for (int i = 1; i <= request.getTotalInstallments(); i++) {
             var installmentDate = request.getFirstInstallmentDate().plusMonths(i - 1);
 
-            var transaction = Transaction.builder()
+            created.add(Transaction.builder()
                     .description(request.getDescription())
                     .value(installmentAmount)
                     .transactionType(TransactionType.INSTALLMENT)
@@ -74,147 +94,103 @@ public class InstallmentGroupService {
                     .creditCard(finalCreditCard)
                     .currentInstallment(i)
                     .totalInstallments(request.getTotalInstallments())
-                    .installmentGroupId(installmentGroupId)
+                    .installmentGroup(installmentGroup)
                     .responsibleUsers(new HashSet<>(finalResponsibleUsers))
                     .source(TransactionSource.MANUAL)
                     .wasEditedAfterImport(false)
                     .isReversal(false)
                     .account(category.getAccount())
-                    .build();
-
-            transactionRepository.save(transaction);
+                    .build());
         }
+        installmentBatchRepository.insertGroup(created, currentAuditor());
+        transactionLedgerService.recordCreated(created);
 
         log.info("Created installment group {} with {} installments",
-                installmentGroupId, request.getTotalInstallments());
+                installmentGroup.getId(), request.getTotalInstallments());
 
-        return getInstallmentGroup(installmentGroupId, accountId);
+        return buildGroupResponse(installmentGroup, created);
     }
 
+    /**
+     * The group header with its installments. Totals and counters are read from the header.
+     */
     @Transactional(readOnly = true)
-    public InstallmentGroupResponseDTO getInstallmentGroup(String installmentGroupId, Long accountId) {
+    public InstallmentGroupResponseDTO getInstallmentGroup(Long installmentGroupId, Long accountId) {
         log.info("Fetching installment group {} for account {}", installmentGroupId, accountId);
 
+        var installmentGroup = findGroup(installmentGroupId, accountId);
         var installments = transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId);
 
-        if (installments.isEmpty()) {
-            throw new ResourceNotFoundException("installment.group.notFound", installmentGroupId);
-        }
-
-        var paidCount = 0;
-        var totalPaid = BigDecimal.ZERO;
-        var totalAmount = BigDecimal.ZERO;
-
-        for (var installment : installments) {
-            totalAmount = totalAmount.add(installment.getValue());
-            if (Boolean.TRUE.equals(installment.getWasEditedAfterImport())) {
-                paidCount++;
-                totalPaid = totalPaid.add(installment.getValue());
-            }
-        }
-
-        var firstInstallment = installments.getFirst();
+        return buildGroupResponse(installmentGroup, installments);
+    }
 
+    private InstallmentGroupResponseDTO buildGroupResponse(InstallmentGroup installmentGroup, List<Transaction> installments) {
         return InstallmentGroupResponseDTO.builder()
-                .installmentGroupId(installmentGroupId)
-                .description(firstInstallment.getDescription())
-                .totalAmount(totalAmount)
-                .totalInstallments(firstInstallment.getTotalInstallments())
-                .paidInstallments(paidCount)
-                .pendingInstallments(firstInstallment.getTotalInstallments() - paidCount)
-                .totalPaid(totalPaid)
-                .totalPending(totalAmount.subtract(totalPaid))
+                .installmentGroupId(installmentGroup.getId())
+                .description(installmentGroup.getDescription())
+                .totalAmount(installmentGroup.getTotalAmount())
+                .totalInstallments(installmentGroup.getTotalInstallments())
+                .paidInstallments(installmentGroup.getPaidInstallments())
+                .pendingInstallments(installmentGroup.getPendingInstallments())
+                .totalPaid(installmentGroup.getTotalPaid())
+                .totalPending(installmentGroup.getTotalPending())
                 .installments(installments.stream().map(this::mapToResponseDTO).toList())
                 .build();
     }
 
+    /**
+     * One page of installment group summaries, most recent plans first, read from the group headers.
+     */
     @Transactional(readOnly = true)
-    public List<InstallmentGroupSummaryDTO> getAllInstallmentGroups(Long accountId) {
-        log.info("Fetching all installment groups for account {}", accountId);
-
-        var allInstallments = transactionRepository.findAllInstallmentsByAccountId(accountId);
+    public Page<InstallmentGroupSummaryDTO> getAllInstallmentGroups(Long accountId, int page, int size) {
+        log.info("Fetching installment groups for account {} (page={}, size={})", accountId, page, size);
 
-        if (allInstallments.isEmpty()) {
-            return List.of();
-        }
-
-        var groupedByInstallmentGroupId = allInstallments.stream()
-                .collect(Collectors.groupingBy(
-                        Transaction::getInstallmentGroupId,
-                        LinkedHashMap::new,
-                        Collectors.toList()));
-
-        return groupedByInstallmentGroupId.entrySet().stream()
-                .map(entry -> buildSummaryDTO(entry.getKey(), entry.getValue()))
-                .toList();
+        var sort = Sort.by(Sort.Order.desc("firstInstallmentDate"), Sort.Order.desc("id"));
+        return installmentGroupRepository.findAllByAccountId(accountId, PageRequest.of(page, size, sort))
+                .map(this::buildSummaryDTO);
     }
 
-    private InstallmentGroupSummaryDTO buildSummaryDTO(String groupId, List<Transaction> installments) {
-        var paidCount = 0;
-        var totalPaid = BigDecimal.ZERO;
-        var totalAmount = BigDecimal.ZERO;
-        LocalDate firstDate = null;
-        LocalDate lastDate = null;
-
-        for (var installment : installments) {
-            totalAmount = totalAmount.add(installment.getValue());
-            if (Boolean.TRUE.equals(installment.getWasEditedAfterImport())) {
-                paidCount++;
-                totalPaid = totalPaid.add(installment.getValue());
-            }
-            if (firstDate == null || installment.getDate().isBefore(firstDate)) {
-                firstDate = installment.getDate();
-            }
-            if (lastDate == null || installment.getDate().isAfter(lastDate)) {
-                lastDate = installment.getDate();
-            }
-        }
-
-        var firstInstallment = installments.getFirst();
-
+    private InstallmentGroupSummaryDTO buildSummaryDTO(InstallmentGroup installmentGroup) {
         return InstallmentGroupSummaryDTO.builder()
-                .installmentGroupId(groupId)
-                .description(firstInstallment.getDescription())
-                .totalAmount(totalAmount)
-                .totalInstallments(firstInstallment.getTotalInstallments())
-                .paidInstallments(paidCount)
-                .pendingInstallments(firstInstallment.getTotalInstallments() - paidCount)
-                .totalPaid(totalPaid)
-                .totalPending(totalAmount.subtract(totalPaid))
-                .firstInstallmentDate(firstDate)
-                .lastInstallmentDate(lastDate)
-                .categoryName(firstInstallment.getCategory() != null ? firstInstallment.getCategory().getName() : null)
-                .creditCardNickname(firstInstallment.getCreditCard() != null ? firstInstallment.getCreditCard().getNickname() : null)
+                .installmentGroupId(installmentGroup.getId())
+                .description(installmentGroup.getDescription())
+                .totalAmount(installmentGroup.getTotalAmount())
+                .totalInstallments(installmentGroup.getTotalInstallments())
+                .paidInstallments(installmentGroup.getPaidInstallments())
+                .pendingInstallments(installmentGroup.getPendingInstallments())
+                .totalPaid(installmentGroup.getTotalPaid())
+                .totalPending(installmentGroup.getTotalPending())
+                .firstInstallmentDate(installmentGroup.getFirstInstallmentDate())
+                .lastInstallmentDate(installmentGroup.getLastInstallmentDate())
+                .categoryName(installmentGroup.getCategory() != null ? installmentGroup.getCategory().getName() : null)
+                .creditCardNickname(installmentGroup.getCreditCard() != null
+                        ? installmentGroup.getCreditCard().getNickname() : null)
                 .build();
     }
 
     @Transactional
-    public void deleteInstallmentGroup(String installmentGroupId, Long accountId) {
+    public void deleteInstallmentGroup(Long installmentGroupId, Long accountId) {
         log.info("Deleting installment group {} for account {}", installmentGroupId, accountId);
 
+        var installmentGroup = findGroup(installmentGroupId, accountId);
         var installments = transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId);
 
-        if (installments.isEmpty()) {
-            throw new ResourceNotFoundException("installment.group.notFound", installmentGroupId);
-        }
-
         installments.forEach(transaction -> transactionRepository.deleteById(transaction.getId()));
+        installmentGroupRepository.delete(installmentGroup);
+        transactionLedgerService.recordDeleted(installments);
 
         log.info("Deleted {} installments from group {}", installments.size(), installmentGroupId);
     }
 
     @Transactional
     public InstallmentGroupResponseDTO updateInstallmentGroup(
-            String installmentGroupId, Long accountId, InstallmentGroupRequestDTO request) {
+            Long installmentGroupId, Long accountId, InstallmentGroupRequestDTO request) {
 
         log.info("Updating installment group {} in account {}", installmentGroupId, accountId);
 
+        var installmentGroup = findGroup(installmentGroupId, accountId);
         var installments = transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId);
 
-        if (installments.isEmpty()) {
-            throw new ResourceNotFoundException("installment.group.notFound", installmentGroupId);
-        }
-
         var category = categoryRepository.findByIdAndAccountId(request.getCategoryId(), accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("resource.category.notFound", request.getCategoryId()));
 
@@ -239,43 +215,81 @@ public class InstallmentGroupService {
         var installmentAmount = request.getTotalAmount()
                 .divide(BigDecimal.valueOf(request.getTotalInstallments()), 2, RoundingMode.HALF_UP);
 
-        var finalCreditCard = creditCard;
-        var finalResponsibleUsers = responsibleUsers;
+        var before = transactionLedgerService.snapshot(installments);
+        var updatedAt = LocalDateTime.now();
+        var updatedBy = currentAuditor();
 
+        transactionRepository.updateInstallmentGroup(installmentGroupId, accountId, request.getDescription(),
+                installmentAmount, category, creditCard, updatedAt, updatedBy);
         for (var transaction : installments) {
             transaction.setDescription(request.getDescription());
             transaction.setValue(installmentAmount);
             transaction.setCategory(category);
-            transaction.setCreditCard(finalCreditCard);
-            transaction.setResponsibleUsers(new HashSet<>(finalResponsibleUsers));
-            transactionRepository.save(transaction);
+            transaction.setCreditCard(creditCard);
+            transaction.setResponsibleUsers(new HashSet<>(responsibleUsers));
+            markUpdated(transaction, updatedAt, updatedBy);
         }
+        installmentBatchRepository.replaceResponsibleUsers(installmentGroupId, installments);
+
+        installmentGroup.setDescription(request.getDescription());
+        installmentGroup.setCategory(category);
+        installmentGroup.setCreditCard(creditCard);
+        installmentGroup.setTotalAmount(installmentAmount.multiply(BigDecimal.valueOf(installmentGroup.getInstallmentCount())));
+        installmentGroup.setTotalPaid(installmentAmount.multiply(BigDecimal.valueOf(installmentGroup.getPaidInstallments())));
+        installmentGroup = installmentGroupRepository.save(installmentGroup);
+        transactionLedgerService.recordChanges(before, installments);
 
         log.info("Updated {} installments in group {}", installments.size(), installmentGroupId);
 
-        return getInstallmentGroup(installmentGroupId, accountId);
+        return buildGroupResponse(installmentGroup, installments);
     }
 
     @Transactional
     public InstallmentGroupResponseDTO updateInstallmentGroupDescription(
-            String installmentGroupId, Long accountId, String newDescription) {
+            Long installmentGroupId, Long accountId, String newDescription) {
 
         log.info("Updating description for installment group {} in account {}", installmentGroupId, accountId);
 
+        var installmentGroup = findGroup(installmentGroupId, accountId);
         var installments = transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId);
 
-        if (installments.isEmpty()) {
-            throw new ResourceNotFoundException("installment.group.notFound", installmentGroupId);
-        }
-
+        var before = transactionLedgerService.snapshot(installments);
+        var updatedAt = LocalDateTime.now();
+        var updatedBy = currentAuditor();
+        transactionRepository.updateInstallmentGroupDescription(installmentGroupId, accountId, newDescription,
+                updatedAt, updatedBy);
         installments.forEach(transaction -> {
             transaction.setDescription(newDescription);
-            transactionRepository.save(transaction);
+            markUpdated(transaction, updatedAt, updatedBy);
         });
 
+        installmentGroup.setDescription(newDescription);
+        installmentGroup = installmentGroupRepository.save(installmentGroup);
+        transactionLedgerService.recordChanges(before, installments);
+
         log.info("Updated description for {} installments in group {}", installments.size(), installmentGroupId);
 
-        return getInstallmentGroup(installmentGroupId, accountId);
+        return buildGroupResponse(installmentGroup, installments);
+    }
+
+    private InstallmentGroup findGroup(Long installmentGroupId, Long accountId) {
+        return installmentGroupRepository.findByIdAndAccountId(installmentGroupId, accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("installment.group.notFound", installmentGroupId));
+    }
+
+    /**
+     * Mirrors on an in-memory row what the set-based update wrote to the database.
+     */
+    private void markUpdated(Transaction transaction, LocalDateTime updatedAt, Long updatedBy) {
+        if (transaction.getVersion() != null) {
+            transaction.setVersion(transaction.getVersion() + 1);
+        }
+        transaction.setUpdatedAt(updatedAt);
+        transaction.setUpdatedBy(updatedBy);
+    }
+
+    private Long currentAuditor() {
+        return auditorAware.getCurrentAuditor().orElse(null);
     }
 
     private TransactionResponseDTO mapToResponseDTO(Transaction transaction) {
@@ -287,7 +301,8 @@ public class InstallmentGroupService {
         dto.setTransactionType(transaction.getTransactionType());
         dto.setCurrentInstallment(transaction.getCurrentInstallment());
         dto.setTotalInstallments(transaction.getTotalInstallments());
-        dto.setInstallmentGroupId(transaction.getInstallmentGroupId());
+        dto.setInstallmentGroupId(transaction.getInstallmentGroup() != null
+                ? transaction.getInstallmentGroup().getId() : null);
         dto.setSource(transaction.getSource());
         dto.setWasEditedAfterImport(transaction.getWasEditedAfterImport());
         dto.setIsReversal(transaction.getIsReversal());
@@ -0,0 +1,216 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.constant.BusinessConstants;
+import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.credit_card.CreditCardCycleObligationDTO;
+import com.relyon.credflow.model.credit_card.CreditCardObligationDTO;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.transaction.TransactionType;
+import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Forward schedule of installment value already committed on each credit card, bucketed by billing cycle
+ * starting at the cycle that is open today.
+ * <p>
+ * The schedule of an account is built from one query grouped by card, month and side of the closing day, and
+ * cached per account until the day changes, a transaction write touches installments of the account or a card
+ * is changed. Entries also expire after {@code app.installment-obligations.cache-ttl-seconds} so writes made on
+ * other instances are picked up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InstallmentObligationService {
+
+    private final TransactionRepository transactionRepository;
+    private final CreditCardRepository creditCardRepository;
+    private final Map<Long, Schedule> scheduleByAccount = new ConcurrentHashMap<>();
+
+    @Value("${app.installment-obligations.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds = 300;
+
+    @Transactional(readOnly = true)
+    public List<CreditCardObligationDTO> findObligations(Long accountId, int cycles) {
+        validateCycles(cycles);
+        return schedule(accountId).cards().stream()
+                .map(card -> toDTO(card, cycles))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CreditCardObligationDTO> findObligations(Long accountId, Long creditCardId, int cycles) {
+        validateCycles(cycles);
+        return schedule(accountId).cards().stream()
+                .filter(card -> card.creditCardId().equals(creditCardId))
+                .findFirst()
+                .map(card -> toDTO(card, cycles));
+    }
+
+    /**
+     * Drops the cached schedules of the accounts owning installments among the given transactions.
+     */
+    public void evict(Collection<Transaction> transactions) {
+        installmentAccountIds(transactions).forEach(this::evict);
+    }
+
+    public void evict(Long accountId) {
+        scheduleByAccount.remove(accountId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    scheduleByAccount.remove(accountId);
+                }
+            });
+        }
+    }
+
+    public Set<Long> installmentAccountIds(Collection<Transaction> transactions) {
+        return transactions.stream()
+                .filter(transaction -> transaction.getTransactionType() == TransactionType.INSTALLMENT
+                        && transaction.getAccount() != null)
+                .map(transaction -> transaction.getAccount().getId())
+                .collect(Collectors.toSet());
+    }
+
+    private Schedule schedule(Long accountId) {
+        var today = LocalDate.now();
+        var schedule = scheduleByAccount.get(accountId);
+        if (schedule == null || !schedule.isValidOn(today)) {
+            schedule = loadSchedule(accountId, today);
+            scheduleByAccount.put(accountId, schedule);
+        }
+        return schedule;
+    }
+
+    private Schedule loadSchedule(Long accountId, LocalDate today) {
+        var expiresAt = Instant.now().plus(Duration.ofSeconds(cacheTtlSeconds));
+        var creditCards = creditCardRepository.findAllByAccountId(accountId);
+        if (creditCards.isEmpty()) {
+            return new Schedule(List.of(), today, expiresAt);
+        }
+
+        var currentCycles = creditCards.stream().collect(Collectors.toMap(
+                CreditCard::getId,
+                card -> BillingCycle.containing(today, card.getClosingDay(), card.getDueDay())));
+        var fromDate = currentCycles.values().stream()
+                .map(BillingCycle::startDate)
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+
+        var cards = creditCards.stream().collect(Collectors.toMap(CreditCard::getId, Function.identity()));
+        var committedByCard = new HashMap<Long, TreeMap<LocalDate, Committed>>();
+        for (var bucket : transactionRepository.sumInstallmentObligations(accountId, fromDate)) {
+            var card = cards.get(bucket.creditCardId());
+            if (card == null) {
+                continue;
+            }
+            var closingMonth = YearMonth.of(bucket.year(), bucket.month());
+            if (bucket.isAfterClosingDay()) {
+                closingMonth = closingMonth.plusMonths(1);
+            }
+            var cycle = BillingCycle.closingIn(closingMonth, card.getClosingDay(), card.getDueDay());
+            if (cycle.startDate().isBefore(currentCycles.get(card.getId()).startDate())) {
+                continue;
+            }
+            committedByCard.computeIfAbsent(card.getId(), id -> new TreeMap<>())
+                    .merge(cycle.startDate(), new Committed(bucket.total(), bucket.installmentCount()), Committed::add);
+        }
+
+        var scheduled = new ArrayList<CardSchedule>();
+        for (var card : creditCards) {
+            scheduled.add(new CardSchedule(
+                    card.getId(),
+                    card.getNickname(),
+                    card.getClosingDay(),
+                    card.getDueDay(),
+                    YearMonth.from(currentCycles.get(card.getId()).closingDate()),
+                    committedByCard.getOrDefault(card.getId(), new TreeMap<>())
+            ));
+        }
+        scheduled.sort(Comparator.comparing(CardSchedule::creditCardId));
+
+        log.debug("Loaded installment obligations for account {}: {} cards, {} committed cycles",
+                accountId, scheduled.size(), committedByCard.values().stream().mapToInt(Map::size).sum());
+        return new Schedule(List.copyOf(scheduled), today, expiresAt);
+    }
+
+    private CreditCardObligationDTO toDTO(CardSchedule card, int cycles) {
+        var cycleDTOs = new ArrayList<CreditCardCycleObligationDTO>(cycles);
+        var totalCommitted = BigDecimal.ZERO;
+        for (var i = 0; i < cycles; i++) {
+            var cycle = BillingCycle.closingIn(card.currentClosingMonth().plusMonths(i), card.closingDay(), card.dueDay());
+            var committed = card.committed().getOrDefault(cycle.startDate(), Committed.NONE);
+            totalCommitted = totalCommitted.add(committed.amount());
+            cycleDTOs.add(CreditCardCycleObligationDTO.builder()
+                    .cycleStartDate(cycle.startDate())
+                    .cycleClosingDate(cycle.closingDate())
+                    .dueDate(cycle.dueDate())
+                    .committedAmount(committed.amount())
+                    .installmentCount(committed.installmentCount())
+                    .build());
+        }
+
+        return CreditCardObligationDTO.builder()
+                .creditCardId(card.creditCardId())
+                .nickname(card.nickname())
+                .totalCommitted(totalCommitted)
+                .cycles(cycleDTOs)
+                .build();
+    }
+
+    private void validateCycles(int cycles) {
+        if (cycles < 1 || cycles > BusinessConstants.CreditCard.MAX_OBLIGATION_CYCLES) {
+            throw new IllegalArgumentException("creditCard.obligations.invalidCycles");
+        }
+    }
+
+    private record Schedule(List<CardSchedule> cards, LocalDate asOf, Instant expiresAt) {
+
+        boolean isValidOn(LocalDate date) {
+            return asOf.equals(date) && Instant.now().isBefore(expiresAt);
+        }
+    }
+
+    private record CardSchedule(Long creditCardId,
+                                String nickname,
+                                int closingDay,
+                                int dueDay,
+                                YearMonth currentClosingMonth,
+                                Map<LocalDate, Committed> committed) {
+    }
+
+    private record Committed(BigDecimal amount, long installmentCount) {
+
+        static final Committed NONE = new Committed(BigDecimal.ZERO, 0);
+
+        Committed add(Committed other) {
+            return new Committed(amount.add(other.amount()), installmentCount + other.installmentCount());
+        }
+    }
+}
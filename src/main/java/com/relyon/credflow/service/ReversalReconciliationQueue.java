@@ -0,0 +1,106 @@
+package com.relyon.credflow.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pending transaction ids awaiting reversal detection, grouped by account.
+ * <p>
+ * In {@code inline} mode (default) reversal detection runs inside each write and nothing is queued.
+ * In {@code async} mode writes only enqueue the touched ids, which {@link ReversalReconciliationService}
+ * processes in the background:
+ * <pre>
+ * app:
+ *   reversal-detection:
+ *     mode: async
+ * </pre>
+ */
+@Service
+@Slf4j
+public class ReversalReconciliationQueue {
+
+    public enum Mode {
+        INLINE,
+        ASYNC
+    }
+
+    private final Mode mode;
+    private final ConcurrentHashMap<Long, ConcurrentSkipListSet<Long>> pending = new ConcurrentHashMap<>();
+
+    public ReversalReconciliationQueue(@Value("${app.reversal-detection.mode:inline}") String mode) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        log.info("Reversal detection mode: {}", this.mode);
+    }
+
+    public boolean isAsync() {
+        return mode == Mode.ASYNC;
+    }
+
+    /**
+     * Queues a transaction for reconciliation once the surrounding transaction commits, or immediately
+     * when called outside a transaction.
+     */
+    public void enqueue(Long accountId, Long transactionId) {
+        if (accountId == null || transactionId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(accountId, transactionId);
+                }
+            });
+            return;
+        }
+
+        add(accountId, transactionId);
+    }
+
+    public void requeue(Long accountId, Collection<Long> transactionIds) {
+        transactionIds.forEach(id -> add(accountId, id));
+    }
+
+    public List<Long> drain(Long accountId, int maxSize) {
+        var ids = pending.get(accountId);
+        var drained = new ArrayList<Long>();
+        if (ids == null) {
+            return drained;
+        }
+
+        Long id;
+        while (drained.size() < maxSize && (id = ids.pollFirst()) != null) {
+            drained.add(id);
+        }
+        return drained;
+    }
+
+    public Set<Long> accountsWithPending() {
+        return pending.entrySet().stream()
+                .filter(entry -> !entry.getValue().isEmpty())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    public int pendingCount(Long accountId) {
+        var ids = pending.get(accountId);
+        return ids == null ? 0 : ids.size();
+    }
+
+    private void add(Long accountId, Long transactionId) {
+        pending.computeIfAbsent(accountId, key -> new ConcurrentSkipListSet<>()).add(transactionId);
+    }
+}
@@ -0,0 +1,112 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.constant.BusinessConstants;
+import com.relyon.credflow.model.transaction.ReversalReconciliationState;
+import com.relyon.credflow.repository.AccountRepository;
+import com.relyon.credflow.repository.ReversalReconciliationStateRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Background worker for {@code async} reversal detection.
+ * <p>
+ * Drains {@link ReversalReconciliationQueue} per account in chunks and links reversal pairs in batch.
+ * Once an account's queue is empty, its watermark is advanced to the time the drain started; on startup
+ * transactions updated after the watermark are queued again, so ids lost with the in-memory queue are
+ * still reconciled. Accounts that were never drained have no watermark; for them only transactions updated in
+ * the last {@link BusinessConstants.Detection#REVERSAL_SEARCH_WINDOW_DAYS} days are queued, so turning async
+ * mode on does not replay an account's whole history.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReversalReconciliationService {
+
+    private static final Duration RECOVERY_OVERLAP = Duration.ofMinutes(5);
+
+    private final ReversalReconciliationQueue queue;
+    private final RefundDetectionService refundDetectionService;
+    private final ReversalReconciliationStateRepository stateRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+
+    @Value("${app.reversal-detection.chunk-size:200}")
+    private int chunkSize;
+
+    @Scheduled(fixedDelayString = "${app.reversal-detection.interval-ms:30000}")
+    public void reconcilePending() {
+        if (!queue.isAsync()) {
+            return;
+        }
+
+        for (var accountId : queue.accountsWithPending()) {
+            try {
+                reconcileAccount(accountId);
+            } catch (RuntimeException e) {
+                log.error("Reversal reconciliation failed for account {}: {}", accountId, e.getMessage(), e);
+            }
+        }
+    }
+
+    public int reconcileAccount(Long accountId) {
+        var startedAt = LocalDateTime.now();
+        var linkedPairs = 0;
+
+        var chunk = queue.drain(accountId, chunkSize);
+        while (!chunk.isEmpty()) {
+            try {
+                linkedPairs += refundDetectionService.detectAndLinkReversals(accountId, chunk);
+            } catch (RuntimeException e) {
+                queue.requeue(accountId, chunk);
+                throw e;
+            }
+            chunk = queue.drain(accountId, chunkSize);
+        }
+
+        advanceWatermark(accountId, startedAt);
+        log.info("Reversal reconciliation for account {} completed: {} pairs linked", accountId, linkedPairs);
+        return linkedPairs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverFromWatermarks() {
+        if (!queue.isAsync()) {
+            return;
+        }
+
+        var watermarks = stateRepository.findAll().stream().collect(Collectors.toMap(
+                state -> state.getAccount().getId(), ReversalReconciliationState::getReconciledUntil));
+        var windowStart = LocalDateTime.now().minusDays(BusinessConstants.Detection.REVERSAL_SEARCH_WINDOW_DAYS);
+
+        for (var activity : transactionRepository.findNonReversalActivityByAccount()) {
+            var accountId = activity.accountId();
+            var watermark = watermarks.get(accountId);
+            var since = watermark != null ? watermark.minus(RECOVERY_OVERLAP) : windowStart;
+            if (activity.lastUpdatedAt().isBefore(since)) {
+                continue;
+            }
+
+            var ids = transactionRepository.findNonReversalIdsUpdatedAfter(accountId, since);
+            ids.forEach(id -> queue.enqueue(accountId, id));
+            log.info("Recovered {} transactions for reversal reconciliation in account {}", ids.size(), accountId);
+        }
+    }
+
+    private void advanceWatermark(Long accountId, LocalDateTime reconciledUntil) {
+        var state = stateRepository.findByAccountId(accountId)
+                .orElseGet(() -> ReversalReconciliationState.builder()
+                        .account(accountRepository.getReferenceById(accountId))
+                        .build());
+        state.setReconciledUntil(reconciledUntil);
+        stateRepository.save(state);
+    }
+}
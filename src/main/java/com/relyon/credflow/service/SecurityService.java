@@ -3,7 +3,9 @@ package com.relyon.credflow.service;
 import com.relyon.credflow.model.user.AuthenticatedUser;
 import com.relyon.credflow.repository.AccountRepository;
 import com.relyon.credflow.repository.UserRepository;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service("securityService")
@@ -13,6 +15,9 @@ public class SecurityService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
 
+    @Value("${app.admin.emails:}")
+    private List<String> adminEmails = List.of();
+
     public boolean canAccessAccount(AuthenticatedUser user, Long accountId) {
         if (user == null || accountId == null) {
             return false;
@@ -47,4 +52,12 @@ public class SecurityService {
         }
         return !user.isReadOnly();
     }
+
+    public boolean isPlatformAdmin(AuthenticatedUser user) {
+        if (user == null || user.getEmail() == null) {
+            return false;
+        }
+        return adminEmails.stream()
+                .anyMatch(email -> email.trim().equalsIgnoreCase(user.getEmail()));
+    }
 }
@@ -0,0 +1,84 @@
+package com.relyon.credflow.service;
+
+import com.relyon.credflow.model.budget.BudgetSpendContribution;
+import com.relyon.credflow.model.credit_card.CreditCardStatementEntry;
+import com.relyon.credflow.model.transaction.Transaction;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps the ledgers derived from transactions (budget spend counters, credit card statements, installment group
+ * counters, the cached installment obligations and the account data version) in step with transaction writes. Writers take a {@link Snapshot} before changing transactions in place and report the
+ * result afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionLedgerService {
+
+    private final BudgetSpendCounterService budgetSpendCounterService;
+    private final CreditCardStatementService creditCardStatementService;
+    private final InstallmentObligationService installmentObligationService;
+    private final InstallmentGroupCounterService installmentGroupCounterService;
+    private final AccountDataVersionService accountDataVersionService;
+
+    public Snapshot snapshot(Collection<Transaction> transactions) {
+        return new Snapshot(
+                budgetSpendCounterService.snapshot(transactions),
+                creditCardStatementService.snapshot(transactions),
+                installmentObligationService.installmentAccountIds(transactions),
+                installmentGroupCounterService.groupIds(transactions)
+        );
+    }
+
+    @Transactional
+    public void recordCreated(Collection<Transaction> transactions) {
+        budgetSpendCounterService.recordCreated(transactions);
+        creditCardStatementService.recordCreated(transactions);
+        installmentGroupCounterService.refresh(installmentGroupCounterService.groupIds(transactions));
+        installmentObligationService.evict(transactions);
+        accountDataVersionService.bump(transactions);
+    }
+
+    @Transactional
+    public void recordDeleted(Collection<Transaction> transactions) {
+        budgetSpendCounterService.recordDeleted(transactions);
+        creditCardStatementService.recordDeleted(transactions);
+        installmentGroupCounterService.refresh(installmentGroupCounterService.groupIds(transactions));
+        installmentObligationService.evict(transactions);
+        accountDataVersionService.bump(transactions);
+    }
+
+    @Transactional
+    public void recordChanges(Snapshot before, Collection<Transaction> after) {
+        var current = snapshot(after);
+        budgetSpendCounterService.recordChanges(before.budgetSpend(), current.budgetSpend());
+        creditCardStatementService.recordChanges(before.statements(), current.statements());
+        var installmentGroupIds = new HashSet<>(before.installmentGroupIds());
+        installmentGroupIds.addAll(current.installmentGroupIds());
+        installmentGroupCounterService.refresh(installmentGroupIds);
+        var installmentAccountIds = new HashSet<>(before.installmentAccountIds());
+        installmentAccountIds.addAll(current.installmentAccountIds());
+        installmentAccountIds.forEach(installmentObligationService::evict);
+        accountDataVersionService.bump(after);
+    }
+
+    @Transactional
+    public void invalidate(Long accountId) {
+        budgetSpendCounterService.invalidate(accountId);
+        creditCardStatementService.invalidate(accountId);
+        installmentGroupCounterService.refreshAccount(accountId);
+        installmentObligationService.evict(accountId);
+        accountDataVersionService.bump(accountId);
+    }
+
+    public record Snapshot(List<BudgetSpendContribution> budgetSpend,
+                           List<CreditCardStatementEntry> statements,
+                           Set<Long> installmentAccountIds,
+                           Set<Long> installmentGroupIds) {
+    }
+}
@@ -5,6 +5,7 @@ import com.relyon.credflow.exception.ResourceNotFoundException;
 import com.relyon.credflow.model.account.Account;
 import com.relyon.credflow.model.category.Category;
 import com.relyon.credflow.model.descriptionmapping.DescriptionMapping;
+import com.relyon.credflow.model.transaction.InstallmentGroup;
 import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.transaction.TransactionFilter;
 import com.relyon.credflow.model.transaction.TransactionSource;
@@ -12,6 +13,7 @@ import com.relyon.credflow.model.transaction.TransactionType;
 import com.relyon.credflow.model.user.User;
 import com.relyon.credflow.repository.CreditCardRepository;
 import com.relyon.credflow.repository.DescriptionMappingRepository;
+import com.relyon.credflow.repository.InstallmentGroupRepository;
 import com.relyon.credflow.repository.TransactionRepository;
 import com.relyon.credflow.specification.Sorts;
 import com.relyon.credflow.specification.TransactionFilterNormalizer;
@@ -45,8 +47,11 @@ public class TransactionService {
     private final UserService userService;
     private final CategoryService categoryService;
     private final CreditCardRepository creditCardRepository;
+    private final InstallmentGroupRepository installmentGroupRepository;
     private final RefundDetectionService refundDetectionService;
     private final LocalizedMessageTranslationService translationService;
+    private final DuplicateProbeIndex duplicateProbeIndex;
+    private final TransactionLedgerService transactionLedgerService;
 
     private final DateTimeFormatter banrisulCsvDate = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
@@ -79,6 +84,9 @@ public class TransactionService {
                 mappingRepository.saveAll(pending.values());
             }
 
+            saved.forEach(duplicateProbeIndex::record);
+            transactionLedgerService.recordCreated(saved);
+
             log.info("Running refund detection on {} imported transactions", saved.size());
             saved.forEach(refundDetectionService::detectAndLinkReversal);
 
@@ -180,6 +188,7 @@ public class TransactionService {
             tx.setCreditCard(creditCard);
         }
 
+        tx.setInstallmentGroup(resolveInstallmentGroupForAccount(tx.getInstallmentGroup(), accountId));
         tx.setResponsibleUsers(resolveResponsibleUsersForAccount(tx.getResponsibleUsers(), accountId));
 
         initializeSourceTrackingFields(tx, TransactionSource.MANUAL, null);
@@ -187,12 +196,20 @@ public class TransactionService {
         saveMappingIfNotExists(tx.getDescription(), tx.getSimplifiedDescription(), tx.getCategory(), tx.getAccount());
 
         var saved = repository.save(tx);
+        transactionLedgerService.recordCreated(List.of(saved));
 
         refundDetectionService.detectAndLinkReversal(saved);
 
         return saved;
     }
 
+    private InstallmentGroup resolveInstallmentGroupForAccount(InstallmentGroup groupStub, Long accountId) {
+        if (groupStub == null || groupStub.getId() == null) return null;
+
+        return installmentGroupRepository.findByIdAndAccountId(groupStub.getId(), accountId)
+                .orElseThrow(() -> new IllegalArgumentException(translationService.translateMessage("installment.group.accountMismatch")));
+    }
+
     private Set<User> resolveResponsibleUsersForAccount(Set<User> userStubs, Long accountId) {
         if (userStubs == null || userStubs.isEmpty()) return Collections.emptySet();
 
@@ -217,6 +234,8 @@ public class TransactionService {
 
         return repository.findByIdAndAccountId(id, accountId).map(existing -> {
             markAsEditedIfImported(existing);
+            duplicateProbeIndex.remove(accountId, existing.getId(), existing.getDate(), existing.getValue());
+            var before = transactionLedgerService.snapshot(List.of(existing));
 
             existing.setDate(updated.getDate());
             existing.setDescription(updated.getDescription());
@@ -224,7 +243,7 @@ public class TransactionService {
             existing.setTransactionType(updated.getTransactionType());
             existing.setCurrentInstallment(updated.getCurrentInstallment());
             existing.setTotalInstallments(updated.getTotalInstallments());
-            existing.setInstallmentGroupId(updated.getInstallmentGroupId());
+            existing.setInstallmentGroup(resolveInstallmentGroupForAccount(updated.getInstallmentGroup(), accountId));
 
             if (updated.getCategory() != null && updated.getCategory().getId() != null) {
                 existing.setCategory(categoryService.findById(updated.getCategory().getId(), accountId));
@@ -251,6 +270,8 @@ public class TransactionService {
             );
 
             var saved = repository.save(existing);
+            duplicateProbeIndex.record(saved);
+            transactionLedgerService.recordChanges(before, List.of(saved));
 
             refundDetectionService.detectAndLinkReversal(saved);
 
@@ -277,6 +298,8 @@ public class TransactionService {
         var transaction = repository.findByIdAndAccountId(id, accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("resource.transaction.notFound", id));
         repository.delete(transaction);
+        duplicateProbeIndex.remove(accountId, transaction.getId(), transaction.getDate(), transaction.getValue());
+        transactionLedgerService.recordDeleted(List.of(transaction));
     }
 
     @Transactional
@@ -289,6 +312,9 @@ public class TransactionService {
                 .toList();
 
         repository.deleteAll(transactions);
+        transactions.forEach(transaction -> duplicateProbeIndex.remove(
+                accountId, transaction.getId(), transaction.getDate(), transaction.getValue()));
+        transactionLedgerService.recordDeleted(transactions);
         log.info("Successfully deleted {} transactions", transactions.size());
     }
 
@@ -301,13 +327,16 @@ public class TransactionService {
         var transactions = transactionIds.stream()
                 .map(id -> repository.findByIdAndAccountId(id, accountId)
                         .orElseThrow(() -> new ResourceNotFoundException("resource.transaction.notFound", id)))
-                .peek(transaction -> {
-                    markAsEditedIfImported(transaction);
-                    transaction.setCategory(category);
-                })
                 .toList();
+        var before = transactionLedgerService.snapshot(transactions);
+
+        transactions.forEach(transaction -> {
+            markAsEditedIfImported(transaction);
+            transaction.setCategory(category);
+        });
 
         var updated = repository.saveAll(transactions);
+        transactionLedgerService.recordChanges(before, updated);
         log.info("Successfully updated category for {} transactions", updated.size());
         return updated;
     }
@@ -328,13 +357,16 @@ public class TransactionService {
         var transactions = transactionIds.stream()
                 .map(id -> repository.findByIdAndAccountId(id, accountId)
                         .orElseThrow(() -> new ResourceNotFoundException("resource.transaction.notFound", id)))
-                .peek(transaction -> {
-                    markAsEditedIfImported(transaction);
-                    transaction.setResponsibleUsers(responsibleUsers);
-                })
                 .toList();
+        var before = transactionLedgerService.snapshot(transactions);
+
+        transactions.forEach(transaction -> {
+            markAsEditedIfImported(transaction);
+            transaction.setResponsibleUsers(responsibleUsers);
+        });
 
         var updated = repository.saveAll(transactions);
+        transactionLedgerService.recordChanges(before, updated);
         log.info("Successfully updated responsible users for {} transactions", updated.size());
         return updated;
     }
@@ -358,11 +390,13 @@ public class TransactionService {
 
     public void applyMappingToExistingTransactions(Long accountId, String originalDescription, String simplified, Category category) {
         var affected = repository.findByAccountIdAndDescriptionIgnoreCase(accountId, originalDescription);
+        var before = transactionLedgerService.snapshot(affected);
         affected.forEach(transaction -> {
             transaction.setSimplifiedDescription(simplified);
             transaction.setCategory(category);
         });
         repository.saveAll(affected);
+        transactionLedgerService.recordChanges(before, affected);
     }
 
     private void validateTransactionTypeAndInstallments(Transaction transaction) {
@@ -391,7 +425,7 @@ public class TransactionService {
                 log.warn("Clearing installment fields for non-installment transaction type: {}", transaction.getTransactionType());
                 transaction.setCurrentInstallment(null);
                 transaction.setTotalInstallments(null);
-                transaction.setInstallmentGroupId(null);
+                transaction.setInstallmentGroup(null);
             }
         }
     }
@@ -420,6 +454,8 @@ public class TransactionService {
         });
 
         repository.saveAll(transactions);
+        duplicateProbeIndex.invalidate(accountId);
+        transactionLedgerService.invalidate(accountId);
         log.info("Negated {} transactions for account {}", transactions.size(), accountId);
         return transactions.size();
     }
@@ -1,6 +1,9 @@
 package com.relyon.credflow.specification;
 
 import com.relyon.credflow.model.transaction.TransactionFilter;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
 
 public final class TransactionFilterNormalizer {
     private TransactionFilterNormalizer() {
@@ -31,6 +34,50 @@ public final class TransactionFilterNormalizer {
         );
     }
 
+    /**
+     * Normalizes the filter and rewrites it so that filters selecting the same rows are equal: list filters are
+     * sorted and de-duplicated, empty lists and blank text count as absent, and amounts compare by value. Export
+     * jobs coalesce and export artifacts are cached on this form.
+     */
+    public static TransactionFilter canonicalize(TransactionFilter transactionFilter) {
+        var normalized = normalize(transactionFilter);
+        return new TransactionFilter(
+                normalized.accountId(),
+                normalized.fromDate(),
+                normalized.toDate(),
+                emptyToNull(normalized.descriptionContains()),
+                emptyToNull(normalized.simplifiedContains()),
+                amount(normalized.minAmount()),
+                amount(normalized.maxAmount()),
+                values(normalized.responsibleUserIds()),
+                values(normalized.categoryIds()),
+                values(normalized.creditCardIds()),
+                values(normalized.transactionTypes()),
+                values(normalized.transactionSources()),
+                normalized.includeReversals()
+        );
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
+    private static BigDecimal amount(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros();
+    }
+
+    private static <T extends Comparable<? super T>> List<T> values(List<T> values) {
+        if (values == null) {
+            return null;
+        }
+        var canonical = values.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        return canonical.isEmpty() ? null : canonical;
+    }
+
     private static String safeTrim(String s) {
         return s == null ? null : s.trim();
     }
@@ -0,0 +1,153 @@
+package com.relyon.credflow.utils;
+
+/**
+ * Levenshtein-based string similarity.
+ * <p>
+ * Distances are computed with two reusable rows held per thread and restricted to the diagonal band
+ * that can still produce a result within the allowed distance, so threshold checks stop as soon as a
+ * match becomes impossible and do not allocate per call.
+ */
+public class StringSimilarityUtils {
+
+    private static final ThreadLocal<RowBuffers> ROW_BUFFERS = ThreadLocal.withInitial(RowBuffers::new);
+
+    /**
+     * Exact similarity in [0, 1], defined as {@code 1 - distance / max(length)}.
+     */
+    public static double similarity(String s1, String s2) {
+        var maxLength = Math.max(s1.length(), s2.length());
+        if (maxLength == 0) {
+            return 1.0;
+        }
+        return 1.0 - ((double) levenshteinDistance(s1, s2) / maxLength);
+    }
+
+    /**
+     * Equivalent to {@code similarity(s1, s2) >= threshold}, but only computes the distance up to the
+     * largest value that still satisfies the threshold.
+     */
+    public static boolean isSimilar(String s1, String s2, double threshold) {
+        var maxLength = Math.max(s1.length(), s2.length());
+        if (maxLength == 0) {
+            return 1.0 >= threshold;
+        }
+
+        var maxDistance = maxDistanceFor(maxLength, threshold);
+        if (maxDistance < 0) {
+            return false;
+        }
+        return boundedLevenshteinDistance(s1, s2, maxDistance) <= maxDistance;
+    }
+
+    public static int levenshteinDistance(String s1, String s2) {
+        return boundedLevenshteinDistance(s1, s2, Math.max(s1.length(), s2.length()));
+    }
+
+    /**
+     * Returns the edit distance if it is at most {@code maxDistance}, otherwise {@code maxDistance + 1}.
+     */
+    public static int boundedLevenshteinDistance(String s1, String s2, int maxDistance) {
+        if (s2.length() > s1.length()) {
+            var swap = s1;
+            s1 = s2;
+            s2 = swap;
+        }
+
+        var len1 = s1.length();
+        var len2 = s2.length();
+        var exceeded = maxDistance + 1;
+
+        if (len1 - len2 > maxDistance) {
+            return exceeded;
+        }
+        if (len2 == 0) {
+            return len1;
+        }
+
+        var buffers = ROW_BUFFERS.get();
+        var previous = buffers.previous(len2 + 1);
+        var current = buffers.current(len2 + 1);
+
+        for (var j = 0; j <= len2; j++) {
+            previous[j] = Math.min(j, exceeded);
+        }
+
+        for (var i = 1; i <= len1; i++) {
+            var from = Math.max(1, i - maxDistance);
+            var to = Math.min(len2, i + maxDistance);
+
+            current[0] = Math.min(i, exceeded);
+            if (from > 1) {
+                current[from - 1] = exceeded;
+            }
+
+            var rowMin = from == 1 ? current[0] : exceeded;
+            var c1 = s1.charAt(i - 1);
+
+            for (var j = from; j <= to; j++) {
+                var cost = c1 == s2.charAt(j - 1) ? 0 : 1;
+                var value = Math.min(
+                        Math.min(previous[j] + 1, current[j - 1] + 1),
+                        previous[j - 1] + cost
+                );
+                value = Math.min(value, exceeded);
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+
+            if (to < len2) {
+                current[to + 1] = exceeded;
+            }
+
+            if (rowMin > maxDistance) {
+                return exceeded;
+            }
+
+            var swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[len2];
+    }
+
+    static int maxDistanceFor(int maxLength, double threshold) {
+        var distance = (int) Math.floor((1.0 - threshold) * maxLength);
+        distance = Math.max(-1, Math.min(maxLength, distance));
+
+        while (distance < maxLength && satisfies(distance + 1, maxLength, threshold)) {
+            distance++;
+        }
+        while (distance >= 0 && !satisfies(distance, maxLength, threshold)) {
+            distance--;
+        }
+        return distance;
+    }
+
+    private static boolean satisfies(int distance, int maxLength, double threshold) {
+        return 1.0 - ((double) distance / maxLength) >= threshold;
+    }
+
+    private static final class RowBuffers {
+
+        private int[] previous = new int[64];
+        private int[] current = new int[64];
+
+        int[] previous(int size) {
+            if (previous.length < size) {
+                previous = new int[Math.max(size, previous.length * 2)];
+            }
+            return previous;
+        }
+
+        int[] current(int size) {
+            if (current.length < size) {
+                current = new int[Math.max(size, current.length * 2)];
+            }
+            return current;
+        }
+    }
+
+    private StringSimilarityUtils() {
+    }
+}
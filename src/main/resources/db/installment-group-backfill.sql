@@ -0,0 +1,70 @@
+-- One-off backfill for installment group headers (PostgreSQL).
+--
+-- Run once against an existing database before deploying the version that maps
+-- transaction.installment_group_id as a foreign key to installment_group. Production
+-- validates the schema at startup (ddl-auto: validate), so the application will not
+-- start until this has been applied. Run it in a single transaction.
+--
+-- Every distinct legacy group key becomes one header. Header metadata is taken from the
+-- group's installments and the counters mirror InstallmentGroupCounterService. A group
+-- without live installments gets a soft-deleted header so its deleted rows stay linked.
+
+CREATE TABLE installment_group (
+    id                     BIGSERIAL PRIMARY KEY,
+    version                BIGINT,
+    created_at             TIMESTAMP      NOT NULL,
+    updated_at             TIMESTAMP      NOT NULL,
+    deleted_at             TIMESTAMP,
+    created_by             BIGINT,
+    updated_by             BIGINT,
+    account_id             BIGINT         NOT NULL REFERENCES account (id),
+    description            VARCHAR(255)   NOT NULL,
+    category_id            BIGINT REFERENCES category (id),
+    credit_card_id         BIGINT REFERENCES credit_card (id),
+    total_installments     INTEGER        NOT NULL,
+    installment_count      INTEGER        NOT NULL,
+    total_amount           NUMERIC(14, 2) NOT NULL,
+    paid_installments      INTEGER        NOT NULL,
+    total_paid             NUMERIC(14, 2) NOT NULL,
+    first_installment_date DATE,
+    last_installment_date  DATE,
+    legacy_group_key       VARCHAR(255)
+);
+
+INSERT INTO installment_group (version, created_at, updated_at, deleted_at, account_id, description,
+                               category_id, credit_card_id, total_installments, installment_count,
+                               total_amount, paid_installments, total_paid, first_installment_date,
+                               last_installment_date, legacy_group_key)
+SELECT 0,
+       MIN(t.created_at),
+       CURRENT_TIMESTAMP,
+       CASE WHEN SUM(CASE WHEN t.deleted_at IS NULL THEN 1 ELSE 0 END) = 0 THEN CURRENT_TIMESTAMP END,
+       MIN(t.account_id),
+       COALESCE(MIN(t.description), ''),
+       MIN(t.category_id),
+       MIN(t.credit_card_id),
+       COALESCE(MAX(t.total_installments), COUNT(*)),
+       SUM(CASE WHEN t.deleted_at IS NULL THEN 1 ELSE 0 END),
+       COALESCE(SUM(CASE WHEN t.deleted_at IS NULL THEN t.value END), 0),
+       SUM(CASE WHEN t.deleted_at IS NULL AND t.was_edited_after_import THEN 1 ELSE 0 END),
+       COALESCE(SUM(CASE WHEN t.deleted_at IS NULL AND t.was_edited_after_import THEN t.value END), 0),
+       MIN(CASE WHEN t.deleted_at IS NULL THEN t.date END),
+       MAX(CASE WHEN t.deleted_at IS NULL THEN t.date END),
+       t.installment_group_id
+  FROM transaction t
+ WHERE t.installment_group_id IS NOT NULL
+ GROUP BY t.installment_group_id;
+
+ALTER TABLE transaction ADD COLUMN installment_group_ref BIGINT;
+
+UPDATE transaction t
+   SET installment_group_ref = (SELECT g.id FROM installment_group g WHERE g.legacy_group_key = t.installment_group_id)
+ WHERE t.installment_group_id IS NOT NULL;
+
+ALTER TABLE transaction DROP COLUMN installment_group_id;
+ALTER TABLE transaction RENAME COLUMN installment_group_ref TO installment_group_id;
+ALTER TABLE transaction ADD CONSTRAINT fk_transaction_installment_group
+    FOREIGN KEY (installment_group_id) REFERENCES installment_group (id);
+CREATE INDEX idx_transaction_installment_group ON transaction (installment_group_id);
+
+ALTER TABLE installment_group DROP COLUMN legacy_group_key;
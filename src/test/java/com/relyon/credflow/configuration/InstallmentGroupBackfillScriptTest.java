@@ -0,0 +1,99 @@
+package com.relyon.credflow.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+class InstallmentGroupBackfillScriptTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DriverManagerDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:backfill_" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE,TRANSACTION",
+                "sa", "sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE account (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE category (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("CREATE TABLE credit_card (id BIGINT PRIMARY KEY)");
+        jdbcTemplate.execute("""
+                CREATE TABLE transaction (
+                    id BIGINT PRIMARY KEY,
+                    created_at TIMESTAMP NOT NULL,
+                    deleted_at TIMESTAMP,
+                    account_id BIGINT NOT NULL,
+                    description VARCHAR(255),
+                    category_id BIGINT,
+                    credit_card_id BIGINT,
+                    date DATE,
+                    value NUMERIC(14, 2),
+                    total_installments INTEGER,
+                    was_edited_after_import BOOLEAN NOT NULL,
+                    installment_group_id VARCHAR(255)
+                )""");
+        jdbcTemplate.update("INSERT INTO account (id) VALUES (1)");
+        jdbcTemplate.update("INSERT INTO category (id) VALUES (5)");
+    }
+
+    @Test
+    void backfill_createsOneHeaderPerLegacyGroupAndRelinksInstallments() {
+        insert(1, "laptop-uuid", "2025-01-15", "100.00", true, false);
+        insert(2, "laptop-uuid", "2025-02-15", "100.00", false, false);
+        insert(3, "laptop-uuid", "2025-03-15", "100.00", false, true);
+        insert(4, "phone-uuid", "2025-01-10", "50.00", false, false);
+        insert(5, null, "2025-01-10", "20.00", false, false);
+
+        runScript();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM installment_group", Long.class)).isEqualTo(2);
+        var laptop = jdbcTemplate.queryForMap("""
+                SELECT g.* FROM installment_group g JOIN transaction t ON t.installment_group_id = g.id WHERE t.id = 1""");
+        assertThat(laptop.get("description")).isEqualTo("Laptop");
+        assertThat(laptop.get("total_installments")).isEqualTo(3);
+        assertThat(laptop.get("installment_count")).isEqualTo(2);
+        assertThat((BigDecimal) laptop.get("total_amount")).isEqualByComparingTo("200.00");
+        assertThat(laptop.get("paid_installments")).isEqualTo(1);
+        assertThat((BigDecimal) laptop.get("total_paid")).isEqualByComparingTo("100.00");
+        assertThat(laptop.get("deleted_at")).isNull();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(DISTINCT installment_group_id) FROM transaction WHERE id IN (1, 2, 3)", Long.class))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT installment_group_id FROM transaction WHERE id = 5", Long.class)).isNull();
+    }
+
+    @Test
+    void backfill_whenGroupHasNoLiveInstallments_softDeletesHeader() {
+        insert(1, "gone-uuid", "2025-01-15", "100.00", false, true);
+
+        runScript();
+
+        var header = jdbcTemplate.queryForMap("SELECT * FROM installment_group");
+        assertThat(header.get("deleted_at")).isNotNull();
+        assertThat(header.get("installment_count")).isEqualTo(0);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT installment_group_id FROM transaction WHERE id = 1", Long.class)).isEqualTo(header.get("id"));
+    }
+
+    private void runScript() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/installment-group-backfill.sql")).execute(dataSource);
+    }
+
+    private void insert(long id, String groupKey, String date, String value, boolean paid, boolean deleted) {
+        jdbcTemplate.update("""
+                        INSERT INTO transaction (id, created_at, deleted_at, account_id, description, category_id, date,
+                                                 value, total_installments, was_edited_after_import, installment_group_id)
+                        VALUES (?, CURRENT_TIMESTAMP, ?, 1, 'Laptop', 5, CAST(? AS DATE), ?, 3, ?, ?)""",
+                id, deleted ? Timestamp.valueOf("2025-04-01 00:00:00") : null, date, new BigDecimal(value), paid,
+                groupKey);
+    }
+}
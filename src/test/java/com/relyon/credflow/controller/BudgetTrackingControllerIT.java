@@ -102,6 +102,42 @@ class BudgetTrackingControllerIT {
         assertThat(json).hasSize(1);
     }
 
+    @Test
+    void trackBudgetTrend_shouldReturnOnePointPerPeriod() throws Exception {
+        var ctx = registerAndLogin("budget_track_trend");
+        var categoryId = createCategory("Groceries", ctx.bearer());
+        var budgetId = createBudget(ctx.bearer(), "2025-01", 1000.00, categoryId);
+
+        createTransaction(ctx.bearer(), "2024-12-10", -100.00, categoryId);
+        createTransaction(ctx.bearer(), "2025-01-15", -200.00, categoryId);
+
+        mvc.perform(get("/v1/budget-tracking/trend")
+                        .header("Authorization", ctx.bearer())
+                        .param("type", "CATEGORY_SPECIFIC")
+                        .param("categoryId", categoryId.toString())
+                        .param("toPeriod", "2025-01")
+                        .param("months", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.periods.length()").value(3))
+                .andExpect(jsonPath("$.periods[0].spent").value(0))
+                .andExpect(jsonPath("$.periods[1].spent").value(100.00))
+                .andExpect(jsonPath("$.periods[1].budgetId").doesNotExist())
+                .andExpect(jsonPath("$.periods[2].budgetId").value(budgetId))
+                .andExpect(jsonPath("$.periods[2].spent").value(200.00));
+    }
+
+    @Test
+    void trackBudgetTrend_withInvalidMonths_shouldReturn400() throws Exception {
+        var ctx = registerAndLogin("budget_track_trend_400");
+
+        mvc.perform(get("/v1/budget-tracking/trend")
+                        .header("Authorization", ctx.bearer())
+                        .param("type", "ACCOUNT_WIDE")
+                        .param("toPeriod", "2025-01")
+                        .param("months", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void processRollover_shouldSucceed() throws Exception {
         var ctx = registerAndLogin("budget_track_rollover");
@@ -113,6 +149,16 @@ class BudgetTrackingControllerIT {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void processRolloverForAllAccounts_whenNotPlatformAdmin_shouldReturn403() throws Exception {
+        var ctx = registerAndLogin("budget_track_rollover_all");
+
+        mvc.perform(post("/v1/budget-tracking/rollover/all-accounts")
+                        .header("Authorization", ctx.bearer())
+                        .param("fromPeriod", "2025-01"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void endpoints_withoutAuth_shouldReturn401() throws Exception {
         mvc.perform(get("/v1/budget-tracking")
@@ -8,10 +8,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.relyon.credflow.model.credit_card.CreditCardRequestDTO;
+import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.user.AuthRequest;
 import com.relyon.credflow.model.user.UserRequestDTO;
+import com.relyon.credflow.repository.AccountRepository;
+import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -37,6 +42,15 @@ class CreditCardControllerIT {
     @Autowired
     private ObjectMapper om;
 
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private CreditCardRepository creditCardRepository;
+
     record AuthCtx(String bearer, long userId, long accountId) {
     }
 
@@ -101,6 +115,17 @@ class CreditCardControllerIT {
         return json.get("id").asLong();
     }
 
+    private void saveCardTransaction(long accountId, long cardId, LocalDate date, String value, boolean reversal) {
+        transactionRepository.save(Transaction.builder()
+                .account(accountRepository.getReferenceById(accountId))
+                .creditCard(creditCardRepository.getReferenceById(cardId))
+                .date(date)
+                .description("Card IT " + value)
+                .value(new BigDecimal(value))
+                .isReversal(reversal)
+                .build());
+    }
+
     @Test
     void create_whenValidRequest_shouldReturn200WithDTO() throws Exception {
         var ctx = registerAndLogin("card_it");
@@ -211,6 +236,22 @@ class CreditCardControllerIT {
                 .andExpect(jsonPath("$.content[0].currentBill").exists());
     }
 
+    @Test
+    void getAll_whenRefundOfEarlierCycleFallsInCurrentCycle_shouldLowerCurrentBill() throws Exception {
+        var ctx = registerAndLogin("card_it");
+        var cardId = createCreditCard(ctx.bearer(), ctx.userId(), "Visa Gold");
+        createCreditCard(ctx.bearer(), ctx.userId(), "Mastercard Platinum");
+        var today = LocalDate.now();
+        saveCardTransaction(ctx.accountId(), cardId, today.minusMonths(2), "-40.00", true);
+        saveCardTransaction(ctx.accountId(), cardId, today, "-100.00", false);
+        saveCardTransaction(ctx.accountId(), cardId, today, "40.00", true);
+
+        mvc.perform(get("/v1/credit-cards")
+                        .header("Authorization", ctx.bearer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[?(@.id == " + cardId + ")].currentBill.totalAmount").value(-60.0));
+    }
+
     @Test
     void getAll_whenNoCreditCards_shouldReturnEmptyList() throws Exception {
         var ctx = registerAndLogin("card_it");
@@ -253,6 +294,21 @@ class CreditCardControllerIT {
                 .andExpect(jsonPath("$.currentBill.totalAmount").exists());
     }
 
+    @Test
+    void getById_whenRefundOfEarlierCycleFallsInCurrentCycle_shouldLowerCurrentBill() throws Exception {
+        var ctx = registerAndLogin("card_it");
+        var cardId = createCreditCard(ctx.bearer(), ctx.userId());
+        var today = LocalDate.now();
+        saveCardTransaction(ctx.accountId(), cardId, today.minusMonths(2), "-40.00", true);
+        saveCardTransaction(ctx.accountId(), cardId, today, "-100.00", false);
+        saveCardTransaction(ctx.accountId(), cardId, today, "40.00", true);
+
+        mvc.perform(get("/v1/credit-cards/" + cardId)
+                        .header("Authorization", ctx.bearer()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.currentBill.totalAmount").value(-60.0));
+    }
+
     @Test
     void getById_whenCardBelongsToDifferentAccount_shouldReturn404() throws Exception {
         var ctx1 = registerAndLogin("card_it1");
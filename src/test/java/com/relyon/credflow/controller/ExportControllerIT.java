@@ -1,16 +1,21 @@
 package com.relyon.credflow.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relyon.credflow.model.export.ColumnarExportRow;
 import com.relyon.credflow.model.transaction.TransactionRequestDTO;
 import com.relyon.credflow.model.transaction.TransactionType;
+import com.relyon.credflow.service.ColumnarExportReader;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -23,6 +28,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -37,6 +43,7 @@ class ExportControllerIT {
     private ObjectMapper om;
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void exportCsv_withTransactions_shouldReturnCsvFile() throws Exception {
         var ctx = registerAndLogin("export_csv");
         var category = createCategory("Food", ctx.bearer());
@@ -44,16 +51,20 @@ class ExportControllerIT {
         createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 10), "-100.00", category);
         createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 15), "500.00", category);
 
-        var result = mvc.perform(get("/v1/export/csv")
+        var started = mvc.perform(get("/v1/export/csv")
                         .header("Authorization", ctx.bearer())
                         .param("startDate", "2025-01-01")
                         .param("endDate", "2025-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var result = mvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions_20250101_20250131.csv\""))
                 .andExpect(content().contentTypeCompatibleWith("text/csv"))
                 .andReturn();
 
-        var csv = result.getResponse().getContentAsString();
+        var csv = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
         assertThat(csv).contains("Date,Description,Category,Responsible Users,Credit Card,Value,Type");
         assertThat(csv).contains("Food");
         assertThat(csv).contains("-100.00");
@@ -61,16 +72,52 @@ class ExportControllerIT {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportColumnar_withTransactions_shouldReturnReadableFile() throws Exception {
+        var ctx = registerAndLogin("export_columnar");
+        var category = createCategory("Groceries", ctx.bearer());
+
+        createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 10), "-100.00", category);
+        createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 15), "500.00", category);
+
+        var started = mvc.perform(get("/v1/export/columnar")
+                        .header("Authorization", ctx.bearer())
+                        .param("startDate", "2025-01-01")
+                        .param("endDate", "2025-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var result = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions_20250101_20250131.cfx\""))
+                .andExpect(content().contentTypeCompatibleWith("application/vnd.credflow.columnar"))
+                .andReturn();
+
+        try (var reader = new ColumnarExportReader(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            var rows = reader.readAll();
+            assertThat(rows).extracting(ColumnarExportRow::date)
+                    .containsExactly(LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 15));
+            assertThat(rows).extracting(ColumnarExportRow::category).containsOnly("Groceries");
+            assertThat(rows).extracting(ColumnarExportRow::valueCents).containsExactly(-10000L, 50000L);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void exportPdf_withTransactions_shouldReturnPdfFile() throws Exception {
         var ctx = registerAndLogin("export_pdf");
         var category = createCategory("Transport", ctx.bearer());
 
         createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 10), "-200.00", category);
 
-        var result = mvc.perform(get("/v1/export/pdf")
+        var started = mvc.perform(get("/v1/export/pdf")
                         .header("Authorization", ctx.bearer())
                         .param("startDate", "2025-01-01")
                         .param("endDate", "2025-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var result = mvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions_20250101_20250131.pdf\""))
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_PDF))
@@ -80,6 +127,7 @@ class ExportControllerIT {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void exportExcel_withTransactions_shouldReturnExcelFile() throws Exception {
         var ctx = registerAndLogin("export_excel");
         var category = createCategory("Entertainment", ctx.bearer());
@@ -87,12 +135,16 @@ class ExportControllerIT {
         createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 10), "-150.00", category);
         createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 15), "-50.00", category);
 
-        var result = mvc.perform(get("/v1/export/excel")
+        var started = mvc.perform(get("/v1/export/excel")
                         .header("Authorization", ctx.bearer())
                         .param("startDate", "2025-01-01")
                         .param("endDate", "2025-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var result = mvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
-                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions_20250101_20250131.xlsx\""))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"credflow_report_20250101_20250131.xlsx\""))
                 .andExpect(content().contentTypeCompatibleWith("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
                 .andReturn();
 
@@ -100,17 +152,66 @@ class ExportControllerIT {
     }
 
     @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void exportPdf_withMatchingETag_shouldReturn304UntilDataChanges() throws Exception {
+        var ctx = registerAndLogin("export_pdf_etag");
+        var category = createCategory("Health", ctx.bearer());
+
+        createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 10), "-80.00", category);
+
+        var first = mvc.perform(get("/v1/export/pdf")
+                        .header("Authorization", ctx.bearer())
+                        .param("startDate", "2025-01-01")
+                        .param("endDate", "2025-01-31"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        mvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+        var etag = first.getResponse().getHeader("ETag");
+
+        mvc.perform(get("/v1/export/pdf")
+                        .header("Authorization", ctx.bearer())
+                        .header("If-None-Match", etag)
+                        .param("startDate", "2025-01-01")
+                        .param("endDate", "2025-01-31"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag));
+
+        createTransaction(ctx.bearer(), LocalDate.of(2025, 1, 20), "-20.00", category);
+
+        var started = mvc.perform(get("/v1/export/pdf")
+                        .header("Authorization", ctx.bearer())
+                        .header("If-None-Match", etag)
+                        .param("startDate", "2025-01-01")
+                        .param("endDate", "2025-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var changed = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(changed.getResponse().getHeader("ETag")).isNotEqualTo(etag);
+        assertThat(changed.getResponse().getContentAsByteArray()).isNotEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     void exportCsv_withNoTransactions_shouldReturnEmptyCsv() throws Exception {
         var ctx = registerAndLogin("export_csv_empty");
 
-        var result = mvc.perform(get("/v1/export/csv")
+        var started = mvc.perform(get("/v1/export/csv")
                         .header("Authorization", ctx.bearer())
                         .param("startDate", "2025-01-01")
                         .param("endDate", "2025-01-31"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var result = mvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andReturn();
 
-        var csv = result.getResponse().getContentAsString();
+        var csv = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
         assertThat(csv).contains("Date,Description,Category,Responsible Users,Credit Card,Value,Type");
         assertThat(csv.split("\n")).hasSize(1);
     }
@@ -0,0 +1,163 @@
+package com.relyon.credflow.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.relyon.credflow.model.transaction.TransactionRequestDTO;
+import com.relyon.credflow.model.transaction.TransactionType;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Export jobs run on their own threads and read committed data only, so these tests are not transactional.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ExportJobControllerIT {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper om;
+
+    @Test
+    void submitCsvJob_shouldGenerateDownloadableFile() throws Exception {
+        var bearer = registerAndLogin("export_job_csv");
+        createTransaction(bearer, LocalDate.of(2025, 1, 10), "-100.00");
+
+        var submitted = mvc.perform(post("/v1/export/jobs")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(Map.of(
+                                "format", "CSV",
+                                "startDate", "2025-01-01",
+                                "endDate", "2025-01-31"
+                        ))))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        var jobId = read(submitted).get("id").asText();
+
+        var job = awaitCompleted(bearer, jobId);
+        assertThat(job.get("downloadUrl").asText()).isEqualTo("/v1/export/jobs/" + jobId + "/file");
+
+        var file = mvc.perform(get("/v1/export/jobs/{jobId}/file", jobId)
+                        .header("Authorization", bearer))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transactions_20250101_20250131.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn();
+
+        var csv = file.getResponse().getContentAsString(StandardCharsets.UTF_8);
+        assertThat(csv).contains("Date,Description,Category,Responsible Users,Credit Card,Value,Type");
+        assertThat(csv).contains("-100.00");
+    }
+
+    @Test
+    void getJob_fromAnotherAccount_shouldReturn404() throws Exception {
+        var owner = registerAndLogin("export_job_owner");
+        var other = registerAndLogin("export_job_other");
+
+        var submitted = mvc.perform(post("/v1/export/jobs")
+                        .header("Authorization", owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(Map.of("format", "PDF"))))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        var jobId = read(submitted).get("id").asText();
+
+        mvc.perform(get("/v1/export/jobs/{jobId}", jobId)
+                        .header("Authorization", other))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void submitJob_withoutFormat_shouldReturn400() throws Exception {
+        var bearer = registerAndLogin("export_job_invalid");
+
+        mvc.perform(post("/v1/export/jobs")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(Map.of("startDate", "2025-01-01"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode awaitCompleted(String bearer, String jobId) throws Exception {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            var res = mvc.perform(get("/v1/export/jobs/{jobId}", jobId)
+                            .header("Authorization", bearer))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            var job = read(res);
+            var status = job.get("status").asText();
+            if ("COMPLETED".equals(status)) {
+                return job;
+            }
+            assertThat(status).isNotEqualTo("FAILED");
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Export job " + jobId + " did not complete");
+    }
+
+    private String registerAndLogin(String emailPrefix) throws Exception {
+        var email = emailPrefix + "+" + System.nanoTime() + "@example.com";
+
+        mvc.perform(post("/v1/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(Map.of(
+                                "name", emailPrefix.toUpperCase(),
+                                "email", email,
+                                "password", "Str0ngP@ss!",
+                                "confirmPassword", "Str0ngP@ss!"
+                        ))))
+                .andExpect(status().isCreated());
+
+        var login = mvc.perform(post("/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(Map.of(
+                                "email", email,
+                                "password", "Str0ngP@ss!"
+                        ))))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        return "Bearer " + read(login).get("token").asText();
+    }
+
+    private void createTransaction(String bearer, LocalDate date, String value) throws Exception {
+        var req = new TransactionRequestDTO();
+        req.setDate(date);
+        req.setDescription("Test Transaction");
+        req.setSimplifiedDescription("Test");
+        req.setValue(new BigDecimal(value));
+        req.setTransactionType(TransactionType.ONE_TIME);
+
+        mvc.perform(post("/v1/transactions")
+                        .header("Authorization", bearer)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(om.writeValueAsString(req)))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode read(MvcResult mvcResult) throws Exception {
+        return om.readTree(mvcResult.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+}
@@ -89,7 +89,8 @@ class InstallmentGroupControllerIT {
                 .andReturn();
 
         var json = om.readTree(result.getResponse().getContentAsString());
-        assertThat(json.size()).isEqualTo(2);
+        assertThat(json.get("content").size()).isEqualTo(2);
+        assertThat(json.get("totalElements").asInt()).isEqualTo(2);
     }
 
     @Test
@@ -111,7 +112,7 @@ class InstallmentGroupControllerIT {
     void getInstallmentGroup_nonExistingGroup_shouldReturn404() throws Exception {
         var ctx = registerAndLogin("installment_get_404");
 
-        mvc.perform(get("/v1/installment-groups/non-existing-id")
+        mvc.perform(get("/v1/installment-groups/999999")
                         .header("Authorization", ctx.bearer()))
                 .andExpect(status().isNotFound());
     }
@@ -251,7 +252,7 @@ class InstallmentGroupControllerIT {
         return read(res).get("id").asLong();
     }
 
-    private String createInstallmentGroup(String bearer, String description, Double value,
+    private Long createInstallmentGroup(String bearer, String description, Double value,
                                           Integer installments, Long categoryId) throws Exception {
         var res = mvc.perform(post("/v1/installment-groups")
                         .header("Authorization", bearer)
@@ -265,7 +266,7 @@ class InstallmentGroupControllerIT {
                         ))))
                 .andExpect(status().isCreated())
                 .andReturn();
-        return read(res).get("installmentGroupId").asText();
+        return read(res).get("installmentGroupId").asLong();
     }
 
     private JsonNode read(MvcResult mvcResult) throws Exception {
@@ -66,6 +66,31 @@ class GlobalExceptionHandlerTest {
         verify(translationService).translateMessage(exception);
     }
 
+    @Test
+    void handleResourceConflict_translatesMessageAndReturnsConflictStatus() {
+        var exception = new ResourceConflictException("export.job.notReady", "job-1");
+        when(translationService.translateMessage(exception)).thenReturn("Export job job-1 has not completed");
+
+        var result = handler.handleResourceConflict(exception);
+
+        assertEquals(409, result.getStatus());
+        assertEquals("Export job job-1 has not completed", result.getMessage());
+    }
+
+    @Test
+    void handleServiceUnavailable_translatesMessageAndReturnsServiceUnavailableStatus() {
+        var exception = new ServiceUnavailableException("export.job.queueFull");
+        when(translationService.translateMessage(exception)).thenReturn("Too many exports");
+
+        var result = handler.handleServiceUnavailable(exception);
+
+        assertNotNull(result);
+        assertEquals(503, result.getStatus());
+        assertEquals("Too many exports", result.getMessage());
+        assertNull(result.getErrors());
+        verify(translationService).translateMessage(exception);
+    }
+
     @Test
     void handleCsvProcessing_translatesMessageAndReturnsBadRequestStatus() {
         var exception = new CsvProcessingException("csv.invalidFormat");
@@ -0,0 +1,25 @@
+package com.relyon.credflow.exception;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ResourceConflictExceptionTest {
+
+    @Test
+    void constructor_withMessageKeyAndArguments_setsBoth() {
+        var exception = new ResourceConflictException("export.job.notReady", "job-1");
+
+        assertEquals("export.job.notReady", exception.getMessageKey());
+        assertEquals("export.job.notReady", exception.getMessage());
+        assertEquals(1, exception.getArguments().length);
+        assertEquals("job-1", exception.getArguments()[0]);
+    }
+
+    @Test
+    void exception_extendsDomainException() {
+        var exception = new ResourceConflictException("test");
+
+        assertInstanceOf(DomainException.class, exception);
+    }
+}
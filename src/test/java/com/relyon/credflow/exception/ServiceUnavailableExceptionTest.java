@@ -0,0 +1,31 @@
+package com.relyon.credflow.exception;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ServiceUnavailableExceptionTest {
+
+    @Test
+    void constructor_withMessageKey_setsMessageKey() {
+        var exception = new ServiceUnavailableException("export.job.queueFull");
+
+        assertEquals("export.job.queueFull", exception.getMessageKey());
+        assertEquals("export.job.queueFull", exception.getMessage());
+    }
+
+    @Test
+    void constructor_noArguments_hasEmptyArgumentsArray() {
+        var exception = new ServiceUnavailableException("export.job.queueFull");
+
+        assertNotNull(exception.getArguments());
+        assertEquals(0, exception.getArguments().length);
+    }
+
+    @Test
+    void exception_extendsDomainException() {
+        var exception = new ServiceUnavailableException("test");
+
+        assertInstanceOf(DomainException.class, exception);
+    }
+}
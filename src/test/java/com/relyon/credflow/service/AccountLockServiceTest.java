@@ -0,0 +1,243 @@
+package com.relyon.credflow.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.exception.ResourceConflictException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class AccountLockServiceTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void withAccountLock_localMode_returnsActionResultAndReleasesLock() {
+        var service = new AccountLockService(null, "local", 4, 100);
+
+        var result = service.withAccountLock("scope", 1L, () -> "done");
+
+        assertEquals("done", result);
+        assertFalse(service.stripeFor("scope", 1L).isLocked());
+    }
+
+    @Test
+    void withAccountLock_localMode_releasesLockWhenActionThrows() {
+        var service = new AccountLockService(null, "local", 4, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> service.withAccountLock("scope", 1L, () -> {
+            throw new IllegalArgumentException("boom");
+        }));
+
+        assertFalse(service.stripeFor("scope", 1L).isLocked());
+    }
+
+    @Test
+    void withAccountLock_localMode_heldLockIsReentrantForSameAccount() {
+        var service = new AccountLockService(null, "local", 4, 100);
+
+        var result = service.withAccountLock("scope", 1L,
+                () -> service.withAccountLock("scope", 1L, () -> 42));
+
+        assertEquals(42, result);
+    }
+
+    @Test
+    void withAccountLock_localMode_differentAccountsDoNotBlockEachOther() throws Exception {
+        var service = new AccountLockService(null, "local", 1024, 100);
+        var otherAccount = findAccountOnDifferentStripe(service, 1L);
+        var insideLock = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> service.withAccountLock("scope", 1L, () -> {
+                insideLock.countDown();
+                await(release);
+                return null;
+            }));
+
+            assertTrue(insideLock.await(5, TimeUnit.SECONDS));
+            var result = service.withAccountLock("scope", otherAccount, () -> "not blocked");
+            assertEquals("not blocked", result);
+            release.countDown();
+        }
+    }
+
+    @Test
+    void stripeFor_sameScopeAndAccount_returnsSameLock() {
+        var service = new AccountLockService(null, "local", 16, 100);
+
+        assertSame(service.stripeFor("scope", 7L), service.stripeFor("scope", 7L));
+    }
+
+    @Test
+    void withAccountLock_advisoryMode_takesTransactionScopedAdvisoryLock() {
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        var service = new AccountLockService(jdbcTemplate, "advisory", 4, 100);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        var result = service.withAccountLock("scope", 5L, () -> "ok");
+
+        assertEquals("ok", result);
+        verify(jdbcTemplate).queryForList(anyString(), eq("scope"), eq(Long.hashCode(5L)));
+    }
+
+    @Test
+    void withAccountLock_advisoryModeWithoutTransaction_throws() {
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        var service = new AccountLockService(jdbcTemplate, "advisory", 4, 100);
+
+        assertThrows(IllegalStateException.class, () -> service.withAccountLock("scope", 5L, () -> "ok"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void lockForTransaction_localMode_holdsLockUntilTransactionCompletes() {
+        var service = new AccountLockService(null, "local", 4, 100);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.lockForTransaction("scope", 1L);
+
+        var lock = service.transactionStripeFor(1L);
+        assertTrue(lock.isHeldByCurrentThread());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(lock.isLocked());
+    }
+
+    @Test
+    void lockForTransaction_localModeWithoutTransaction_throws() {
+        var service = new AccountLockService(null, "local", 4, 100);
+
+        assertThrows(IllegalStateException.class, () -> service.lockForTransaction("scope", 1L));
+        assertFalse(service.transactionStripeFor(1L).isLocked());
+    }
+
+    @Test
+    void lockForTransaction_onPostgres_takesAdvisoryLockEvenInLocalMode() {
+        var jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenReturn(true);
+        var service = new AccountLockService(jdbcTemplate, "local", 4, 100);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        service.lockForTransaction("scope", 5L);
+
+        verify(jdbcTemplate).queryForList(anyString(), eq("scope"), eq(Long.hashCode(5L)));
+        assertFalse(service.transactionStripeFor(5L).isLocked());
+    }
+
+    @Test
+    void lockForTransaction_localMode_otherScopeReentersHeldStripe() {
+        var service = new AccountLockService(null, "local", 4, 100);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.lockForTransaction("budget-counters", 1L);
+        service.lockForTransaction("card-statements", 1L);
+
+        var lock = service.transactionStripeFor(1L);
+        assertEquals(1, lock.getHoldCount());
+        completeTransaction();
+        assertFalse(lock.isLocked());
+    }
+
+    @Test
+    void lockForTransaction_localMode_locksEveryAccountOfOneCall() {
+        var service = new AccountLockService(null, "local", 4, 100);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.lockForTransaction("scope", List.of(2L, 1L, 2L));
+
+        assertTrue(service.transactionStripeFor(1L).isHeldByCurrentThread());
+        assertTrue(service.transactionStripeFor(2L).isHeldByCurrentThread());
+        completeTransaction();
+        assertFalse(service.transactionStripeFor(1L).isLocked());
+        assertFalse(service.transactionStripeFor(2L).isLocked());
+    }
+
+    @Test
+    void lockForTransaction_localMode_busyStripeBelowHeldOneIsConflictInsteadOfDeadlock() throws Exception {
+        // with 4 stripes, accounts 1 and 2 land on stripes 1 and 2
+        var service = new AccountLockService(null, "local", 4, 100);
+        TransactionSynchronizationManager.initSynchronization();
+        service.lockForTransaction("scope", 2L);
+        var locked = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> {
+                var lock = service.transactionStripeFor(1L);
+                lock.lock();
+                locked.countDown();
+                await(release);
+                lock.unlock();
+            });
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            var exception = assertThrows(ResourceConflictException.class, () -> service.lockForTransaction("scope", 1L));
+            assertEquals("accountLock.busy", exception.getMessageKey());
+            release.countDown();
+        }
+        completeTransaction();
+        assertFalse(service.transactionStripeFor(2L).isLocked());
+    }
+
+    @Test
+    void constructor_withUnknownMode_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new AccountLockService(null, "cluster", 4, 100));
+    }
+
+    @Test
+    void constructor_withNonPositiveStripes_throws() {
+        assertThrows(IllegalStateException.class, () -> new AccountLockService(null, "local", 0, 100));
+    }
+
+    @Test
+    void constructor_withNegativeWait_throws() {
+        assertThrows(IllegalStateException.class, () -> new AccountLockService(null, "local", 4, -1));
+    }
+
+    private void completeTransaction() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private Long findAccountOnDifferentStripe(AccountLockService service, Long accountId) {
+        var stripe = service.stripeFor("scope", accountId);
+        for (var candidate = accountId + 1; ; candidate++) {
+            if (service.stripeFor("scope", candidate) != stripe) {
+                assertNotSame(stripe, service.stripeFor("scope", candidate));
+                return candidate;
+            }
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,6 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.relyon.credflow.model.account.Account;
@@ -14,17 +18,21 @@ import com.relyon.credflow.model.transaction.TransactionFilter;
 import com.relyon.credflow.model.transaction.TransactionSource;
 import com.relyon.credflow.model.transaction.TransactionType;
 import com.relyon.credflow.model.user.User;
-import com.relyon.credflow.repository.TransactionRepository;
+import com.relyon.credflow.repository.TransactionExportRepository;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Sort;
@@ -34,20 +42,31 @@ import org.springframework.data.jpa.domain.Specification;
 class AdvancedExcelExportServiceTest {
 
     @Mock
-    private TransactionRepository transactionRepository;
+    private TransactionExportRepository transactionExportRepository;
 
-    @InjectMocks
     private AdvancedExcelExportService service;
 
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        service = new AdvancedExcelExportService(transactionExportRepository, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
     @Test
     void exportToExcel_generatesValidExcelFile() throws IOException {
         var filter = createFilter();
         var transactions = createSampleTransactions();
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(transactions);
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         assertNotNull(result);
         assertTrue(result.length > 0);
@@ -63,10 +82,10 @@ class AdvancedExcelExportServiceTest {
         var filter = createFilter();
         var transactions = createSampleTransactions();
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(transactions);
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
             assertNotNull(workbook.getSheet("Dashboard"));
@@ -85,10 +104,10 @@ class AdvancedExcelExportServiceTest {
         var filter = createFilter();
         var transactions = createSampleTransactions();
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(transactions);
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
             var sheet = workbook.getSheet("Transações");
@@ -108,10 +127,10 @@ class AdvancedExcelExportServiceTest {
         var filter = createFilter();
         var transactions = createSampleTransactions();
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(transactions);
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
             var dashboard = workbook.getSheet("Dashboard");
@@ -132,10 +151,10 @@ class AdvancedExcelExportServiceTest {
         var filter = createFilter();
         var transactions = createSampleTransactions();
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(transactions);
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
             var categorySheet = workbook.getSheet("Por Categoria");
@@ -152,10 +171,10 @@ class AdvancedExcelExportServiceTest {
     void exportToExcel_handlesEmptyTransactionList() throws IOException {
         var filter = createFilter();
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(List.of());
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.<Transaction>of().stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         assertNotNull(result);
         assertTrue(result.length > 0);
@@ -171,10 +190,10 @@ class AdvancedExcelExportServiceTest {
         var filter = createFilter();
         var transaction = createTransaction(1L, BigDecimal.valueOf(-100), "Test", null, null, null);
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(List.of(transaction));
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(transaction).stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         assertNotNull(result);
 
@@ -190,10 +209,10 @@ class AdvancedExcelExportServiceTest {
         var category = createCategory("Alimentação");
         var transaction = createTransaction(1L, BigDecimal.valueOf(-100), "Test", category, null, null);
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(List.of(transaction));
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(transaction).stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         assertNotNull(result);
 
@@ -209,10 +228,10 @@ class AdvancedExcelExportServiceTest {
         var category = createCategory("Alimentação");
         var transaction = createTransaction(1L, BigDecimal.valueOf(-100), "Test", category, null, null);
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(List.of(transaction));
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(transaction).stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         assertNotNull(result);
 
@@ -229,10 +248,10 @@ class AdvancedExcelExportServiceTest {
         var income = createTransaction(1L, BigDecimal.valueOf(5000), "Salário", category, null, null);
         var expense = createTransaction(2L, BigDecimal.valueOf(-200), "Compra", category, null, null);
 
-        when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                .thenReturn(List.of(income, expense));
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(income, expense).stream());
 
-        var result = service.exportToExcel(filter);
+        var result = export(filter);
 
         try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
             var dashboard = workbook.getSheet("Dashboard");
@@ -246,6 +265,122 @@ class AdvancedExcelExportServiceTest {
         }
     }
 
+    @Test
+    void exportToExcel_loadsResponsibleUsersAndDetachesEachChunk() throws IOException {
+        var filter = createFilter();
+        var transactions = createSampleTransactions();
+
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
+
+        export(filter);
+
+        verify(transactionExportRepository).fetchResponsibleUsers(transactions);
+        verify(transactionExportRepository).detach(transactions);
+    }
+
+    @Test
+    void exportToExcel_streamsDailyTrendRowsBelowHeader() throws IOException {
+        var filter = createFilter();
+        var first = createTransaction(1L, BigDecimal.valueOf(-100), "Mercado", null, null, null);
+        var second = createTransaction(2L, BigDecimal.valueOf(300), "Pix", null, null, null);
+        second.setDate(LocalDate.of(2025, 1, 20));
+
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(List.of(first, second).stream());
+
+        var result = export(filter);
+
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
+            var sheet = workbook.getSheet("Tendência Diária");
+            assertEquals("Saldo Acumulado", sheet.getRow(2).getCell(4).getStringCellValue());
+            assertEquals(-100.0, sheet.getRow(3).getCell(4).getNumericCellValue(), 0.01);
+            assertEquals(200.0, sheet.getRow(4).getCell(4).getNumericCellValue(), 0.01);
+
+            var transactionsSheet = workbook.getSheet("Transações");
+            assertEquals("Mercado", transactionsSheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals("Pix", transactionsSheet.getRow(2).getCell(1).getStringCellValue());
+        }
+    }
+
+    @Test
+    void exportToExcel_summarySheetsRenderAggregatedTotals() throws IOException {
+        var filter = createFilter();
+        var transactions = createSampleTransactions();
+
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
+
+        var result = export(filter);
+
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
+            var categoryRow = workbook.getSheet("Por Categoria").getRow(3);
+            assertEquals("Alimentação", categoryRow.getCell(0).getStringCellValue());
+            assertEquals(-240.40, categoryRow.getCell(2).getNumericCellValue(), 0.001);
+            assertEquals(2, categoryRow.getCell(4).getNumericCellValue(), 0.001);
+            assertEquals(0.8729, categoryRow.getCell(5).getNumericCellValue(), 0.00001);
+
+            var userSheet = workbook.getSheet("Por Responsável");
+            assertEquals("João", userSheet.getRow(3).getCell(0).getStringCellValue());
+            assertEquals(-275.40, userSheet.getRow(3).getCell(2).getNumericCellValue(), 0.001);
+            assertEquals("Sem Responsável", userSheet.getRow(4).getCell(0).getStringCellValue());
+            assertEquals(3000.0, userSheet.getRow(4).getCell(1).getNumericCellValue(), 0.001);
+
+            var cardRow = workbook.getSheet("Por Cartão").getRow(3);
+            assertEquals("Nubank", cardRow.getCell(0).getStringCellValue());
+            assertEquals(-120.20, cardRow.getCell(3).getNumericCellValue(), 0.001);
+
+            var kpiValueRow = workbook.getSheet("Dashboard").getRow(4);
+            assertEquals(2724.60, kpiValueRow.getCell(2).getNumericCellValue(), 0.001);
+            assertEquals(4, kpiValueRow.getCell(3).getNumericCellValue(), 0.001);
+        }
+    }
+
+    @Test
+    void exportToExcel_writesRowsPreparedInParallelChunksInCursorOrder() throws IOException {
+        var filter = createFilter();
+        var categories = List.of(createCategory("Alimentação"), createCategory("Transporte"));
+        var creditCard = createCreditCard("Nubank");
+        var ana = createUser("Ana");
+        var bruno = createUser("Bruno");
+        var transactions = new ArrayList<Transaction>();
+        for (var i = 0; i < 1203; i++) {
+            var users = i % 3 == 0 ? new LinkedHashSet<>(List.of(ana, bruno)) : Set.of(bruno);
+            var tx = createTransaction((long) i, BigDecimal.valueOf(i % 2 == 0 ? -(i + 1) : i + 1),
+                    "Item " + i, i % 5 == 0 ? null : categories.get(i % 2), i % 4 == 0 ? creditCard : null, users);
+            tx.setDate(LocalDate.of(2025, 1, 1).plusDays(i / 40));
+            transactions.add(tx);
+        }
+
+        when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                .thenReturn(transactions.stream());
+
+        var result = export(filter);
+
+        verify(transactionExportRepository, times(3)).fetchResponsibleUsers(anyList());
+        try (var workbook = new XSSFWorkbook(new ByteArrayInputStream(result))) {
+            var sheet = workbook.getSheet("Transações");
+            assertEquals(transactions.size(), sheet.getLastRowNum());
+            for (var i = 0; i < transactions.size(); i++) {
+                var row = sheet.getRow(i + 1);
+                var tx = transactions.get(i);
+                assertEquals(tx.getDate(), row.getCell(0).getLocalDateTimeCellValue().toLocalDate());
+                assertEquals("Item " + i, row.getCell(1).getStringCellValue());
+                assertEquals(tx.getCategory() != null ? tx.getCategory().getName() : "",
+                        row.getCell(3).getStringCellValue());
+                assertEquals(i % 3 == 0 ? "Ana, Bruno" : "Bruno", row.getCell(4).getStringCellValue());
+                assertEquals(i % 4 == 0 ? "Nubank" : "", row.getCell(5).getStringCellValue());
+                assertEquals(tx.getValue().doubleValue(), row.getCell(6).getNumericCellValue(), 0.001);
+            }
+        }
+    }
+
+    private byte[] export(TransactionFilter filter) throws IOException {
+        var outputStream = new ByteArrayOutputStream();
+        service.writeExcel(filter, outputStream);
+        return outputStream.toByteArray();
+    }
+
     private TransactionFilter createFilter() {
         return new TransactionFilter(
                 1L,
@@ -291,21 +426,21 @@ class AdvancedExcelExportServiceTest {
 
     private Category createCategory(String name) {
         var category = new Category();
-        category.setId(1L);
+        category.setId(nextId++);
         category.setName(name);
         return category;
     }
 
     private CreditCard createCreditCard(String nickname) {
         var card = new CreditCard();
-        card.setId(1L);
+        card.setId(nextId++);
         card.setNickname(nickname);
         return card;
     }
 
     private User createUser(String name) {
         var user = new User();
-        user.setId(1L);
+        user.setId(nextId++);
         user.setName(name);
         return user;
     }
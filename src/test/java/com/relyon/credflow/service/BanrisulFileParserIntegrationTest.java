@@ -45,6 +45,10 @@ class BanrisulFileParserIntegrationTest {
     private AccountService accountService;
     @Mock
     private RefundDetectionService refundDetectionService;
+    @Mock
+    private DuplicateProbeIndex duplicateProbeIndex;
+    @Mock
+    private TransactionLedgerService transactionLedgerService;
 
     private BanrisulPdfParserService pdfParserService;
     private Account testAccount;
@@ -56,7 +60,9 @@ class BanrisulFileParserIntegrationTest {
                 creditCardRepository,
                 mappingRepository,
                 accountService,
-                refundDetectionService
+                refundDetectionService,
+                duplicateProbeIndex,
+                transactionLedgerService
         );
         testAccount = Account.builder().id(1L).build();
     }
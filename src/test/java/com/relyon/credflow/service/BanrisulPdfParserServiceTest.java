@@ -46,6 +46,12 @@ class BanrisulPdfParserServiceTest {
     @Mock
     private RefundDetectionService refundDetectionService;
 
+    @Mock
+    private DuplicateProbeIndex duplicateProbeIndex;
+
+    @Mock
+    private TransactionLedgerService transactionLedgerService;
+
     @InjectMocks
     private BanrisulPdfParserService service;
 
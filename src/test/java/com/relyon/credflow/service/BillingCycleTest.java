@@ -0,0 +1,43 @@
+package com.relyon.credflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class BillingCycleTest {
+
+    @Test
+    void containing_whenDateBeforeClosingDay_shouldCloseThisMonth() {
+        var cycle = BillingCycle.containing(LocalDate.of(2025, 11, 10), 15, 25);
+
+        assertThat(cycle.startDate()).isEqualTo(LocalDate.of(2025, 10, 16));
+        assertThat(cycle.closingDate()).isEqualTo(LocalDate.of(2025, 11, 15));
+        assertThat(cycle.dueDate()).isEqualTo(LocalDate.of(2025, 11, 25));
+    }
+
+    @Test
+    void containing_whenDateIsClosingDay_shouldBelongToClosingCycle() {
+        var cycle = BillingCycle.containing(LocalDate.of(2025, 11, 15), 15, 25);
+
+        assertThat(cycle.closingDate()).isEqualTo(LocalDate.of(2025, 11, 15));
+    }
+
+    @Test
+    void containing_whenDateAfterClosingDay_shouldCloseNextMonth() {
+        var cycle = BillingCycle.containing(LocalDate.of(2025, 12, 20), 15, 25);
+
+        assertThat(cycle.startDate()).isEqualTo(LocalDate.of(2025, 12, 16));
+        assertThat(cycle.closingDate()).isEqualTo(LocalDate.of(2026, 1, 15));
+        assertThat(cycle.dueDate()).isEqualTo(LocalDate.of(2026, 1, 25));
+    }
+
+    @Test
+    void containing_whenClosingDayExceedsMonthLength_shouldUseLastDayOfMonth() {
+        var cycle = BillingCycle.containing(LocalDate.of(2025, 2, 20), 31, 31);
+
+        assertThat(cycle.startDate()).isEqualTo(LocalDate.of(2025, 2, 1));
+        assertThat(cycle.closingDate()).isEqualTo(LocalDate.of(2025, 2, 28));
+        assertThat(cycle.dueDate()).isEqualTo(LocalDate.of(2025, 2, 28));
+    }
+}
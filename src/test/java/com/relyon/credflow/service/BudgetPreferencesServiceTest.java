@@ -3,8 +3,8 @@ package com.relyon.credflow.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,6 +17,7 @@ import com.relyon.credflow.model.mapper.BudgetMapper;
 import com.relyon.credflow.model.user.User;
 import com.relyon.credflow.repository.BudgetPreferencesRepository;
 import com.relyon.credflow.repository.UserRepository;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -169,18 +170,19 @@ class BudgetPreferencesServiceTest {
 
         @Test
         void whenUserPrefsExist_shouldReturnUserPrefs() {
+            preferences.setUser(user);
             var dto = BudgetPreferencesResponseDTO.builder()
                     .id(100L)
                     .enableAlerts(true)
                     .build();
 
-            when(budgetPreferencesRepository.findByAccountIdAndUserId(1L, 10L)).thenReturn(Optional.of(preferences));
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of(preferences));
             when(budgetMapper.toDto(preferences)).thenReturn(dto);
 
             var result = budgetPreferencesService.getPreferencesForAccount(1L, 10L);
 
             assertThat(result.getId()).isEqualTo(100L);
-            verify(budgetPreferencesRepository).findByAccountIdAndUserId(1L, 10L);
+            verify(budgetPreferencesRepository).findAllByAccountId(1L);
         }
 
         @Test
@@ -194,8 +196,7 @@ class BudgetPreferencesServiceTest {
                     .enableAlerts(false)
                     .build();
 
-            when(budgetPreferencesRepository.findByAccountIdAndUserId(1L, 10L)).thenReturn(Optional.empty());
-            when(budgetPreferencesRepository.findByAccountIdAndUserIsNull(1L)).thenReturn(Optional.of(accountPrefs));
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of(accountPrefs));
             when(budgetMapper.toDto(accountPrefs)).thenReturn(dto);
 
             var result = budgetPreferencesService.getPreferencesForAccount(1L, 10L);
@@ -205,8 +206,7 @@ class BudgetPreferencesServiceTest {
 
         @Test
         void whenNoPrefsExist_shouldReturnDefaultPreferences() {
-            when(budgetPreferencesRepository.findByAccountIdAndUserId(1L, 10L)).thenReturn(Optional.empty());
-            when(budgetPreferencesRepository.findByAccountIdAndUserIsNull(1L)).thenReturn(Optional.empty());
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of());
 
             var result = budgetPreferencesService.getPreferencesForAccount(1L, 10L);
 
@@ -223,19 +223,80 @@ class BudgetPreferencesServiceTest {
         }
 
         @Test
-        void whenUserIdIsNull_shouldQueryAccountLevelPrefs() {
+        void whenUserIdIsNull_shouldReturnAccountLevelPrefs() {
+            preferences.setUser(user);
             var accountPrefs = new BudgetPreferences();
             accountPrefs.setId(300L);
 
+            var userDto = BudgetPreferencesResponseDTO.builder().id(100L).build();
+            var accountDto = BudgetPreferencesResponseDTO.builder().id(300L).build();
+
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of(preferences, accountPrefs));
+            when(budgetMapper.toDto(preferences)).thenReturn(userDto);
+            when(budgetMapper.toDto(accountPrefs)).thenReturn(accountDto);
+
+            var result = budgetPreferencesService.getPreferencesForAccount(1L, null);
+
+            assertThat(result.getId()).isEqualTo(300L);
+        }
+
+        @Test
+        void whenResolvedRepeatedly_shouldQueryAccountOnce() {
+            var accountPrefs = new BudgetPreferences();
+            accountPrefs.setId(300L);
             var dto = BudgetPreferencesResponseDTO.builder().id(300L).build();
 
-            when(budgetPreferencesRepository.findByAccountIdAndUserIsNull(1L)).thenReturn(Optional.of(accountPrefs));
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of(accountPrefs));
             when(budgetMapper.toDto(accountPrefs)).thenReturn(dto);
 
-            var result = budgetPreferencesService.getPreferencesForAccount(1L, null);
+            budgetPreferencesService.getPreferencesForAccount(1L, null);
+            budgetPreferencesService.getPreferencesForAccount(1L, 10L);
+            var result = budgetPreferencesService.getPreferencesForAccount(1L, 11L);
 
             assertThat(result.getId()).isEqualTo(300L);
-            verify(budgetPreferencesRepository, never()).findByAccountIdAndUserId(anyLong(), anyLong());
+            verify(budgetPreferencesRepository, times(1)).findAllByAccountId(1L);
+            verify(budgetMapper, times(1)).toDto(accountPrefs);
+        }
+
+        @Test
+        void whenCallerMutatesResult_shouldNotAffectCachedPreferences() {
+            var accountPrefs = new BudgetPreferences();
+            var dto = BudgetPreferencesResponseDTO.builder().enableAlerts(true).build();
+
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of(accountPrefs));
+            when(budgetMapper.toDto(accountPrefs)).thenReturn(dto);
+
+            budgetPreferencesService.getPreferencesForAccount(1L, null).setEnableAlerts(false);
+
+            assertThat(budgetPreferencesService.getPreferencesForAccount(1L, null).getEnableAlerts()).isTrue();
+        }
+
+        @Test
+        void whenPreferencesAreUpdated_shouldReloadOnNextResolve() {
+            var dto = BudgetPreferencesResponseDTO.builder().id(100L).build();
+
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of(preferences));
+            when(budgetMapper.toDto(preferences)).thenReturn(dto);
+            when(budgetPreferencesRepository.findByAccountAndUser(1L, null)).thenReturn(Optional.of(preferences));
+            when(budgetPreferencesRepository.save(preferences)).thenReturn(preferences);
+
+            budgetPreferencesService.getPreferencesForAccount(1L, null);
+            budgetPreferencesService.createOrUpdate(preferences, 1L);
+            budgetPreferencesService.getPreferencesForAccount(1L, null);
+
+            verify(budgetPreferencesRepository, times(2)).findAllByAccountId(1L);
+        }
+
+        @Test
+        void whenPreferencesAreDeleted_shouldReloadOnNextResolve() {
+            when(budgetPreferencesRepository.findAllByAccountId(1L)).thenReturn(List.of());
+            when(budgetPreferencesRepository.findByIdAndAccountId(100L, 1L)).thenReturn(Optional.of(preferences));
+
+            budgetPreferencesService.getPreferencesForAccount(1L, null);
+            budgetPreferencesService.delete(100L, 1L);
+            budgetPreferencesService.getPreferencesForAccount(1L, null);
+
+            verify(budgetPreferencesRepository, times(2)).findAllByAccountId(1L);
         }
     }
 
@@ -0,0 +1,110 @@
+package com.relyon.credflow.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.exception.ResourceConflictException;
+import com.relyon.credflow.repository.BudgetRepository;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetRolloverJobTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2025, 1);
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private BudgetTrackingService budgetTrackingService;
+
+    @Test
+    void runRollover_processesEveryAccountAcrossChunks() {
+        var job = new BudgetRolloverJob(budgetRepository, budgetTrackingService, 2, 3);
+        when(budgetRepository.findAccountIdsWithRolloverBudgets(PERIOD)).thenReturn(List.of(1L, 2L, 3L, 4L, 5L));
+        when(budgetTrackingService.processRollover(eq(PERIOD), anyLong())).thenReturn(2);
+
+        var result = job.runRollover(PERIOD);
+
+        assertEquals(5, result.getAccountsProcessed());
+        assertEquals(10, result.getBudgetsRolledOver());
+        assertTrue(result.getFailedAccountIds().isEmpty());
+        LongStream.rangeClosed(1, 5).forEach(id -> verify(budgetTrackingService).processRollover(PERIOD, id));
+    }
+
+    @Test
+    void runRollover_whenAccountFails_reportsItAndContinues() {
+        var job = new BudgetRolloverJob(budgetRepository, budgetTrackingService, 10, 2);
+        when(budgetRepository.findAccountIdsWithRolloverBudgets(PERIOD)).thenReturn(List.of(1L, 2L, 3L));
+        when(budgetTrackingService.processRollover(PERIOD, 1L)).thenReturn(1);
+        when(budgetTrackingService.processRollover(PERIOD, 2L)).thenThrow(new IllegalStateException("boom"));
+        when(budgetTrackingService.processRollover(PERIOD, 3L)).thenReturn(1);
+
+        var result = job.runRollover(PERIOD);
+
+        assertEquals(2, result.getAccountsProcessed());
+        assertEquals(2, result.getBudgetsRolledOver());
+        assertEquals(List.of(2L), result.getFailedAccountIds());
+    }
+
+    @Test
+    void runRollover_neverExceedsConfiguredParallelism() {
+        var job = new BudgetRolloverJob(budgetRepository, budgetTrackingService, 50, 2);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+        when(budgetRepository.findAccountIdsWithRolloverBudgets(PERIOD))
+                .thenReturn(LongStream.rangeClosed(1, 20).boxed().toList());
+        when(budgetTrackingService.processRollover(eq(PERIOD), anyLong())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return 0;
+        });
+
+        job.runRollover(PERIOD);
+
+        assertTrue(maxInFlight.get() <= 2, "max in flight was " + maxInFlight.get());
+    }
+
+    @Test
+    void runRollover_whenAlreadyRunning_rejectsSecondRun() throws Exception {
+        var job = new BudgetRolloverJob(budgetRepository, budgetTrackingService, 10, 1);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(budgetRepository.findAccountIdsWithRolloverBudgets(PERIOD)).thenReturn(List.of(1L));
+        when(budgetTrackingService.processRollover(PERIOD, 1L)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+
+        try (var executor = Executors.newSingleThreadExecutor()) {
+            var first = executor.submit(() -> job.runRollover(PERIOD));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            assertThrows(ResourceConflictException.class, () -> job.runRollover(PERIOD));
+
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getAccountsProcessed());
+        }
+    }
+
+    @Test
+    void constructor_withNonPositiveParallelism_throws() {
+        assertThrows(IllegalStateException.class, () -> new BudgetRolloverJob(budgetRepository, budgetTrackingService, 10, 0));
+    }
+}
@@ -39,6 +39,9 @@ class BudgetServiceTest {
     @Mock
     private AccountService accountService;
 
+    @Mock
+    private BudgetSpendCounterService budgetSpendCounterService;
+
     @InjectMocks
     private BudgetService budgetService;
 
@@ -0,0 +1,278 @@
+package com.relyon.credflow.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.budget.Budget;
+import com.relyon.credflow.model.budget.BudgetPreferencesResponseDTO;
+import com.relyon.credflow.model.budget.BudgetSpendCounter;
+import com.relyon.credflow.model.budget.BudgetSpendEntry;
+import com.relyon.credflow.model.budget.BudgetType;
+import com.relyon.credflow.model.budget.BudgetWarningEvent;
+import com.relyon.credflow.model.budget.WarningLevel;
+import com.relyon.credflow.model.category.Category;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.repository.BudgetRepository;
+import com.relyon.credflow.repository.BudgetSpendCounterRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetSpendCounterServiceTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+    private static final YearMonth PERIOD = YearMonth.of(2025, 1);
+
+    @Mock
+    private BudgetSpendCounterRepository counterRepository;
+
+    @Mock
+    private BudgetRepository budgetRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private BudgetPreferencesService budgetPreferencesService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AccountLockService accountLockService = new AccountLockService(null, "local", 8, 100);
+    private BudgetSpendCounterService service;
+    private Account account;
+    private BudgetPreferencesResponseDTO preferences;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        service = counterService(true);
+        account = Account.builder().id(ACCOUNT_ID).build();
+        preferences = BudgetPreferencesResponseDTO.builder()
+                .enableAlerts(true)
+                .yellowWarningThreshold(80)
+                .orangeWarningThreshold(100)
+                .redWarningThreshold(120)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void recordCreated_whenDisabled_doesNothing() {
+        counterService(false).recordCreated(List.of(expense(-50, null)));
+
+        verifyNoInteractions(counterRepository, budgetRepository, transactionRepository, eventPublisher);
+    }
+
+    @Test
+    void recordCreated_withValidCounter_appliesDeltaWithoutQueryingTransactions() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        var counter = counter(budget, "100", WarningLevel.NONE);
+        when(budgetRepository.findByAccountIdAndPeriod(ACCOUNT_ID, PERIOD)).thenReturn(List.of(budget));
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of(counter));
+        when(budgetPreferencesService.getPreferencesForAccount(ACCOUNT_ID, null)).thenReturn(preferences);
+
+        service.recordCreated(List.of(expense(-50, null)));
+
+        assertEquals(0, new BigDecimal("150").compareTo(counter.getSpent()));
+        verify(counterRepository).saveAll(List.of(counter));
+        verifyNoInteractions(transactionRepository, eventPublisher);
+    }
+
+    @Test
+    void recordCreated_holdsAccountLockUntilTransactionCompletes() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        when(budgetRepository.findByAccountIdAndPeriod(ACCOUNT_ID, PERIOD)).thenReturn(List.of(budget));
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of(counter(budget, "100", WarningLevel.NONE)));
+        when(budgetPreferencesService.getPreferencesForAccount(ACCOUNT_ID, null)).thenReturn(preferences);
+
+        service.recordCreated(List.of(expense(-50, null)));
+
+        assertTrue(accountLockService.transactionStripeFor(ACCOUNT_ID).isHeldByCurrentThread());
+    }
+
+    @Test
+    void recordCreated_withoutCounter_rebuildsFromPeriodAggregate() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        when(budgetRepository.findByAccountIdAndPeriod(ACCOUNT_ID, PERIOD)).thenReturn(List.of(budget));
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of());
+        when(budgetPreferencesService.getPreferencesForAccount(ACCOUNT_ID, null)).thenReturn(preferences);
+        when(transactionRepository.findBudgetSpendEntries(ACCOUNT_ID, PERIOD.atDay(1), PERIOD.atEndOfMonth()))
+                .thenReturn(List.of(new BudgetSpendEntry(1L, new BigDecimal("-300"), null, null),
+                        new BudgetSpendEntry(2L, new BigDecimal("-50"), null, null)));
+
+        service.recordCreated(List.of(expense(-50, null)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BudgetSpendCounter>> captor = ArgumentCaptor.forClass(List.class);
+        verify(counterRepository).saveAll(captor.capture());
+        var saved = captor.getValue().getFirst();
+        assertEquals(0, new BigDecimal("350").compareTo(saved.getSpent()));
+        assertEquals(WarningLevel.NONE, saved.getWarningLevel());
+        assertTrue(saved.getValid());
+    }
+
+    @Test
+    void recordCreated_withNonMatchingCategory_leavesCountersUntouched() {
+        var budget = budget(10L, BudgetType.CATEGORY_SPECIFIC, 5L);
+        when(budgetRepository.findByAccountIdAndPeriod(ACCOUNT_ID, PERIOD)).thenReturn(List.of(budget));
+
+        service.recordCreated(List.of(expense(-50, 6L)));
+
+        verifyNoInteractions(counterRepository, eventPublisher);
+    }
+
+    @Test
+    void recordCreated_withIncomeOnly_doesNotLoadBudgets() {
+        service.recordCreated(List.of(expense(80, null)));
+
+        verifyNoInteractions(budgetRepository, counterRepository);
+    }
+
+    @Test
+    void recordChanges_whenThresholdCrossed_publishesWarningEvent() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        var counter = counter(budget, "700", WarningLevel.NONE);
+        when(budgetRepository.findByAccountIdAndPeriod(ACCOUNT_ID, PERIOD)).thenReturn(List.of(budget));
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of(counter));
+        when(budgetPreferencesService.getPreferencesForAccount(ACCOUNT_ID, null)).thenReturn(preferences);
+
+        var transaction = expense(-50, null);
+        var before = service.snapshot(List.of(transaction));
+        transaction.setValue(new BigDecimal("-200"));
+
+        service.recordChanges(before, service.snapshot(List.of(transaction)));
+
+        var captor = ArgumentCaptor.forClass(BudgetWarningEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(WarningLevel.NONE, captor.getValue().previousLevel());
+        assertEquals(WarningLevel.YELLOW, captor.getValue().currentLevel());
+        assertEquals(0, new BigDecimal("850").compareTo(counter.getSpent()));
+    }
+
+    @Test
+    void recordDeleted_neverDropsCounterBelowZero() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        var counter = counter(budget, "20", WarningLevel.NONE);
+        when(budgetRepository.findByAccountIdAndPeriod(ACCOUNT_ID, PERIOD)).thenReturn(List.of(budget));
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of(counter));
+        when(budgetPreferencesService.getPreferencesForAccount(ACCOUNT_ID, null)).thenReturn(preferences);
+
+        service.recordDeleted(List.of(expense(-50, null)));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(counter.getSpent()));
+    }
+
+    @Test
+    void findSpend_withValidCounters_returnsSpendByBudgetId() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of(counter(budget, "42", WarningLevel.NONE)));
+
+        var result = service.findSpend(List.of(budget));
+
+        assertEquals(Map.of(10L, new BigDecimal("42")), result.orElseThrow());
+    }
+
+    @Test
+    void findSpend_withInvalidCounter_returnsEmpty() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        var counter = counter(budget, "42", WarningLevel.NONE);
+        counter.setValid(false);
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of(counter));
+
+        assertFalse(service.findSpend(List.of(budget)).isPresent());
+    }
+
+    @Test
+    void findSpend_whenDisabled_returnsEmpty() {
+        assertFalse(counterService(false).findSpend(List.of(budget(10L, BudgetType.ACCOUNT_WIDE, null))).isPresent());
+        verifyNoInteractions(counterRepository);
+    }
+
+    @Test
+    void invalidate_marksCountersStale() {
+        var counter = counter(budget(10L, BudgetType.ACCOUNT_WIDE, null), "42", WarningLevel.NONE);
+        when(counterRepository.findAllByAccountIdAndValidTrue(ACCOUNT_ID)).thenReturn(List.of(counter));
+
+        service.invalidate(ACCOUNT_ID);
+
+        assertFalse(counter.getValid());
+        verify(counterRepository).saveAll(List.of(counter));
+    }
+
+    @Test
+    void refresh_recomputesCountersForEachBudget() {
+        var budget = budget(10L, BudgetType.ACCOUNT_WIDE, null);
+        when(counterRepository.findAllByBudgetIdIn(any())).thenReturn(List.of());
+        when(budgetPreferencesService.getPreferencesForAccount(ACCOUNT_ID, null)).thenReturn(preferences);
+        when(transactionRepository.findBudgetSpendEntries(eq(ACCOUNT_ID), any(), any()))
+                .thenReturn(List.of(new BudgetSpendEntry(1L, new BigDecimal("-1300"), null, null)));
+
+        service.refresh(List.of(budget));
+
+        verify(counterRepository).saveAll(anyList());
+        verify(eventPublisher).publishEvent(any(BudgetWarningEvent.class));
+    }
+
+    private BudgetSpendCounterService counterService(boolean enabled) {
+        return new BudgetSpendCounterService(counterRepository, budgetRepository, transactionRepository,
+                budgetPreferencesService, accountLockService, eventPublisher, enabled);
+    }
+
+    private Budget budget(Long id, BudgetType type, Long categoryId) {
+        return Budget.builder()
+                .id(id)
+                .account(account)
+                .period(PERIOD)
+                .amount(new BigDecimal("1000"))
+                .rolledOverAmount(BigDecimal.ZERO)
+                .type(type)
+                .category(categoryId != null ? Category.builder().id(categoryId).build() : null)
+                .allowRollover(false)
+                .build();
+    }
+
+    private BudgetSpendCounter counter(Budget budget, String spent, WarningLevel level) {
+        return BudgetSpendCounter.builder()
+                .budget(budget)
+                .account(account)
+                .spent(new BigDecimal(spent))
+                .warningLevel(level)
+                .build();
+    }
+
+    private Transaction expense(int value, Long categoryId) {
+        return Transaction.builder()
+                .account(account)
+                .date(LocalDate.of(2025, 1, 15))
+                .value(BigDecimal.valueOf(value))
+                .category(categoryId != null ? Category.builder().id(categoryId).build() : null)
+                .build();
+    }
+}
@@ -1,33 +1,41 @@
 package com.relyon.credflow.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.relyon.credflow.model.budget.Budget;
+import com.relyon.credflow.model.budget.BudgetMonthlySpend;
 import com.relyon.credflow.model.budget.BudgetPreferencesResponseDTO;
+import com.relyon.credflow.model.budget.BudgetSpendEntry;
+import com.relyon.credflow.model.budget.BudgetTrackingDTO;
 import com.relyon.credflow.model.budget.BudgetType;
 import com.relyon.credflow.model.budget.WarningLevel;
 import com.relyon.credflow.model.category.Category;
-import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.user.User;
 import com.relyon.credflow.repository.BudgetRepository;
 import com.relyon.credflow.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 
 @ExtendWith(MockitoExtension.class)
 class BudgetTrackingServiceTest {
@@ -41,6 +49,12 @@ class BudgetTrackingServiceTest {
     @Mock
     private BudgetPreferencesService budgetPreferencesService;
 
+    @Mock
+    private AccountLockService accountLockService;
+
+    @Mock
+    private BudgetSpendCounterService budgetSpendCounterService;
+
     @InjectMocks
     private BudgetTrackingService budgetTrackingService;
 
@@ -70,13 +84,13 @@ class BudgetTrackingServiceTest {
         var budget = createBudget(1L, period, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
 
         var transactions = List.of(
-                createTransaction(LocalDate.of(2025, 1, 5), BigDecimal.valueOf(-200)),
-                createTransaction(LocalDate.of(2025, 1, 10), BigDecimal.valueOf(-300))
+                spendEntry(100L, BigDecimal.valueOf(-200), null, null),
+                spendEntry(101L, BigDecimal.valueOf(-300), null, null)
         );
 
         when(budgetRepository.findByIdAndAccountId(1L, accountId)).thenReturn(Optional.of(budget));
         when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
-        when(transactionRepository.findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(Sort.unsorted()))).thenReturn(transactions);
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any())).thenReturn(transactions);
 
         var result = budgetTrackingService.trackBudget(1L, accountId);
 
@@ -94,12 +108,12 @@ class BudgetTrackingServiceTest {
         budget.setRolledOverAmount(BigDecimal.valueOf(200));
 
         var transactions = List.of(
-                createTransaction(LocalDate.of(2025, 1, 5), BigDecimal.valueOf(-400))
+                spendEntry(100L, BigDecimal.valueOf(-400), null, null)
         );
 
         when(budgetRepository.findByIdAndAccountId(1L, accountId)).thenReturn(Optional.of(budget));
         when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
-        when(transactionRepository.findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(Sort.unsorted()))).thenReturn(transactions);
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any())).thenReturn(transactions);
 
         var result = budgetTrackingService.trackBudget(1L, accountId);
 
@@ -119,12 +133,12 @@ class BudgetTrackingServiceTest {
         var totalSpendSoFar = spendPerDay.multiply(BigDecimal.valueOf(dayOfMonth));
 
         var transactions = List.of(
-                createTransaction(today, totalSpendSoFar.negate())
+                spendEntry(100L, totalSpendSoFar.negate(), null, null)
         );
 
         when(budgetRepository.findByIdAndAccountId(1L, accountId)).thenReturn(Optional.of(budget));
         when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
-        when(transactionRepository.findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(Sort.unsorted()))).thenReturn(transactions);
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any())).thenReturn(transactions);
 
         var result = budgetTrackingService.trackBudget(1L, accountId);
 
@@ -147,19 +161,14 @@ class BudgetTrackingServiceTest {
         var budget = createBudget(1L, period, BigDecimal.valueOf(500), BudgetType.CATEGORY_SPECIFIC);
         budget.setCategory(category);
 
-        var matchingTransaction = createTransaction(LocalDate.of(2025, 1, 5), BigDecimal.valueOf(-200));
-        matchingTransaction.setCategory(category);
-
-        var otherCategory = new Category();
-        otherCategory.setId(20L);
-        var nonMatchingTransaction = createTransaction(LocalDate.of(2025, 1, 10), BigDecimal.valueOf(-100));
-        nonMatchingTransaction.setCategory(otherCategory);
-
-        var transactions = List.of(matchingTransaction, nonMatchingTransaction);
+        var transactions = List.of(
+                spendEntry(100L, BigDecimal.valueOf(-200), 10L, null),
+                spendEntry(101L, BigDecimal.valueOf(-100), 20L, null)
+        );
 
         when(budgetRepository.findByIdAndAccountId(1L, accountId)).thenReturn(Optional.of(budget));
         when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
-        when(transactionRepository.findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(Sort.unsorted()))).thenReturn(transactions);
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any())).thenReturn(transactions);
 
         var result = budgetTrackingService.trackBudget(1L, accountId);
 
@@ -176,25 +185,278 @@ class BudgetTrackingServiceTest {
         var budget = createBudget(1L, period, BigDecimal.valueOf(500), BudgetType.USER_SPECIFIC);
         budget.setUser(user);
 
-        var matchingTransaction = createTransaction(LocalDate.of(2025, 1, 5), BigDecimal.valueOf(-200));
-        matchingTransaction.setResponsibleUsers(Set.of(user));
-
-        var otherUser = new User();
-        otherUser.setId(6L);
-        var nonMatchingTransaction = createTransaction(LocalDate.of(2025, 1, 10), BigDecimal.valueOf(-100));
-        nonMatchingTransaction.setResponsibleUsers(Set.of(otherUser));
-
-        var transactions = List.of(matchingTransaction, nonMatchingTransaction);
+        var transactions = List.of(
+                spendEntry(100L, BigDecimal.valueOf(-200), null, 5L),
+                spendEntry(101L, BigDecimal.valueOf(-100), null, 6L)
+        );
 
         when(budgetRepository.findByIdAndAccountId(1L, accountId)).thenReturn(Optional.of(budget));
         when(budgetPreferencesService.getPreferencesForAccount(accountId, 5L)).thenReturn(defaultPreferences);
-        when(transactionRepository.findAll(ArgumentMatchers.<Specification<Transaction>>any(), eq(Sort.unsorted()))).thenReturn(transactions);
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any())).thenReturn(transactions);
 
         var result = budgetTrackingService.trackBudget(1L, accountId);
 
         assertThat(result.getCurrentSpend()).isEqualByComparingTo(BigDecimal.valueOf(200));
     }
 
+    @Test
+    void trackBudgets_shouldLoadPeriodSpendOnceForAllBudgets() {
+        var period = YearMonth.of(2025, 1);
+        var category = new Category();
+        category.setId(10L);
+        category.setName("Food");
+        var user = new User();
+        user.setId(5L);
+        user.setName("John");
+
+        var accountWide = createBudget(1L, period, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+        var categoryBudget = createBudget(2L, period, BigDecimal.valueOf(500), BudgetType.CATEGORY_SPECIFIC);
+        categoryBudget.setCategory(category);
+        var userBudget = createBudget(3L, period, BigDecimal.valueOf(500), BudgetType.USER_SPECIFIC);
+        userBudget.setUser(user);
+        var categoryUserBudget = createBudget(4L, period, BigDecimal.valueOf(500), BudgetType.CATEGORY_USER_SPECIFIC);
+        categoryUserBudget.setCategory(category);
+        categoryUserBudget.setUser(user);
+
+        var entries = List.of(
+                spendEntry(100L, BigDecimal.valueOf(-200), 10L, 5L),
+                spendEntry(100L, BigDecimal.valueOf(-200), 10L, 6L),
+                spendEntry(101L, BigDecimal.valueOf(-100), 20L, 5L),
+                spendEntry(102L, BigDecimal.valueOf(-50), 10L, null)
+        );
+
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, period))
+                .thenReturn(List.of(accountWide, categoryBudget, userBudget, categoryUserBudget));
+        when(budgetPreferencesService.getPreferencesForAccount(eq(accountId), any())).thenReturn(defaultPreferences);
+        when(transactionRepository.findBudgetSpendEntries(accountId, period.atDay(1), period.atEndOfMonth()))
+                .thenReturn(entries);
+
+        var result = budgetTrackingService.trackBudgets(period, accountId);
+
+        assertThat(result).extracting(BudgetTrackingDTO::getCurrentSpend)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(
+                        BigDecimal.valueOf(350),
+                        BigDecimal.valueOf(250),
+                        BigDecimal.valueOf(300),
+                        BigDecimal.valueOf(200)
+                );
+        verify(transactionRepository, times(1)).findBudgetSpendEntries(any(), any(), any());
+    }
+
+    @Test
+    void trackBudgets_withoutBudgets_shouldNotQueryTransactions() {
+        var period = YearMonth.of(2025, 1);
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, period)).thenReturn(List.of());
+
+        var result = budgetTrackingService.trackBudgets(period, accountId);
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void trackBudgets_withValidCounters_shouldNotQueryTransactions() {
+        var period = YearMonth.of(2025, 1);
+        var budget = createBudget(1L, period, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, period)).thenReturn(List.of(budget));
+        when(budgetSpendCounterService.findSpend(List.of(budget))).thenReturn(Optional.of(Map.of(1L, BigDecimal.valueOf(250))));
+        when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
+
+        var result = budgetTrackingService.trackBudgets(period, accountId);
+
+        assertThat(result).hasSize(1);
+        assertThat(result.getFirst().getCurrentSpend()).isEqualByComparingTo(BigDecimal.valueOf(250));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void trackBudgets_withValidCounters_shouldExcludeSpendDatedAfterTrackingDate() {
+        var period = YearMonth.now().plusMonths(1);
+        var budget = createBudget(1L, period, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, period)).thenReturn(List.of(budget));
+        when(budgetSpendCounterService.findSpend(List.of(budget))).thenReturn(Optional.of(Map.of(1L, BigDecimal.valueOf(250))));
+        when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
+        when(transactionRepository.findBudgetSpendEntries(accountId, period.atDay(2), period.atEndOfMonth()))
+                .thenReturn(List.of(spendEntry(100L, BigDecimal.valueOf(-100), null, null)));
+
+        var result = budgetTrackingService.trackBudgets(period, accountId);
+
+        assertThat(result.getFirst().getCurrentSpend()).isEqualByComparingTo(BigDecimal.valueOf(150));
+    }
+
+    @Test
+    void trackBudget_categorySpecific_withoutMatchingSpend_shouldReturnZero() {
+        var period = YearMonth.of(2025, 1);
+        var category = new Category();
+        category.setId(10L);
+
+        var budget = createBudget(1L, period, BigDecimal.valueOf(500), BudgetType.CATEGORY_SPECIFIC);
+        budget.setCategory(category);
+
+        when(budgetRepository.findByIdAndAccountId(1L, accountId)).thenReturn(Optional.of(budget));
+        when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any()))
+                .thenReturn(List.of(spendEntry(100L, BigDecimal.valueOf(-80), 20L, null)));
+
+        var result = budgetTrackingService.trackBudget(1L, accountId);
+
+        assertThat(result.getCurrentSpend()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(result.getRemainingBudget()).isEqualByComparingTo(BigDecimal.valueOf(500));
+    }
+
+    @Test
+    void processRollover_shouldCreateNextBudgetsAndUpdateExistingInOneBatch() {
+        var period = YearMonth.of(2025, 1);
+        var nextPeriod = period.plusMonths(1);
+        var category = new Category();
+        category.setId(10L);
+
+        var accountWide = createBudget(1L, period, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+        accountWide.setAllowRollover(true);
+        var categoryBudget = createBudget(2L, period, BigDecimal.valueOf(400), BudgetType.CATEGORY_SPECIFIC);
+        categoryBudget.setCategory(category);
+        categoryBudget.setAllowRollover(true);
+        var noRollover = createBudget(3L, period, BigDecimal.valueOf(100), BudgetType.ACCOUNT_WIDE);
+
+        var existingNextCategory = createBudget(4L, nextPeriod, BigDecimal.valueOf(400), BudgetType.CATEGORY_SPECIFIC);
+        existingNextCategory.setCategory(category);
+
+        when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, period))
+                .thenReturn(List.of(accountWide, categoryBudget, noRollover));
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, nextPeriod)).thenReturn(List.of(existingNextCategory));
+        when(transactionRepository.findBudgetSpendEntries(accountId, period.atDay(1), period.atEndOfMonth()))
+                .thenReturn(List.of(spendEntry(100L, BigDecimal.valueOf(-300), 10L, null)));
+
+        var saved = new ArrayList<Budget>();
+        when(budgetRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        var rolled = budgetTrackingService.processRollover(period, accountId);
+
+        assertThat(rolled).isEqualTo(2);
+        assertThat(saved).hasSize(2);
+        assertThat(existingNextCategory.getRolledOverAmount()).isEqualByComparingTo(BigDecimal.valueOf(100));
+        var created = saved.stream().filter(budget -> budget.getType() == BudgetType.ACCOUNT_WIDE).findFirst().orElseThrow();
+        assertThat(created.getPeriod()).isEqualTo(nextPeriod);
+        assertThat(created.getRolledOverAmount()).isEqualByComparingTo(BigDecimal.valueOf(500));
+        verify(budgetRepository, never()).findMatchingBudget(any(), any(), any(), any(), any());
+        verify(budgetRepository, never()).save(any());
+        verify(accountLockService).lockForTransaction("budget-rollover", accountId);
+    }
+
+    @Test
+    void processRollover_whenAlreadyApplied_shouldNotSaveAgain() {
+        var period = YearMonth.of(2025, 1);
+        var nextPeriod = period.plusMonths(1);
+        var budget = createBudget(1L, period, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+        budget.setAllowRollover(true);
+        var next = createBudget(2L, nextPeriod, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+        next.setRolledOverAmount(BigDecimal.valueOf(500));
+
+        when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, period)).thenReturn(List.of(budget));
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, nextPeriod)).thenReturn(List.of(next));
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any())).thenReturn(List.of());
+
+        var rolled = budgetTrackingService.processRollover(period, accountId);
+
+        assertThat(rolled).isZero();
+        verify(budgetRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void processRollover_whenOverspent_shouldResetPreviouslyRolledAmount() {
+        var period = YearMonth.of(2025, 1);
+        var nextPeriod = period.plusMonths(1);
+        var budget = createBudget(1L, period, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+        budget.setAllowRollover(true);
+        var next = createBudget(2L, nextPeriod, BigDecimal.valueOf(1000), BudgetType.ACCOUNT_WIDE);
+        next.setRolledOverAmount(BigDecimal.valueOf(500));
+
+        when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(defaultPreferences);
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, period)).thenReturn(List.of(budget));
+        when(budgetRepository.findByAccountIdAndPeriod(accountId, nextPeriod)).thenReturn(List.of(next));
+        when(transactionRepository.findBudgetSpendEntries(eq(accountId), any(), any()))
+                .thenReturn(List.of(spendEntry(100L, BigDecimal.valueOf(-1200), null, null)));
+
+        var rolled = budgetTrackingService.processRollover(period, accountId);
+
+        assertThat(rolled).isEqualTo(1);
+        assertThat(next.getRolledOverAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void processRollover_whenDisabled_shouldNotTouchBudgets() {
+        var preferences = BudgetPreferencesResponseDTO.builder().enableRollover(false).build();
+        when(budgetPreferencesService.getPreferencesForAccount(accountId, null)).thenReturn(preferences);
+
+        var rolled = budgetTrackingService.processRollover(YearMonth.of(2025, 1), accountId);
+
+        assertThat(rolled).isZero();
+        verifyNoInteractions(budgetRepository, transactionRepository);
+    }
+
+    @Test
+    void trackBudgetTrend_shouldFillEveryPeriodFromOneGroupedQuery() {
+        var toPeriod = YearMonth.of(2025, 3);
+        var january = createBudget(1L, YearMonth.of(2025, 1), BigDecimal.valueOf(500), BudgetType.CATEGORY_SPECIFIC);
+        january.setRolledOverAmount(BigDecimal.valueOf(100));
+        var march = createBudget(3L, toPeriod, BigDecimal.valueOf(400), BudgetType.CATEGORY_SPECIFIC);
+
+        when(budgetRepository.findMatchingBudgets(accountId, YearMonth.of(2025, 1), toPeriod,
+                BudgetType.CATEGORY_SPECIFIC, 7L, null)).thenReturn(List.of(january, march));
+        when(transactionRepository.sumMonthlyBudgetSpend(eq(accountId), eq(LocalDate.of(2025, 1, 1)), any(), eq(7L), isNull()))
+                .thenReturn(List.of(
+                        new BudgetMonthlySpend(2025, 1, BigDecimal.valueOf(-300)),
+                        new BudgetMonthlySpend(2025, 2, BigDecimal.valueOf(-50))
+                ));
+
+        var result = budgetTrackingService.trackBudgetTrend(BudgetType.CATEGORY_SPECIFIC, 7L, null, toPeriod, 3, accountId);
+
+        assertThat(result.getFromPeriod()).isEqualTo(YearMonth.of(2025, 1));
+        assertThat(result.getPeriods()).hasSize(3);
+
+        var first = result.getPeriods().get(0);
+        assertThat(first.getBudgetId()).isEqualTo(1L);
+        assertThat(first.getEffectiveBudget()).isEqualByComparingTo(BigDecimal.valueOf(600));
+        assertThat(first.getSpent()).isEqualByComparingTo(BigDecimal.valueOf(300));
+        assertThat(first.getPercentageUsed()).isEqualByComparingTo(BigDecimal.valueOf(50));
+
+        var second = result.getPeriods().get(1);
+        assertThat(second.getBudgetId()).isNull();
+        assertThat(second.getSpent()).isEqualByComparingTo(BigDecimal.valueOf(50));
+
+        var third = result.getPeriods().get(2);
+        assertThat(third.getBudgetId()).isEqualTo(3L);
+        assertThat(third.getSpent()).isEqualByComparingTo(BigDecimal.ZERO);
+        verify(transactionRepository, never()).findBudgetSpendEntries(any(), any(), any());
+    }
+
+    @Test
+    void trackBudgetTrend_withMismatchedIdentity_shouldThrow() {
+        var period = YearMonth.of(2025, 1);
+
+        assertThatThrownBy(() -> budgetTrackingService.trackBudgetTrend(BudgetType.USER_SPECIFIC, 7L, null, period, 12, accountId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("budget.userSpecificMustHaveUser");
+        verifyNoInteractions(budgetRepository, transactionRepository);
+    }
+
+    @Test
+    void trackBudgetTrend_withTooManyMonths_shouldThrow() {
+        var period = YearMonth.of(2025, 1);
+
+        assertThatThrownBy(() -> budgetTrackingService.trackBudgetTrend(BudgetType.ACCOUNT_WIDE, null, null, period, 37, accountId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("budget.trend.invalidMonths");
+    }
+
     private Budget createBudget(Long id, YearMonth period, BigDecimal amount, BudgetType type) {
         return Budget.builder()
                 .id(id)
@@ -206,11 +468,7 @@ class BudgetTrackingServiceTest {
                 .build();
     }
 
-    private Transaction createTransaction(LocalDate date, BigDecimal value) {
-        var transaction = new Transaction();
-        transaction.setDate(date);
-        transaction.setValue(value);
-        transaction.setDescription("Test");
-        return transaction;
+    private BudgetSpendEntry spendEntry(Long transactionId, BigDecimal value, Long categoryId, Long userId) {
+        return new BudgetSpendEntry(transactionId, value, categoryId, userId);
     }
 }
@@ -0,0 +1,136 @@
+package com.relyon.credflow.service;
+
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.model.budget.BudgetWarningEvent;
+import com.relyon.credflow.model.budget.WarningLevel;
+import com.relyon.credflow.model.user.User;
+import com.relyon.credflow.repository.UserRepository;
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringJUnitConfig(BudgetWarningNotifierTest.Config.class)
+class BudgetWarningNotifierTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private BudgetWarningNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        reset(userRepository, emailService);
+        when(userRepository.findByAccountId(ACCOUNT_ID)).thenReturn(List.of(user("ana@credflow.com"), user("bia@credflow.com")));
+    }
+
+    @Test
+    void committedWrite_notifiesEveryUserOfTheAccount() {
+        var event = event(WarningLevel.NONE, WarningLevel.ORANGE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(event));
+
+        verify(emailService).sendBudgetWarningEmail("ana@credflow.com", event);
+        verify(emailService).sendBudgetWarningEmail("bia@credflow.com", event);
+    }
+
+    @Test
+    void rolledBackWrite_notifiesNobody() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            eventPublisher.publishEvent(event(WarningLevel.NONE, WarningLevel.RED));
+            status.setRollbackOnly();
+        });
+
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void publishOutsideTransaction_notifiesNobody() {
+        eventPublisher.publishEvent(event(WarningLevel.NONE, WarningLevel.RED));
+
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void onBudgetWarning_whenLevelGoesDown_doesNotNotify() {
+        notifier.onBudgetWarning(event(WarningLevel.RED, WarningLevel.YELLOW));
+
+        verifyNoInteractions(userRepository, emailService);
+    }
+
+    @Test
+    void onBudgetWarning_whenOneEmailFails_stillNotifiesTheOthers() {
+        var event = event(WarningLevel.YELLOW, WarningLevel.RED);
+        doThrow(new RuntimeException("email.sendFailed")).when(emailService).sendBudgetWarningEmail("ana@credflow.com", event);
+
+        notifier.onBudgetWarning(event);
+
+        verify(emailService).sendBudgetWarningEmail("bia@credflow.com", event);
+    }
+
+    private BudgetWarningEvent event(WarningLevel previous, WarningLevel current) {
+        return new BudgetWarningEvent(ACCOUNT_ID, 10L, YearMonth.of(2025, 1), previous, current,
+                new BigDecimal("900.00"), new BigDecimal("1000.00"));
+    }
+
+    private User user(String email) {
+        var user = new User();
+        user.setEmail(email);
+        return user;
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:budget_warning_notifier", "sa", "sa");
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        UserRepository userRepository() {
+            return mock(UserRepository.class);
+        }
+
+        @Bean
+        EmailService emailService() {
+            return mock(EmailService.class);
+        }
+
+        @Bean
+        BudgetWarningNotifier budgetWarningNotifier(UserRepository userRepository, EmailService emailService) {
+            return new BudgetWarningNotifier(userRepository, emailService);
+        }
+    }
+}
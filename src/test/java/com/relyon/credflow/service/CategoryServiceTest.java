@@ -36,6 +36,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Mock
+    private AccountDataVersionService accountDataVersionService;
+
     @InjectMocks
     private CategoryService service;
 
@@ -330,6 +333,7 @@ class CategoryServiceTest {
 
         verify(repository, times(1)).findByIdAndAccountId(id, accountId);
         verify(repository, times(1)).delete(same(cat));
+        verify(accountDataVersionService).bump(accountId);
         verifyNoMoreInteractions(repository, accountService);
     }
 
@@ -344,6 +348,7 @@ class CategoryServiceTest {
 
         verify(repository, times(1)).findByIdAndAccountId(id, accountId);
         verify(repository, never()).delete(any());
+        verifyNoInteractions(accountDataVersionService);
         verifyNoMoreInteractions(repository, accountService);
     }
 
@@ -0,0 +1,143 @@
+package com.relyon.credflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.relyon.credflow.model.category.Category;
+import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.export.ColumnarExportRow;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.transaction.TransactionType;
+import com.relyon.credflow.model.user.User;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ColumnarExportReaderTest {
+
+    private final Category groceries = category(10L, "Groceries");
+    private final Category rent = category(11L, "Rent");
+    private final CreditCard card = creditCard(20L, "Gold");
+    private final User alice = user(30L, "Alice");
+    private final User bob = user(31L, "Bob");
+
+    @Test
+    void readBlock_returnsRowsBlockByBlockWithDictionariesCarriedOver() throws IOException {
+        var bytes = write(
+                List.of(
+                        transaction(100L, LocalDate.of(2023, 1, 5), "-12.34", groceries, card, alice),
+                        transaction(101L, LocalDate.of(2023, 1, 5), "2500.00", null, null)),
+                List.of(
+                        transaction(99L, LocalDate.of(2022, 12, 31), "-12.34", groceries, card, bob, alice),
+                        transaction(250L, LocalDate.of(2024, 6, 1), "-1800.00", rent, null)));
+
+        try (var reader = new ColumnarExportReader(new ByteArrayInputStream(bytes))) {
+            var first = reader.readBlock();
+            var second = reader.readBlock();
+
+            assertThat(first).extracting(ColumnarExportRow::id).containsExactly(100L, 101L);
+            assertThat(first.getFirst().category()).isEqualTo("Groceries");
+            assertThat(first.get(1).value()).isEqualByComparingTo("2500.00");
+            assertThat(first.get(1).category()).isNull();
+
+            var earlier = second.getFirst();
+            assertThat(earlier.id()).isEqualTo(99L);
+            assertThat(earlier.date()).isEqualTo(LocalDate.of(2022, 12, 31));
+            assertThat(earlier.valueCents()).isEqualTo(-1234L);
+            assertThat(earlier.category()).isEqualTo("Groceries");
+            assertThat(earlier.creditCard()).isEqualTo("Gold");
+            assertThat(earlier.responsibleUsers()).containsExactly("Bob", "Alice");
+            assertThat(second.get(1).category()).isEqualTo("Rent");
+            assertThat(second.get(1).date()).isEqualTo(LocalDate.of(2024, 6, 1));
+
+            assertThat(reader.readBlock()).isEmpty();
+            assertThat(reader.readBlock()).isEmpty();
+        }
+    }
+
+    @Test
+    void writeBlock_storesRepeatedDictionaryEntriesOnce() throws IOException {
+        var first = List.of(transaction(1L, LocalDate.of(2025, 1, 1), "-1.00", groceries, card, alice));
+        var second = List.of(transaction(2L, LocalDate.of(2025, 1, 1), "-1.00", groceries, card, alice));
+        var empty = write();
+        var single = write(first);
+        var repeated = write(first, second);
+
+        var firstBlockSize = single.length - empty.length;
+        var secondBlockSize = repeated.length - single.length;
+        var names = "Groceries".length() + "Gold".length() + "Alice".length();
+        assertThat(firstBlockSize - secondBlockSize).isGreaterThanOrEqualTo(names);
+    }
+
+    @Test
+    void constructor_rejectsOtherContent() {
+        var csv = "Date,Description\n".getBytes();
+
+        assertThatThrownBy(() -> new ColumnarExportReader(new ByteArrayInputStream(csv)))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Not a columnar transaction export");
+    }
+
+    @Test
+    void readBlock_whenTruncated_throwsEOFException() throws IOException {
+        var bytes = write(List.of(transaction(1L, LocalDate.of(2025, 1, 1), "-1.00", groceries, card, alice)));
+        var truncated = Arrays.copyOf(bytes, bytes.length - 4);
+
+        try (var reader = new ColumnarExportReader(new ByteArrayInputStream(truncated))) {
+            assertThatThrownBy(reader::readBlock).isInstanceOf(EOFException.class);
+        }
+    }
+
+    @SafeVarargs
+    private byte[] write(List<Transaction>... blocks) throws IOException {
+        var out = new ByteArrayOutputStream();
+        var writer = new ColumnarExportWriter(out);
+        for (var block : blocks) {
+            writer.writeBlock(block);
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private Transaction transaction(Long id, LocalDate date, String value, Category category, CreditCard creditCard,
+                                    User... users) {
+        var transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDate(date);
+        transaction.setDescription("Transaction " + id);
+        transaction.setValue(new BigDecimal(value));
+        transaction.setCategory(category);
+        transaction.setCreditCard(creditCard);
+        transaction.setResponsibleUsers(new LinkedHashSet<>(List.of(users)));
+        transaction.setTransactionType(TransactionType.ONE_TIME);
+        return transaction;
+    }
+
+    private Category category(Long id, String name) {
+        var category = new Category();
+        category.setId(id);
+        category.setName(name);
+        return category;
+    }
+
+    private CreditCard creditCard(Long id, String nickname) {
+        var creditCard = new CreditCard();
+        creditCard.setId(id);
+        creditCard.setNickname(nickname);
+        return creditCard;
+    }
+
+    private User user(Long id, String name) {
+        var user = new User();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+}
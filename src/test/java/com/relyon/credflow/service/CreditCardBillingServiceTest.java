@@ -7,19 +7,23 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.CALLS_REAL_METHODS;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.relyon.credflow.model.credit_card.CreditCard;
-import com.relyon.credflow.model.transaction.Transaction;
-import com.relyon.credflow.model.transaction.TransactionFilter;
+import com.relyon.credflow.model.credit_card.CreditCardBillingTotal;
+import com.relyon.credflow.model.credit_card.CreditCardDailyTotal;
+import com.relyon.credflow.model.credit_card.CreditCardResponseDTO;
 import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -29,10 +33,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 class CreditCardBillingServiceTest {
 
     @Mock
-    private TransactionService transactionService;
+    private CreditCardRepository creditCardRepository;
 
     @Mock
-    private CreditCardRepository creditCardRepository;
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CreditCardStatementService statementService;
 
     @Mock
     private LocalizedMessageTranslationService translationService;
@@ -149,18 +156,15 @@ class CreditCardBillingServiceTest {
                 .creditLimit(new BigDecimal("5000.00"))
                 .build();
 
-        var transaction1 = Transaction.builder().value(new BigDecimal("100.00")).build();
-        var transaction2 = Transaction.builder().value(new BigDecimal("250.50")).build();
-
         when(creditCardRepository.findById(creditCardId)).thenReturn(Optional.of(creditCard));
-        when(transactionService.search(any(TransactionFilter.class), eq(null)))
-                .thenReturn(List.of(transaction1, transaction2));
+        when(transactionRepository.summarizeByCreditCardSince(eq(creditCardId), any(LocalDate.class)))
+                .thenReturn(new CreditCardBillingTotal(new BigDecimal("350.50"), 2L));
 
         var result = service.computeAvailableLimit(creditCardId);
 
         assertThat(result).isEqualByComparingTo(new BigDecimal("4649.50"));
         verify(creditCardRepository).findById(creditCardId);
-        verify(transactionService).search(any(TransactionFilter.class), eq(null));
+        verify(transactionRepository).summarizeByCreditCardSince(eq(creditCardId), any(LocalDate.class));
     }
 
     @Test
@@ -173,8 +177,8 @@ class CreditCardBillingServiceTest {
                 .build();
 
         when(creditCardRepository.findById(creditCardId)).thenReturn(Optional.of(creditCard));
-        when(transactionService.search(any(TransactionFilter.class), eq(null)))
-                .thenReturn(List.of());
+        when(transactionRepository.summarizeByCreditCardSince(eq(creditCardId), any(LocalDate.class)))
+                .thenReturn(new CreditCardBillingTotal(null, 0L));
 
         var result = service.computeAvailableLimit(creditCardId);
 
@@ -191,10 +195,11 @@ class CreditCardBillingServiceTest {
         assertThatThrownBy(() -> service.computeAvailableLimit(creditCardId))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Credit card not found");
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
-    void computeAvailableLimit_shouldUseCorrectFilterWithCycleStartDate() {
+    void computeAvailableLimit_shouldSumFromCycleStartDate() {
         var creditCardId = 1L;
         var closingDay = 15;
         var today = LocalDate.of(2025, 11, 20);
@@ -207,7 +212,8 @@ class CreditCardBillingServiceTest {
                 .build();
 
         when(creditCardRepository.findById(creditCardId)).thenReturn(Optional.of(creditCard));
-        when(transactionService.search(any(TransactionFilter.class), eq(null))).thenReturn(List.of());
+        when(transactionRepository.summarizeByCreditCardSince(creditCardId, expectedCycleStart))
+                .thenReturn(new CreditCardBillingTotal(new BigDecimal("120.00"), 1L));
 
         BigDecimal result;
         try (MockedStatic<LocalDate> mockedStatic = mockStatic(LocalDate.class, CALLS_REAL_METHODS)) {
@@ -215,13 +221,7 @@ class CreditCardBillingServiceTest {
             result = service.computeAvailableLimit(creditCardId);
         }
 
-        var filterCaptor = ArgumentCaptor.forClass(TransactionFilter.class);
-        verify(transactionService).search(filterCaptor.capture(), eq(null));
-
-        var capturedFilter = filterCaptor.getValue();
-        assertThat(capturedFilter.fromDate()).isEqualTo(expectedCycleStart);
-        assertThat(capturedFilter.creditCardIds()).containsExactly(creditCardId);
-        assertThat(capturedFilter.includeReversals()).isTrue();
+        assertThat(result).isEqualByComparingTo("4880.00");
     }
 
     @Test
@@ -231,15 +231,19 @@ class CreditCardBillingServiceTest {
         var dueDay = 25;
         var today = LocalDate.of(2025, 11, 20);
 
-        var transaction = Transaction.builder().value(new BigDecimal("300.00")).build();
+        when(transactionRepository.summarizeByCreditCardSince(creditCardId, LocalDate.of(2025, 11, 16)))
+                .thenReturn(new CreditCardBillingTotal(new BigDecimal("300.00"), 1L));
 
-        when(transactionService.search(any(TransactionFilter.class), eq(null)))
-                .thenReturn(List.of(transaction));
-
-        var result = service.computeCurrentBill(creditCardId, closingDay, dueDay);
+        CreditCardResponseDTO.CurrentBillDTO result;
+        try (MockedStatic<LocalDate> mockedStatic = mockStatic(LocalDate.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(LocalDate::now).thenReturn(today);
+            result = service.computeCurrentBill(creditCardId, closingDay, dueDay);
+        }
 
-        assertThat(result).isNotNull();
         assertThat(result.getTotalAmount()).isEqualByComparingTo(new BigDecimal("300.00"));
+        assertThat(result.getCycleStartDate()).isEqualTo(LocalDate.of(2025, 11, 16));
+        assertThat(result.getCycleClosingDate()).isEqualTo(LocalDate.of(2025, 12, 15));
+        assertThat(result.getDueDate()).isEqualTo(LocalDate.of(2025, 12, 25));
     }
 
     @Test
@@ -248,8 +252,8 @@ class CreditCardBillingServiceTest {
         var closingDay = 15;
         var dueDay = 25;
 
-        when(transactionService.search(any(TransactionFilter.class), eq(null)))
-                .thenReturn(List.of());
+        when(transactionRepository.summarizeByCreditCardSince(eq(creditCardId), any(LocalDate.class)))
+                .thenReturn(new CreditCardBillingTotal(null, 0L));
 
         var result = service.computeCurrentBill(creditCardId, closingDay, dueDay);
 
@@ -261,39 +265,56 @@ class CreditCardBillingServiceTest {
     }
 
     @Test
-    void computeCurrentBill_shouldSumAllTransactionsInCycle() {
-        var creditCardId = 1L;
-        var closingDay = 15;
-        var dueDay = 25;
-
-        var transaction1 = Transaction.builder().value(new BigDecimal("100.00")).build();
-        var transaction2 = Transaction.builder().value(new BigDecimal("250.75")).build();
-        var transaction3 = Transaction.builder().value(new BigDecimal("49.25")).build();
+    void computeCycleTotals_shouldSumEachCardFromItsOwnCycleStartWithOneQuery() {
+        var card1 = CreditCard.builder().id(1L).closingDay(15).dueDay(25).build();
+        var card2 = CreditCard.builder().id(2L).closingDay(18).dueDay(28).build();
+        var card3 = CreditCard.builder().id(3L).closingDay(15).dueDay(25).build();
+        var today = LocalDate.of(2025, 11, 20);
 
-        when(transactionService.search(any(TransactionFilter.class), eq(null)))
-                .thenReturn(List.of(transaction1, transaction2, transaction3));
+        when(transactionRepository.sumByCreditCardAndDate(Set.of(1L, 2L, 3L), LocalDate.of(2025, 11, 16)))
+                .thenReturn(List.of(
+                        new CreditCardDailyTotal(1L, LocalDate.of(2025, 11, 16), new BigDecimal("100.00")),
+                        new CreditCardDailyTotal(1L, LocalDate.of(2025, 12, 5), new BigDecimal("50.00")),
+                        new CreditCardDailyTotal(2L, LocalDate.of(2025, 11, 17), new BigDecimal("999.00")),
+                        new CreditCardDailyTotal(2L, LocalDate.of(2025, 11, 19), new BigDecimal("30.00"))
+                ));
 
-        var result = service.computeCurrentBill(creditCardId, closingDay, dueDay);
+        Map<Long, BigDecimal> result;
+        try (MockedStatic<LocalDate> mockedStatic = mockStatic(LocalDate.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(LocalDate::now).thenReturn(today);
+            result = service.computeCycleTotals(List.of(card1, card2, card3));
+        }
 
-        assertThat(result.getTotalAmount()).isEqualByComparingTo(new BigDecimal("400.00"));
+        assertThat(result.get(1L)).isEqualByComparingTo("150.00");
+        assertThat(result.get(2L)).isEqualByComparingTo("30.00");
+        assertThat(result.get(3L)).isEqualByComparingTo("0");
+        verifyNoInteractions(creditCardRepository);
     }
 
     @Test
-    void computeCurrentBill_shouldUseCorrectFilterParameters() {
-        var creditCardId = 1L;
-        var closingDay = 15;
-        var dueDay = 25;
+    void computeCycleTotals_shouldReadMaterializedCardsFromStatementLedger() {
+        var card1 = CreditCard.builder().id(1L).closingDay(15).dueDay(25).build();
+        var card2 = CreditCard.builder().id(2L).closingDay(18).dueDay(28).build();
+        var today = LocalDate.of(2025, 11, 20);
 
-        when(transactionService.search(any(TransactionFilter.class), eq(null))).thenReturn(List.of());
+        when(statementService.findOutstandingTotals(Map.of(1L, LocalDate.of(2025, 11, 16), 2L, LocalDate.of(2025, 11, 19))))
+                .thenReturn(Map.of(1L, new BigDecimal("70.00")));
+        when(transactionRepository.summarizeByCreditCardSince(2L, LocalDate.of(2025, 11, 19)))
+                .thenReturn(new CreditCardBillingTotal(new BigDecimal("30.00"), 1L));
 
-        service.computeCurrentBill(creditCardId, closingDay, dueDay);
+        Map<Long, BigDecimal> result;
+        try (MockedStatic<LocalDate> mockedStatic = mockStatic(LocalDate.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(LocalDate::now).thenReturn(today);
+            result = service.computeCycleTotals(List.of(card1, card2));
+        }
 
-        var filterCaptor = ArgumentCaptor.forClass(TransactionFilter.class);
-        verify(transactionService).search(filterCaptor.capture(), eq(null));
+        assertThat(result.get(1L)).isEqualByComparingTo("70.00");
+        assertThat(result.get(2L)).isEqualByComparingTo("30.00");
+    }
 
-        var capturedFilter = filterCaptor.getValue();
-        assertThat(capturedFilter.creditCardIds()).containsExactly(creditCardId);
-        assertThat(capturedFilter.includeReversals()).isTrue();
-        assertThat(capturedFilter.fromDate()).isNotNull();
+    @Test
+    void computeCycleTotals_withoutCards_shouldNotQuery() {
+        assertThat(service.computeCycleTotals(List.of())).isEmpty();
+        verifyNoInteractions(transactionRepository);
     }
 }
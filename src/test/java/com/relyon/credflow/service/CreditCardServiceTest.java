@@ -9,6 +9,7 @@ import static org.mockito.Mockito.*;
 import com.relyon.credflow.model.account.Account;
 import com.relyon.credflow.model.credit_card.CreditCard;
 import com.relyon.credflow.model.credit_card.CreditCardResponseDTO;
+import com.relyon.credflow.model.credit_card.CreditCardStatementDTO;
 import com.relyon.credflow.model.mapper.CreditCardMapper;
 import com.relyon.credflow.model.user.User;
 import com.relyon.credflow.repository.AccountRepository;
@@ -16,6 +17,7 @@ import com.relyon.credflow.repository.CreditCardRepository;
 import com.relyon.credflow.repository.UserRepository;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -46,6 +48,15 @@ class CreditCardServiceTest {
     @Mock
     private LocalizedMessageTranslationService translationService;
 
+    @Mock
+    private CreditCardStatementService statementService;
+
+    @Mock
+    private InstallmentObligationService installmentObligationService;
+
+    @Mock
+    private AccountDataVersionService accountDataVersionService;
+
     @InjectMocks
     private CreditCardService service;
 
@@ -60,12 +71,14 @@ class CreditCardServiceTest {
                 .nickname("Visa Gold")
                 .closingDay(15)
                 .dueDay(25)
+                .creditLimit(new BigDecimal("6000.00"))
                 .build();
         var card2 = CreditCard.builder()
                 .id(2L)
                 .nickname("Mastercard Platinum")
                 .closingDay(10)
                 .dueDay(20)
+                .creditLimit(new BigDecimal("3500.00"))
                 .build();
 
         var dto1 = new CreditCardResponseDTO();
@@ -79,19 +92,23 @@ class CreditCardServiceTest {
         when(creditCardRepository.findAllByAccountId(eq(accountId), any())).thenReturn(cardPage);
         when(creditCardMapper.toDTO(card1)).thenReturn(dto1);
         when(creditCardMapper.toDTO(card2)).thenReturn(dto2);
-        when(billingService.computeAvailableLimit(1L)).thenReturn(new BigDecimal("5000.00"));
-        when(billingService.computeAvailableLimit(2L)).thenReturn(new BigDecimal("3000.00"));
-        when(billingService.computeCurrentBill(anyLong(), anyInt(), anyInt()))
+        when(billingService.computeCycleTotals(List.of(card1, card2)))
+                .thenReturn(Map.of(1L, new BigDecimal("1000.00"), 2L, new BigDecimal("500.00")));
+        when(billingService.buildCurrentBill(anyInt(), anyInt(), any()))
                 .thenReturn(new CreditCardResponseDTO.CurrentBillDTO());
 
         var result = service.findAll(accountId, page, size);
 
         assertThat(result.getContent()).hasSize(2);
         assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(dto1.getAvailableCreditLimit()).isEqualByComparingTo("5000.00");
+        assertThat(dto2.getAvailableCreditLimit()).isEqualByComparingTo("3000.00");
         verify(creditCardRepository).findAllByAccountId(eq(accountId), any());
         verify(creditCardMapper, times(2)).toDTO(any(CreditCard.class));
-        verify(billingService).computeAvailableLimit(1L);
-        verify(billingService).computeAvailableLimit(2L);
+        verify(billingService).computeCycleTotals(List.of(card1, card2));
+        verify(billingService).buildCurrentBill(15, 25, new BigDecimal("1000.00"));
+        verify(billingService).buildCurrentBill(10, 20, new BigDecimal("500.00"));
+        verify(billingService, never()).computeAvailableLimit(anyLong());
     }
 
     @Test
@@ -122,6 +139,7 @@ class CreditCardServiceTest {
                 .nickname("Visa Gold")
                 .closingDay(15)
                 .dueDay(25)
+                .creditLimit(new BigDecimal("6000.00"))
                 .build();
 
         var dto = new CreditCardResponseDTO();
@@ -129,18 +147,19 @@ class CreditCardServiceTest {
 
         when(creditCardRepository.findByIdAndAccountId(cardId, accountId)).thenReturn(Optional.of(card));
         when(creditCardMapper.toDTO(card)).thenReturn(dto);
-        when(billingService.computeAvailableLimit(cardId)).thenReturn(new BigDecimal("5000.00"));
-        when(billingService.computeCurrentBill(cardId, 15, 25))
+        when(billingService.computeCycleTotals(List.of(card))).thenReturn(Map.of(cardId, new BigDecimal("1000.00")));
+        when(billingService.buildCurrentBill(15, 25, new BigDecimal("1000.00")))
                 .thenReturn(new CreditCardResponseDTO.CurrentBillDTO());
 
         var result = service.findById(cardId, accountId);
 
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(cardId);
+        assertThat(result.getAvailableCreditLimit()).isEqualByComparingTo("5000.00");
         verify(creditCardRepository).findByIdAndAccountId(cardId, accountId);
         verify(creditCardMapper).toDTO(card);
-        verify(billingService).computeAvailableLimit(cardId);
-        verify(billingService).computeCurrentBill(cardId, 15, 25);
+        verify(billingService).computeCycleTotals(List.of(card));
+        verify(billingService).buildCurrentBill(15, 25, new BigDecimal("1000.00"));
     }
 
     @Test
@@ -338,6 +357,56 @@ class CreditCardServiceTest {
         verify(creditCardRepository).findByIdAndAccountId(cardId, accountId);
         verify(userRepository).findByIdAndAccountId(holderId, accountId);
         verify(creditCardRepository).save(existing);
+        verify(statementService).invalidateCard(cardId, accountId);
+    }
+
+    @Test
+    void update_whenBillingDaysUnchanged_shouldKeepStatements() {
+        var cardId = 1L;
+        var accountId = 1L;
+        var holderId = 10L;
+        var existing = CreditCard.builder().id(cardId).nickname("Old").closingDay(15).dueDay(25).build();
+        var updated = CreditCard.builder().nickname("New").closingDay(15).dueDay(25).build();
+
+        when(creditCardRepository.findByIdAndAccountId(cardId, accountId)).thenReturn(Optional.of(existing));
+        when(userRepository.findByIdAndAccountId(holderId, accountId)).thenReturn(Optional.of(User.builder().id(holderId).build()));
+        when(creditCardRepository.save(existing)).thenReturn(existing);
+
+        service.update(cardId, accountId, updated, holderId);
+
+        verifyNoInteractions(statementService);
+    }
+
+    @Test
+    void findStatements_whenCardExists_shouldDelegateToStatementLedger() {
+        var cardId = 1L;
+        var accountId = 1L;
+        var card = CreditCard.builder().id(cardId).closingDay(15).dueDay(25).build();
+        var statements = new PageImpl<>(List.of(CreditCardStatementDTO.builder().totalAmount(new BigDecimal("10.00")).build()));
+
+        when(creditCardRepository.findByIdAndAccountId(cardId, accountId)).thenReturn(Optional.of(card));
+        when(statementService.findStatements(card, PageRequest.of(0, 12))).thenReturn(statements);
+
+        var result = service.findStatements(cardId, accountId, 0, 12);
+
+        assertThat(result.getContent()).hasSize(1);
+    }
+
+    @Test
+    void findStatements_whenCardNotFound_shouldThrowException() {
+        when(creditCardRepository.findByIdAndAccountId(999L, 1L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.findStatements(999L, 1L, 0, 12))
+                .isInstanceOf(com.relyon.credflow.exception.ResourceNotFoundException.class);
+        verifyNoInteractions(statementService);
+    }
+
+    @Test
+    void findObligations_whenCardNotInSchedule_shouldThrowException() {
+        when(installmentObligationService.findObligations(1L, 999L, 12)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.findObligations(999L, 1L, 12))
+                .isInstanceOf(com.relyon.credflow.exception.ResourceNotFoundException.class);
     }
 
     @Test
@@ -367,6 +436,7 @@ class CreditCardServiceTest {
 
         verify(creditCardRepository).existsByIdAndAccountId(cardId, accountId);
         verify(creditCardRepository).deleteById(cardId);
+        verify(installmentObligationService).evict(accountId);
     }
 
     @Test
@@ -0,0 +1,240 @@
+package com.relyon.credflow.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.credit_card.CreditCardDailyActivity;
+import com.relyon.credflow.model.credit_card.CreditCardStatement;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.CreditCardStatementRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class CreditCardStatementServiceTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+    private static final Long CARD_ID = 5L;
+
+    @Mock
+    private CreditCardStatementRepository statementRepository;
+
+    @Mock
+    private CreditCardRepository creditCardRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private final AccountLockService accountLockService = new AccountLockService(null, "local", 8, 100);
+    private CreditCardStatementService service;
+    private Account account;
+    private CreditCard card;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        service = statementService(true);
+        account = Account.builder().id(ACCOUNT_ID).build();
+        card = CreditCard.builder().id(CARD_ID).account(account).closingDay(15).dueDay(25).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void recordCreated_whenDisabled_doesNothing() {
+        statementService(false).recordCreated(List.of(cardTransaction("-40.00", LocalDate.of(2025, 1, 10))));
+
+        verifyNoInteractions(statementRepository, creditCardRepository, transactionRepository);
+    }
+
+    @Test
+    void recordCreated_forMaterializedCard_adjustsOnlyTheTouchedCycle() {
+        var statement = statement(LocalDate.of(2024, 12, 16), "100.00", "0");
+        when(creditCardRepository.findAllById(any())).thenReturn(List.of(card));
+        when(statementRepository.findMaterializedCreditCardIds(any())).thenReturn(List.of(CARD_ID));
+        when(statementRepository.findAllByCreditCardIdIn(any())).thenReturn(List.of(statement));
+
+        service.recordCreated(List.of(
+                cardTransaction("-40.00", LocalDate.of(2025, 1, 10)),
+                cardTransaction("15.00", LocalDate.of(2025, 1, 12))
+        ));
+
+        assertEquals(0, new BigDecimal("140.00").compareTo(statement.getChargesTotal()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(statement.getCreditsTotal()));
+        assertEquals(0, new BigDecimal("-125.00").compareTo(statement.getTotal()));
+        verify(statementRepository).saveAll(List.of(statement));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void recordCreated_forUnmaterializedCard_rebuildsAllCyclesFromOneQuery() {
+        when(creditCardRepository.findAllById(any())).thenReturn(List.of(card));
+        when(statementRepository.findMaterializedCreditCardIds(any())).thenReturn(List.of());
+        when(statementRepository.findAllByCreditCardIdIn(any())).thenReturn(List.of());
+        when(transactionRepository.sumCreditCardActivityByDate(any())).thenReturn(List.of(
+                new CreditCardDailyActivity(CARD_ID, LocalDate.of(2025, 1, 10), new BigDecimal("40.00"), BigDecimal.ZERO),
+                new CreditCardDailyActivity(CARD_ID, LocalDate.of(2025, 1, 15), new BigDecimal("10.00"), new BigDecimal("5.00")),
+                new CreditCardDailyActivity(CARD_ID, LocalDate.of(2025, 1, 16), new BigDecimal("99.00"), BigDecimal.ZERO)
+        ));
+
+        service.recordCreated(List.of(cardTransaction("-40.00", LocalDate.of(2025, 1, 10))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<CreditCardStatement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(statementRepository).saveAll(captor.capture());
+        var byStart = captor.getValue().stream()
+                .collect(Collectors.toMap(CreditCardStatement::getCycleStartDate, statement -> statement));
+        assertEquals(2, byStart.size());
+        var january = byStart.get(LocalDate.of(2024, 12, 16));
+        assertEquals(0, new BigDecimal("-45.00").compareTo(january.getTotal()));
+        assertEquals(LocalDate.of(2025, 1, 25), january.getDueDate());
+        assertEquals(0, new BigDecimal("-99.00").compareTo(byStart.get(LocalDate.of(2025, 1, 16)).getTotal()));
+    }
+
+    @Test
+    void recordChanges_whenPurchaseIsRemoved_takesItOffTheCharges() {
+        var statement = statement(LocalDate.of(2024, 12, 16), "40.00", "15.00");
+        when(creditCardRepository.findAllById(any())).thenReturn(List.of(card));
+        when(statementRepository.findMaterializedCreditCardIds(any())).thenReturn(List.of(CARD_ID));
+        when(statementRepository.findAllByCreditCardIdIn(any())).thenReturn(List.of(statement));
+        var purchase = cardTransaction("-40.00", LocalDate.of(2025, 1, 10));
+
+        service.recordChanges(service.snapshot(List.of(purchase)), List.of());
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(statement.getChargesTotal()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(statement.getCreditsTotal()));
+        assertEquals(0, new BigDecimal("15.00").compareTo(statement.getTotal()));
+    }
+
+    @Test
+    void recordChanges_whenCardDateAndValueUnchanged_doesNotTouchStatements() {
+        var transaction = cardTransaction("40.00", LocalDate.of(2025, 1, 10));
+        var before = service.snapshot(List.of(transaction));
+        transaction.setDescription("Renamed");
+
+        service.recordChanges(before, service.snapshot(List.of(transaction)));
+
+        verifyNoInteractions(statementRepository, creditCardRepository, transactionRepository);
+    }
+
+    @Test
+    void recordChanges_whenMarkedAsReversal_keepsItsValue() {
+        var transaction = cardTransaction("40.00", LocalDate.of(2025, 1, 10));
+        var before = service.snapshot(List.of(transaction));
+        transaction.setIsReversal(true);
+
+        service.recordChanges(before, service.snapshot(List.of(transaction)));
+
+        verifyNoInteractions(statementRepository, creditCardRepository, transactionRepository);
+    }
+
+    @Test
+    void findOutstandingTotals_sumsCurrentAndLaterCyclesOfMaterializedCards() {
+        var current = statement(LocalDate.of(2025, 1, 16), "100.00", "10.00");
+        var next = statement(LocalDate.of(2025, 2, 16), "30.00", "0");
+        when(statementRepository.findMaterializedCreditCardIds(any())).thenReturn(List.of(CARD_ID));
+        when(statementRepository.findAllByCreditCardIdInAndCycleStartDateGreaterThanEqual(any(), any()))
+                .thenReturn(List.of(current, next));
+
+        var result = service.findOutstandingTotals(Map.of(CARD_ID, LocalDate.of(2025, 1, 16), 9L, LocalDate.of(2025, 1, 11)));
+
+        assertEquals(1, result.size());
+        assertEquals(0, new BigDecimal("-120.00").compareTo(result.get(CARD_ID)));
+    }
+
+    @Test
+    void findOutstandingTotals_whenDisabled_returnsEmpty() {
+        assertTrue(statementService(false).findOutstandingTotals(Map.of(CARD_ID, LocalDate.of(2025, 1, 16))).isEmpty());
+        verifyNoInteractions(statementRepository);
+    }
+
+    @Test
+    void invalidateCard_marksStatementsStale() {
+        var statement = statement(LocalDate.of(2025, 1, 16), "100.00", "0");
+        when(statementRepository.findAllByCreditCardIdAndValidTrue(CARD_ID)).thenReturn(List.of(statement));
+
+        service.invalidateCard(CARD_ID, ACCOUNT_ID);
+
+        assertFalse(statement.getValid());
+        verify(statementRepository).saveAll(List.of(statement));
+    }
+
+    @Test
+    void findStatements_whenDisabled_computesPageWithoutStoring() {
+        when(transactionRepository.sumCreditCardActivityByDate(any())).thenReturn(List.of(
+                new CreditCardDailyActivity(CARD_ID, LocalDate.of(2025, 1, 10), new BigDecimal("40.00"), BigDecimal.ZERO),
+                new CreditCardDailyActivity(CARD_ID, LocalDate.of(2025, 2, 10), new BigDecimal("25.00"), BigDecimal.ZERO)
+        ));
+
+        var page = statementService(false).findStatements(card, PageRequest.of(0, 1));
+
+        assertEquals(2, page.getTotalElements());
+        assertEquals(LocalDate.of(2025, 1, 16), page.getContent().getFirst().getCycleStartDate());
+        verifyNoInteractions(statementRepository);
+    }
+
+    @Test
+    void findStatements_holdsAccountLockUntilTransactionCompletes() {
+        when(statementRepository.findMaterializedCreditCardIds(any())).thenReturn(List.of(CARD_ID));
+        when(statementRepository.findNonEmptyByCreditCardId(eq(CARD_ID), any())).thenReturn(Page.empty());
+
+        service.findStatements(card, PageRequest.of(0, 10));
+
+        assertTrue(accountLockService.transactionStripeFor(ACCOUNT_ID).isHeldByCurrentThread());
+        verify(statementRepository, never()).saveAll(any());
+    }
+
+    private CreditCardStatementService statementService(boolean enabled) {
+        return new CreditCardStatementService(statementRepository, creditCardRepository, transactionRepository,
+                accountLockService, enabled);
+    }
+
+    private CreditCardStatement statement(LocalDate cycleStart, String charges, String credits) {
+        return CreditCardStatement.builder()
+                .creditCard(card)
+                .account(account)
+                .cycleStartDate(cycleStart)
+                .cycleClosingDate(cycleStart.plusMonths(1).minusDays(1))
+                .dueDate(cycleStart.plusMonths(1).plusDays(9))
+                .chargesTotal(new BigDecimal(charges))
+                .creditsTotal(new BigDecimal(credits))
+                .build();
+    }
+
+    private Transaction cardTransaction(String value, LocalDate date) {
+        return Transaction.builder()
+                .account(account)
+                .creditCard(card)
+                .date(date)
+                .value(new BigDecimal(value))
+                .description("Purchase")
+                .build();
+    }
+}
@@ -48,6 +48,12 @@ class CsvImportServiceTest {
     @Mock
     private LocalizedMessageTranslationService translationService;
 
+    @Mock
+    private DuplicateProbeIndex duplicateProbeIndex;
+
+    @Mock
+    private TransactionLedgerService transactionLedgerService;
+
     @InjectMocks
     private CsvImportService csvImportService;
 
@@ -36,6 +36,9 @@ class DescriptionMappingServiceTest {
     @Mock
     private LocalizedMessageTranslationService translationService;
 
+    @Mock
+    private AccountDataVersionService accountDataVersionService;
+
     @InjectMocks
     private DescriptionMappingService service;
 
@@ -5,18 +5,25 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.relyon.credflow.model.account.Account;
 import com.relyon.credflow.model.category.Category;
 import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.transaction.DuplicateCandidate;
 import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.transaction.TransactionSource;
 import com.relyon.credflow.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -29,6 +36,9 @@ class DuplicateDetectionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private DuplicateProbeIndex duplicateProbeIndex;
+
     @InjectMocks
     private DuplicateDetectionService service;
 
@@ -119,6 +129,54 @@ class DuplicateDetectionServiceTest {
         assertEquals("Nubank", result.get(0).getCreditCardNickname());
     }
 
+    @Test
+    void findPotentialDuplicatesForManualEntry_whenProbeIndexHasNoMatch_skipsDatabase() {
+        var accountId = 1L;
+        var date = LocalDate.of(2025, 1, 15);
+        var value = BigDecimal.valueOf(-100);
+
+        when(duplicateProbeIndex.probe(accountId, date, value, 3)).thenReturn(Optional.of(List.of()));
+
+        var result = service.findPotentialDuplicatesForManualEntry(accountId, date, value);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void findPotentialDuplicatesForManualEntry_whenProbeIndexMatches_loadsAndRechecksCandidates() {
+        var accountId = 1L;
+        var date = LocalDate.of(2025, 1, 15);
+        var value = BigDecimal.valueOf(-100);
+
+        var csv = createTransaction(1L, value, date.plusDays(1), TransactionSource.CSV_IMPORT);
+        var changedValue = createTransaction(2L, BigDecimal.valueOf(-90), date, TransactionSource.CSV_IMPORT);
+
+        when(duplicateProbeIndex.probe(accountId, date, value, 3)).thenReturn(Optional.of(List.of(1L, 2L)));
+        when(transactionRepository.findAllByIdIn(List.of(1L, 2L))).thenReturn(List.of(csv, changedValue));
+
+        var result = service.findPotentialDuplicatesForManualEntry(accountId, date, value);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        verify(transactionRepository, never()).findPotentialDuplicates(any(), any(), any(), any());
+        verify(duplicateProbeIndex, never()).warmUpIfCold(any());
+    }
+
+    @Test
+    void findPotentialDuplicatesForManualEntry_whenProbeIndexCold_fallsBackToDatabaseAndWarmsUp() {
+        var accountId = 1L;
+        var date = LocalDate.of(2025, 1, 15);
+        var value = BigDecimal.valueOf(-100);
+
+        when(transactionRepository.findPotentialDuplicates(eq(accountId), any(), any(), eq(value))).thenReturn(List.of());
+
+        service.findPotentialDuplicatesForManualEntry(accountId, date, value);
+
+        verify(transactionRepository).findPotentialDuplicates(eq(accountId), any(), any(), eq(value));
+        verify(duplicateProbeIndex).warmUpIfCold(accountId);
+    }
+
     @Test
     void findAllPotentialDuplicates_whenNoMixedSources_returnsEmptyList() {
         var accountId = 1L;
@@ -126,7 +184,7 @@ class DuplicateDetectionServiceTest {
         var csv1 = createTransaction(1L, BigDecimal.valueOf(-100), LocalDate.now(), TransactionSource.CSV_IMPORT);
         var csv2 = createTransaction(2L, BigDecimal.valueOf(-100), LocalDate.now(), TransactionSource.CSV_IMPORT);
 
-        when(transactionRepository.findAllByAccountId(accountId)).thenReturn(List.of(csv1, csv2));
+        stubTransactions(accountId, csv1, csv2);
 
         var result = service.findAllPotentialDuplicates(accountId);
 
@@ -145,8 +203,7 @@ class DuplicateDetectionServiceTest {
         var manualTransaction = createTransaction(2L, value, date, TransactionSource.MANUAL);
         manualTransaction.setDescription("Supermercado X");
 
-        when(transactionRepository.findAllByAccountId(accountId))
-                .thenReturn(List.of(csvTransaction, manualTransaction));
+        stubTransactions(accountId, csvTransaction, manualTransaction);
 
         var result = service.findAllPotentialDuplicates(accountId);
 
@@ -170,8 +227,7 @@ class DuplicateDetectionServiceTest {
         var manual1 = createTransaction(2L, value, baseDate.plusDays(2), TransactionSource.MANUAL);
         var csv2 = createTransaction(3L, value, baseDate.plusDays(10), TransactionSource.CSV_IMPORT);
 
-        when(transactionRepository.findAllByAccountId(accountId))
-                .thenReturn(List.of(csv1, manual1, csv2));
+        stubTransactions(accountId, csv1, manual1, csv2);
 
         var result = service.findAllPotentialDuplicates(accountId);
 
@@ -192,7 +248,7 @@ class DuplicateDetectionServiceTest {
         var csv = createTransaction(1L, BigDecimal.valueOf(-100), date, TransactionSource.CSV_IMPORT);
         var manual = createTransaction(2L, BigDecimal.valueOf(-150), date, TransactionSource.MANUAL);
 
-        when(transactionRepository.findAllByAccountId(accountId)).thenReturn(List.of(csv, manual));
+        stubTransactions(accountId, csv, manual);
 
         var result = service.findAllPotentialDuplicates(accountId);
 
@@ -208,7 +264,7 @@ class DuplicateDetectionServiceTest {
         var csv = createTransaction(1L, value, baseDate, TransactionSource.CSV_IMPORT);
         var manual = createTransaction(2L, value, baseDate.plusDays(5), TransactionSource.MANUAL);
 
-        when(transactionRepository.findAllByAccountId(accountId)).thenReturn(List.of(csv, manual));
+        stubTransactions(accountId, csv, manual);
 
         var result = service.findAllPotentialDuplicates(accountId);
 
@@ -225,7 +281,7 @@ class DuplicateDetectionServiceTest {
         var csv2 = createTransaction(2L, value, date, TransactionSource.CSV_IMPORT);
         var csv3 = createTransaction(3L, value, date, TransactionSource.CSV_IMPORT);
 
-        when(transactionRepository.findAllByAccountId(accountId)).thenReturn(List.of(csv1, csv2, csv3));
+        stubTransactions(accountId, csv1, csv2, csv3);
 
         var result = service.findAllPotentialDuplicates(accountId);
 
@@ -245,7 +301,7 @@ class DuplicateDetectionServiceTest {
         var manual = createTransaction(2L, value, date, TransactionSource.MANUAL);
         manual.setDescription("Manual entry");
 
-        when(transactionRepository.findAllByAccountId(accountId)).thenReturn(List.of(csv, manual));
+        stubTransactions(accountId, csv, manual);
 
         var result = service.findAllPotentialDuplicates(accountId);
 
@@ -259,6 +315,68 @@ class DuplicateDetectionServiceTest {
         assertEquals("Simplified", csvDto.getSimplifiedDescription());
     }
 
+    @Test
+    void findAllPotentialDuplicates_passesDateBoundsToRepository() {
+        var accountId = 1L;
+        var from = LocalDate.of(2025, 1, 1);
+        var to = LocalDate.of(2025, 3, 31);
+
+        when(transactionRepository.findDuplicateCandidates(accountId, from, to)).thenReturn(List.of());
+
+        var result = service.findAllPotentialDuplicates(accountId, from, to);
+
+        assertTrue(result.isEmpty());
+        verify(transactionRepository).findDuplicateCandidates(accountId, from, to);
+        verify(transactionRepository, never()).findAllByIdIn(any());
+    }
+
+    @Test
+    void findAllPotentialDuplicates_groupsRegardlessOfInputOrder() {
+        var accountId = 1L;
+        var baseDate = LocalDate.of(2025, 1, 15);
+        var value = BigDecimal.valueOf(-80);
+
+        var manual = createTransaction(1L, value, baseDate.plusDays(3), TransactionSource.MANUAL);
+        var otherValue = createTransaction(2L, BigDecimal.valueOf(-10), baseDate, TransactionSource.CSV_IMPORT);
+        var csv = createTransaction(3L, value, baseDate, TransactionSource.CSV_IMPORT);
+
+        stubTransactions(accountId, manual, otherValue, csv);
+
+        var result = service.findAllPotentialDuplicates(accountId);
+
+        assertEquals(1, result.size());
+        assertEquals(baseDate + "|" + value.toPlainString(), result.get(0).getGroupKey());
+        var ids = result.get(0).getTransactions().stream().map(t -> t.getId()).toList();
+        assertEquals(List.of(3L, 1L), ids);
+    }
+
+    @Test
+    void findAllPotentialDuplicates_treatsEqualValuesWithDifferentScaleAsSame() {
+        var accountId = 1L;
+        var date = LocalDate.of(2025, 2, 1);
+
+        var csv = createTransaction(1L, new BigDecimal("-100.00"), date, TransactionSource.CSV_IMPORT);
+        var manual = createTransaction(2L, new BigDecimal("-100"), date, TransactionSource.MANUAL);
+
+        stubTransactions(accountId, csv, manual);
+
+        var result = service.findAllPotentialDuplicates(accountId);
+
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getTransactions().size());
+    }
+
+    private void stubTransactions(Long accountId, Transaction... transactions) {
+        var candidates = Arrays.stream(transactions)
+                .map(t -> new DuplicateCandidate(t.getId(), t.getDate(), t.getValue(), t.getSource()))
+                .toList();
+        when(transactionRepository.findDuplicateCandidates(accountId, null, null)).thenReturn(candidates);
+        lenient().when(transactionRepository.findAllByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return Arrays.stream(transactions).filter(t -> ids.contains(t.getId())).toList();
+        });
+    }
+
     private Transaction createTransaction(Long id, BigDecimal value, LocalDate date, TransactionSource source) {
         var account = new Account();
         account.setId(100L);
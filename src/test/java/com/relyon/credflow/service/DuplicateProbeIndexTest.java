@@ -0,0 +1,136 @@
+package com.relyon.credflow.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.transaction.DuplicateCandidate;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.transaction.TransactionSource;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class DuplicateProbeIndexTest {
+
+    private static final Long ACCOUNT_ID = 100L;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @InjectMocks
+    private DuplicateProbeIndex index;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "windowDays", 30);
+    }
+
+    @Test
+    void probe_whenCold_returnsEmpty() {
+        assertTrue(index.probe(ACCOUNT_ID, today, BigDecimal.valueOf(-10), 3).isEmpty());
+        assertFalse(index.isWarm(ACCOUNT_ID));
+    }
+
+    @Test
+    void warmUpIfCold_loadsImportedTransactionsOnce() {
+        when(transactionRepository.findImportedDuplicateCandidates(eq(ACCOUNT_ID), any()))
+                .thenReturn(List.of(candidate(1L, today.minusDays(2), "-10.00")));
+
+        index.warmUpIfCold(ACCOUNT_ID);
+        index.warmUpIfCold(ACCOUNT_ID);
+
+        verify(transactionRepository, times(1)).findImportedDuplicateCandidates(ACCOUNT_ID, today.minusDays(30));
+        assertTrue(index.isWarm(ACCOUNT_ID));
+        assertEquals(List.of(1L), index.probe(ACCOUNT_ID, today, new BigDecimal("-10"), 3).orElseThrow());
+    }
+
+    @Test
+    void probe_matchesOnlySameAmountWithinWindow() {
+        when(transactionRepository.findImportedDuplicateCandidates(eq(ACCOUNT_ID), any())).thenReturn(List.of(
+                candidate(1L, today.minusDays(3), "-25.50"),
+                candidate(2L, today.minusDays(4), "-25.50"),
+                candidate(3L, today, "-25.49")
+        ));
+        index.warmUpIfCold(ACCOUNT_ID);
+
+        assertEquals(List.of(1L), index.probe(ACCOUNT_ID, today, new BigDecimal("-25.50"), 3).orElseThrow());
+    }
+
+    @Test
+    void probe_whenWindowStartsBeforeCoveredRange_returnsEmpty() {
+        when(transactionRepository.findImportedDuplicateCandidates(eq(ACCOUNT_ID), any())).thenReturn(List.of());
+        index.warmUpIfCold(ACCOUNT_ID);
+
+        assertTrue(index.probe(ACCOUNT_ID, today.minusDays(28), BigDecimal.ONE, 3).isEmpty());
+        assertTrue(index.probe(ACCOUNT_ID, today.minusDays(27), BigDecimal.ONE, 3).isPresent());
+    }
+
+    @Test
+    void record_andRemove_maintainImportedEntries() {
+        when(transactionRepository.findImportedDuplicateCandidates(eq(ACCOUNT_ID), any())).thenReturn(List.of());
+        index.warmUpIfCold(ACCOUNT_ID);
+
+        var imported = transaction(5L, today, "-40.00", TransactionSource.CSV_IMPORT);
+        var manual = transaction(6L, today, "-40.00", TransactionSource.MANUAL);
+        index.record(imported);
+        index.record(manual);
+
+        assertEquals(List.of(5L), index.probe(ACCOUNT_ID, today, new BigDecimal("-40"), 3).orElseThrow());
+
+        index.remove(ACCOUNT_ID, 5L, today, new BigDecimal("-40.00"));
+
+        assertTrue(index.probe(ACCOUNT_ID, today, new BigDecimal("-40"), 3).orElseThrow().isEmpty());
+    }
+
+    @Test
+    void invalidate_makesAccountCold() {
+        when(transactionRepository.findImportedDuplicateCandidates(eq(ACCOUNT_ID), any())).thenReturn(List.of());
+        index.warmUpIfCold(ACCOUNT_ID);
+
+        index.invalidate(ACCOUNT_ID);
+
+        assertFalse(index.isWarm(ACCOUNT_ID));
+        assertTrue(index.probe(ACCOUNT_ID, today, BigDecimal.ONE, 3).isEmpty());
+    }
+
+    @Test
+    void toCents_roundsToWholeCents() {
+        assertEquals(-1050L, DuplicateProbeIndex.toCents(new BigDecimal("-10.5")));
+        assertEquals(1235L, DuplicateProbeIndex.toCents(new BigDecimal("12.345")));
+    }
+
+    private DuplicateCandidate candidate(Long id, LocalDate date, String value) {
+        return new DuplicateCandidate(id, date, new BigDecimal(value), TransactionSource.CSV_IMPORT);
+    }
+
+    private Transaction transaction(Long id, LocalDate date, String value, TransactionSource source) {
+        var account = new Account();
+        account.setId(ACCOUNT_ID);
+
+        var transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setAccount(account);
+        transaction.setDate(date);
+        transaction.setValue(new BigDecimal(value));
+        transaction.setSource(source);
+        return transaction;
+    }
+}
@@ -7,6 +7,10 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 
+import com.relyon.credflow.model.budget.BudgetWarningEvent;
+import com.relyon.credflow.model.budget.WarningLevel;
+import java.math.BigDecimal;
+import java.time.YearMonth;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -123,4 +127,35 @@ class EmailServiceTest {
                     .hasMessageContaining("email.sendFailed");
         }
     }
+
+    @Nested
+    class SendBudgetWarningEmail {
+
+        private final BudgetWarningEvent event = new BudgetWarningEvent(1L, 10L, YearMonth.of(2025, 1),
+                WarningLevel.YELLOW, WarningLevel.RED, new BigDecimal("950.00"), new BigDecimal("1000.00"));
+
+        @Test
+        void whenMailSenderConfigured_shouldSendEmail() {
+            ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+
+            emailService.sendBudgetWarningEmail("user@test.com", event);
+
+            var captor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+            verify(mailSender).send(captor.capture());
+
+            var message = captor.getValue();
+            assertThat(message.getTo()).containsExactly("user@test.com");
+            assertThat(message.getSubject()).isEqualTo("Budget warning: RED for 2025-01");
+            assertThat(message.getText()).contains("950.00 of 1000.00", "http://localhost:3000/budgets/10");
+        }
+
+        @Test
+        void whenMailSenderNotConfigured_shouldNotThrow() {
+            ReflectionTestUtils.setField(emailService, "mailSender", null);
+
+            emailService.sendBudgetWarningEmail("user@test.com", event);
+
+            verifyNoInteractions(mailSender);
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package com.relyon.credflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.relyon.credflow.model.export.ExportFormat;
+import com.relyon.credflow.model.transaction.TransactionFilter;
+import com.relyon.credflow.model.transaction.TransactionType;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ExportCacheServiceTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    @TempDir
+    Path cacheDir;
+
+    private AccountDataVersionService accountDataVersionService;
+    private ExportCacheService service;
+
+    @BeforeEach
+    void setUp() {
+        accountDataVersionService = mock(AccountDataVersionService.class);
+        service = new ExportCacheService(accountDataVersionService, cacheDir, 60);
+    }
+
+    @Test
+    void get_whenDataUnchanged_generatesOnceAndServesCachedFile() throws IOException {
+        when(accountDataVersionService.current(ACCOUNT_ID)).thenReturn(3L);
+        var writes = new AtomicInteger();
+
+        var first = service.get(service.key(ExportFormat.PDF, filter(List.of(1L))), out -> {
+            writes.incrementAndGet();
+            out.write("report".getBytes(StandardCharsets.UTF_8));
+        });
+        var second = service.get(service.key(ExportFormat.PDF, filter(List.of(1L))), out -> writes.incrementAndGet());
+
+        assertThat(writes).hasValue(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(Files.readString(first)).isEqualTo("report");
+    }
+
+    @Test
+    void key_whenDataVersionChanges_changesETag() {
+        when(accountDataVersionService.current(ACCOUNT_ID)).thenReturn(3L, 4L);
+
+        var before = service.key(ExportFormat.EXCEL, filter(List.of(1L)));
+        var after = service.key(ExportFormat.EXCEL, filter(List.of(1L)));
+
+        assertThat(after.version()).isEqualTo(4L);
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+    }
+
+    @Test
+    void key_withEquivalentFilters_isIdentical() {
+        when(accountDataVersionService.current(ACCOUNT_ID)).thenReturn(3L);
+
+        var ordered = service.key(ExportFormat.PDF, filter(List.of(1L, 2L), new BigDecimal("10")));
+        var shuffled = service.key(ExportFormat.PDF, filter(List.of(2L, 1L, 2L), new BigDecimal("10.00")));
+        var otherFormat = service.key(ExportFormat.EXCEL, filter(List.of(1L, 2L), new BigDecimal("10")));
+
+        assertThat(shuffled.etag()).isEqualTo(ordered.etag());
+        assertThat(otherFormat.etag()).isNotEqualTo(ordered.etag());
+    }
+
+    @Test
+    void get_whenWriterFails_leavesNoFileAndRegeneratesNextTime() throws IOException {
+        when(accountDataVersionService.current(ACCOUNT_ID)).thenReturn(3L);
+        var key = service.key(ExportFormat.PDF, filter(List.of(1L)));
+
+        assertThatThrownBy(() -> service.get(key, out -> {
+            throw new IOException("disk full");
+        })).isInstanceOf(IOException.class);
+        try (var files = Files.list(cacheDir)) {
+            assertThat(files).isEmpty();
+        }
+
+        var file = service.get(key, out -> out.write(1));
+        assertThat(file).exists();
+    }
+
+    @Test
+    void write_whenMissing_streamsToClientWhileCaching() throws IOException {
+        when(accountDataVersionService.current(ACCOUNT_ID)).thenReturn(3L);
+        var key = service.key(ExportFormat.PDF, filter(List.of(1L)));
+        var client = new ByteArrayOutputStream();
+
+        service.write(key, out -> {
+            out.write("first".getBytes(StandardCharsets.UTF_8));
+            assertThat(client.toString(StandardCharsets.UTF_8)).isEqualTo("first");
+            out.write(" page".getBytes(StandardCharsets.UTF_8));
+        }, client);
+
+        assertThat(client.toString(StandardCharsets.UTF_8)).isEqualTo("first page");
+        var cached = new ByteArrayOutputStream();
+        service.write(key, out -> out.write('x'), cached);
+        assertThat(cached.toString(StandardCharsets.UTF_8)).isEqualTo("first page");
+    }
+
+    @Test
+    void write_whenClientGoesAway_stillCachesArtifactAndRethrows() throws IOException {
+        when(accountDataVersionService.current(ACCOUNT_ID)).thenReturn(3L);
+        var key = service.key(ExportFormat.PDF, filter(List.of(1L)));
+        var disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThatThrownBy(() -> service.write(key, out -> out.write("report".getBytes(StandardCharsets.UTF_8)),
+                disconnected)).hasMessage("Broken pipe");
+
+        var writes = new AtomicInteger();
+        var file = service.get(key, out -> writes.incrementAndGet());
+        assertThat(writes).hasValue(0);
+        assertThat(Files.readString(file)).isEqualTo("report");
+    }
+
+    @Test
+    void removeStaleArtifacts_dropsArtifactsOfSupersededVersions() throws IOException {
+        when(accountDataVersionService.current(ACCOUNT_ID)).thenReturn(3L, 4L);
+        var stale = service.get(service.key(ExportFormat.PDF, filter(List.of(1L))), out -> out.write(1));
+        var current = service.get(service.key(ExportFormat.PDF, filter(List.of(1L))), out -> out.write(2));
+
+        service.removeStaleArtifacts();
+
+        assertThat(stale).doesNotExist();
+        assertThat(current).exists();
+    }
+
+    private TransactionFilter filter(List<Long> categoryIds) {
+        return filter(categoryIds, null);
+    }
+
+    private TransactionFilter filter(List<Long> categoryIds, BigDecimal minAmount) {
+        return new TransactionFilter(
+                ACCOUNT_ID,
+                LocalDate.of(2025, 1, 1),
+                LocalDate.of(2025, 1, 31),
+                null,
+                null,
+                minAmount,
+                null,
+                null,
+                categoryIds,
+                null,
+                List.of(TransactionType.ONE_TIME),
+                null,
+                false
+        );
+    }
+}
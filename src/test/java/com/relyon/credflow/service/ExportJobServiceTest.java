@@ -0,0 +1,225 @@
+package com.relyon.credflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.relyon.credflow.exception.ResourceConflictException;
+import com.relyon.credflow.exception.ResourceNotFoundException;
+import com.relyon.credflow.exception.ServiceUnavailableException;
+import com.relyon.credflow.model.export.ExportFormat;
+import com.relyon.credflow.model.export.ExportJobDTO;
+import com.relyon.credflow.model.export.ExportJobRequestDTO;
+import com.relyon.credflow.model.export.ExportJobStatus;
+import com.relyon.credflow.model.transaction.TransactionFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ExportJobServiceTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    @Mock
+    private ExportService exportService;
+
+    @Mock
+    private AdvancedExcelExportService advancedExcelExportService;
+
+    @TempDir
+    Path spoolDir;
+
+    private ExportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ExportJobService(exportService, advancedExcelExportService, spoolDir, 1, 5, 30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void submit_generatesFileInSpoolDirectory() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("Date,Description".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).writeCsv(any(TransactionFilter.class), any(OutputStream.class));
+
+        var submitted = service.submit(ACCOUNT_ID, request(ExportFormat.CSV));
+        var finished = awaitFinished(submitted.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+        assertThat(finished.getFileName()).isEqualTo("transactions_20250101_20250131.csv");
+        assertThat(finished.getDownloadUrl()).isEqualTo("/v1/export/jobs/" + submitted.getId() + "/file");
+        assertThat(finished.getExpiresAt()).isAfter(finished.getCompletedAt());
+
+        var file = service.findFile(ACCOUNT_ID, submitted.getId());
+        assertThat(file.path().getParent()).isEqualTo(spoolDir);
+        assertThat(Files.readString(file.path())).isEqualTo("Date,Description");
+    }
+
+    @Test
+    void submit_identicalRequestWhileRunning_returnsSameJob() throws Exception {
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(advancedExcelExportService).writeExcel(any(TransactionFilter.class), any(OutputStream.class));
+
+        var first = service.submit(ACCOUNT_ID, request(ExportFormat.EXCEL));
+        var second = service.submit(ACCOUNT_ID, request(ExportFormat.EXCEL));
+        release.countDown();
+        awaitFinished(first.getId());
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        verify(advancedExcelExportService, times(1)).writeExcel(any(TransactionFilter.class), any(OutputStream.class));
+    }
+
+    @Test
+    void submit_whenWriterFails_marksJobFailedAndRemovesPartialFile() throws Exception {
+        doThrow(new IOException("disk full"))
+                .when(exportService).writePdf(any(TransactionFilter.class), any(OutputStream.class));
+
+        var submitted = service.submit(ACCOUNT_ID, request(ExportFormat.PDF));
+        var finished = awaitFinished(submitted.getId());
+
+        assertThat(finished.getStatus()).isEqualTo(ExportJobStatus.FAILED);
+        assertThat(finished.getDownloadUrl()).isNull();
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    @Test
+    void findFile_beforeCompletion_throwsNotReady() throws Exception {
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(exportService).writeCsv(any(TransactionFilter.class), any(OutputStream.class));
+
+        var submitted = service.submit(ACCOUNT_ID, request(ExportFormat.CSV));
+        try {
+            assertThatThrownBy(() -> service.findFile(ACCOUNT_ID, submitted.getId()))
+                    .isInstanceOf(ResourceConflictException.class)
+                    .hasMessage("export.job.notReady");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void findFile_afterFailure_throwsFailed() throws Exception {
+        doThrow(new IOException("disk full"))
+                .when(exportService).writeCsv(any(TransactionFilter.class), any(OutputStream.class));
+
+        var submitted = service.submit(ACCOUNT_ID, request(ExportFormat.CSV));
+        awaitFinished(submitted.getId());
+
+        assertThatThrownBy(() -> service.findFile(ACCOUNT_ID, submitted.getId()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("export.job.failed");
+    }
+
+    @Test
+    void submit_sameFilterWithReorderedLists_returnsSameJob() throws Exception {
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(exportService).writeCsv(any(TransactionFilter.class), any(OutputStream.class));
+
+        var firstRequest = request(ExportFormat.CSV);
+        firstRequest.setCategoryIds(List.of(3L, 1L, 3L));
+        firstRequest.setMinAmount(new BigDecimal("10.00"));
+        var secondRequest = request(ExportFormat.CSV);
+        secondRequest.setCategoryIds(List.of(1L, 3L));
+        secondRequest.setMinAmount(new BigDecimal("10"));
+        secondRequest.setCreditCardIds(List.of());
+
+        var first = service.submit(ACCOUNT_ID, firstRequest);
+        var second = service.submit(ACCOUNT_ID, secondRequest);
+        release.countDown();
+        awaitFinished(first.getId());
+
+        assertThat(second.getId()).isEqualTo(first.getId());
+        verify(exportService, times(1)).writeCsv(any(TransactionFilter.class), any(OutputStream.class));
+    }
+
+    @Test
+    void submit_whenQueueIsFull_throwsServiceUnavailable() throws Exception {
+        var release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(exportService).writeCsv(any(TransactionFilter.class), any(OutputStream.class));
+
+        try {
+            for (int day = 1; day <= 6; day++) {
+                service.submit(ACCOUNT_ID, request(ExportFormat.CSV, LocalDate.of(2025, 1, day)));
+            }
+
+            assertThatThrownBy(() -> service.submit(ACCOUNT_ID, request(ExportFormat.CSV, LocalDate.of(2025, 1, 7))))
+                    .isInstanceOf(ServiceUnavailableException.class)
+                    .hasMessage("export.job.queueFull");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void findJob_fromAnotherAccount_throwsNotFound() throws Exception {
+        var submitted = service.submit(ACCOUNT_ID, request(ExportFormat.CSV));
+        awaitFinished(submitted.getId());
+
+        assertThatThrownBy(() -> service.findJob(2L, submitted.getId()))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("export.job.notFound");
+    }
+
+    private ExportJobDTO awaitFinished(String jobId) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            var job = service.findJob(ACCOUNT_ID, jobId);
+            if (job.getStatus() == ExportJobStatus.COMPLETED || job.getStatus() == ExportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Export job " + jobId + " did not finish");
+    }
+
+    private ExportJobRequestDTO request(ExportFormat format) {
+        return request(format, LocalDate.of(2025, 1, 1));
+    }
+
+    private ExportJobRequestDTO request(ExportFormat format, LocalDate startDate) {
+        var request = new ExportJobRequestDTO();
+        request.setFormat(format);
+        request.setStartDate(startDate);
+        request.setEndDate(LocalDate.of(2025, 1, 31));
+        return request;
+    }
+}
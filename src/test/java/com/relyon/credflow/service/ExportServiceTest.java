@@ -2,22 +2,31 @@ package com.relyon.credflow.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.relyon.credflow.model.account.Account;
 import com.relyon.credflow.model.category.Category;
 import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.export.ColumnarExportRow;
 import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.transaction.TransactionFilter;
 import com.relyon.credflow.model.transaction.TransactionType;
 import com.relyon.credflow.model.user.User;
+import com.relyon.credflow.repository.TransactionExportRepository;
 import com.relyon.credflow.repository.TransactionRepository;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -35,6 +44,9 @@ class ExportServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private TransactionExportRepository transactionExportRepository;
+
     @InjectMocks
     private ExportService exportService;
 
@@ -89,24 +101,22 @@ class ExportServiceTest {
 
         @Test
         @SuppressWarnings("unchecked")
-        void shouldGenerateCsvWithHeader() {
-            when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                    .thenReturn(transactions);
+        void shouldGenerateCsvWithHeader() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
 
-            var result = exportService.exportToCsv(filter);
-            var csv = new String(result);
+            var csv = exportCsv();
 
             assertThat(csv).startsWith("Date,Description,Category,Responsible Users,Credit Card,Value,Type\n");
         }
 
         @Test
         @SuppressWarnings("unchecked")
-        void shouldIncludeAllTransactionData() {
-            when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                    .thenReturn(transactions);
+        void shouldIncludeAllTransactionData() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
 
-            var result = exportService.exportToCsv(filter);
-            var csv = new String(result);
+            var csv = exportCsv();
 
             assertThat(csv).contains("15/01/2025");
             assertThat(csv).contains("Restaurant Lunch");
@@ -119,45 +129,75 @@ class ExportServiceTest {
 
         @Test
         @SuppressWarnings("unchecked")
-        void shouldHandleNullCategoryAndCreditCard() {
-            when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                    .thenReturn(transactions);
+        void shouldHandleNullCategoryAndCreditCard() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
 
-            var result = exportService.exportToCsv(filter);
-            var csv = new String(result);
+            var csv = exportCsv();
 
             assertThat(csv).contains("Salary,,,,3000.00,PAYMENT");
         }
 
         @Test
         @SuppressWarnings("unchecked")
-        void shouldEscapeCsvSpecialCharacters() {
+        void shouldEscapeCsvSpecialCharacters() throws IOException {
             var tx = new Transaction();
             tx.setDate(LocalDate.of(2025, 1, 1));
             tx.setDescription("Item, with \"quotes\" and comma");
             tx.setValue(BigDecimal.TEN);
             tx.setTransactionType(TransactionType.ONE_TIME);
 
-            when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                    .thenReturn(List.of(tx));
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(List.of(tx).stream());
 
-            var result = exportService.exportToCsv(filter);
-            var csv = new String(result);
+            var csv = exportCsv();
 
             assertThat(csv).contains("\"Item, with \"\"quotes\"\" and comma\"");
         }
 
         @Test
         @SuppressWarnings("unchecked")
-        void shouldReturnEmptyCsvWhenNoTransactions() {
-            when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                    .thenReturn(List.of());
+        void shouldReturnEmptyCsvWhenNoTransactions() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(List.of().stream());
 
-            var result = exportService.exportToCsv(filter);
-            var csv = new String(result);
+            var csv = exportCsv();
 
             assertThat(csv).isEqualTo("Date,Description,Category,Responsible Users,Credit Card,Value,Type\n");
         }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldLoadResponsibleUsersAndDetachEachChunk() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
+
+            exportCsv();
+
+            verify(transactionExportRepository).fetchResponsibleUsers(transactions);
+            verify(transactionExportRepository).detach(transactions);
+            verifyNoInteractions(transactionRepository);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldWriteNonAsciiCharactersAsUtf8() throws IOException {
+            var tx = new Transaction();
+            tx.setDate(LocalDate.of(2025, 1, 1));
+            tx.setDescription("Pão de açúcar");
+            tx.setValue(BigDecimal.TEN);
+
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(Stream.of(tx));
+
+            assertThat(exportCsv()).contains("Pão de açúcar");
+        }
+
+        private String exportCsv() throws IOException {
+            var outputStream = new ByteArrayOutputStream();
+            exportService.writeCsv(filter, outputStream);
+            return outputStream.toString(StandardCharsets.UTF_8);
+        }
     }
 
     @Nested
@@ -166,10 +206,10 @@ class ExportServiceTest {
         @Test
         @SuppressWarnings("unchecked")
         void shouldGenerateNonEmptyPdf() throws IOException {
-            when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                    .thenReturn(transactions);
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
 
-            var result = exportService.exportToPdf(filter);
+            var result = exportPdf();
 
             assertThat(result).isNotEmpty();
             assertThat(result[0]).isEqualTo((byte) '%');
@@ -181,13 +221,115 @@ class ExportServiceTest {
         @Test
         @SuppressWarnings("unchecked")
         void shouldGeneratePdfWithEmptyTransactions() throws IOException {
-            when(transactionRepository.findAll(any(Specification.class), any(Sort.class)))
-                    .thenReturn(List.of());
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(Stream.of());
 
-            var result = exportService.exportToPdf(filter);
+            var result = exportPdf();
 
             assertThat(result).isNotEmpty();
         }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldLoadResponsibleUsersAndDetachEachChunk() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
+
+            exportPdf();
+
+            verify(transactionExportRepository).fetchResponsibleUsers(transactions);
+            verify(transactionExportRepository).detach(transactions);
+            verifyNoInteractions(transactionRepository);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldLeaveOutputStreamOpen() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
+            var closed = new AtomicBoolean();
+            var outputStream = new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    closed.set(true);
+                }
+            };
+
+            exportService.writePdf(filter, outputStream);
+
+            assertThat(closed).isFalse();
+            assertThat(outputStream.toByteArray()).isNotEmpty();
+        }
+
+        private byte[] exportPdf() throws IOException {
+            var outputStream = new ByteArrayOutputStream();
+            exportService.writePdf(filter, outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    @Nested
+    class ExportToColumnar {
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldRoundTripThroughReader() throws IOException {
+            transactions.getFirst().getCategory().setId(7L);
+            transactions.getFirst().getCreditCard().setId(9L);
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
+
+            var rows = readColumnar(exportColumnar());
+
+            assertThat(rows).hasSize(2);
+            var lunch = rows.getFirst();
+            assertThat(lunch.date()).isEqualTo(LocalDate.of(2025, 1, 15));
+            assertThat(lunch.description()).isEqualTo("Restaurant Lunch");
+            assertThat(lunch.category()).isEqualTo("Food");
+            assertThat(lunch.creditCard()).isEqualTo("Main Card");
+            assertThat(lunch.responsibleUsers()).containsExactly("John Doe");
+            assertThat(lunch.value()).isEqualByComparingTo("-50.00");
+            assertThat(lunch.transactionType()).isEqualTo("ONE_TIME");
+            var salary = rows.get(1);
+            assertThat(salary.category()).isNull();
+            assertThat(salary.creditCard()).isNull();
+            assertThat(salary.responsibleUsers()).isEmpty();
+            assertThat(salary.valueCents()).isEqualTo(300000L);
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldWriteOnlyHeaderAndEndMarkerWhenNoTransactions() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(Stream.of());
+
+            assertThat(readColumnar(exportColumnar())).isEmpty();
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void shouldLoadResponsibleUsersAndDetachEachChunk() throws IOException {
+            when(transactionExportRepository.stream(any(Specification.class), any(Sort.class), anyInt()))
+                    .thenReturn(transactions.stream());
+
+            exportColumnar();
+
+            verify(transactionExportRepository).fetchResponsibleUsers(transactions);
+            verify(transactionExportRepository).detach(transactions);
+            verifyNoInteractions(transactionRepository);
+        }
+
+        private byte[] exportColumnar() throws IOException {
+            var outputStream = new ByteArrayOutputStream();
+            exportService.writeColumnar(filter, outputStream);
+            return outputStream.toByteArray();
+        }
+
+        private List<ColumnarExportRow> readColumnar(byte[] bytes) throws IOException {
+            try (var reader = new ColumnarExportReader(new ByteArrayInputStream(bytes))) {
+                return reader.readAll();
+            }
+        }
     }
 
     @Nested
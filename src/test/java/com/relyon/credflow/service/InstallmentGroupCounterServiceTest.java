@@ -0,0 +1,126 @@
+package com.relyon.credflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.transaction.InstallmentGroup;
+import com.relyon.credflow.model.transaction.InstallmentGroupAggregate;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.repository.InstallmentGroupRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class InstallmentGroupCounterServiceTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    @Mock
+    private InstallmentGroupRepository installmentGroupRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private AccountLockService accountLockService;
+    private InstallmentGroupCounterService service;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        accountLockService = new AccountLockService(null, "local", 8, 100);
+        service = new InstallmentGroupCounterService(installmentGroupRepository, transactionRepository,
+                accountLockService);
+        account = Account.builder().id(ACCOUNT_ID).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void groupIds_collectsGroupsOfInstallmentsOnly() {
+        var transactions = List.of(
+                Transaction.builder().installmentGroup(group(10L)).build(),
+                Transaction.builder().installmentGroup(group(10L)).build(),
+                Transaction.builder().installmentGroup(group(11L)).build(),
+                Transaction.builder().build()
+        );
+
+        assertThat(service.groupIds(transactions)).containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    @Test
+    void refresh_copiesAggregatedTotalsToHeaders() {
+        var group = group(10L);
+        when(installmentGroupRepository.findAllById(Set.of(10L))).thenReturn(List.of(group));
+        when(transactionRepository.summarizeInstallmentGroups(List.of(10L))).thenReturn(List.of(
+                new InstallmentGroupAggregate(10L, 3L, new BigDecimal("300.00"), 1L, new BigDecimal("100.00"),
+                        LocalDate.of(2025, 1, 15), LocalDate.of(2025, 3, 15))
+        ));
+
+        service.refresh(Set.of(10L));
+
+        assertThat(group.getInstallmentCount()).isEqualTo(3);
+        assertThat(group.getTotalAmount()).isEqualByComparingTo("300.00");
+        assertThat(group.getPaidInstallments()).isEqualTo(1);
+        assertThat(group.getTotalPaid()).isEqualByComparingTo("100.00");
+        assertThat(group.getFirstInstallmentDate()).isEqualTo(LocalDate.of(2025, 1, 15));
+        assertThat(group.getLastInstallmentDate()).isEqualTo(LocalDate.of(2025, 3, 15));
+        verify(installmentGroupRepository).saveAll(List.of(group));
+    }
+
+    @Test
+    void refresh_whenNoInstallmentsLeft_deletesHeader() {
+        var group = group(10L);
+        when(installmentGroupRepository.findAllById(Set.of(10L))).thenReturn(List.of(group));
+        when(transactionRepository.summarizeInstallmentGroups(List.of(10L))).thenReturn(List.of());
+
+        service.refresh(Set.of(10L));
+
+        verify(installmentGroupRepository).delete(group);
+        verify(installmentGroupRepository).saveAll(List.of());
+    }
+
+    @Test
+    void refresh_holdsAccountLockUntilTransactionCompletes() {
+        var group = group(10L);
+        when(installmentGroupRepository.findAllById(Set.of(10L))).thenReturn(List.of(group));
+        when(transactionRepository.summarizeInstallmentGroups(List.of(10L))).thenReturn(List.of());
+
+        service.refresh(Set.of(10L));
+
+        assertThat(accountLockService.transactionStripeFor(ACCOUNT_ID).isHeldByCurrentThread()).isTrue();
+    }
+
+    @Test
+    void refresh_withoutGroups_doesNothing() {
+        service.refresh(Set.of());
+
+        verifyNoInteractions(installmentGroupRepository, transactionRepository);
+    }
+
+    private InstallmentGroup group(Long id) {
+        return InstallmentGroup.builder()
+                .id(id)
+                .account(account)
+                .description("Laptop")
+                .totalInstallments(3)
+                .build();
+    }
+}
@@ -9,30 +9,45 @@ import com.relyon.credflow.exception.ResourceNotFoundException;
 import com.relyon.credflow.model.account.Account;
 import com.relyon.credflow.model.category.Category;
 import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.transaction.InstallmentGroup;
 import com.relyon.credflow.model.transaction.InstallmentGroupRequestDTO;
 import com.relyon.credflow.model.transaction.Transaction;
 import com.relyon.credflow.model.transaction.TransactionType;
 import com.relyon.credflow.repository.CategoryRepository;
 import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.InstallmentBatchRepository;
+import com.relyon.credflow.repository.InstallmentGroupRepository;
 import com.relyon.credflow.repository.TransactionRepository;
 import com.relyon.credflow.repository.UserRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 @ExtendWith(MockitoExtension.class)
 class InstallmentGroupServiceTest {
 
+    private static final Long GROUP_ID = 42L;
+
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private InstallmentGroupRepository installmentGroupRepository;
+
     @Mock
     private CategoryRepository categoryRepository;
 
@@ -45,6 +60,15 @@ class InstallmentGroupServiceTest {
     @Mock
     private LocalizedMessageTranslationService translationService;
 
+    @Mock
+    private TransactionLedgerService transactionLedgerService;
+
+    @Mock
+    private InstallmentBatchRepository installmentBatchRepository;
+
+    @Mock
+    private AuditorAware<Long> auditorAware;
+
     @InjectMocks
     private InstallmentGroupService installmentGroupService;
 
@@ -65,23 +89,23 @@ class InstallmentGroupServiceTest {
 
         when(categoryRepository.findByIdAndAccountId(categoryId, accountId))
                 .thenReturn(Optional.of(category));
+        when(installmentGroupRepository.save(any(InstallmentGroup.class))).thenAnswer(this::assignGroupId);
 
-        var captor = ArgumentCaptor.forClass(Transaction.class);
-        when(transactionRepository.save(captor.capture())).thenAnswer(i -> i.getArgument(0));
-
-        var savedTransactions = List.of(
-                Transaction.builder().id(1L).value(new BigDecimal("100.00")).totalInstallments(12).build(),
-                Transaction.builder().id(2L).value(new BigDecimal("100.00")).totalInstallments(12).build()
-        );
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(any(), eq(accountId)))
-                .thenReturn(savedTransactions);
+        when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of(7L));
 
         var result = installmentGroupService.createInstallmentGroup(request, accountId);
 
-        verify(transactionRepository, times(12)).save(any(Transaction.class));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(installmentBatchRepository).insertGroup(captor.capture(), eq(7L));
+        verifyNoInteractions(transactionRepository);
 
-        var savedInstallments = captor.getAllValues();
+        var savedInstallments = captor.getValue();
         assertThat(savedInstallments).hasSize(12);
+        assertThat(result.getInstallments()).hasSize(12);
+        assertThat(result.getInstallmentGroupId()).isEqualTo(GROUP_ID);
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("1200.00");
+        assertThat(result.getPendingInstallments()).isEqualTo(12);
 
         assertThat(savedInstallments.getFirst().getValue()).isEqualByComparingTo("100.00");
         assertThat(savedInstallments.getFirst().getCurrentInstallment()).isEqualTo(1);
@@ -91,8 +115,13 @@ class InstallmentGroupServiceTest {
         assertThat(savedInstallments.get(11).getCurrentInstallment()).isEqualTo(12);
         assertThat(savedInstallments.get(11).getDate()).isEqualTo(LocalDate.of(2025, 12, 15));
 
-        assertThat(savedInstallments.getFirst().getInstallmentGroupId())
-                .isEqualTo(savedInstallments.get(11).getInstallmentGroupId());
+        assertThat(savedInstallments).allMatch(installment -> installment.getInstallmentGroup().getId().equals(GROUP_ID));
+
+        var groupCaptor = ArgumentCaptor.forClass(InstallmentGroup.class);
+        verify(installmentGroupRepository).save(groupCaptor.capture());
+        assertThat(groupCaptor.getValue().getDescription()).isEqualTo("Laptop Purchase");
+        assertThat(groupCaptor.getValue().getInstallmentCount()).isEqualTo(12);
+        assertThat(groupCaptor.getValue().getLastInstallmentDate()).isEqualTo(LocalDate.of(2025, 12, 15));
     }
 
     @Test
@@ -113,7 +142,7 @@ class InstallmentGroupServiceTest {
                 .isInstanceOf(ResourceNotFoundException.class);
 
         verify(categoryRepository).findByIdAndAccountId(categoryId, accountId);
-        verifyNoInteractions(transactionRepository);
+        verifyNoInteractions(transactionRepository, installmentGroupRepository);
     }
 
     @Test
@@ -138,28 +167,24 @@ class InstallmentGroupServiceTest {
                 .thenReturn(Optional.of(category));
         when(creditCardRepository.findByIdAndAccountId(creditCardId, accountId))
                 .thenReturn(Optional.of(creditCard));
-
-        var captor = ArgumentCaptor.forClass(Transaction.class);
-        when(transactionRepository.save(captor.capture())).thenAnswer(i -> i.getArgument(0));
-
-        var savedTransactions = List.of(
-                Transaction.builder().id(1L).value(new BigDecimal("100.00")).totalInstallments(6).build(),
-                Transaction.builder().id(2L).value(new BigDecimal("100.00")).totalInstallments(6).build()
-        );
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(any(), eq(accountId)))
-                .thenReturn(savedTransactions);
+        when(installmentGroupRepository.save(any(InstallmentGroup.class))).thenAnswer(this::assignGroupId);
 
         installmentGroupService.createInstallmentGroup(request, accountId);
 
-        var savedInstallments = captor.getAllValues();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(installmentBatchRepository).insertGroup(captor.capture(), isNull());
+        verify(transactionLedgerService).recordCreated(captor.getValue());
+
+        var savedInstallments = captor.getValue();
         assertThat(savedInstallments).hasSize(6);
         assertThat(savedInstallments.getFirst().getCreditCard()).isEqualTo(creditCard);
     }
 
     @Test
-    void getInstallmentGroup_whenGroupExists_shouldReturnSummary() {
-        var installmentGroupId = "test-group-id";
+    void getInstallmentGroup_whenGroupExists_shouldReturnHeaderTotals() {
         var accountId = 1L;
+        var group = group(3, 2, "200.00", 1, "100.00");
 
         var transactions = List.of(
                 Transaction.builder()
@@ -168,7 +193,7 @@ class InstallmentGroupServiceTest {
                         .value(new BigDecimal("100.00"))
                         .currentInstallment(1)
                         .totalInstallments(3)
-                        .installmentGroupId(installmentGroupId)
+                        .installmentGroup(group)
                         .wasEditedAfterImport(false)
                         .build(),
                 Transaction.builder()
@@ -177,91 +202,127 @@ class InstallmentGroupServiceTest {
                         .value(new BigDecimal("100.00"))
                         .currentInstallment(2)
                         .totalInstallments(3)
-                        .installmentGroupId(installmentGroupId)
+                        .installmentGroup(group)
                         .wasEditedAfterImport(true)
                         .build()
         );
 
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.of(group));
+        when(transactionRepository.findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId))
                 .thenReturn(transactions);
 
-        var result = installmentGroupService.getInstallmentGroup(installmentGroupId, accountId);
+        var result = installmentGroupService.getInstallmentGroup(GROUP_ID, accountId);
 
-        assertThat(result.getInstallmentGroupId()).isEqualTo(installmentGroupId);
+        assertThat(result.getInstallmentGroupId()).isEqualTo(GROUP_ID);
+        assertThat(result.getDescription()).isEqualTo("Test");
         assertThat(result.getTotalInstallments()).isEqualTo(3);
         assertThat(result.getPaidInstallments()).isEqualTo(1);
         assertThat(result.getPendingInstallments()).isEqualTo(2);
         assertThat(result.getTotalAmount()).isEqualByComparingTo("200.00");
         assertThat(result.getTotalPaid()).isEqualByComparingTo("100.00");
+        assertThat(result.getInstallments()).extracting(installment -> installment.getInstallmentGroupId())
+                .containsOnly(GROUP_ID);
     }
 
     @Test
     void getInstallmentGroup_whenGroupNotFound_shouldThrowException() {
-        var installmentGroupId = "non-existent";
         var accountId = 1L;
 
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
-                .thenReturn(List.of());
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> installmentGroupService.getInstallmentGroup(installmentGroupId, accountId))
+        assertThatThrownBy(() -> installmentGroupService.getInstallmentGroup(GROUP_ID, accountId))
                 .isInstanceOf(ResourceNotFoundException.class);
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
-    void deleteInstallmentGroup_whenGroupExists_shouldDeleteAllInstallments() {
-        var installmentGroupId = "test-group-id";
+    void deleteInstallmentGroup_whenGroupExists_shouldDeleteAllInstallmentsAndHeader() {
         var accountId = 1L;
+        var group = group(3, 3, "300.00", 0, "0");
 
         var transactions = List.of(
-                Transaction.builder().id(1L).installmentGroupId(installmentGroupId).build(),
-                Transaction.builder().id(2L).installmentGroupId(installmentGroupId).build(),
-                Transaction.builder().id(3L).installmentGroupId(installmentGroupId).build()
+                Transaction.builder().id(1L).installmentGroup(group).build(),
+                Transaction.builder().id(2L).installmentGroup(group).build(),
+                Transaction.builder().id(3L).installmentGroup(group).build()
         );
 
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.of(group));
+        when(transactionRepository.findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId))
                 .thenReturn(transactions);
 
-        installmentGroupService.deleteInstallmentGroup(installmentGroupId, accountId);
+        installmentGroupService.deleteInstallmentGroup(GROUP_ID, accountId);
 
         verify(transactionRepository).deleteById(1L);
         verify(transactionRepository).deleteById(2L);
         verify(transactionRepository).deleteById(3L);
+        verify(installmentGroupRepository).delete(group);
+        verify(transactionLedgerService).recordDeleted(transactions);
     }
 
     @Test
-    void updateInstallmentGroupDescription_whenGroupExists_shouldUpdateAllDescriptions() {
-        var installmentGroupId = "test-group-id";
+    void updateInstallmentGroupDescription_whenGroupExists_shouldUpdateHeaderAndInstallments() {
         var accountId = 1L;
         var newDescription = "Updated Description";
+        var group = group(2, 2, "200.00", 0, "0");
 
         var transaction1 = Transaction.builder()
                 .id(1L)
                 .description("Old")
-                .installmentGroupId(installmentGroupId)
+                .installmentGroup(group)
                 .value(new BigDecimal("100"))
                 .totalInstallments(2)
                 .build();
         var transaction2 = Transaction.builder()
                 .id(2L)
                 .description("Old")
-                .installmentGroupId(installmentGroupId)
+                .installmentGroup(group)
                 .value(new BigDecimal("100"))
                 .totalInstallments(2)
                 .build();
 
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.of(group));
+        when(installmentGroupRepository.save(group)).thenReturn(group);
+        when(transactionRepository.findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId))
                 .thenReturn(List.of(transaction1, transaction2));
 
-        installmentGroupService.updateInstallmentGroupDescription(installmentGroupId, accountId, newDescription);
+        var result = installmentGroupService.updateInstallmentGroupDescription(GROUP_ID, accountId, newDescription);
 
+        assertThat(group.getDescription()).isEqualTo(newDescription);
         assertThat(transaction1.getDescription()).isEqualTo(newDescription);
         assertThat(transaction2.getDescription()).isEqualTo(newDescription);
-        verify(transactionRepository, times(2)).save(any(Transaction.class));
+        assertThat(result.getDescription()).isEqualTo(newDescription);
+        verify(transactionRepository).updateInstallmentGroupDescription(
+                eq(GROUP_ID), eq(accountId), eq(newDescription), any(), isNull());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(transactionRepository, times(1)).findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId);
+    }
+
+    @Test
+    void updateInstallmentGroupDescription_shouldRecordChangeThroughLedger() {
+        var accountId = 1L;
+        var group = group(1, 1, "100.00", 0, "0");
+        var transaction = Transaction.builder()
+                .id(1L)
+                .description("Old")
+                .installmentGroup(group)
+                .value(new BigDecimal("100"))
+                .totalInstallments(1)
+                .build();
+        var installments = List.of(transaction);
+        var before = new TransactionLedgerService.Snapshot(List.of(), List.of(), Set.of(), Set.of());
+
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.of(group));
+        when(installmentGroupRepository.save(group)).thenReturn(group);
+        when(transactionRepository.findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId)).thenReturn(installments);
+        when(transactionLedgerService.snapshot(installments)).thenReturn(before);
+
+        installmentGroupService.updateInstallmentGroupDescription(GROUP_ID, accountId, "Renamed");
+
+        verify(transactionLedgerService).recordChanges(before, installments);
     }
 
     @Test
     void updateInstallmentGroup_whenValidRequest_shouldUpdateAllInstallments() {
-        var installmentGroupId = "test-group-id";
         var accountId = 1L;
         var categoryId = 10L;
         var newCategoryId = 20L;
@@ -269,13 +330,14 @@ class InstallmentGroupServiceTest {
         var account = Account.builder().id(accountId).build();
         var oldCategory = Category.builder().id(categoryId).account(account).build();
         var newCategory = Category.builder().id(newCategoryId).account(account).build();
+        var group = group(3, 2, "200.00", 1, "100.00");
 
         var transaction1 = Transaction.builder()
                 .id(1L)
                 .description("Old Description")
                 .value(new BigDecimal("100.00"))
                 .category(oldCategory)
-                .installmentGroupId(installmentGroupId)
+                .installmentGroup(group)
                 .totalInstallments(3)
                 .build();
         var transaction2 = Transaction.builder()
@@ -283,7 +345,7 @@ class InstallmentGroupServiceTest {
                 .description("Old Description")
                 .value(new BigDecimal("100.00"))
                 .category(oldCategory)
-                .installmentGroupId(installmentGroupId)
+                .installmentGroup(group)
                 .totalInstallments(3)
                 .build();
 
@@ -294,13 +356,14 @@ class InstallmentGroupServiceTest {
         request.setTotalInstallments(3);
         request.setFirstInstallmentDate(LocalDate.now());
 
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.of(group));
+        when(installmentGroupRepository.save(group)).thenReturn(group);
         when(categoryRepository.findByIdAndAccountId(newCategoryId, accountId))
                 .thenReturn(Optional.of(newCategory));
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
-                .thenReturn(List.of(transaction1, transaction2))
+        when(transactionRepository.findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId))
                 .thenReturn(List.of(transaction1, transaction2));
 
-        installmentGroupService.updateInstallmentGroup(installmentGroupId, accountId, request);
+        var result = installmentGroupService.updateInstallmentGroup(GROUP_ID, accountId, request);
 
         assertThat(transaction1.getDescription()).isEqualTo("Updated Description");
         assertThat(transaction1.getValue()).isEqualByComparingTo("200.00");
@@ -310,12 +373,19 @@ class InstallmentGroupServiceTest {
         assertThat(transaction2.getValue()).isEqualByComparingTo("200.00");
         assertThat(transaction2.getCategory()).isEqualTo(newCategory);
 
-        verify(transactionRepository, times(2)).save(any(Transaction.class));
+        assertThat(group.getCategory()).isEqualTo(newCategory);
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("400.00");
+        assertThat(result.getTotalPaid()).isEqualByComparingTo("200.00");
+
+        verify(transactionRepository).updateInstallmentGroup(eq(GROUP_ID), eq(accountId),
+                eq("Updated Description"), argThat(value -> value.compareTo(new BigDecimal("200.00")) == 0),
+                eq(newCategory), isNull(), any(), isNull());
+        verify(installmentBatchRepository).replaceResponsibleUsers(GROUP_ID, List.of(transaction1, transaction2));
+        verify(transactionRepository, never()).save(any(Transaction.class));
     }
 
     @Test
     void updateInstallmentGroup_withCreditCard_shouldUpdateAllInstallments() {
-        var installmentGroupId = "test-group-id";
         var accountId = 1L;
         var categoryId = 10L;
         var creditCardId = 5L;
@@ -323,13 +393,14 @@ class InstallmentGroupServiceTest {
         var account = Account.builder().id(accountId).build();
         var category = Category.builder().id(categoryId).account(account).build();
         var creditCard = CreditCard.builder().id(creditCardId).build();
+        var group = group(2, 1, "100.00", 0, "0");
 
         var transaction1 = Transaction.builder()
                 .id(1L)
                 .description("Old")
                 .value(new BigDecimal("100.00"))
                 .category(category)
-                .installmentGroupId(installmentGroupId)
+                .installmentGroup(group)
                 .totalInstallments(2)
                 .build();
 
@@ -341,48 +412,47 @@ class InstallmentGroupServiceTest {
         request.setTotalInstallments(2);
         request.setFirstInstallmentDate(LocalDate.now());
 
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.of(group));
+        when(installmentGroupRepository.save(group)).thenReturn(group);
         when(categoryRepository.findByIdAndAccountId(categoryId, accountId))
                 .thenReturn(Optional.of(category));
         when(creditCardRepository.findByIdAndAccountId(creditCardId, accountId))
                 .thenReturn(Optional.of(creditCard));
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
-                .thenReturn(List.of(transaction1))
+        when(transactionRepository.findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId))
                 .thenReturn(List.of(transaction1));
 
-        installmentGroupService.updateInstallmentGroup(installmentGroupId, accountId, request);
+        installmentGroupService.updateInstallmentGroup(GROUP_ID, accountId, request);
 
         assertThat(transaction1.getCreditCard()).isEqualTo(creditCard);
         assertThat(transaction1.getValue()).isEqualByComparingTo("200.00");
+        assertThat(group.getCreditCard()).isEqualTo(creditCard);
     }
 
     @Test
     void updateInstallmentGroup_whenGroupNotFound_shouldThrowException() {
-        var installmentGroupId = "non-existent";
         var accountId = 1L;
 
         var request = new InstallmentGroupRequestDTO();
         request.setTotalAmount(new BigDecimal("600.00"));
         request.setTotalInstallments(3);
 
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
-                .thenReturn(List.of());
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> installmentGroupService.updateInstallmentGroup(installmentGroupId, accountId, request))
+        assertThatThrownBy(() -> installmentGroupService.updateInstallmentGroup(GROUP_ID, accountId, request))
                 .isInstanceOf(ResourceNotFoundException.class);
 
-        verify(transactionRepository).findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId);
-        verifyNoInteractions(categoryRepository);
+        verifyNoInteractions(categoryRepository, transactionRepository);
     }
 
     @Test
     void updateInstallmentGroup_whenCategoryNotFound_shouldThrowException() {
-        var installmentGroupId = "test-group-id";
         var accountId = 1L;
         var categoryId = 999L;
+        var group = group(3, 1, "100.00", 0, "0");
 
         var transaction1 = Transaction.builder()
                 .id(1L)
-                .installmentGroupId(installmentGroupId)
+                .installmentGroup(group)
                 .build();
 
         var request = new InstallmentGroupRequestDTO();
@@ -390,95 +460,49 @@ class InstallmentGroupServiceTest {
         request.setCategoryId(categoryId);
         request.setTotalInstallments(3);
 
-        when(transactionRepository.findByInstallmentGroupIdAndAccountId(installmentGroupId, accountId))
+        when(installmentGroupRepository.findByIdAndAccountId(GROUP_ID, accountId)).thenReturn(Optional.of(group));
+        when(transactionRepository.findByInstallmentGroupIdAndAccountId(GROUP_ID, accountId))
                 .thenReturn(List.of(transaction1));
         when(categoryRepository.findByIdAndAccountId(categoryId, accountId))
                 .thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> installmentGroupService.updateInstallmentGroup(installmentGroupId, accountId, request))
+        assertThatThrownBy(() -> installmentGroupService.updateInstallmentGroup(GROUP_ID, accountId, request))
                 .isInstanceOf(ResourceNotFoundException.class);
 
         verify(categoryRepository).findByIdAndAccountId(categoryId, accountId);
+        verify(installmentGroupRepository, never()).save(any());
     }
 
     @Test
-    void getAllInstallmentGroups_whenGroupsExist_shouldReturnSummaries() {
+    void getAllInstallmentGroups_whenGroupsExist_shouldReturnSummariesFromHeaders() {
         var accountId = 1L;
-        var groupId1 = "group-1";
-        var groupId2 = "group-2";
+        var pageable = PageRequest.of(0, 20, Sort.by(Sort.Order.desc("firstInstallmentDate"), Sort.Order.desc("id")));
 
         var category = Category.builder().id(1L).name("Electronics").build();
         var creditCard = CreditCard.builder().id(1L).nickname("Visa").build();
 
-        var transactions = List.of(
-                Transaction.builder()
-                        .id(1L)
-                        .description("Laptop")
-                        .value(new BigDecimal("100.00"))
-                        .date(LocalDate.of(2025, 1, 15))
-                        .currentInstallment(1)
-                        .totalInstallments(3)
-                        .installmentGroupId(groupId1)
-                        .wasEditedAfterImport(true)
-                        .category(category)
-                        .creditCard(creditCard)
-                        .build(),
-                Transaction.builder()
-                        .id(2L)
-                        .description("Laptop")
-                        .value(new BigDecimal("100.00"))
-                        .date(LocalDate.of(2025, 2, 15))
-                        .currentInstallment(2)
-                        .totalInstallments(3)
-                        .installmentGroupId(groupId1)
-                        .wasEditedAfterImport(false)
-                        .category(category)
-                        .creditCard(creditCard)
-                        .build(),
-                Transaction.builder()
-                        .id(3L)
-                        .description("Laptop")
-                        .value(new BigDecimal("100.00"))
-                        .date(LocalDate.of(2025, 3, 15))
-                        .currentInstallment(3)
-                        .totalInstallments(3)
-                        .installmentGroupId(groupId1)
-                        .wasEditedAfterImport(false)
-                        .category(category)
-                        .creditCard(creditCard)
-                        .build(),
-                Transaction.builder()
-                        .id(4L)
-                        .description("Phone")
-                        .value(new BigDecimal("50.00"))
-                        .date(LocalDate.of(2025, 2, 1))
-                        .currentInstallment(1)
-                        .totalInstallments(2)
-                        .installmentGroupId(groupId2)
-                        .wasEditedAfterImport(false)
-                        .category(category)
-                        .build(),
-                Transaction.builder()
-                        .id(5L)
-                        .description("Phone")
-                        .value(new BigDecimal("50.00"))
-                        .date(LocalDate.of(2025, 3, 1))
-                        .currentInstallment(2)
-                        .totalInstallments(2)
-                        .installmentGroupId(groupId2)
-                        .wasEditedAfterImport(false)
-                        .category(category)
-                        .build()
-        );
+        var laptop = group(3, 3, "300.00", 1, "100.00");
+        laptop.setDescription("Laptop");
+        laptop.setCategory(category);
+        laptop.setCreditCard(creditCard);
+        laptop.setFirstInstallmentDate(LocalDate.of(2025, 1, 15));
+        laptop.setLastInstallmentDate(LocalDate.of(2025, 3, 15));
 
-        when(transactionRepository.findAllInstallmentsByAccountId(accountId))
-                .thenReturn(transactions);
+        var phone = group(2, 2, "100.00", 0, "0");
+        phone.setId(43L);
+        phone.setDescription("Phone");
+        phone.setCategory(category);
+
+        when(installmentGroupRepository.findAllByAccountId(accountId, pageable))
+                .thenReturn(new PageImpl<>(List.of(laptop, phone), pageable, 2));
 
-        var result = installmentGroupService.getAllInstallmentGroups(accountId);
+        var result = installmentGroupService.getAllInstallmentGroups(accountId, 0, 20);
 
-        assertThat(result).hasSize(2);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).hasSize(2);
 
-        var group1 = result.stream().filter(g -> g.getInstallmentGroupId().equals(groupId1)).findFirst().orElseThrow();
+        var group1 = result.getContent().getFirst();
+        assertThat(group1.getInstallmentGroupId()).isEqualTo(GROUP_ID);
         assertThat(group1.getDescription()).isEqualTo("Laptop");
         assertThat(group1.getTotalAmount()).isEqualByComparingTo("300.00");
         assertThat(group1.getTotalInstallments()).isEqualTo(3);
@@ -491,24 +515,44 @@ class InstallmentGroupServiceTest {
         assertThat(group1.getCategoryName()).isEqualTo("Electronics");
         assertThat(group1.getCreditCardNickname()).isEqualTo("Visa");
 
-        var group2 = result.stream().filter(g -> g.getInstallmentGroupId().equals(groupId2)).findFirst().orElseThrow();
+        var group2 = result.getContent().get(1);
+        assertThat(group2.getInstallmentGroupId()).isEqualTo(43L);
         assertThat(group2.getDescription()).isEqualTo("Phone");
         assertThat(group2.getTotalAmount()).isEqualByComparingTo("100.00");
-        assertThat(group2.getTotalInstallments()).isEqualTo(2);
         assertThat(group2.getPaidInstallments()).isEqualTo(0);
         assertThat(group2.getPendingInstallments()).isEqualTo(2);
         assertThat(group2.getCreditCardNickname()).isNull();
+        verifyNoInteractions(transactionRepository);
     }
 
     @Test
-    void getAllInstallmentGroups_whenNoGroups_shouldReturnEmptyList() {
+    void getAllInstallmentGroups_whenNoGroups_shouldReturnEmptyPage() {
         var accountId = 1L;
 
-        when(transactionRepository.findAllInstallmentsByAccountId(accountId))
-                .thenReturn(List.of());
+        when(installmentGroupRepository.findAllByAccountId(eq(accountId), any(PageRequest.class)))
+                .thenReturn(Page.empty());
+
+        var result = installmentGroupService.getAllInstallmentGroups(accountId, 0, 20);
 
-        var result = installmentGroupService.getAllInstallmentGroups(accountId);
+        assertThat(result.getContent()).isEmpty();
+    }
+
+    private InstallmentGroup group(int totalInstallments, int installmentCount, String totalAmount,
+                                   int paidInstallments, String totalPaid) {
+        return InstallmentGroup.builder()
+                .id(GROUP_ID)
+                .description("Test")
+                .totalInstallments(totalInstallments)
+                .installmentCount(installmentCount)
+                .totalAmount(new BigDecimal(totalAmount))
+                .paidInstallments(paidInstallments)
+                .totalPaid(new BigDecimal(totalPaid))
+                .build();
+    }
 
-        assertThat(result).isEmpty();
+    private InstallmentGroup assignGroupId(InvocationOnMock invocation) {
+        InstallmentGroup group = invocation.getArgument(0);
+        group.setId(GROUP_ID);
+        return group;
     }
 }
@@ -0,0 +1,129 @@
+package com.relyon.credflow.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.credit_card.CreditCard;
+import com.relyon.credflow.model.credit_card.CreditCardCycleObligationDTO;
+import com.relyon.credflow.model.credit_card.CreditCardObligationBucket;
+import com.relyon.credflow.model.transaction.Transaction;
+import com.relyon.credflow.model.transaction.TransactionType;
+import com.relyon.credflow.repository.CreditCardRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InstallmentObligationServiceTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+    private static final Long CARD_ID = 5L;
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 20);
+    private static final LocalDate CURRENT_CYCLE_START = LocalDate.of(2025, 1, 16);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private CreditCardRepository creditCardRepository;
+
+    @InjectMocks
+    private InstallmentObligationService service;
+
+    @Test
+    void findObligations_bucketsInstallmentsByBillingCycleFromTheOpenCycle() {
+        when(creditCardRepository.findAllByAccountId(ACCOUNT_ID)).thenReturn(List.of(card()));
+        when(transactionRepository.sumInstallmentObligations(ACCOUNT_ID, CURRENT_CYCLE_START)).thenReturn(List.of(
+                new CreditCardObligationBucket(CARD_ID, 2025, 1, 1, new BigDecimal("100.00"), 1L),
+                new CreditCardObligationBucket(CARD_ID, 2025, 2, 0, new BigDecimal("50.00"), 1L),
+                new CreditCardObligationBucket(CARD_ID, 2025, 3, 0, new BigDecimal("100.00"), 1L)
+        ));
+
+        var result = onToday(() -> service.findObligations(ACCOUNT_ID, 3));
+
+        assertThat(result).hasSize(1);
+        var obligation = result.getFirst();
+        assertThat(obligation.getTotalCommitted()).isEqualByComparingTo("250.00");
+        assertThat(obligation.getCycles()).extracting(CreditCardCycleObligationDTO::getCycleStartDate)
+                .containsExactly(CURRENT_CYCLE_START, LocalDate.of(2025, 2, 16), LocalDate.of(2025, 3, 16));
+        assertThat(obligation.getCycles()).extracting(CreditCardCycleObligationDTO::getInstallmentCount)
+                .containsExactly(2L, 1L, 0L);
+        assertThat(obligation.getCycles().getFirst().getCommittedAmount()).isEqualByComparingTo("150.00");
+        assertThat(obligation.getCycles().getFirst().getDueDate()).isEqualTo(LocalDate.of(2025, 2, 25));
+    }
+
+    @Test
+    void findObligations_servesRepeatedRequestsFromCache() {
+        when(creditCardRepository.findAllByAccountId(ACCOUNT_ID)).thenReturn(List.of(card()));
+        when(transactionRepository.sumInstallmentObligations(ACCOUNT_ID, CURRENT_CYCLE_START)).thenReturn(List.of());
+
+        onToday(() -> service.findObligations(ACCOUNT_ID, 12));
+        var result = onToday(() -> service.findObligations(ACCOUNT_ID, CARD_ID, 6));
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getCycles()).hasSize(6);
+        verify(transactionRepository, times(1)).sumInstallmentObligations(ACCOUNT_ID, CURRENT_CYCLE_START);
+    }
+
+    @Test
+    void evict_whenInstallmentChanged_reloadsSchedule() {
+        when(creditCardRepository.findAllByAccountId(ACCOUNT_ID)).thenReturn(List.of(card()));
+        when(transactionRepository.sumInstallmentObligations(ACCOUNT_ID, CURRENT_CYCLE_START)).thenReturn(List.of());
+
+        onToday(() -> service.findObligations(ACCOUNT_ID, 12));
+        service.evict(List.of(transaction(TransactionType.ONE_TIME)));
+        onToday(() -> service.findObligations(ACCOUNT_ID, 12));
+        service.evict(List.of(transaction(TransactionType.INSTALLMENT)));
+        onToday(() -> service.findObligations(ACCOUNT_ID, 12));
+
+        verify(transactionRepository, times(2)).sumInstallmentObligations(ACCOUNT_ID, CURRENT_CYCLE_START);
+    }
+
+    @Test
+    void findObligations_withUnknownCard_returnsEmpty() {
+        when(creditCardRepository.findAllByAccountId(ACCOUNT_ID)).thenReturn(List.of());
+
+        var result = onToday(() -> service.findObligations(ACCOUNT_ID, 99L, 12));
+
+        assertThat(result).isEmpty();
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void findObligations_withInvalidCycles_throwsException() {
+        assertThatThrownBy(() -> service.findObligations(ACCOUNT_ID, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("creditCard.obligations.invalidCycles");
+        assertThatThrownBy(() -> service.findObligations(ACCOUNT_ID, 37))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(creditCardRepository, transactionRepository);
+    }
+
+    private <T> T onToday(Supplier<T> call) {
+        try (MockedStatic<LocalDate> mockedStatic = mockStatic(LocalDate.class, CALLS_REAL_METHODS)) {
+            mockedStatic.when(LocalDate::now).thenReturn(TODAY);
+            return call.get();
+        }
+    }
+
+    private CreditCard card() {
+        return CreditCard.builder().id(CARD_ID).nickname("Main").closingDay(15).dueDay(25).build();
+    }
+
+    private Transaction transaction(TransactionType type) {
+        return Transaction.builder()
+                .account(Account.builder().id(ACCOUNT_ID).build())
+                .transactionType(type)
+                .build();
+    }
+}
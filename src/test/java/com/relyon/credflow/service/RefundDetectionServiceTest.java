@@ -22,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +31,15 @@ class RefundDetectionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Spy
+    private AccountLockService accountLockService = new AccountLockService(null, "local", 8, 100);
+
+    @Mock
+    private ReversalReconciliationQueue reconciliationQueue;
+
+    @Mock
+    private TransactionLedgerService transactionLedgerService;
+
     @InjectMocks
     private RefundDetectionService service;
 
@@ -252,6 +262,80 @@ class RefundDetectionServiceTest {
         verify(transactionRepository, times(2)).save(any(Transaction.class));
     }
 
+    @Test
+    void detectAndLinkReversal_acquiresLockForTransactionAccount() {
+        var transaction = createTransaction(1L, BigDecimal.valueOf(-100), LocalDate.now());
+
+        when(transactionRepository.findPotentialReversals(
+                anyLong(), anyLong(), any(), any(), any(), any()
+        )).thenReturn(List.of());
+
+        service.detectAndLinkReversal(transaction);
+
+        verify(accountLockService).withAccountLock(eq("reversal-detection"), eq(100L), any());
+    }
+
+    @Test
+    void detectAndLinkReversal_whenSkipped_doesNotAcquireLock() {
+        var transaction = createTransaction(1L, BigDecimal.valueOf(100), LocalDate.now());
+
+        service.detectAndLinkReversal(transaction);
+
+        verifyNoInteractions(accountLockService);
+    }
+
+    @Test
+    void detectAndLinkReversal_whenAsyncMode_enqueuesWithoutSearching() {
+        var transaction = createTransaction(1L, BigDecimal.valueOf(-100), LocalDate.now());
+        when(reconciliationQueue.isAsync()).thenReturn(true);
+
+        var result = service.detectAndLinkReversal(transaction);
+
+        assertTrue(result.isEmpty());
+        verify(reconciliationQueue).enqueue(100L, 1L);
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    void detectAndLinkReversals_linksPairsAndSavesInOneBatch() {
+        var transaction = createTransaction(1L, BigDecimal.valueOf(-100), LocalDate.now());
+        transaction.setDescription("Store Purchase");
+        var positive = createTransaction(3L, BigDecimal.valueOf(50), LocalDate.now());
+
+        var reversal = createTransaction(2L, BigDecimal.valueOf(100), LocalDate.now().plusDays(1));
+        reversal.setDescription("Store Purchase");
+
+        when(transactionRepository.findAllByAccountIdAndIdIn(100L, List.of(1L, 3L)))
+                .thenReturn(List.of(transaction, positive));
+        when(transactionRepository.findPotentialReversals(
+                eq(100L), eq(1L), any(), any(), any(), any()
+        )).thenReturn(List.of(reversal));
+
+        var linked = service.detectAndLinkReversals(100L, List.of(1L, 3L));
+
+        assertEquals(1, linked);
+        assertTrue(transaction.getIsReversal());
+        assertTrue(reversal.getIsReversal());
+        assertSame(reversal, transaction.getRelatedTransaction());
+        verify(transactionRepository).saveAll(List.of(transaction, reversal));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    void detectAndLinkReversals_whenNothingMatches_doesNotSave() {
+        var transaction = createTransaction(1L, BigDecimal.valueOf(-100), LocalDate.now());
+
+        when(transactionRepository.findAllByAccountIdAndIdIn(100L, List.of(1L))).thenReturn(List.of(transaction));
+        when(transactionRepository.findPotentialReversals(
+                anyLong(), anyLong(), any(), any(), any(), any()
+        )).thenReturn(List.of());
+
+        var linked = service.detectAndLinkReversals(100L, List.of(1L));
+
+        assertEquals(0, linked);
+        verify(transactionRepository, never()).saveAll(any());
+    }
+
     private Transaction createTransaction(Long id, BigDecimal value, LocalDate date) {
         var account = new Account();
         account.setId(100L);
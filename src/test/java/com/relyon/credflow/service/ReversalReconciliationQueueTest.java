@@ -0,0 +1,77 @@
+package com.relyon.credflow.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReversalReconciliationQueueTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isAsync_reflectsConfiguredMode() {
+        assertTrue(new ReversalReconciliationQueue("async").isAsync());
+        assertFalse(new ReversalReconciliationQueue("inline").isAsync());
+    }
+
+    @Test
+    void constructor_withUnknownMode_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ReversalReconciliationQueue("later"));
+    }
+
+    @Test
+    void enqueue_outsideTransaction_addsImmediatelyAndDeduplicates() {
+        var queue = new ReversalReconciliationQueue("async");
+
+        queue.enqueue(1L, 10L);
+        queue.enqueue(1L, 10L);
+        queue.enqueue(1L, 5L);
+        queue.enqueue(2L, 7L);
+
+        assertEquals(2, queue.pendingCount(1L));
+        assertEquals(Set.of(1L, 2L), queue.accountsWithPending());
+    }
+
+    @Test
+    void enqueue_insideTransaction_waitsForCommit() {
+        var queue = new ReversalReconciliationQueue("async");
+        TransactionSynchronizationManager.initSynchronization();
+
+        queue.enqueue(1L, 10L);
+
+        assertEquals(0, queue.pendingCount(1L));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, queue.pendingCount(1L));
+    }
+
+    @Test
+    void drain_returnsIdsInOrderUpToMaxSize() {
+        var queue = new ReversalReconciliationQueue("async");
+        queue.requeue(1L, List.of(30L, 10L, 20L));
+
+        assertEquals(List.of(10L, 20L), queue.drain(1L, 2));
+        assertEquals(List.of(30L), queue.drain(1L, 2));
+        assertTrue(queue.drain(1L, 2).isEmpty());
+        assertTrue(queue.accountsWithPending().isEmpty());
+    }
+
+    @Test
+    void drain_forUnknownAccount_returnsEmpty() {
+        var queue = new ReversalReconciliationQueue("async");
+
+        assertTrue(queue.drain(99L, 10).isEmpty());
+    }
+}
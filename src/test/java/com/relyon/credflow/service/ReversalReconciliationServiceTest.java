@@ -0,0 +1,192 @@
+package com.relyon.credflow.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import com.relyon.credflow.constant.BusinessConstants;
+import com.relyon.credflow.model.account.Account;
+import com.relyon.credflow.model.transaction.AccountTransactionActivity;
+import com.relyon.credflow.model.transaction.ReversalReconciliationState;
+import com.relyon.credflow.repository.AccountRepository;
+import com.relyon.credflow.repository.ReversalReconciliationStateRepository;
+import com.relyon.credflow.repository.TransactionRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class ReversalReconciliationServiceTest {
+
+    @Spy
+    private ReversalReconciliationQueue queue = new ReversalReconciliationQueue("async");
+
+    @Mock
+    private RefundDetectionService refundDetectionService;
+
+    @Mock
+    private ReversalReconciliationStateRepository stateRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @InjectMocks
+    private ReversalReconciliationService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+    }
+
+    @Test
+    void reconcileAccount_processesQueueInChunksAndAdvancesWatermark() {
+        queue.requeue(1L, List.of(1L, 2L, 3L));
+        var state = ReversalReconciliationState.builder().reconciledUntil(LocalDateTime.MIN).build();
+        when(refundDetectionService.detectAndLinkReversals(eq(1L), any())).thenReturn(1, 0);
+        when(stateRepository.findByAccountId(1L)).thenReturn(Optional.of(state));
+
+        var before = LocalDateTime.now();
+        var linked = service.reconcileAccount(1L);
+
+        assertEquals(1, linked);
+        verify(refundDetectionService).detectAndLinkReversals(1L, List.of(1L, 2L));
+        verify(refundDetectionService).detectAndLinkReversals(1L, List.of(3L));
+        verify(stateRepository).save(state);
+        assertEquals(0, queue.pendingCount(1L));
+        assertEquals(false, state.getReconciledUntil().isBefore(before));
+    }
+
+    @Test
+    void reconcileAccount_whenNoState_createsOne() {
+        var account = new Account();
+        account.setId(1L);
+        queue.requeue(1L, List.of(1L));
+        when(stateRepository.findByAccountId(1L)).thenReturn(Optional.empty());
+        when(accountRepository.getReferenceById(1L)).thenReturn(account);
+
+        service.reconcileAccount(1L);
+
+        var captor = ArgumentCaptor.forClass(ReversalReconciliationState.class);
+        verify(stateRepository).save(captor.capture());
+        assertSame(account, captor.getValue().getAccount());
+    }
+
+    @Test
+    void reconcileAccount_whenDetectionFails_requeuesChunkAndKeepsWatermark() {
+        queue.requeue(1L, List.of(1L, 2L));
+        when(refundDetectionService.detectAndLinkReversals(eq(1L), any())).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> service.reconcileAccount(1L));
+
+        assertEquals(2, queue.pendingCount(1L));
+        verify(stateRepository, never()).save(any());
+    }
+
+    @Test
+    void reconcilePending_whenInlineMode_doesNothing() {
+        var inlineQueue = new ReversalReconciliationQueue("inline");
+        var inlineService = new ReversalReconciliationService(
+                inlineQueue, refundDetectionService, stateRepository, transactionRepository, accountRepository);
+        inlineQueue.requeue(1L, List.of(1L));
+
+        inlineService.reconcilePending();
+
+        verifyNoInteractions(refundDetectionService, stateRepository);
+    }
+
+    @Test
+    void reconcilePending_continuesWithOtherAccountsWhenOneFails() {
+        queue.requeue(1L, List.of(10L));
+        queue.requeue(2L, List.of(20L));
+        when(refundDetectionService.detectAndLinkReversals(eq(1L), any())).thenThrow(new IllegalStateException("boom"));
+        when(refundDetectionService.detectAndLinkReversals(eq(2L), any())).thenReturn(0);
+        when(stateRepository.findByAccountId(2L)).thenReturn(Optional.of(new ReversalReconciliationState()));
+
+        service.reconcilePending();
+
+        verify(refundDetectionService).detectAndLinkReversals(2L, List.of(20L));
+        assertEquals(1, queue.pendingCount(1L));
+        assertEquals(0, queue.pendingCount(2L));
+    }
+
+    @Test
+    void recoverFromWatermarks_requeuesTransactionsUpdatedAfterWatermark() {
+        var account = new Account();
+        account.setId(1L);
+        var watermark = LocalDateTime.of(2025, 1, 1, 12, 0);
+        var state = ReversalReconciliationState.builder().account(account).reconciledUntil(watermark).build();
+        when(stateRepository.findAll()).thenReturn(List.of(state));
+        when(transactionRepository.findNonReversalActivityByAccount())
+                .thenReturn(List.of(new AccountTransactionActivity(1L, watermark.plusMinutes(1))));
+        when(transactionRepository.findNonReversalIdsUpdatedAfter(eq(1L), any())).thenReturn(List.of(5L, 6L));
+
+        service.recoverFromWatermarks();
+
+        verify(transactionRepository).findNonReversalIdsUpdatedAfter(1L, watermark.minusMinutes(5));
+        assertEquals(2, queue.pendingCount(1L));
+        verify(refundDetectionService, never()).detectAndLinkReversals(anyLong(), any());
+    }
+
+    @Test
+    void recoverFromWatermarks_withoutWatermark_requeuesOnlyTheSearchWindow() {
+        when(stateRepository.findAll()).thenReturn(List.of());
+        when(transactionRepository.findNonReversalActivityByAccount())
+                .thenReturn(List.of(new AccountTransactionActivity(2L, LocalDateTime.now().minusDays(1))));
+        when(transactionRepository.findNonReversalIdsUpdatedAfter(eq(2L), any())).thenReturn(List.of(7L, 8L, 9L));
+        var earliest = LocalDateTime.now().minusDays(BusinessConstants.Detection.REVERSAL_SEARCH_WINDOW_DAYS);
+
+        service.recoverFromWatermarks();
+
+        var since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(transactionRepository).findNonReversalIdsUpdatedAfter(eq(2L), since.capture());
+        assertFalse(since.getValue().isBefore(earliest));
+        assertTrue(since.getValue().isBefore(LocalDateTime.now().minusDays(BusinessConstants.Detection.REVERSAL_SEARCH_WINDOW_DAYS - 1)));
+        assertEquals(3, queue.pendingCount(2L));
+    }
+
+    @Test
+    void recoverFromWatermarks_withoutWatermark_skipsAccountsIdleSinceTheSearchWindow() {
+        when(stateRepository.findAll()).thenReturn(List.of());
+        when(transactionRepository.findNonReversalActivityByAccount())
+                .thenReturn(List.of(new AccountTransactionActivity(2L, LocalDateTime.of(2020, 1, 1, 12, 0))));
+
+        service.recoverFromWatermarks();
+
+        assertEquals(0, queue.pendingCount(2L));
+        verify(transactionRepository, never()).findNonReversalIdsUpdatedAfter(anyLong(), any());
+    }
+
+    @Test
+    void recoverFromWatermarks_skipsAccountsWithoutActivityAfterWatermark() {
+        var account = new Account();
+        account.setId(1L);
+        var watermark = LocalDateTime.of(2025, 1, 1, 12, 0);
+        var state = ReversalReconciliationState.builder().account(account).reconciledUntil(watermark).build();
+        when(stateRepository.findAll()).thenReturn(List.of(state));
+        when(transactionRepository.findNonReversalActivityByAccount())
+                .thenReturn(List.of(new AccountTransactionActivity(1L, watermark.minusHours(1))));
+
+        service.recoverFromWatermarks();
+
+        assertEquals(0, queue.pendingCount(1L));
+        verify(transactionRepository, never()).findNonReversalIdsUpdatedAfter(anyLong(), any());
+    }
+}
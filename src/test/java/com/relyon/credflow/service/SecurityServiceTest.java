@@ -7,11 +7,13 @@ import com.relyon.credflow.model.user.AuthenticatedUser;
 import com.relyon.credflow.model.user.UserRole;
 import com.relyon.credflow.repository.AccountRepository;
 import com.relyon.credflow.repository.UserRepository;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class SecurityServiceTest {
@@ -240,6 +242,22 @@ class SecurityServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void isPlatformAdmin_whenEmailIsConfigured_returnsTrue() {
+        ReflectionTestUtils.setField(securityService, "adminEmails", List.of(" TEST@example.com "));
+        var user = createAuthenticatedUser(1L, 10L, UserRole.MEMBER);
+
+        assertTrue(securityService.isPlatformAdmin(user));
+    }
+
+    @Test
+    void isPlatformAdmin_whenNoEmailsConfigured_returnsFalse() {
+        var user = createAuthenticatedUser(1L, 10L, UserRole.OWNER);
+
+        assertFalse(securityService.isPlatformAdmin(user));
+        assertFalse(securityService.isPlatformAdmin(null));
+    }
+
     private AuthenticatedUser createAuthenticatedUser(Long userId, Long accountId, UserRole role) {
         return new AuthenticatedUser(
                 userId,
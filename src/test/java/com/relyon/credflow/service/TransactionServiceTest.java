@@ -16,6 +16,7 @@ import com.relyon.credflow.model.transaction.TransactionType;
 import com.relyon.credflow.model.user.User;
 import com.relyon.credflow.repository.CreditCardRepository;
 import com.relyon.credflow.repository.DescriptionMappingRepository;
+import com.relyon.credflow.repository.InstallmentGroupRepository;
 import com.relyon.credflow.repository.TransactionRepository;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -50,12 +51,21 @@ class TransactionServiceTest {
     @Mock
     private CreditCardRepository creditCardRepository;
 
+    @Mock
+    private InstallmentGroupRepository installmentGroupRepository;
+
     @Mock
     private RefundDetectionService refundDetectionService;
 
     @Mock
     private LocalizedMessageTranslationService translationService;
 
+    @Mock
+    private DuplicateProbeIndex duplicateProbeIndex;
+
+    @Mock
+    private TransactionLedgerService transactionLedgerService;
+
     @InjectMocks
     private TransactionService transactionService;
 
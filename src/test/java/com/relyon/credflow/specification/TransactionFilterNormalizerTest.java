@@ -0,0 +1,49 @@
+package com.relyon.credflow.specification;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.relyon.credflow.model.transaction.TransactionFilter;
+import com.relyon.credflow.model.transaction.TransactionType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TransactionFilterNormalizerTest {
+
+    @Test
+    void canonicalize_filtersSelectingTheSameRows_areEqual() {
+        var first = filter(" market ", new BigDecimal("10.00"), List.of(3L, 1L, 3L), List.of(),
+                List.of(TransactionType.PAYMENT, TransactionType.ONE_TIME));
+        var second = filter("market", new BigDecimal("10"), List.of(1L, 3L), null,
+                List.of(TransactionType.ONE_TIME, TransactionType.PAYMENT, TransactionType.ONE_TIME));
+
+        assertEquals(TransactionFilterNormalizer.canonicalize(first), TransactionFilterNormalizer.canonicalize(second));
+        assertEquals(TransactionFilterNormalizer.canonicalize(first).toString(),
+                TransactionFilterNormalizer.canonicalize(second).toString());
+    }
+
+    @Test
+    void canonicalize_blankTextAndEmptyLists_becomeAbsent() {
+        var canonical = TransactionFilterNormalizer.canonicalize(filter("   ", null, List.of(), List.of(), List.of()));
+
+        assertNull(canonical.descriptionContains());
+        assertNull(canonical.categoryIds());
+        assertNull(canonical.creditCardIds());
+        assertNull(canonical.transactionTypes());
+    }
+
+    @Test
+    void canonicalize_differentFilters_stayDifferent() {
+        var first = filter(null, null, List.of(1L), null, null);
+        var second = filter(null, null, List.of(2L), null, null);
+
+        assertNotEquals(TransactionFilterNormalizer.canonicalize(first), TransactionFilterNormalizer.canonicalize(second));
+    }
+
+    private TransactionFilter filter(String description, BigDecimal minAmount, List<Long> categoryIds,
+                                     List<Long> creditCardIds, List<TransactionType> types) {
+        return new TransactionFilter(1L, LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), description, null,
+                minAmount, null, null, categoryIds, creditCardIds, types, null, false);
+    }
+}
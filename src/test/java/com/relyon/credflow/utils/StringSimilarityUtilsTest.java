@@ -0,0 +1,168 @@
+package com.relyon.credflow.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class StringSimilarityUtilsTest {
+
+    private static final long SEED = 20251019L;
+    private static final int SAMPLES = 20_000;
+    private static final double[] THRESHOLDS = {0.0, 0.25, 0.5, 0.6, 0.75, 0.9, 1.0};
+
+    @Test
+    void levenshteinDistance_whenEqual_shouldReturnZero() {
+        assertThat(StringSimilarityUtils.levenshteinDistance("netflix", "netflix")).isZero();
+    }
+
+    @Test
+    void levenshteinDistance_whenOneIsEmpty_shouldReturnOtherLength() {
+        assertThat(StringSimilarityUtils.levenshteinDistance("", "uber")).isEqualTo(4);
+        assertThat(StringSimilarityUtils.levenshteinDistance("uber", "")).isEqualTo(4);
+    }
+
+    @Test
+    void levenshteinDistance_shouldCountEdits() {
+        assertThat(StringSimilarityUtils.levenshteinDistance("kitten", "sitting")).isEqualTo(3);
+    }
+
+    @Test
+    void boundedLevenshteinDistance_whenLimitExceeded_shouldReturnLimitPlusOne() {
+        assertThat(StringSimilarityUtils.boundedLevenshteinDistance("kitten", "sitting", 2)).isEqualTo(3);
+        assertThat(StringSimilarityUtils.boundedLevenshteinDistance("a", "abcdefgh", 3)).isEqualTo(4);
+    }
+
+    @Test
+    void similarity_whenBothEmpty_shouldReturnOne() {
+        assertThat(StringSimilarityUtils.similarity("", "")).isEqualTo(1.0);
+    }
+
+    @Test
+    void isSimilar_shouldApplyThresholdInclusively() {
+        assertThat(StringSimilarityUtils.isSimilar("abcde", "abcxx", 0.6)).isTrue();
+        assertThat(StringSimilarityUtils.isSimilar("abcde", "abxxx", 0.6)).isFalse();
+    }
+
+    @Test
+    void isSimilar_shouldMatchReversalDescriptions() {
+        assertThat(StringSimilarityUtils.isSimilar("amazon purchase 12345", "amazon refund 12345", 0.6)).isTrue();
+        assertThat(StringSimilarityUtils.isSimilar("grocery store abc", "restaurant xyz dinner", 0.6)).isFalse();
+    }
+
+    @Test
+    void maxDistanceFor_shouldReturnLargestDistanceMeetingThreshold() {
+        assertThat(StringSimilarityUtils.maxDistanceFor(10, 0.6)).isEqualTo(4);
+        assertThat(StringSimilarityUtils.maxDistanceFor(10, 1.0)).isZero();
+        assertThat(StringSimilarityUtils.maxDistanceFor(10, 0.0)).isEqualTo(10);
+        assertThat(StringSimilarityUtils.maxDistanceFor(10, 1.5)).isEqualTo(-1);
+    }
+
+    @Test
+    void levenshteinDistance_property_shouldMatchFullMatrixReference() {
+        var random = new Random(SEED);
+        for (var i = 0; i < SAMPLES; i++) {
+            var s1 = randomString(random);
+            var s2 = mutate(random, s1);
+
+            assertThat(StringSimilarityUtils.levenshteinDistance(s1, s2))
+                    .as("distance(%s, %s)", s1, s2)
+                    .isEqualTo(referenceDistance(s1, s2));
+        }
+    }
+
+    @Test
+    void boundedLevenshteinDistance_property_shouldMatchCappedReference() {
+        var random = new Random(SEED + 1);
+        for (var i = 0; i < SAMPLES; i++) {
+            var s1 = randomString(random);
+            var s2 = random.nextBoolean() ? mutate(random, s1) : randomString(random);
+            var limit = random.nextInt(12);
+            var expected = Math.min(referenceDistance(s1, s2), limit + 1);
+
+            assertThat(StringSimilarityUtils.boundedLevenshteinDistance(s1, s2, limit))
+                    .as("bounded(%s, %s, %d)", s1, s2, limit)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void isSimilar_property_shouldMatchReferenceSimilarityComparison() {
+        var random = new Random(SEED + 2);
+        for (var i = 0; i < SAMPLES; i++) {
+            var s1 = randomString(random);
+            var s2 = random.nextBoolean() ? mutate(random, s1) : randomString(random);
+
+            for (var threshold : THRESHOLDS) {
+                var expected = referenceSimilarity(s1, s2) >= threshold;
+
+                assertThat(StringSimilarityUtils.isSimilar(s1, s2, threshold))
+                        .as("isSimilar(%s, %s, %s)", s1, s2, threshold)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    private static String randomString(Random random) {
+        var length = random.nextInt(24);
+        var builder = new StringBuilder(length);
+        for (var i = 0; i < length; i++) {
+            builder.append(randomChar(random));
+        }
+        return builder.toString();
+    }
+
+    private static String mutate(Random random, String source) {
+        var builder = new StringBuilder(source);
+        var edits = random.nextInt(6);
+        for (var i = 0; i < edits; i++) {
+            var position = builder.isEmpty() ? 0 : random.nextInt(builder.length());
+            switch (random.nextInt(3)) {
+                case 0 -> builder.insert(position, randomChar(random));
+                case 1 -> {
+                    if (!builder.isEmpty()) builder.deleteCharAt(position);
+                }
+                default -> {
+                    if (!builder.isEmpty()) builder.setCharAt(position, randomChar(random));
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    private static char randomChar(Random random) {
+        var alphabet = "abcde 0123";
+        return alphabet.charAt(random.nextInt(alphabet.length()));
+    }
+
+    private static double referenceSimilarity(String s1, String s2) {
+        var maxLength = Math.max(s1.length(), s2.length());
+        if (maxLength == 0) {
+            return 1.0;
+        }
+        return 1.0 - ((double) referenceDistance(s1, s2) / maxLength);
+    }
+
+    private static int referenceDistance(String s1, String s2) {
+        var len1 = s1.length();
+        var len2 = s2.length();
+        var dp = new int[len1 + 1][len2 + 1];
+
+        for (var i = 0; i <= len1; i++) {
+            dp[i][0] = i;
+        }
+        for (var j = 0; j <= len2; j++) {
+            dp[0][j] = j;
+        }
+        for (var i = 1; i <= len1; i++) {
+            for (var j = 1; j <= len2; j++) {
+                var cost = s1.charAt(i - 1) == s2.charAt(j - 1) ? 0 : 1;
+                dp[i][j] = Math.min(
+                        Math.min(dp[i - 1][j] + 1, dp[i][j - 1] + 1),
+                        dp[i - 1][j - 1] + cost
+                );
+            }
+        }
+        return dp[len1][len2];
+    }
+}